@@ -0,0 +1,60 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.entity.AccrualType;
+import com.example.bankcards.entity.CardStatus;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки ежедневного начисления процентов и кэшбэка (префикс {@code accrual}).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "accrual")
+@Getter
+@Setter
+public class AccrualProperties {
+
+    /**
+     * Начислять ли по расписанию.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Сколько карт обрабатывать одним запросом и одной транзакцией.
+     */
+    private int chunkSize = 10_000;
+
+    /**
+     * Делитель годовой ставки для дневного начисления.
+     */
+    private int daysInYear = 365;
+
+    /**
+     * Правила начисления. Карте подходит правило её статуса с наибольшим
+     * minBalance, не превышающим баланс; ставка применяется ко всему балансу.
+     * Карты без подходящего правила пропускаются.
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Rule {
+
+        private CardStatus status = CardStatus.ACTIVE;
+
+        private BigDecimal minBalance = BigDecimal.ZERO;
+
+        private AccrualType type = AccrualType.INTEREST;
+
+        /**
+         * Годовая ставка, 0.05 — 5% годовых.
+         */
+        private BigDecimal annualRate;
+    }
+}
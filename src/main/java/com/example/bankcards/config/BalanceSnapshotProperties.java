@@ -0,0 +1,36 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Настройки ежедневного снимка балансов (префикс {@code balance-snapshots}).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "balance-snapshots")
+@Getter
+@Setter
+public class BalanceSnapshotProperties {
+
+    /**
+     * Снимать ли балансы по расписанию.
+     */
+    private boolean enabled = true;
+
+    /**
+     * На сколько диапазонов по старшему байту id делятся карты; степень двойки от 1 до 256.
+     */
+    private int ranges = 16;
+
+    /**
+     * Сколько диапазонов копировать одновременно; каждый поток держит соединение.
+     */
+    private int workerThreads = 4;
+
+    /**
+     * Максимальный период, который можно запросить в истории баланса карты.
+     */
+    private int maxHistoryDays = 366;
+}
@@ -0,0 +1,21 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Настройки выборки по списку id (префикс {@code batch-get}).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "batch-get")
+@Getter
+@Setter
+public class BatchGetProperties {
+
+    /**
+     * Максимум id в одном запросе GET /card/batch и /users/batch.
+     */
+    private int maxIds = 100;
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Настройки дельта-синхронизации карт (префикс {@code card.sync}).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "card.sync")
+@Getter
+@Setter
+public class CardSyncProperties {
+
+    /**
+     * Сколько хранятся отметки об удалённых картах. Токен старше этого срока
+     * приводит к полной синхронизации.
+     */
+    private Duration tombstoneRetention = Duration.ofDays(30);
+}
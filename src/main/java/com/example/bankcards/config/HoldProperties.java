@@ -0,0 +1,38 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Настройки холдов на картах (префикс {@code holds}).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "holds")
+@Getter
+@Setter
+public class HoldProperties {
+
+    /**
+     * Срок жизни холда, если в запросе не задан свой.
+     */
+    private Duration defaultTtl = Duration.ofDays(7);
+
+    /**
+     * Максимальный срок жизни холда.
+     */
+    private Duration maxTtl = Duration.ofDays(30);
+
+    /**
+     * Сколько просроченных холдов снимать одним запросом.
+     */
+    private int expiryBatchSize = 500;
+
+    /**
+     * Предел пачек за один проход чистильщика, чтобы проход не тянулся бесконечно.
+     */
+    private int expiryMaxBatches = 100;
+}
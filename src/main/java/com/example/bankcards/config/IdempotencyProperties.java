@@ -0,0 +1,28 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Настройки обработки заголовка Idempotency-Key (префикс {@code idempotency}).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "idempotency")
+@Getter
+@Setter
+public class IdempotencyProperties {
+
+    /**
+     * Сколько хранить ключ и ответ; повтор после истечения выполнится заново.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Предел локального кэша ответов; при переполнении ответы читаются из базы.
+     */
+    private int maxCachedEntries = 10_000;
+}
@@ -0,0 +1,48 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Настройки SSE-уведомлений об изменениях карт (префикс {@code notifications}).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "notifications")
+@Getter
+@Setter
+public class NotificationProperties {
+
+    /**
+     * Время жизни одного SSE-соединения; после него клиент переподключается.
+     */
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+
+    /**
+     * Задержка переподключения, которую сервер сообщает клиенту (поле retry).
+     */
+    private long reconnectMs = 3000;
+
+    /**
+     * Период пустых комментариев, чтобы прокси не рвали простаивающее соединение.
+     */
+    private long heartbeatMs = 20_000;
+
+    /**
+     * Если отправка подписчику висит дольше, клиент считается зависшим и отключается.
+     */
+    private Duration stallTimeout = Duration.ofMinutes(1);
+
+    /**
+     * Предел подписчиков на узел.
+     */
+    private int maxSubscribers = 50_000;
+
+    /**
+     * Предел соединений одного пользователя; лишние закрываются начиная со старых.
+     */
+    private int maxSubscribersPerUser = 5;
+}
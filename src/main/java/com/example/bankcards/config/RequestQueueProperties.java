@@ -0,0 +1,28 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Настройки очереди заявок на разбор администраторами (префикс {@code requests.queue}).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "requests.queue")
+@Getter
+@Setter
+public class RequestQueueProperties {
+
+    /**
+     * Сколько заявка остаётся за взявшим её администратором.
+     */
+    private Duration claimLease = Duration.ofMinutes(5);
+
+    /**
+     * Максимум заявок, забираемых одним запросом.
+     */
+    private int maxClaimBatch = 100;
+}
@@ -0,0 +1,43 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Настройки исполнения регулярных поручений (префикс {@code standing-orders}).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "standing-orders")
+@Getter
+@Setter
+public class StandingOrderProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Шаг колеса таймеров: точность, с которой поручение срабатывает после срока.
+     */
+    private long tickMs = 1000;
+
+    /**
+     * Как часто подгружать из базы поручения со сроком в пределах горизонта.
+     */
+    private long prefetchIntervalMs = 30_000;
+
+    /**
+     * На сколько вперёд подгружать поручения; не больше охвата колеса.
+     */
+    private long horizonMs = 3_600_000;
+
+    /**
+     * Размер страницы при подгрузке поручений.
+     */
+    private int prefetchBatchSize = 1000;
+
+    /**
+     * Сколько поручений исполнять одновременно; каждое держит соединение.
+     */
+    private int parallelism = 4;
+}
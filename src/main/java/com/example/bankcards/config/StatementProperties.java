@@ -0,0 +1,44 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.entity.StatementFormat;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Настройки генерации месячных выписок (префикс {@code statements}).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "statements")
+@Getter
+@Setter
+public class StatementProperties {
+
+    /**
+     * Запускать ли генерацию за прошедший месяц по расписанию.
+     */
+    private boolean enabled = true;
+
+    private StatementFormat format = StatementFormat.CSV;
+
+    /**
+     * На сколько диапазонов по старшему байту id делятся карты; степень двойки от 1 до 256.
+     */
+    private int ranges = 64;
+
+    /**
+     * Сколько диапазонов обрабатывать одновременно; каждый держит соединение с базой.
+     */
+    private int parallelism = 4;
+
+    /**
+     * Сколько карт обрабатывать в одной транзакции.
+     */
+    private int pageSize = 100;
+
+    /**
+     * Размер порции, которой драйвер читает переводы карты из курсора.
+     */
+    private int fetchSize = 500;
+}
@@ -0,0 +1,220 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+
+/**
+ * Настройки исполнения переводов между картами (префикс {@code transfer}).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "transfer")
+@Getter
+@Setter
+public class TransferProperties {
+
+    /**
+     * LOCKING — SELECT ... FOR UPDATE и проверки в Java,
+     * CONDITIONAL — условные UPDATE без чтения сущностей.
+     */
+    private TransferMode mode = TransferMode.LOCKING;
+
+    /**
+     * Сколько ждать блокировку строки карты, прежде чем Postgres прервёт запрос.
+     */
+    private long lockTimeoutMs = 2000;
+
+    /**
+     * Сколько раз пытаться выполнить перевод при таймауте блокировки или deadlock.
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * Базовая пауза между попытками, растёт линейно с номером попытки.
+     */
+    private long retryBackoffMs = 50;
+
+    /**
+     * Максимум переводов в одном запросе POST /transactions/batch.
+     */
+    private int batchMaxSize = 500;
+
+    private Journal journal = new Journal();
+
+    private Ledger ledger = new Ledger();
+
+    private Async async = new Async();
+
+    private Limits limits = new Limits();
+
+    private Fraud fraud = new Fraud();
+
+    public enum TransferMode {
+        LOCKING, CONDITIONAL
+    }
+
+    @Getter
+    @Setter
+    public static class Journal {
+
+        /**
+         * Сколько месячных партиций transfers держать созданными наперёд.
+         */
+        private int partitionsAhead = 2;
+    }
+
+    @Getter
+    @Setter
+    public static class Ledger {
+
+        /**
+         * Переводы пишут проводки вместо изменения cards.balance; cards.balance
+         * догоняет леджер при компакции. Перед выключением нужна финальная компакция.
+         */
+        private boolean enabled = false;
+
+        /**
+         * На сколько диапазонов по старшему байту id делить карты (степень двойки до 256).
+         */
+        private int ranges = 16;
+
+        private int workerThreads = 4;
+    }
+
+    @Getter
+    @Setter
+    public static class Async {
+
+        /**
+         * Сколько асинхронных переводов выполняется одновременно; держать не выше
+         * размера пула соединений, остальные ждут на виртуальных потоках.
+         */
+        private int maxInFlight = 8;
+
+        /**
+         * Сколько принятых, но ещё не завершённых переводов допускается; сверх — 429.
+         */
+        private int maxPending = 10_000;
+
+        /**
+         * Сколько хранить статус завершённого перевода для опроса.
+         */
+        private long resultTtlMs = 600_000;
+
+        /**
+         * Через сколько PENDING-перевод считается брошенным и подбирается любым узлом.
+         */
+        private long recoverAfterMs = 60_000;
+
+        /**
+         * Сколько брошенных переводов подбирать за один проход.
+         */
+        private int recoverBatchSize = 100;
+
+        /**
+         * Верхняя граница ожидания при long-poll запросе статуса.
+         */
+        private long maxWaitMs = 30_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Limits {
+
+        private boolean enabled = false;
+
+        /**
+         * Лимиты списаний: суточный — за последние 24 часа, месячный — за последние
+         * 30 дней. Пустое значение — без ограничения.
+         */
+        private BigDecimal cardDaily;
+        private BigDecimal cardMonthly;
+        private BigDecimal userDaily;
+        private BigDecimal userMonthly;
+
+        /**
+         * Число полос блокировок для счётчиков (степень двойки).
+         */
+        private int stripes = 64;
+
+        /**
+         * Как часто перечитывать счётчик карты из журнала, чтобы учесть переводы
+         * других узлов.
+         */
+        private long resyncIntervalMs = 300_000;
+
+        /**
+         * Счётчик без переводов дольше этого времени выгружается из памяти.
+         */
+        private long idleTtlMs = 3_600_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Fraud {
+
+        private boolean enabled = false;
+
+        /**
+         * Длина скользящего окна для счётчиков числа и суммы переводов по карте.
+         */
+        private long windowMs = 60_000;
+
+        /**
+         * Сколько переводов с карты допускается за окно; 0 — без ограничения.
+         */
+        private int maxTransfersPerWindow = 20;
+
+        /**
+         * Сколько можно списать с карты за окно. Пустое значение — без ограничения.
+         */
+        private BigDecimal maxAmountPerWindow;
+
+        /**
+         * Вес нового перевода в EWMA суммы.
+         */
+        private double ewmaAlpha = 0.05;
+
+        /**
+         * Перевод необычен, если сумма больше EWMA на столько стандартных отклонений.
+         */
+        private double anomalySigma = 4.0;
+
+        /**
+         * Сколько переводов карты накопить, прежде чем судить о необычности суммы.
+         */
+        private int minSamples = 10;
+
+        /**
+         * FLAG — провести перевод и завести заявку на карту, REJECT — отклонить.
+         */
+        private AnomalyAction anomalyAction = AnomalyAction.FLAG;
+
+        /**
+         * Не заводить по карте новую заявку чаще этого интервала.
+         */
+        private long flagCooldownMs = 3_600_000;
+
+        /**
+         * Сколько карт держать в памяти; сверх предела новые карты не отслеживаются.
+         */
+        private int maxCards = 100_000;
+
+        /**
+         * Число полос блокировок (степень двойки).
+         */
+        private int stripes = 64;
+
+        /**
+         * Карта без переводов дольше этого времени выгружается из памяти.
+         */
+        private long idleTtlMs = 3_600_000;
+
+        public enum AnomalyAction {
+            FLAG, REJECT
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Настройки сводки по пользователю GET /users/{id}/overview (префикс {@code user-overview}).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "user-overview")
+@Getter
+@Setter
+public class UserOverviewProperties {
+
+    /**
+     * Сколько ждать каждую часть сводки; он же таймаут её транзакции.
+     */
+    private long timeoutMs = 2000;
+
+    /**
+     * Сколько последних карт включать в сводку.
+     */
+    private int maxCards = 50;
+
+    /**
+     * Сколько последних заявок на блокировку включать в сводку.
+     */
+    private int maxRequests = 20;
+}
@@ -0,0 +1,62 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.accrual.AccrualPostingResponse;
+import com.example.bankcards.dto.accrual.AccrualRunResponse;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.interfaces.AccrualService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/accruals")
+@RequiredArgsConstructor
+public class AccrualController {
+
+    private static final int DEFAULT_HISTORY_DAYS = 30;
+
+    private final AccrualService accrualService;
+
+    @GetMapping("/card/{cardId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<List<AccrualPostingResponse>> getCardAccruals(
+            @PathVariable UUID cardId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_HISTORY_DAYS);
+        return ResponseEntity.ok(accrualService.getCardAccruals(cardId, start, end, userPrincipal));
+    }
+
+    @GetMapping("/runs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<AccrualRunResponse>> getRuns(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_HISTORY_DAYS);
+        return ResponseEntity.ok(accrualService.getRuns(start, end));
+    }
+
+    /**
+     * Начисляет за сегодня или продолжает прерванный запуск за {@code date}.
+     */
+    @PostMapping("/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AccrualRunResponse> accrue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        return ResponseEntity.ok(accrualService.accrue(date != null ? date : LocalDate.now(ZoneOffset.UTC)));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.snapshot.BalanceSnapshotRunResponse;
+import com.example.bankcards.dto.snapshot.CardBalanceSnapshotResponse;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.interfaces.BalanceSnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/balance-snapshots")
+@RequiredArgsConstructor
+public class BalanceSnapshotController {
+
+    private static final int DEFAULT_HISTORY_DAYS = 30;
+
+    private final BalanceSnapshotService balanceSnapshotService;
+
+    @GetMapping("/card/{cardId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<List<CardBalanceSnapshotResponse>> getCardHistory(
+            @PathVariable UUID cardId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_HISTORY_DAYS);
+        return ResponseEntity.ok(balanceSnapshotService.getCardHistory(cardId, start, end, userPrincipal));
+    }
+
+    @GetMapping("/runs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<BalanceSnapshotRunResponse>> getRuns(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_HISTORY_DAYS);
+        return ResponseEntity.ok(balanceSnapshotService.getRuns(start, end));
+    }
+
+    /**
+     * Снимает балансы за вчерашний день, если плановый запуск не удался.
+     * Фактический момент снимка виден в takenAt.
+     */
+    @PostMapping("/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BalanceSnapshotRunResponse> takeSnapshot() {
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+                balanceSnapshotService.takeSnapshot(LocalDate.now(ZoneOffset.UTC).minusDays(1))
+        );
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.card.CardChangesResponse;
 import com.example.bankcards.dto.card.CardResponse;
+import com.example.bankcards.dto.card.CardStatsResponse;
 import com.example.bankcards.dto.card.CreateCardRequest;
 import com.example.bankcards.dto.card.CreateCardResponse;
+import com.example.bankcards.dto.core.BatchGetResponse;
 import com.example.bankcards.dto.core.PagedResponse;
+import com.example.bankcards.dto.core.ResourceVersion;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.security.UserPrincipal;
 import com.example.bankcards.service.interfaces.CardService;
@@ -21,9 +25,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -42,11 +48,39 @@ public class CardController {
     @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
     public ResponseEntity<CardResponse> getCardById(
             @AuthenticationPrincipal UserPrincipal user,
-            @Parameter(description = "ID карты") @PathVariable UUID cardId
+            @Parameter(description = "ID карты") @PathVariable UUID cardId,
+            WebRequest webRequest
     ) {
+        ResourceVersion version = cardService.getCardVersion(cardId, user);
+        if (webRequest.checkNotModified(version.eTag(), version.lastModified())) {
+            return null;
+        }
         return ResponseEntity.ok(cardService.getCardByIdIfHaveAccess(cardId, user));
     }
 
+    @GetMapping("/batch")
+    @Operation(
+            summary = "Получить карты по списку ID",
+            description = "Порядок ответа совпадает с порядком ids; ненайденные и чужие для USER карты возвращаются в missing"
+    )
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public ResponseEntity<BatchGetResponse<CardResponse>> getCardsByIds(
+            @AuthenticationPrincipal UserPrincipal user,
+            @Parameter(description = "ID карт через запятую") @RequestParam List<UUID> ids
+    ) {
+        return ResponseEntity.ok(cardService.getCardsByIds(ids, user));
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Статистика по картам", description = "Число карт по статусам, общий и средний баланс, новые карты по дням")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CardStatsResponse> getCardStats(
+            @Parameter(description = "За сколько последних дней вернуть новые карты")
+            @RequestParam(defaultValue = "30") int days
+    ) {
+        return ResponseEntity.ok(cardService.getCardStats(days));
+    }
+
     @GetMapping
     @Operation(summary = "Получить все карты", description = "Фильтрация карт по статусу, балансу и времени создания с пагинацией и поиском")
     @PreAuthorize("hasRole('ADMIN')")
@@ -67,10 +101,16 @@ public class CardController {
                     schema = @Schema(type = "string", format = "date-time"))
             @RequestParam(required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
-            LocalDateTime createdBefore
+            LocalDateTime createdBefore,
+
+            @Parameter(description = "Поля ответа через запятую, по умолчанию все")
+            @RequestParam(required = false) List<String> fields,
+            @Parameter(description = "owner — добавить владельца карты")
+            @RequestParam(required = false) List<String> expand
     ) {
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(cardService.getAllCards(pageable, search, status, minBalance, maxBalance, createdAfter, createdBefore));
+        return ResponseEntity.ok(cardService.getAllCards(
+                pageable, search, status, minBalance, maxBalance, createdAfter, createdBefore, fields, expand));
     }
 
     @GetMapping("/my")
@@ -78,6 +118,7 @@ public class CardController {
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<PagedResponse<CardResponse>> getMyCards(
             @AuthenticationPrincipal UserPrincipal user,
+            WebRequest webRequest,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String search,
@@ -94,11 +135,29 @@ public class CardController {
                     schema = @Schema(type = "string", format = "date-time"))
             @RequestParam(required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
-            LocalDateTime createdBefore
+            LocalDateTime createdBefore,
+
+            @Parameter(description = "Поля ответа через запятую, по умолчанию все")
+            @RequestParam(required = false) List<String> fields,
+            @Parameter(description = "owner — добавить владельца карты")
+            @RequestParam(required = false) List<String> expand
     ) {
+        if (webRequest.checkNotModified(cardService.getUserCardsVersion(user.getId(), expand).eTag())) {
+            return null;
+        }
         Pageable pageable = PageRequest.of(page, size);
         return ResponseEntity.ok(cardService.getUserCards(
-                user.getId(), pageable, search, status, minBalance, maxBalance, createdAfter, createdBefore));
+                user.getId(), pageable, search, status, minBalance, maxBalance, createdAfter, createdBefore, fields, expand));
+    }
+
+    @GetMapping("/my/changes")
+    @Operation(summary = "Изменения моих карт", description = "Карты, созданные, изменённые или удалённые после токена since; без токена — все карты")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<CardChangesResponse> getMyCardChanges(
+            @AuthenticationPrincipal UserPrincipal user,
+            @Parameter(description = "nextToken из предыдущего ответа") @RequestParam(required = false) String since
+    ) {
+        return ResponseEntity.ok(cardService.getMyCardChanges(user.getId(), since));
     }
 
 
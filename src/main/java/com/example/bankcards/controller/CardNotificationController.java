@@ -0,0 +1,28 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.interfaces.CardNotificationService;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("api/v1/card")
+@RequiredArgsConstructor
+public class CardNotificationController {
+
+    private final CardNotificationService cardNotificationService;
+
+    @GetMapping(value = "/my/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Поток изменений моих карт", description = "Server-Sent Events: событие card с текущим состоянием карты после каждого изменения остатка или статуса")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public SseEmitter subscribe(@AuthenticationPrincipal UserPrincipal user) {
+        return cardNotificationService.subscribe(user.getId());
+    }
+}
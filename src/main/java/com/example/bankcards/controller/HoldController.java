@@ -0,0 +1,64 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.hold.AuthorizeHoldRequest;
+import com.example.bankcards.dto.hold.CaptureHoldRequest;
+import com.example.bankcards.dto.hold.HoldResponse;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.interfaces.HoldService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/holds")
+@RequiredArgsConstructor
+public class HoldController {
+
+    private final HoldService holdService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<HoldResponse> authorize(
+            @RequestBody @Valid AuthorizeHoldRequest request,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+                holdService.authorize(request, userPrincipal.getId())
+        );
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<HoldResponse> getHold(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        return ResponseEntity.ok(holdService.getHold(id, userPrincipal));
+    }
+
+    @PostMapping("/{id}/capture")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<HoldResponse> capture(
+            @PathVariable UUID id,
+            @RequestBody(required = false) @Valid CaptureHoldRequest request,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        return ResponseEntity.ok(holdService.capture(
+                id, request != null ? request.getAmount() : null, userPrincipal));
+    }
+
+    @PostMapping("/{id}/release")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<HoldResponse> release(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        return ResponseEntity.ok(holdService.release(id, userPrincipal));
+    }
+}
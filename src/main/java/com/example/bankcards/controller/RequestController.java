@@ -1,15 +1,24 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.core.PagedResponse;
 import com.example.bankcards.dto.requests.CardBlockRequest;
+import com.example.bankcards.dto.requests.RequestResponse;
+import com.example.bankcards.dto.requests.ResolveRequestRequest;
+import com.example.bankcards.entity.RequestStatus;
 import com.example.bankcards.security.UserPrincipal;
 import com.example.bankcards.service.interfaces.RequestService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/request")
 @RequiredArgsConstructor
@@ -26,4 +35,46 @@ public class RequestController {
         requestService.createCardBlockRequest(request, userPrincipal.getId());
         return ResponseEntity.ok().build();
     }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PagedResponse<RequestResponse>> getRequests(
+            @RequestParam(required = false) RequestStatus status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+
+        PageRequest pageable = PageRequest.of(page, size, Sort.by("createdAt", "id"));
+        return ResponseEntity.ok(requestService.getRequests(status, pageable));
+    }
+
+    @PostMapping("/claim")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<RequestResponse>> claimRequests(
+            @RequestParam(defaultValue = "10") int limit,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        return ResponseEntity.ok(requestService.claimRequests(limit, userPrincipal.getId()));
+    }
+
+    @PostMapping("/{requestId}/approve")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RequestResponse> approveRequest(
+            @PathVariable UUID requestId,
+            @RequestBody(required = false) @Valid ResolveRequestRequest request,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        String comment = request != null ? request.getComment() : null;
+        return ResponseEntity.ok(requestService.approveRequest(requestId, comment, userPrincipal.getId()));
+    }
+
+    @PostMapping("/{requestId}/reject")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RequestResponse> rejectRequest(
+            @PathVariable UUID requestId,
+            @RequestBody(required = false) @Valid ResolveRequestRequest request,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        String comment = request != null ? request.getComment() : null;
+        return ResponseEntity.ok(requestService.rejectRequest(requestId, comment, userPrincipal.getId()));
+    }
 }
@@ -0,0 +1,53 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.standing.CreateStandingOrderRequest;
+import com.example.bankcards.dto.standing.StandingOrderResponse;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.interfaces.StandingOrderService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/standing-orders")
+@RequiredArgsConstructor
+public class StandingOrderController {
+
+    private final StandingOrderService standingOrderService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<StandingOrderResponse> create(
+            @RequestBody @Valid CreateStandingOrderRequest request,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+                standingOrderService.create(request, userPrincipal.getId())
+        );
+    }
+
+    @GetMapping("/my")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<List<StandingOrderResponse>> getMyOrders(
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        return ResponseEntity.ok(standingOrderService.getUserOrders(userPrincipal.getId()));
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<Void> cancel(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        standingOrderService.cancel(id, userPrincipal);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.statement.CardStatementResponse;
+import com.example.bankcards.dto.statement.StatementDocument;
+import com.example.bankcards.dto.statement.StatementRunResponse;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.interfaces.StatementService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/statements")
+@RequiredArgsConstructor
+public class StatementController {
+
+    private final StatementService statementService;
+
+    @GetMapping("/card/{cardId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<List<CardStatementResponse>> getCardStatements(
+            @PathVariable UUID cardId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        return ResponseEntity.ok(statementService.getCardStatements(cardId, userPrincipal));
+    }
+
+    @GetMapping("/{id}/download")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<byte[]> download(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        StatementDocument document = statementService.download(id, userPrincipal);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(document.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(document.fileName()).build().toString())
+                .body(document.content());
+    }
+
+    @PostMapping("/generate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StatementRunResponse> generate(@RequestParam YearMonth period) {
+        return ResponseEntity.ok(new StatementRunResponse(period, statementService.generate(period)));
+    }
+}
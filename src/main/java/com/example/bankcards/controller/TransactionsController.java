@@ -1,16 +1,24 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.core.CursorPage;
+import com.example.bankcards.dto.transfer.AsyncTransferStatus;
+import com.example.bankcards.dto.transfer.BatchTransferRequest;
+import com.example.bankcards.dto.transfer.BatchTransferResponse;
 import com.example.bankcards.dto.transfer.CreateTransferRequest;
+import com.example.bankcards.dto.transfer.TransferResponse;
 import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.interfaces.AsyncTransferService;
 import com.example.bankcards.service.interfaces.TransactionsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/transactions")
@@ -18,14 +26,79 @@ import org.springframework.web.bind.annotation.RestController;
 public class TransactionsController {
 
     private final TransactionsService transactionsService;
+    private final AsyncTransferService asyncTransferService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-    public ResponseEntity<Void> createTransaction(
+    public ResponseEntity<TransferResponse> createTransaction(
+            @RequestBody CreateTransferRequest request,
+            @AuthenticationPrincipal UserPrincipal userPrincipal){
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+                transactionsService.createTransaction(request, userPrincipal.getId())
+        );
+    }
+
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<BatchTransferResponse> createBatch(
+            @RequestBody BatchTransferRequest request,
+            @AuthenticationPrincipal UserPrincipal userPrincipal){
+
+        return ResponseEntity.ok(transactionsService.createBatch(request, userPrincipal.getId()));
+    }
+
+    @PostMapping("/async")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<AsyncTransferStatus> submitTransaction(
             @RequestBody CreateTransferRequest request,
             @AuthenticationPrincipal UserPrincipal userPrincipal){
 
-        transactionsService.createTransaction(request, userPrincipal.getId());
-        return ResponseEntity.ok().build();
+        AsyncTransferStatus status = asyncTransferService.submit(request, userPrincipal.getId());
+        return ResponseEntity.accepted()
+                .location(URI.create("/transactions/async/" + status.getId()))
+                .body(status);
+    }
+
+    @GetMapping("/async/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public CompletableFuture<ResponseEntity<AsyncTransferStatus>> getSubmittedTransaction(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "0") long waitMs) {
+
+        return asyncTransferService.awaitStatus(id, userPrincipal.getId(), waitMs)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping("/my")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<CursorPage<TransferResponse>> getMyTransfers(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        return ResponseEntity.ok(transactionsService.getUserTransfers(userPrincipal.getId(), cursor, size));
+    }
+
+    @GetMapping("/user/{userId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<TransferResponse>> getUserTransfers(
+            @PathVariable UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        return ResponseEntity.ok(transactionsService.getUserTransfers(userId, cursor, size));
+    }
+
+    @GetMapping("/card/{cardId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<CursorPage<TransferResponse>> getCardTransfers(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID cardId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        return ResponseEntity.ok(transactionsService.getCardTransfers(cardId, userPrincipal, cursor, size));
     }
 }
@@ -0,0 +1,32 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.transfer.CreateTransferByIdRequest;
+import com.example.bankcards.dto.transfer.TransferResponse;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.interfaces.TransactionsService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v2/transactions")
+@RequiredArgsConstructor
+public class TransactionsV2Controller {
+
+    private final TransactionsService transactionsService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<TransferResponse> createTransaction(
+            @RequestBody @Valid CreateTransferByIdRequest request,
+            @AuthenticationPrincipal UserPrincipal userPrincipal){
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+                transactionsService.createTransactionByCardId(request, userPrincipal.getId())
+        );
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.core.BatchGetResponse;
 import com.example.bankcards.dto.core.PagedResponse;
+import com.example.bankcards.dto.core.ResourceVersion;
 import com.example.bankcards.dto.user.CreateUserRequest;
 import com.example.bankcards.dto.user.UpdateUserRequest;
+import com.example.bankcards.dto.user.UserOverviewResponse;
 import com.example.bankcards.dto.user.UserResponse;
 import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.service.interfaces.UserOverviewService;
 import com.example.bankcards.service.interfaces.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,8 +20,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -27,6 +33,7 @@ import java.util.UUID;
 public class UserController {
 
     private final UserService userService;
+    private final UserOverviewService userOverviewService;
 
     @GetMapping
     @Operation(summary = "Получить всех пользователей", description = "Пагинация, поиск и фильтрация по роли, активности и дате создания")
@@ -47,10 +54,22 @@ public class UserController {
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAfter,
             @Parameter(description = "Создан до (ISO date-time)")
             @RequestParam(required = false)
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore,
+            @Parameter(description = "Поля ответа через запятую, по умолчанию все")
+            @RequestParam(required = false) List<String> fields
     ) {
         return ResponseEntity.ok(userService.getAllUsers(
-                page, size, search, role, active, createdAfter, createdBefore));
+                page, size, search, role, active, createdAfter, createdBefore, fields));
+    }
+
+    @GetMapping("/batch")
+    @Operation(summary = "Получить пользователей по списку ID", description = "Порядок ответа совпадает с порядком ids; ненайденные id возвращаются в missing")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BatchGetResponse<UserResponse>> getUsersByIds(
+            @Parameter(description = "ID пользователей через запятую")
+            @RequestParam List<UUID> ids) {
+
+        return ResponseEntity.ok(userService.getUsersByIds(ids));
     }
 
     @GetMapping("/{id}")
@@ -58,11 +77,26 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<UserResponse> getUserById(
             @Parameter(description = "ID пользователя")
-            @PathVariable UUID id) {
+            @PathVariable UUID id,
+            WebRequest webRequest) {
 
+        ResourceVersion version = userService.getUserVersion(id);
+        if (webRequest.checkNotModified(version.eTag(), version.lastModified())) {
+            return null;
+        }
         return ResponseEntity.ok(userService.getUserById(id));
     }
 
+    @GetMapping("/{id}/overview")
+    @Operation(summary = "Сводка по пользователю", description = "Профиль, последние карты и заявки на блокировку одним запросом; части загружаются параллельно")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserOverviewResponse> getUserOverview(
+            @Parameter(description = "ID пользователя")
+            @PathVariable UUID id) {
+
+        return ResponseEntity.ok(userOverviewService.getOverview(id));
+    }
+
     @PostMapping
     @Operation(summary = "Создать пользователя", description = "Создание нового пользователя")
     @PreAuthorize("hasRole('ADMIN')")
@@ -0,0 +1,34 @@
+package com.example.bankcards.dto.accrual;
+
+import com.example.bankcards.entity.AccrualPostingEntity;
+import com.example.bankcards.entity.AccrualType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccrualPostingResponse {
+
+    private LocalDate date;
+    private AccrualType type;
+    private BigDecimal rate;
+    private BigDecimal balance;
+    private BigDecimal amount;
+
+    public static AccrualPostingResponse convert(AccrualPostingEntity posting) {
+        return AccrualPostingResponse.builder()
+                .date(posting.getAccrualDate())
+                .type(posting.getType())
+                .rate(posting.getRate())
+                .balance(posting.getBalance())
+                .amount(posting.getAmount())
+                .build();
+    }
+}
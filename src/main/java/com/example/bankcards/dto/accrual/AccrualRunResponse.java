@@ -0,0 +1,37 @@
+package com.example.bankcards.dto.accrual;
+
+import com.example.bankcards.entity.AccrualRunEntity;
+import com.example.bankcards.entity.AccrualRunStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccrualRunResponse {
+
+    private LocalDate date;
+    private AccrualRunStatus status;
+    private long cardsCount;
+    private BigDecimal totalAmount;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+
+    public static AccrualRunResponse convert(AccrualRunEntity run) {
+        return AccrualRunResponse.builder()
+                .date(run.getAccrualDate())
+                .status(run.getStatus())
+                .cardsCount(run.getCardsCount())
+                .totalAmount(run.getTotalAmount())
+                .startedAt(run.getStartedAt())
+                .completedAt(run.getCompletedAt())
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.bankcards.dto.card;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Внутреннее событие: у карт пользователя изменились остаток или статус.
+ * Публикуется внутри транзакции, подписчики получают его только после коммита.
+ */
+public record CardChangeEvent(UUID userId, List<UUID> cardIds) {
+
+    public static CardChangeEvent of(UUID userId, UUID... cardIds) {
+        return new CardChangeEvent(userId, Stream.of(cardIds).distinct().toList());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.bankcards.dto.card;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Токен синхронизации карт: граница транзакций, до которой клиент уже всё получил,
+ * и момент выдачи. 16 байт в base64url — 22 символа.
+ */
+public record CardChangeToken(long watermark, long issuedAt) {
+
+    private static final int LENGTH = 2 * Long.BYTES;
+
+    public static CardChangeToken issue(long watermark) {
+        return new CardChangeToken(watermark, Instant.now().getEpochSecond());
+    }
+
+    public String encode() {
+        byte[] raw = ByteBuffer.allocate(LENGTH).putLong(watermark).putLong(issuedAt).array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * Пустой токен — полная синхронизация, {@code null}.
+     */
+    public static CardChangeToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            byte[] raw = Base64.getUrlDecoder().decode(token);
+            if (raw.length != LENGTH) {
+                throw new IllegalArgumentException("Invalid change token");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(raw);
+            CardChangeToken decoded = new CardChangeToken(buffer.getLong(), buffer.getLong());
+            if (decoded.watermark < 0) {
+                throw new IllegalArgumentException("Invalid change token");
+            }
+            return decoded;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid change token");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards.dto.card;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardChangesResponse {
+
+    /**
+     * {@code true} — в changed все карты пользователя, локальную копию нужно заменить целиком.
+     */
+    private boolean full;
+    private List<CardResponse> changed;
+    private List<UUID> deleted;
+    private String nextToken;
+}
@@ -0,0 +1,9 @@
+package com.example.bankcards.dto.card;
+
+/**
+ * Число созданных карт за день (UTC): день от эпохи и количество.
+ */
+public interface CardDailyCreated {
+    long getEpochDay();
+    long getCreatedCount();
+}
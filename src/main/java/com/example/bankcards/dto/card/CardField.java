@@ -0,0 +1,30 @@
+package com.example.bankcards.dto.card;
+
+import com.example.bankcards.dto.core.Fieldset;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Поля {@link CardResponse}, которые можно запросить через {@code fields}.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum CardField {
+    ID("id"),
+    CARD_NUMBER_MASK("cardNumberMask"),
+    HOLDER_NAME("holderName"),
+    EXPIRATION_DATE("expirationDate"),
+    STATUS("status"),
+    BALANCE("balance"),
+    AVAILABLE_BALANCE("availableBalance"),
+    CREATED_AT("createdAt");
+
+    private final String fieldName;
+
+    public static Set<CardField> parse(List<String> names) {
+        return Fieldset.parse(names, CardField.class, CardField::getFieldName, ID);
+    }
+}
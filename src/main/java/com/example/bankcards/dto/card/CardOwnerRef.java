@@ -0,0 +1,13 @@
+package com.example.bankcards.dto.card;
+
+import java.util.UUID;
+
+/**
+ * Карта и её владелец — ровно столько, сколько нужно для {@link CardChangeEvent}.
+ */
+public interface CardOwnerRef {
+
+    UUID getCardId();
+
+    UUID getUserId();
+}
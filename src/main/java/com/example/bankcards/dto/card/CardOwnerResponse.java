@@ -0,0 +1,20 @@
+package com.example.bankcards.dto.card;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardOwnerResponse {
+
+    private UUID id;
+    private String username;
+    private String firstName;
+    private String lastName;
+}
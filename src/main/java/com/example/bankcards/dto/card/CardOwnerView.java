@@ -0,0 +1,18 @@
+package com.example.bankcards.dto.card;
+
+import com.example.bankcards.entity.CardStatus;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Карта для проверок перевода; {@code balance} — доступный остаток за вычетом холдов.
+ */
+public record CardOwnerView(
+        UUID id,
+        String cardNumberEncrypted,
+        UUID userId,
+        CardStatus status,
+        BigDecimal balance
+) {
+}
@@ -2,6 +2,7 @@ package com.example.bankcards.dto.card;
 
 import com.example.bankcards.entity.CardEntity;
 import com.example.bankcards.entity.CardStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,6 +17,7 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class CardResponse {
 
     private UUID id;
@@ -24,8 +26,14 @@ public class CardResponse {
     private LocalDate expirationDate;
     private CardStatus status;
     private BigDecimal balance;
+    private BigDecimal availableBalance;
     private LocalDateTime createdAt;
 
+    /**
+     * Только при {@code expand=owner}.
+     */
+    private CardOwnerResponse owner;
+
     public static CardResponse convert(CardEntity card) {
         return CardResponse.builder()
                 .id(card.getId())
@@ -34,6 +42,7 @@ public class CardResponse {
                 .expirationDate(card.getExpirationDate())
                 .status(card.getStatus())
                 .balance(card.getBalance())
+                .availableBalance(card.getBalance().subtract(card.getHeldAmount()))
                 .createdAt(card.getCreatedAt())
                 .build();
     }
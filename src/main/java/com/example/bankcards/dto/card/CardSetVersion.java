@@ -0,0 +1,15 @@
+package com.example.bankcards.dto.card;
+
+/**
+ * Версия набора карт пользователя: любое изменение поднимает maxChangeXid,
+ * удаление без изменений уменьшает count. ownerUpdatedAtMicros — версия
+ * владельца для ответов с expand=owner.
+ */
+public interface CardSetVersion {
+
+    long getCount();
+
+    long getMaxChangeXid();
+
+    Long getOwnerUpdatedAtMicros();
+}
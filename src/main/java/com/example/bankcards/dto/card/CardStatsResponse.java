@@ -0,0 +1,45 @@
+package com.example.bankcards.dto.card;
+
+import com.example.bankcards.entity.CardStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardStatsResponse {
+
+    private long totalCards;
+    private BigDecimal totalBalance;
+    private BigDecimal averageBalance;
+    private List<StatusStats> byStatus;
+
+    /**
+     * По дню на каждый день периода, включая дни без новых карт.
+     */
+    private List<DailyCreated> createdPerDay;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StatusStats {
+        private CardStatus status;
+        private long cards;
+        private BigDecimal totalBalance;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailyCreated {
+        private LocalDate date;
+        private long cards;
+    }
+}
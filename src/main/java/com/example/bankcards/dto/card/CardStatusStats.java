@@ -0,0 +1,12 @@
+package com.example.bankcards.dto.card;
+
+import java.math.BigDecimal;
+
+/**
+ * Счётчики по статусу из card_status_stats, сложенные по всем слотам.
+ */
+public interface CardStatusStats {
+    String getStatus();
+    long getCardsCount();
+    BigDecimal getTotalBalance();
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.dto.card;
+
+import java.util.UUID;
+
+/**
+ * Версия карты из покрывающего индекса idx_cards_id_version, без загрузки сущности.
+ */
+public interface CardVersion {
+
+    UUID getUserId();
+
+    long getChangeXid();
+
+    long getUpdatedAtMillis();
+}
@@ -0,0 +1,59 @@
+package com.example.bankcards.dto.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetResponse<T> {
+
+    /**
+     * Найденные объекты в порядке запрошенных id.
+     */
+    private List<T> items;
+
+    /**
+     * Id, которых нет или к которым нет доступа.
+     */
+    private List<UUID> missing;
+
+    /**
+     * Id без повторов в исходном порядке.
+     */
+    public static Set<UUID> distinctIds(List<UUID> ids, int maxIds) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Ids list must not be empty");
+        }
+        Set<UUID> distinct = new LinkedHashSet<>(ids);
+        if (distinct.size() > maxIds) {
+            throw new IllegalArgumentException("Batch size exceeds limit of " + maxIds);
+        }
+        return distinct;
+    }
+
+    public static <T> BatchGetResponse<T> of(Collection<UUID> ids, Map<UUID, T> found) {
+        List<T> items = new ArrayList<>(found.size());
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : ids) {
+            T item = found.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new BatchGetResponse<>(items, missing);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.bankcards.dto.core;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Разбор параметра {@code fields} в набор полей ответа.
+ */
+public final class Fieldset {
+
+    private Fieldset() {
+    }
+
+    /**
+     * Пустой список — все поля; {@code always} попадает в набор всегда.
+     */
+    public static <E extends Enum<E>> Set<E> parse(List<String> names, Class<E> type, Function<E, String> name, E always) {
+        if (names == null || names.isEmpty()) {
+            return EnumSet.allOf(type);
+        }
+        Map<String, E> byName = Arrays.stream(type.getEnumConstants())
+                .collect(Collectors.toMap(name, Function.identity()));
+        Set<E> fields = EnumSet.of(always);
+        for (String raw : names) {
+            E field = byName.get(raw.trim());
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown field: " + raw);
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+}
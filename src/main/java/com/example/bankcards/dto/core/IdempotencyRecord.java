@@ -0,0 +1,21 @@
+package com.example.bankcards.dto.core;
+
+import java.time.Instant;
+
+/**
+ * Состояние ключа идемпотентности: отпечаток запроса и, после успешного
+ * выполнения, сохранённый ответ для повторов.
+ */
+public record IdempotencyRecord(
+        String fingerprint,
+        boolean completed,
+        int status,
+        String contentType,
+        byte[] body,
+        Instant expiresAt
+) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt.isBefore(now);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.bankcards.dto.core;
+
+/**
+ * Валидаторы условного GET: строгий ETag и Last-Modified в миллисекундах
+ * ({@code -1}, если неизвестен).
+ */
+public record ResourceVersion(String eTag, long lastModified) {
+
+    public static ResourceVersion of(String eTag) {
+        return new ResourceVersion(eTag, -1);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.bankcards.dto.hold;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+@Data
+public class AuthorizeHoldRequest {
+    @NotNull
+    private UUID cardId;
+
+    @NotNull
+    @DecimalMin(value = "0.01", message = "Amount must be positive")
+    private BigDecimal amount;
+
+    @Size(max = 255)
+    private String reference;
+
+    /**
+     * Срок жизни холда в ISO-8601 (PT72H); по умолчанию holds.default-ttl.
+     */
+    private Duration ttl;
+}
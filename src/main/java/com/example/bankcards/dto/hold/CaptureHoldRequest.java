@@ -0,0 +1,15 @@
+package com.example.bankcards.dto.hold;
+
+import jakarta.validation.constraints.DecimalMin;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class CaptureHoldRequest {
+    /**
+     * Сумма списания, не больше суммы холда; по умолчанию весь холд.
+     */
+    @DecimalMin(value = "0.01", message = "Amount must be positive")
+    private BigDecimal amount;
+}
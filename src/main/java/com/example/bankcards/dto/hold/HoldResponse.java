@@ -0,0 +1,41 @@
+package com.example.bankcards.dto.hold;
+
+import com.example.bankcards.entity.CardHoldEntity;
+import com.example.bankcards.entity.HoldStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldResponse {
+
+    private UUID id;
+    private UUID cardId;
+    private BigDecimal amount;
+    private BigDecimal capturedAmount;
+    private HoldStatus status;
+    private String reference;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+
+    public static HoldResponse convert(CardHoldEntity hold) {
+        return HoldResponse.builder()
+                .id(hold.getId())
+                .cardId(hold.getCardId())
+                .amount(hold.getAmount())
+                .capturedAmount(hold.getCapturedAmount())
+                .status(hold.getStatus())
+                .reference(hold.getReference())
+                .expiresAt(hold.getExpiresAt())
+                .createdAt(hold.getCreatedAt())
+                .build();
+    }
+}
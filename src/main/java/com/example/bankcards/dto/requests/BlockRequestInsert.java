@@ -0,0 +1,17 @@
+package com.example.bankcards.dto.requests;
+
+import java.util.UUID;
+
+/**
+ * Результат вставки заявки на блокировку: владелец найденной карты и id новой
+ * заявки; {@code requestId == null}, если открытая заявка по карте уже есть
+ * или карта чужая.
+ */
+public interface BlockRequestInsert {
+
+    UUID getCardId();
+
+    UUID getOwnerId();
+
+    UUID getRequestId();
+}
@@ -0,0 +1,47 @@
+package com.example.bankcards.dto.requests;
+
+import com.example.bankcards.entity.RequestEntity;
+import com.example.bankcards.entity.RequestResolution;
+import com.example.bankcards.entity.RequestStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestResponse {
+
+    private UUID id;
+    private UUID cardId;
+    private RequestStatus status;
+    private String reason;
+    private UUID claimedBy;
+    private LocalDateTime claimedUntil;
+    private RequestResolution resolution;
+    private String resolutionComment;
+    private UUID resolvedBy;
+    private LocalDateTime resolvedAt;
+    private LocalDateTime createdAt;
+
+    public static RequestResponse convert(RequestEntity request) {
+        return RequestResponse.builder()
+                .id(request.getId())
+                .cardId(request.getCard().getId())
+                .status(request.getStatus())
+                .reason(request.getReason())
+                .claimedBy(request.getClaimedBy())
+                .claimedUntil(request.getClaimedUntil())
+                .resolution(request.getResolution())
+                .resolutionComment(request.getResolutionComment())
+                .resolvedBy(request.getResolvedBy())
+                .resolvedAt(request.getResolvedAt())
+                .createdAt(request.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.bankcards.dto.requests;
+
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class ResolveRequestRequest {
+
+    @Size(max = 255, message = "Comment must be at most 255 characters")
+    String comment;
+}
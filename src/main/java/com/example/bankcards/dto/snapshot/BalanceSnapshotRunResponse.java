@@ -0,0 +1,31 @@
+package com.example.bankcards.dto.snapshot;
+
+import com.example.bankcards.entity.BalanceSnapshotRunEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceSnapshotRunResponse {
+
+    private LocalDate date;
+    private LocalDateTime takenAt;
+    private int cardsCount;
+    private long durationMs;
+
+    public static BalanceSnapshotRunResponse convert(BalanceSnapshotRunEntity run) {
+        return BalanceSnapshotRunResponse.builder()
+                .date(run.getSnapshotDate())
+                .takenAt(run.getTakenAt())
+                .cardsCount(run.getCardsCount())
+                .durationMs(run.getDurationMs())
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.bankcards.dto.snapshot;
+
+import com.example.bankcards.entity.CardBalanceSnapshotEntity;
+import com.example.bankcards.entity.CardStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardBalanceSnapshotResponse {
+
+    private LocalDate date;
+    private CardStatus status;
+    private BigDecimal balance;
+    private BigDecimal availableBalance;
+    private LocalDateTime takenAt;
+
+    public static CardBalanceSnapshotResponse convert(CardBalanceSnapshotEntity snapshot) {
+        return CardBalanceSnapshotResponse.builder()
+                .date(snapshot.getSnapshotDate())
+                .status(snapshot.getStatus())
+                .balance(snapshot.getBalance())
+                .availableBalance(snapshot.getBalance().subtract(snapshot.getHeldAmount()))
+                .takenAt(snapshot.getTakenAt())
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.bankcards.dto.standing;
+
+import com.example.bankcards.entity.StandingOrderPeriod;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+public class CreateStandingOrderRequest {
+    @NotNull
+    private UUID fromCardId;
+
+    @NotNull
+    private UUID toCardId;
+
+    @NotNull
+    @DecimalMin(value = "0.01", message = "Amount must be positive")
+    private BigDecimal amount;
+
+    @NotNull
+    private StandingOrderPeriod period;
+
+    /**
+     * Первое исполнение; если не задано — сразу.
+     */
+    private LocalDateTime firstRunAt;
+}
@@ -0,0 +1,11 @@
+package com.example.bankcards.dto.standing;
+
+import java.util.UUID;
+
+/**
+ * Поручение, которое пора исполнить: id и срок в микросекундах от эпохи.
+ */
+public interface DueStandingOrder {
+    UUID getId();
+    long getDueAtMicros();
+}
@@ -0,0 +1,46 @@
+package com.example.bankcards.dto.standing;
+
+import com.example.bankcards.entity.StandingOrderEntity;
+import com.example.bankcards.entity.StandingOrderPeriod;
+import com.example.bankcards.entity.StandingOrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StandingOrderResponse {
+
+    private UUID id;
+    private UUID fromCardId;
+    private UUID toCardId;
+    private BigDecimal amount;
+    private StandingOrderPeriod period;
+    private StandingOrderStatus status;
+    private LocalDateTime nextRunAt;
+    private LocalDateTime lastRunAt;
+    private String lastError;
+    private LocalDateTime createdAt;
+
+    public static StandingOrderResponse convert(StandingOrderEntity order) {
+        return StandingOrderResponse.builder()
+                .id(order.getId())
+                .fromCardId(order.getFromCardId())
+                .toCardId(order.getToCardId())
+                .amount(order.getAmount())
+                .period(order.getPeriod())
+                .status(order.getStatus())
+                .nextRunAt(order.getNextRunAt())
+                .lastRunAt(order.getLastRunAt())
+                .lastError(order.getLastError())
+                .createdAt(order.getCreatedAt())
+                .build();
+    }
+}
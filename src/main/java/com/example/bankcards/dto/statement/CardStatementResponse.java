@@ -0,0 +1,28 @@
+package com.example.bankcards.dto.statement;
+
+import com.example.bankcards.entity.StatementFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardStatementResponse {
+
+    private UUID id;
+    private UUID cardId;
+    private LocalDate period;
+    private StatementFormat format;
+    private int transfersCount;
+    private BigDecimal totalDebit;
+    private BigDecimal totalCredit;
+    private LocalDateTime createdAt;
+}
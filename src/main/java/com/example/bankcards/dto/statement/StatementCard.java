@@ -0,0 +1,11 @@
+package com.example.bankcards.dto.statement;
+
+import java.util.UUID;
+
+/**
+ * Карта, по которой ещё нет выписки за месяц.
+ */
+public interface StatementCard {
+    UUID getId();
+    UUID getUserId();
+}
@@ -0,0 +1,4 @@
+package com.example.bankcards.dto.statement;
+
+public record StatementDocument(String fileName, String contentType, byte[] content) {
+}
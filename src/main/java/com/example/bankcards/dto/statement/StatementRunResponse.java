@@ -0,0 +1,6 @@
+package com.example.bankcards.dto.statement;
+
+import java.time.YearMonth;
+
+public record StatementRunResponse(YearMonth period, int generated) {
+}
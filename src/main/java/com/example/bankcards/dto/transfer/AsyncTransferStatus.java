@@ -0,0 +1,31 @@
+package com.example.bankcards.dto.transfer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AsyncTransferStatus {
+
+    private UUID id;
+    private State state;
+    private TransferResponse transfer;
+    private String error;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+
+    public enum State {
+        PENDING, COMPLETED, FAILED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+}
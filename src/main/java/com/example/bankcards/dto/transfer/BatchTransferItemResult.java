@@ -0,0 +1,32 @@
+package com.example.bankcards.dto.transfer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferItemResult {
+
+    private int index;
+    private Status status;
+    private UUID transferId;
+    private String error;
+
+    public enum Status {
+        COMPLETED, REJECTED
+    }
+
+    public static BatchTransferItemResult completed(int index, UUID transferId) {
+        return new BatchTransferItemResult(index, Status.COMPLETED, transferId, null);
+    }
+
+    public static BatchTransferItemResult rejected(int index, String error) {
+        return new BatchTransferItemResult(index, Status.REJECTED, null, error);
+    }
+}
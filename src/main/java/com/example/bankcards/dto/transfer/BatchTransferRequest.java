@@ -0,0 +1,14 @@
+package com.example.bankcards.dto.transfer;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchTransferRequest {
+
+    @NotEmpty(message = "Transfers list must not be empty")
+    private List<@Valid CreateTransferRequest> transfers;
+}
@@ -0,0 +1,26 @@
+package com.example.bankcards.dto.transfer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferResponse {
+
+    private int completed;
+    private int rejected;
+    private List<BatchTransferItemResult> results;
+
+    public static BatchTransferResponse of(List<BatchTransferItemResult> results) {
+        int completed = (int) results.stream()
+                .filter(result -> result.getStatus() == BatchTransferItemResult.Status.COMPLETED)
+                .count();
+        return new BatchTransferResponse(completed, results.size() - completed, results);
+    }
+}
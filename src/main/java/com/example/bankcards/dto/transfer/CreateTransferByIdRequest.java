@@ -0,0 +1,21 @@
+package com.example.bankcards.dto.transfer;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+public class CreateTransferByIdRequest {
+    @NotNull
+    private UUID fromCardId;
+
+    @NotNull
+    private UUID toCardId;
+
+    @NotNull
+    @DecimalMin(value = "0.01", message = "Amount must be positive")
+    private BigDecimal amount;
+}
@@ -0,0 +1,11 @@
+package com.example.bankcards.dto.transfer;
+
+import java.math.BigDecimal;
+
+/**
+ * Сумма списаний за час: номер часа от эпохи (UTC) и сумма.
+ */
+public interface HourlyAmount {
+    long getHour();
+    BigDecimal getAmount();
+}
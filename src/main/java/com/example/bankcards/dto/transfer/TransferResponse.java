@@ -0,0 +1,34 @@
+package com.example.bankcards.dto.transfer;
+
+import com.example.bankcards.entity.TransferEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferResponse {
+
+    private UUID id;
+    private UUID fromCardId;
+    private UUID toCardId;
+    private BigDecimal amount;
+    private LocalDateTime createdAt;
+
+    public static TransferResponse convert(TransferEntity transfer) {
+        return TransferResponse.builder()
+                .id(transfer.getId())
+                .fromCardId(transfer.getFromCardId())
+                .toCardId(transfer.getToCardId())
+                .amount(transfer.getAmount())
+                .createdAt(transfer.getCreatedAt())
+                .build();
+    }
+}
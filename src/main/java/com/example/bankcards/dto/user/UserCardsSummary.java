@@ -0,0 +1,16 @@
+package com.example.bankcards.dto.user;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Число карт и суммарный баланс пользователя.
+ */
+public interface UserCardsSummary {
+
+    UUID getUserId();
+
+    long getCardsCount();
+
+    BigDecimal getTotalBalance();
+}
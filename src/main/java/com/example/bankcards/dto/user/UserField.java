@@ -0,0 +1,33 @@
+package com.example.bankcards.dto.user;
+
+import com.example.bankcards.dto.core.Fieldset;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Поля {@link UserResponse}, которые можно запросить через {@code fields}.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum UserField {
+    ID("id"),
+    USERNAME("username"),
+    EMAIL("email"),
+    FIRST_NAME("firstName"),
+    LAST_NAME("lastName"),
+    ROLE("role"),
+    IS_ACTIVE("isActive"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    CARDS_COUNT("cardsCount"),
+    TOTAL_BALANCE("totalBalance");
+
+    private final String fieldName;
+
+    public static Set<UserField> parse(List<String> names) {
+        return Fieldset.parse(names, UserField.class, UserField::getFieldName, ID);
+    }
+}
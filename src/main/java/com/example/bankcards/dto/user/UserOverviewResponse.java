@@ -0,0 +1,26 @@
+package com.example.bankcards.dto.user;
+
+import com.example.bankcards.dto.card.CardResponse;
+import com.example.bankcards.dto.requests.RequestResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Профиль пользователя, его последние карты и заявки на блокировку.
+ * Части, не успевшие загрузиться, равны null и перечислены в {@code unavailable}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserOverviewResponse {
+
+    private UserResponse user;
+    private List<CardResponse> cards;
+    private List<RequestResponse> requests;
+    private List<String> unavailable;
+}
@@ -2,11 +2,13 @@ package com.example.bankcards.dto.user;
 
 import com.example.bankcards.entity.UserEntity;
 import com.example.bankcards.entity.UserRole;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -14,6 +16,7 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class UserResponse {
     private UUID id;
     private String username;
@@ -24,9 +27,13 @@ public class UserResponse {
     private Boolean isActive;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
-    private int cardsCount;
+    private Integer cardsCount;
+    private BigDecimal totalBalance;
 
-    public static UserResponse convert(UserEntity user) {
+    /**
+     * Сводка по картам считается запросом, а не через ленивую коллекцию карт.
+     */
+    public static UserResponse convert(UserEntity user, int cardsCount, BigDecimal totalBalance) {
         return UserResponse.builder()
                 .id(user.getId())
                 .username(user.getUsername())
@@ -37,7 +44,8 @@ public class UserResponse {
                 .isActive(user.getIsActive())
                 .createdAt(user.getCreatedAt())
                 .updatedAt(user.getUpdatedAt())
-                .cardsCount(user.getCards() != null ? user.getCards().size() : 0)
+                .cardsCount(cardsCount)
+                .totalBalance(totalBalance)
                 .build();
     }
 }
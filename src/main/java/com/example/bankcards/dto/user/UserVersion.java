@@ -0,0 +1,14 @@
+package com.example.bankcards.dto.user;
+
+/**
+ * Версия пользователя для ETag: момент изменения, число карт и последнее изменение
+ * его карт — от них зависят cardsCount и totalBalance в {@link UserResponse}.
+ */
+public interface UserVersion {
+
+    long getUpdatedAtMicros();
+
+    long getCardsCount();
+
+    long getMaxCardChangeXid();
+}
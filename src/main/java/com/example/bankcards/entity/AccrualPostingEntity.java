@@ -0,0 +1,47 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Начисление на карту за день. Строки пишет только порция начисления вместе с
+ * изменением cards.balance, поэтому сущность только для чтения.
+ */
+@Entity
+@Table(name = "accrual_postings")
+@IdClass(AccrualPostingId.class)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccrualPostingEntity {
+
+    @Id
+    @Column(name = "card_id", nullable = false, updatable = false)
+    private UUID cardId;
+
+    @Id
+    @Column(name = "accrual_date", nullable = false, updatable = false)
+    private LocalDate accrualDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, updatable = false, length = 20)
+    private AccrualType type;
+
+    @Column(name = "rate", precision = 9, scale = 6, nullable = false, updatable = false)
+    private BigDecimal rate;
+
+    @Column(name = "balance", precision = 15, scale = 2, nullable = false, updatable = false)
+    private BigDecimal balance;
+
+    @Column(name = "amount", precision = 15, scale = 2, nullable = false, updatable = false)
+    private BigDecimal amount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
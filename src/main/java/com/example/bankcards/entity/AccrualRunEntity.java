@@ -0,0 +1,49 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Запуск начисления за день. {@code lastCardId} — контрольная точка: последняя
+ * карта обработанной порции, с неё продолжается прерванный запуск. Строка меняется
+ * только запросами {@code AccrualRunRepository} и самой порцией начисления.
+ */
+@Entity
+@Table(name = "accrual_runs")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccrualRunEntity {
+
+    @Id
+    @Column(name = "accrual_date", nullable = false, updatable = false)
+    private LocalDate accrualDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, updatable = false, length = 20)
+    private AccrualRunStatus status;
+
+    @Column(name = "last_card_id", updatable = false)
+    private UUID lastCardId;
+
+    @Column(name = "cards_count", nullable = false, updatable = false)
+    private long cardsCount;
+
+    @Column(name = "total_amount", precision = 19, scale = 2, nullable = false, updatable = false)
+    private BigDecimal totalAmount;
+
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at", updatable = false)
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,57 @@
+package com.example.bankcards.entity;
+
+import com.example.bankcards.dto.transfer.AsyncTransferStatus.State;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Принятый асинхронный перевод. Строка пишется до ответа 202, поэтому принятый
+ * перевод переживает рестарт узла и виден с любого узла. Номера карт хранятся
+ * только в зашифрованном виде.
+ */
+@Entity
+@Table(name = "async_transfers")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AsyncTransferEntity {
+
+    @Id
+    @GeneratedValue
+    @Column(name = "id", columnDefinition = "UUID", nullable = false, updatable = false)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    @Column(name = "from_card_number_encrypted", nullable = false, updatable = false)
+    private String fromCardNumberEncrypted;
+
+    @Column(name = "to_card_number_encrypted", nullable = false, updatable = false)
+    private String toCardNumberEncrypted;
+
+    @Column(name = "amount", precision = 15, scale = 2, nullable = false, updatable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 10)
+    private State status;
+
+    @Column(name = "transfer_id")
+    private UUID transferId;
+
+    @Column(name = "error")
+    private String error;
+
+    @Column(name = "submitted_at", nullable = false, updatable = false)
+    private LocalDateTime submittedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,33 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Завершённый снимок балансов за день. Строка появляется только после того, как
+ * все диапазоны карт скопированы; снимок без неё считается незавершённым.
+ */
+@Entity
+@Table(name = "balance_snapshot_runs")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceSnapshotRunEntity {
+
+    @Id
+    @Column(name = "snapshot_date", nullable = false, updatable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "taken_at", nullable = false, updatable = false)
+    private LocalDateTime takenAt;
+
+    @Column(name = "cards_count", nullable = false, updatable = false)
+    private int cardsCount;
+
+    @Column(name = "duration_ms", nullable = false, updatable = false)
+    private long durationMs;
+}
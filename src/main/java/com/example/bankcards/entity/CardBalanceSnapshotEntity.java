@@ -0,0 +1,47 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Баланс карты на конец дня. Строки пишет только задание снимка одним
+ * INSERT ... SELECT на диапазон карт, поэтому сущность только для чтения.
+ */
+@Entity
+@Table(name = "card_balance_snapshots")
+@IdClass(CardBalanceSnapshotId.class)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CardBalanceSnapshotEntity {
+
+    @Id
+    @Column(name = "card_id", nullable = false, updatable = false)
+    private UUID cardId;
+
+    @Id
+    @Column(name = "snapshot_date", nullable = false, updatable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, updatable = false, length = 20)
+    private CardStatus status;
+
+    @Column(name = "balance", precision = 15, scale = 2, nullable = false, updatable = false)
+    private BigDecimal balance;
+
+    @Column(name = "held_amount", precision = 15, scale = 2, nullable = false, updatable = false)
+    private BigDecimal heldAmount;
+
+    @Column(name = "taken_at", nullable = false, updatable = false)
+    private LocalDateTime takenAt;
+}
@@ -0,0 +1,20 @@
+package com.example.bankcards.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class CardBalanceSnapshotId implements Serializable {
+
+    private UUID cardId;
+    private LocalDate snapshotDate;
+}
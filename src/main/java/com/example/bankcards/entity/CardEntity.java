@@ -47,6 +47,14 @@ public class CardEntity {
     @Builder.Default
     private BigDecimal balance = BigDecimal.ZERO;
 
+    /**
+     * Сумма активных холдов. Меняется только запросами {@code CardHoldRepository},
+     * поэтому в INSERT и UPDATE сущности не попадает.
+     */
+    @Column(name = "held_amount", precision = 15, scale = 2, nullable = false, insertable = false, updatable = false)
+    @Builder.Default
+    private BigDecimal heldAmount = BigDecimal.ZERO;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
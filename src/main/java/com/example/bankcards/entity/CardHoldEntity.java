@@ -0,0 +1,53 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Холд на карте. Строки создаются и меняются только запросами
+ * {@code CardHoldRepository} вместе с cards.held_amount, поэтому сущность только для чтения.
+ */
+@Entity
+@Table(name = "card_holds")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CardHoldEntity {
+
+    @Id
+    @Column(name = "id", columnDefinition = "UUID", nullable = false, updatable = false)
+    private UUID id;
+
+    @Column(name = "card_id", nullable = false, updatable = false)
+    private UUID cardId;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    @Column(name = "amount", precision = 15, scale = 2, nullable = false, updatable = false)
+    private BigDecimal amount;
+
+    @Column(name = "captured_amount", precision = 15, scale = 2, updatable = false)
+    private BigDecimal capturedAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, updatable = false, length = 20)
+    private HoldStatus status;
+
+    @Column(name = "reference", updatable = false)
+    private String reference;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false, updatable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,57 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Месячная выписка по карте. Строки пишет только генерация выписок
+ * ({@code CardStatementRepository#insertStatement}), поэтому сущность только для чтения.
+ */
+@Entity
+@Table(name = "card_statements")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CardStatementEntity {
+
+    @Id
+    @Column(name = "id", columnDefinition = "UUID", nullable = false, updatable = false)
+    private UUID id;
+
+    @Column(name = "card_id", nullable = false, updatable = false)
+    private UUID cardId;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    /**
+     * Первый день месяца выписки.
+     */
+    @Column(name = "period", nullable = false, updatable = false)
+    private LocalDate period;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "format", nullable = false, updatable = false, length = 10)
+    private StatementFormat format;
+
+    @Column(name = "transfers_count", nullable = false, updatable = false)
+    private int transfersCount;
+
+    @Column(name = "total_debit", precision = 15, scale = 2, nullable = false, updatable = false)
+    private BigDecimal totalDebit;
+
+    @Column(name = "total_credit", precision = 15, scale = 2, nullable = false, updatable = false)
+    private BigDecimal totalCredit;
+
+    @Column(name = "content", nullable = false, updatable = false)
+    private byte[] content;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
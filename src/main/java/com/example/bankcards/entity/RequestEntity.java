@@ -36,6 +36,29 @@ public class RequestEntity {
     @Column(name = "reason", length = 255)
     private String reason;
 
+    /**
+     * Администратор, взявший заявку в работу, и до какого момента она за ним;
+     * после этого срока заявку может забрать другой.
+     */
+    @Column(name = "claimed_by")
+    private UUID claimedBy;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @Column(name = "resolution", length = 20)
+    @Enumerated(EnumType.STRING)
+    private RequestResolution resolution;
+
+    @Column(name = "resolution_comment", length = 255)
+    private String resolutionComment;
+
+    @Column(name = "resolved_by")
+    private UUID resolvedBy;
+
+    @Column(name = "resolved_at")
+    private LocalDateTime resolvedAt;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
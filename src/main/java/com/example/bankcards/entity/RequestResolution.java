@@ -0,0 +1,6 @@
+package com.example.bankcards.entity;
+
+public enum RequestResolution {
+    APPROVED,
+    REJECTED
+}
@@ -0,0 +1,73 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "standing_orders")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StandingOrderEntity {
+
+    @Id
+    @GeneratedValue
+    @Column(name = "id", columnDefinition = "UUID", nullable = false, updatable = false)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    @Column(name = "from_card_id", nullable = false, updatable = false)
+    private UUID fromCardId;
+
+    @Column(name = "to_card_id", nullable = false, updatable = false)
+    private UUID toCardId;
+
+    @Column(name = "amount", precision = 15, scale = 2, nullable = false, updatable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "period", nullable = false, updatable = false, length = 20)
+    private StandingOrderPeriod period;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private StandingOrderStatus status = StandingOrderStatus.ACTIVE;
+
+    @Column(name = "first_run_at", nullable = false, updatable = false)
+    private LocalDateTime firstRunAt;
+
+    @Column(name = "next_run_at", nullable = false)
+    private LocalDateTime nextRunAt;
+
+    /**
+     * Номер следующего исполнения: next_run_at = period.occurrence(first_run_at, occurrence).
+     */
+    @Column(name = "occurrence", nullable = false)
+    @Builder.Default
+    private int occurrence = 0;
+
+    @Column(name = "last_run_at")
+    private LocalDateTime lastRunAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,21 @@
+package com.example.bankcards.entity;
+
+import java.time.LocalDateTime;
+
+public enum StandingOrderPeriod {
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    /**
+     * Момент n-го исполнения. Считается от первого запуска, а не от предыдущего,
+     * чтобы ежемесячное поручение на 31-е не съезжало на 28-е после февраля.
+     */
+    public LocalDateTime occurrence(LocalDateTime firstRunAt, int n) {
+        return switch (this) {
+            case DAILY -> firstRunAt.plusDays(n);
+            case WEEKLY -> firstRunAt.plusWeeks(n);
+            case MONTHLY -> firstRunAt.plusMonths(n);
+        };
+    }
+}
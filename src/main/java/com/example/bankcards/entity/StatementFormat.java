@@ -0,0 +1,14 @@
+package com.example.bankcards.entity;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum StatementFormat {
+    CSV("text/csv", "csv"),
+    JSON("application/json", "json");
+
+    private final String contentType;
+    private final String extension;
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ValidationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -213,6 +214,45 @@ public class DefaultExceptionHandler {
         );
     }
 
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleException(PessimisticLockingFailureException e, HttpServletRequest request) {
+        return new ResponseEntity<>(
+                new ApiError(
+                        request.getRequestURI(),
+                        "Card is busy, try again later",
+                        HttpStatus.CONFLICT.value(),
+                        LocalDateTime.now()
+                ),
+                HttpStatus.CONFLICT
+        );
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiError> handleException(TooManyRequestsException e, HttpServletRequest request) {
+        return new ResponseEntity<>(
+                new ApiError(
+                        request.getRequestURI(),
+                        e.getMessage(),
+                        HttpStatus.TOO_MANY_REQUESTS.value(),
+                        LocalDateTime.now()
+                ),
+                HttpStatus.TOO_MANY_REQUESTS
+        );
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiError> handleException(ServiceUnavailableException e, HttpServletRequest request) {
+        return new ResponseEntity<>(
+                new ApiError(
+                        request.getRequestURI(),
+                        e.getMessage(),
+                        HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        LocalDateTime.now()
+                ),
+                HttpStatus.SERVICE_UNAVAILABLE
+        );
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ApiError> handleException(IllegalArgumentException e, HttpServletRequest request) {
         return new ResponseEntity<>(
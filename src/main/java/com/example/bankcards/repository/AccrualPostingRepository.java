@@ -0,0 +1,15 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.AccrualPostingEntity;
+import com.example.bankcards.entity.AccrualPostingId;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface AccrualPostingRepository extends JpaRepository<AccrualPostingEntity, AccrualPostingId> {
+
+    List<AccrualPostingEntity> findAllByCardIdAndAccrualDateBetweenOrderByAccrualDateDesc(
+            UUID cardId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,36 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.AccrualRunEntity;
+import com.example.bankcards.entity.AccrualRunStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AccrualRunRepository extends JpaRepository<AccrualRunEntity, LocalDate> {
+
+    List<AccrualRunEntity> findAllByStatusOrderByAccrualDate(AccrualRunStatus status);
+
+    List<AccrualRunEntity> findAllByAccrualDateBetweenOrderByAccrualDateDesc(LocalDate from, LocalDate to);
+
+    /**
+     * Заводит запуск за день; существующий (в том числе прерванный) не трогает.
+     */
+    @Modifying
+    @Query(value = """
+            insert into accrual_runs (accrual_date, status, cards_count, total_amount, started_at, updated_at)
+            values (:date, 'RUNNING', 0, 0, now(), now())
+            on conflict (accrual_date) do nothing
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("date") LocalDate date);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+            update accrual_runs set status = 'COMPLETED', completed_at = now(), updated_at = now()
+            where accrual_date = :date and status = 'RUNNING'
+            """, nativeQuery = true)
+    int complete(@Param("date") LocalDate date);
+}
@@ -0,0 +1,55 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.AsyncTransferEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Очередь асинхронных переводов: PENDING-строки лежат в частичном индексе
+ * idx_async_transfers_pending.
+ */
+public interface AsyncTransferRepository extends JpaRepository<AsyncTransferEntity, UUID> {
+
+    Optional<AsyncTransferEntity> findByIdAndUserId(UUID id, UUID userId);
+
+    /**
+     * Блокирует перевод, если он ещё PENDING. SKIP LOCKED: перевод, который прямо
+     * сейчас выполняет другой узел, пропускается, а не ждётся.
+     */
+    @Query(value = """
+            select * from async_transfers
+            where id = :id and status = 'PENDING'
+            for update skip locked
+            """, nativeQuery = true)
+    Optional<AsyncTransferEntity> lockPending(@Param("id") UUID id);
+
+    @Query(value = """
+            select id from async_transfers
+            where status = 'PENDING' and submitted_at < :before
+            order by submitted_at
+            limit :limit
+            """, nativeQuery = true)
+    List<UUID> findPendingSubmittedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            update async_transfers
+            set status = 'FAILED', error = :error, completed_at = now()
+            where id = :id and status = 'PENDING'
+            """, nativeQuery = true)
+    int markFailed(@Param("id") UUID id, @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query(value = "delete from async_transfers where completed_at < :before", nativeQuery = true)
+    int deleteCompletedBefore(@Param("before") LocalDateTime before);
+}
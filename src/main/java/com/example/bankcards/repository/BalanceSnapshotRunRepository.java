@@ -0,0 +1,12 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.BalanceSnapshotRunEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BalanceSnapshotRunRepository extends JpaRepository<BalanceSnapshotRunEntity, LocalDate> {
+
+    List<BalanceSnapshotRunEntity> findAllBySnapshotDateBetweenOrderBySnapshotDateDesc(LocalDate from, LocalDate to);
+}
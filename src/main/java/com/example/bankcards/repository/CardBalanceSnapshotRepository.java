@@ -0,0 +1,25 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardBalanceSnapshotEntity;
+import com.example.bankcards.entity.CardBalanceSnapshotId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface CardBalanceSnapshotRepository extends JpaRepository<CardBalanceSnapshotEntity, CardBalanceSnapshotId> {
+
+    List<CardBalanceSnapshotEntity> findAllByCardIdAndSnapshotDateBetweenOrderBySnapshotDate(
+            UUID cardId, LocalDate from, LocalDate to);
+
+    /**
+     * Удаляет строки незавершённого снимка за день перед повторным запуском.
+     */
+    @Modifying
+    @Query(value = "delete from card_balance_snapshots where snapshot_date = :date", nativeQuery = true)
+    int deleteByDate(@Param("date") LocalDate date);
+}
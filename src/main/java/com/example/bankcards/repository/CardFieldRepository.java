@@ -0,0 +1,19 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.card.CardField;
+import com.example.bankcards.dto.card.CardResponse;
+import com.example.bankcards.entity.CardEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Set;
+
+public interface CardFieldRepository {
+
+    /**
+     * Выбирает только колонки из {@code fields}; с {@code withOwner} владелец
+     * подтягивается join-ом в том же запросе.
+     */
+    Page<CardResponse> findAllFields(Specification<CardEntity> spec, Set<CardField> fields, boolean withOwner, Pageable pageable);
+}
@@ -0,0 +1,82 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.card.CardField;
+import com.example.bankcards.dto.card.CardOwnerResponse;
+import com.example.bankcards.dto.card.CardResponse;
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.UserEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class CardFieldRepositoryImpl implements CardFieldRepository {
+
+    private static final String OWNER_ID = "owner.id";
+    private static final String OWNER_USERNAME = "owner.username";
+    private static final String OWNER_FIRST_NAME = "owner.firstName";
+    private static final String OWNER_LAST_NAME = "owner.lastName";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<CardResponse> findAllFields(Specification<CardEntity> spec, Set<CardField> fields, boolean withOwner, Pageable pageable) {
+        return FieldsetQuery.findPage(entityManager, CardEntity.class, spec, pageable, (root, query) -> {
+            List<Selection<?>> selections = new ArrayList<>();
+            for (CardField field : fields) {
+                Selection<?> selection = field == CardField.AVAILABLE_BALANCE
+                        ? entityManager.getCriteriaBuilder().diff(root.<BigDecimal>get("balance"), root.<BigDecimal>get("heldAmount"))
+                        : root.get(field.getFieldName());
+                selections.add(selection.alias(field.getFieldName()));
+            }
+            if (withOwner) {
+                Join<CardEntity, UserEntity> owner = root.join("user");
+                selections.add(owner.get("id").alias(OWNER_ID));
+                selections.add(owner.get("username").alias(OWNER_USERNAME));
+                selections.add(owner.get("firstName").alias(OWNER_FIRST_NAME));
+                selections.add(owner.get("lastName").alias(OWNER_LAST_NAME));
+            }
+            return selections;
+        }, tuple -> toResponse(tuple, fields, withOwner));
+    }
+
+    private static CardResponse toResponse(Tuple tuple, Set<CardField> fields, boolean withOwner) {
+        CardResponse.CardResponseBuilder response = CardResponse.builder();
+        for (CardField field : fields) {
+            String alias = field.getFieldName();
+            switch (field) {
+                case ID -> response.id(tuple.get(alias, UUID.class));
+                case CARD_NUMBER_MASK -> response.cardNumberMask(tuple.get(alias, String.class));
+                case HOLDER_NAME -> response.holderName(tuple.get(alias, String.class));
+                case EXPIRATION_DATE -> response.expirationDate(tuple.get(alias, LocalDate.class));
+                case STATUS -> response.status(tuple.get(alias, CardStatus.class));
+                case BALANCE -> response.balance(tuple.get(alias, BigDecimal.class));
+                case AVAILABLE_BALANCE -> response.availableBalance(tuple.get(alias, BigDecimal.class));
+                case CREATED_AT -> response.createdAt(tuple.get(alias, LocalDateTime.class));
+            }
+        }
+        if (withOwner) {
+            response.owner(CardOwnerResponse.builder()
+                    .id(tuple.get(OWNER_ID, UUID.class))
+                    .username(tuple.get(OWNER_USERNAME, String.class))
+                    .firstName(tuple.get(OWNER_FIRST_NAME, String.class))
+                    .lastName(tuple.get(OWNER_LAST_NAME, String.class))
+                    .build());
+        }
+        return response.build();
+    }
+}
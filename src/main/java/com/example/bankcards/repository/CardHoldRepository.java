@@ -0,0 +1,104 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardHoldEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Каждый переход холда — один SQL-запрос, который меняет строку холда и
+ * cards.held_amount вместе: доступный остаток balance - held_amount не требует
+ * суммирования холдов, а блокировка карты держится только на время запроса.
+ */
+public interface CardHoldRepository extends JpaRepository<CardHoldEntity, UUID> {
+
+    /**
+     * Резервирует сумму, если карта активна, принадлежит пользователю и доступного
+     * остатка хватает. Пустой результат — одно из условий не выполнено.
+     */
+    @Query(value = """
+            with card as (
+                update cards set held_amount = held_amount + :amount, updated_at = now()
+                where id = :cardId and user_id = :userId and status = 'ACTIVE'
+                  and balance - held_amount >= :amount
+                returning id
+            )
+            insert into card_holds (id, card_id, user_id, amount, status, reference, expires_at, created_at, updated_at)
+            select gen_random_uuid(), card.id, :userId, :amount, 'AUTHORIZED', :reference, :expiresAt, now(), now()
+            from card
+            returning *
+            """, nativeQuery = true)
+    Optional<CardHoldEntity> authorize(
+            @Param("cardId") UUID cardId,
+            @Param("userId") UUID userId,
+            @Param("amount") BigDecimal amount,
+            @Param("reference") String reference,
+            @Param("expiresAt") LocalDateTime expiresAt
+    );
+
+    /**
+     * Списывает {@code amount} с баланса и снимает весь холд; остаток холда сверх
+     * списанного возвращается в доступный баланс.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+            with hold as (
+                update card_holds set status = 'CAPTURED', captured_amount = :amount, updated_at = now()
+                where id = :id and status = 'AUTHORIZED' and expires_at > now() and amount >= :amount
+                returning card_id, amount
+            )
+            update cards c
+            set balance = c.balance - :amount, held_amount = c.held_amount - hold.amount, updated_at = now()
+            from hold
+            where c.id = hold.card_id
+            """, nativeQuery = true)
+    int capture(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+            with hold as (
+                update card_holds set status = 'RELEASED', updated_at = now()
+                where id = :id and status = 'AUTHORIZED'
+                returning card_id, amount
+            )
+            update cards c
+            set held_amount = c.held_amount - hold.amount, updated_at = now()
+            from hold
+            where c.id = hold.card_id
+            """, nativeQuery = true)
+    int release(@Param("id") UUID id);
+
+    /**
+     * Снимает пачку просроченных холдов. Строки холдов берутся SKIP LOCKED, чтобы
+     * параллельные чистильщики не ждали друг друга; суммы по карте схлопываются
+     * в один UPDATE. Возвращает число затронутых карт.
+     */
+    @Modifying
+    @Query(value = """
+            with due as (
+                select id from card_holds
+                where status = 'AUTHORIZED' and expires_at <= now()
+                order by expires_at
+                limit :limit
+                for update skip locked
+            ), expired as (
+                update card_holds h set status = 'EXPIRED', updated_at = now()
+                from due
+                where h.id = due.id
+                returning h.card_id, h.amount
+            ), per_card as (
+                select card_id, sum(amount) as amount from expired group by card_id
+            )
+            update cards c
+            set held_amount = c.held_amount - per_card.amount, updated_at = now()
+            from per_card
+            where c.id = per_card.card_id
+            """, nativeQuery = true)
+    int expireDue(@Param("limit") int limit);
+}
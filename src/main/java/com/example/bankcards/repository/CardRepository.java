@@ -1,16 +1,143 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.card.CardDailyCreated;
+import com.example.bankcards.dto.card.CardOwnerView;
+import com.example.bankcards.dto.card.CardSetVersion;
+import com.example.bankcards.dto.card.CardStatusStats;
+import com.example.bankcards.dto.card.CardVersion;
 import com.example.bankcards.entity.CardEntity;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface CardRepository extends JpaRepository<CardEntity, UUID>, JpaSpecificationExecutor<CardEntity> {
+public interface CardRepository extends JpaRepository<CardEntity, UUID>, JpaSpecificationExecutor<CardEntity>, CardFieldRepository {
 
     boolean existsByCardNumberEncrypted(String cardNumberEncrypted);
 
     Optional<CardEntity> findByCardNumberEncrypted(String cardNumberEncrypted);
+
+    /**
+     * SELECT ... FOR UPDATE по номерам карт. Строки блокируются в порядке id,
+     * поэтому встречные переводы между одними и теми же картами не дают deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from CardEntity c where c.cardNumberEncrypted in :numbers order by c.id")
+    List<CardEntity> lockAllByCardNumberEncrypted(@Param("numbers") Collection<String> cardNumbersEncrypted);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from CardEntity c where c.id in :ids order by c.id")
+    List<CardEntity> lockAllById(@Param("ids") Collection<UUID> ids);
+
+    @Query(value = "select set_config('lock_timeout', :timeout, true)", nativeQuery = true)
+    String setLocalLockTimeout(@Param("timeout") String timeout);
+
+    @Query("""
+            select new com.example.bankcards.dto.card.CardOwnerView(
+                c.id, c.cardNumberEncrypted, c.user.id, c.status, c.balance - c.heldAmount)
+            from CardEntity c where c.cardNumberEncrypted in :numbers
+            """)
+    List<CardOwnerView> findOwnerViewsByCardNumberEncrypted(@Param("numbers") Collection<String> cardNumbersEncrypted);
+
+    @Query("""
+            select new com.example.bankcards.dto.card.CardOwnerView(
+                c.id, c.cardNumberEncrypted, c.user.id, c.status, c.balance - c.heldAmount)
+            from CardEntity c where c.id in :ids
+            """)
+    List<CardOwnerView> findOwnerViewsById(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = """
+            update cards set balance = balance - :amount, updated_at = now()
+            where id = :cardId and user_id = :userId and status = 'ACTIVE' and balance - held_amount >= :amount
+            """, nativeQuery = true)
+    int debitIfAllowed(@Param("cardId") UUID cardId, @Param("userId") UUID userId, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query(value = """
+            update cards set balance = balance + :amount, updated_at = now()
+            where id = :cardId and user_id = :userId and status = 'ACTIVE'
+            """, nativeQuery = true)
+    int creditIfAllowed(@Param("cardId") UUID cardId, @Param("userId") UUID userId, @Param("amount") BigDecimal amount);
+
+    /**
+     * Граница синхронизации: все транзакции с xid меньше неё уже завершены, поэтому
+     * изменение, не попавшее в ответ, получит xid не меньше границы.
+     */
+    @Query(value = "select cast(cast(pg_snapshot_xmin(pg_current_snapshot()) as text) as bigint)", nativeQuery = true)
+    long currentChangeWatermark();
+
+    @Query(value = """
+            select * from cards
+            where user_id = :userId and change_xid >= cast(cast(:since as text) as xid8)
+            """, nativeQuery = true)
+    List<CardEntity> findChangedSince(@Param("userId") UUID userId, @Param("since") long since);
+
+    @Query(value = """
+            select card_id from card_tombstones
+            where user_id = :userId and deleted_xid >= cast(cast(:since as text) as xid8)
+            """, nativeQuery = true)
+    List<UUID> findDeletedSince(@Param("userId") UUID userId, @Param("since") long since);
+
+    @Modifying
+    @Query(value = "delete from card_tombstones where deleted_at < :before", nativeQuery = true)
+    int purgeTombstones(@Param("before") OffsetDateTime before);
+
+    @Query("select c from CardEntity c where c.id in :ids and c.user.id = :userId")
+    List<CardEntity> findAllByIdAndUserId(@Param("ids") Collection<UUID> ids, @Param("userId") UUID userId);
+
+    @Query("select c from CardEntity c where c.user.id = :userId order by c.createdAt desc")
+    List<CardEntity> findRecentByUserId(@Param("userId") UUID userId, Limit limit);
+
+    @Query(value = """
+            select user_id as "userId",
+                   cast(cast(change_xid as text) as bigint) as "changeXid",
+                   cast(extract(epoch from updated_at) * 1000 as bigint) as "updatedAtMillis"
+            from cards where id = :cardId
+            """, nativeQuery = true)
+    Optional<CardVersion> findVersionById(@Param("cardId") UUID cardId);
+
+    @Query(value = """
+            select count(*) as "count",
+                   coalesce(max(cast(cast(change_xid as text) as bigint)), 0) as "maxChangeXid",
+                   (select cast(extract(epoch from u.updated_at) * 1000000 as bigint)
+                    from users u where u.id = :userId) as "ownerUpdatedAtMicros"
+            from cards where user_id = :userId
+            """, nativeQuery = true)
+    CardSetVersion findVersionByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Счётчики ведёт отложенный триггер trg_cards_maintain_stats в той же транзакции,
+     * что и изменение карты; чтение — не больше 16 строк на статус.
+     */
+    @Query(value = """
+            select cast(status as text) as "status",
+                   cast(sum(cards_count) as bigint) as "cardsCount",
+                   sum(total_balance) as "totalBalance"
+            from card_status_stats
+            group by status
+            """, nativeQuery = true)
+    List<CardStatusStats> findStatusStats();
+
+    @Query(value = """
+            select day - date '1970-01-01' as "epochDay",
+                   cast(sum(created_count) as bigint) as "createdCount"
+            from card_daily_stats
+            where day >= :from
+            group by day
+            """, nativeQuery = true)
+    List<CardDailyCreated> findDailyCreatedSince(@Param("from") LocalDate from);
 }
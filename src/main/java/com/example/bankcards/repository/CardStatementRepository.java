@@ -0,0 +1,66 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.statement.CardStatementResponse;
+import com.example.bankcards.dto.statement.StatementCard;
+import com.example.bankcards.entity.CardStatementEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface CardStatementRepository extends JpaRepository<CardStatementEntity, UUID> {
+
+    /**
+     * Список выписок карты без содержимого документов.
+     */
+    @Query("""
+            select new com.example.bankcards.dto.statement.CardStatementResponse(
+                s.id, s.cardId, s.period, s.format, s.transfersCount, s.totalDebit, s.totalCredit, s.createdAt)
+            from CardStatementEntity s where s.cardId = :cardId order by s.period desc
+            """)
+    List<CardStatementResponse> findAllByCardId(@Param("cardId") UUID cardId);
+
+    /**
+     * Следующая страница карт диапазона (after, upper], заведённых до конца месяца
+     * и ещё без выписки за него; повторный запуск продолжает с недостающих карт.
+     */
+    @Query(value = """
+            select c.id as id, c.user_id as userId from cards c
+            where c.id > :after and c.id <= :upper and c.created_at < :periodEnd
+              and not exists (select 1 from card_statements s where s.card_id = c.id and s.period = :period)
+            order by c.id
+            limit :limit
+            """, nativeQuery = true)
+    List<StatementCard> findCardsWithoutStatement(
+            @Param("after") UUID after,
+            @Param("upper") UUID upper,
+            @Param("period") LocalDate period,
+            @Param("periodEnd") OffsetDateTime periodEnd,
+            @Param("limit") int limit
+    );
+
+    @Modifying
+    @Query(value = """
+            insert into card_statements
+                (id, card_id, user_id, period, format, transfers_count, total_debit, total_credit, content, created_at)
+            values (gen_random_uuid(), :cardId, :userId, :period, :format, :transfersCount, :totalDebit, :totalCredit,
+                    :content, now())
+            on conflict (card_id, period) do nothing
+            """, nativeQuery = true)
+    int insertStatement(
+            @Param("cardId") UUID cardId,
+            @Param("userId") UUID userId,
+            @Param("period") LocalDate period,
+            @Param("format") String format,
+            @Param("transfersCount") int transfersCount,
+            @Param("totalDebit") BigDecimal totalDebit,
+            @Param("totalCredit") BigDecimal totalCredit,
+            @Param("content") byte[] content
+    );
+}
@@ -0,0 +1,68 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Ключ занимается одним INSERT ... ON CONFLICT: из параллельных повторов на
+ * разных узлах запрос выполняет только тот, чья вставка прошла. Истёкшая, но ещё
+ * не удалённая запись перезанимается тем же запросом.
+ */
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, IdempotencyKeyEntity.Key> {
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            insert into idempotency_keys (user_id, idempotency_key, fingerprint, expires_at)
+            values (:userId, :key, :fingerprint, :expiresAt)
+            on conflict (user_id, idempotency_key) do update
+            set fingerprint = excluded.fingerprint,
+                completed = false,
+                response_status = null,
+                response_content_type = null,
+                response_body = null,
+                created_at = current_timestamp,
+                expires_at = excluded.expires_at
+            where idempotency_keys.expires_at < current_timestamp
+            """, nativeQuery = true)
+    int claim(@Param("userId") UUID userId,
+              @Param("key") String key,
+              @Param("fingerprint") String fingerprint,
+              @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            update idempotency_keys
+            set completed = true,
+                response_status = :status,
+                response_content_type = :contentType,
+                response_body = :body
+            where user_id = :userId and idempotency_key = :key and not completed
+            """, nativeQuery = true)
+    int complete(@Param("userId") UUID userId,
+                 @Param("key") String key,
+                 @Param("status") int status,
+                 @Param("contentType") String contentType,
+                 @Param("body") byte[] body);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            delete from idempotency_keys
+            where user_id = :userId and idempotency_key = :key and not completed
+            """, nativeQuery = true)
+    int release(@Param("userId") UUID userId, @Param("key") String key);
+
+    @Modifying
+    @Transactional
+    @Query(value = "delete from idempotency_keys where expires_at < :now", nativeQuery = true)
+    int deleteExpired(@Param("now") Instant now);
+}
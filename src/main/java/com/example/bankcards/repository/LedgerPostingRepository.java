@@ -0,0 +1,70 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.LedgerPostingEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public interface LedgerPostingRepository extends JpaRepository<LedgerPostingEntity, Long> {
+
+    int LOCK_CLASS_RANGE = 0x4c470001;
+    int LOCK_CLASS_CARD = 0x4c470002;
+
+    @Modifying
+    @Query(value = """
+            insert into ledger_postings (transfer_id, card_id, amount)
+            values (:transferId, :fromCardId, -:amount), (:transferId, :toCardId, :amount)
+            """, nativeQuery = true)
+    int insertTransferPostings(
+            @Param("transferId") UUID transferId,
+            @Param("fromCardId") UUID fromCardId,
+            @Param("toCardId") UUID toCardId,
+            @Param("amount") BigDecimal amount
+    );
+
+    @Query(value = """
+            select coalesce(s.balance, c.balance) + coalesce((
+                select sum(p.amount) from ledger_postings p
+                where p.card_id = c.id and p.id > coalesce(s.last_posting_id, 0)
+            ), 0)
+            from cards c
+            left join lateral (
+                select balance, last_posting_id from ledger_snapshots
+                where card_id = c.id
+                order by last_posting_id desc
+                limit 1
+            ) s on true
+            where c.id = :cardId
+            """, nativeQuery = true)
+    BigDecimal findDerivedBalance(@Param("cardId") UUID cardId);
+
+    @Query(value = "select coalesce(max(id), 0) from ledger_postings", nativeQuery = true)
+    long findMaxId();
+
+    @Query(value = """
+            select transfer_id from ledger_postings
+            group by transfer_id
+            having sum(amount) <> 0
+            limit :limit
+            """, nativeQuery = true)
+    List<UUID> findUnbalancedTransfers(@Param("limit") int limit);
+
+    @Query(value = "select cast(pg_advisory_xact_lock_shared(" + LOCK_CLASS_RANGE + ", :range) as text)",
+            nativeQuery = true)
+    String lockRangeShared(@Param("range") int range);
+
+    @Query(value = "select cast(pg_advisory_lock(" + LOCK_CLASS_RANGE + ", :range) as text)", nativeQuery = true)
+    String lockRangeExclusive(@Param("range") int range);
+
+    @Query(value = "select pg_advisory_unlock(" + LOCK_CLASS_RANGE + ", :range)", nativeQuery = true)
+    boolean unlockRangeExclusive(@Param("range") int range);
+
+    @Query(value = "select cast(pg_advisory_xact_lock(" + LOCK_CLASS_CARD + ", hashtext(cast(:cardId as text))) as text)",
+            nativeQuery = true)
+    String lockCard(@Param("cardId") UUID cardId);
+}
@@ -0,0 +1,72 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.card.CardOwnerRef;
+import com.example.bankcards.entity.LedgerSnapshotEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface LedgerSnapshotRepository extends JpaRepository<LedgerSnapshotEntity, Long> {
+
+    /**
+     * Нулевой снимок фиксирует баланс карты на момент её входа в леджер.
+     */
+    @Modifying
+    @Query(value = """
+            insert into ledger_snapshots (card_id, balance, last_posting_id)
+            select c.id, c.balance, 0 from cards c
+            where c.id between :lower and :upper
+              and not exists (select 1 from ledger_snapshots s where s.card_id = c.id)
+            """, nativeQuery = true)
+    int insertOpeningSnapshots(@Param("lower") UUID lower, @Param("upper") UUID upper);
+
+    /**
+     * Сворачивает проводки до {@code boundary} в новые снимки и переносит
+     * полученный баланс в cards.balance. Возвращает обновлённые карты с владельцами.
+     */
+    @Query(value = """
+            with latest as (
+                select distinct on (s.card_id) s.card_id, s.balance, s.last_posting_id
+                from ledger_snapshots s
+                where s.card_id between :lower and :upper
+                order by s.card_id, s.last_posting_id desc
+            ), delta as (
+                select l.card_id, l.balance + sum(p.amount) as balance, max(p.id) as last_posting_id
+                from latest l
+                join ledger_postings p
+                  on p.card_id = l.card_id and p.id > l.last_posting_id and p.id <= :boundary
+                group by l.card_id, l.balance
+            ), inserted as (
+                insert into ledger_snapshots (card_id, balance, last_posting_id)
+                select card_id, balance, last_posting_id from delta
+                returning card_id, balance
+            )
+            update cards c set balance = i.balance, updated_at = now()
+            from inserted i
+            where c.id = i.card_id
+            returning c.id as "cardId", c.user_id as "userId"
+            """, nativeQuery = true)
+    List<CardOwnerRef> compactRange(@Param("lower") UUID lower, @Param("upper") UUID upper, @Param("boundary") long boundary);
+
+    @Query(value = """
+            select c.id from cards c
+            join lateral (
+                select balance, last_posting_id from ledger_snapshots
+                where card_id = c.id
+                order by last_posting_id desc
+                limit 1
+            ) l on true
+            join ledger_snapshots o on o.card_id = c.id and o.last_posting_id = 0
+            where c.id between :lower and :upper
+              and (c.balance <> l.balance
+                   or o.balance + coalesce((
+                        select sum(p.amount) from ledger_postings p
+                        where p.card_id = c.id and p.id <= l.last_posting_id
+                      ), 0) <> l.balance)
+            """, nativeQuery = true)
+    List<UUID> findMismatchedCards(@Param("lower") UUID lower, @Param("upper") UUID upper);
+}
@@ -1,9 +1,113 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.requests.BlockRequestInsert;
 import com.example.bankcards.entity.RequestEntity;
+import com.example.bankcards.entity.RequestStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Очередь заявок: NEW-заявки лежат в частичном индексе idx_requests_new_queue,
+ * поэтому выборка очереди не зависит от объёма закрытой истории.
+ */
 public interface RequestRepository extends JpaRepository<RequestEntity, UUID>{
 
+    /**
+     * Одним запросом находит карту по номеру и, если она принадлежит {@code userId},
+     * открывает по ней заявку. Частичный уникальный индекс uk_requests_card_open
+     * допускает одну NEW-заявку на карту, поэтому повторная отправка упирается в него
+     * и ничего не пишет. Нет строки — карта не найдена.
+     */
+    @Query(value = """
+            with card as (
+                select id, user_id from cards where card_number_encrypted = :cardNumberEncrypted
+            ), inserted as (
+                insert into requests (id, card_id, status, reason, created_at, updated_at)
+                select gen_random_uuid(), card.id, cast('NEW' as request_status_enum), :reason, now(), now()
+                from card
+                where card.user_id = :userId
+                on conflict (card_id) where status = 'NEW' do nothing
+                returning id
+            )
+            select card.id as "cardId", card.user_id as "ownerId", (select id from inserted) as "requestId"
+            from card
+            """, nativeQuery = true)
+    Optional<BlockRequestInsert> insertBlockRequest(
+            @Param("cardNumberEncrypted") String cardNumberEncrypted,
+            @Param("userId") UUID userId,
+            @Param("reason") String reason
+    );
+
+    /**
+     * Открывает заявку по карте, если открытой ещё нет.
+     */
+    @Modifying
+    @Query(value = """
+            insert into requests (id, card_id, status, reason, created_at, updated_at)
+            values (gen_random_uuid(), :cardId, cast('NEW' as request_status_enum), :reason, now(), now())
+            on conflict (card_id) where status = 'NEW' do nothing
+            """, nativeQuery = true)
+    int insertIfNoneOpen(@Param("cardId") UUID cardId, @Param("reason") String reason);
+
+    Page<RequestEntity> findAllByStatus(RequestStatus status, Pageable pageable);
+
+    /**
+     * Последние заявки по всем картам пользователя; идёт по idx_cards_user_id
+     * и idx_requests_card_created.
+     */
+    @Query("select r from RequestEntity r where r.card.user.id = :userId order by r.createdAt desc")
+    List<RequestEntity> findRecentByUserId(@Param("userId") UUID userId, Limit limit);
+
+    /**
+     * Забирает до {@code limit} самых старых NEW-заявок, не занятых другим
+     * администратором. SKIP LOCKED пропускает строки, которые прямо сейчас забирает
+     * другая транзакция, так что параллельные разборщики не ждут друг друга и не
+     * получают одних и тех же заявок.
+     */
+    @Query(value = """
+            with claimable as (
+                select id from requests
+                where status = 'NEW' and (claimed_until is null or claimed_until < now())
+                order by created_at, id
+                limit :limit
+                for update skip locked
+            )
+            update requests r
+            set claimed_by = :adminId, claimed_until = now() + make_interval(secs => :leaseSeconds), updated_at = now()
+            from claimable c
+            where r.id = c.id
+            returning r.*
+            """, nativeQuery = true)
+    List<RequestEntity> claim(
+            @Param("adminId") UUID adminId,
+            @Param("leaseSeconds") long leaseSeconds,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Закрывает заявку, если она ещё NEW и занята этим администратором.
+     * Пустой результат — одно из условий не выполнено.
+     */
+    @Query(value = """
+            update requests
+            set status = 'CLOSED', resolution = :resolution, resolution_comment = :comment,
+                resolved_by = :adminId, resolved_at = now(), claimed_until = null, updated_at = now()
+            where id = :id and status = 'NEW' and claimed_by = :adminId
+            returning *
+            """, nativeQuery = true)
+    Optional<RequestEntity> resolve(
+            @Param("id") UUID id,
+            @Param("adminId") UUID adminId,
+            @Param("resolution") String resolution,
+            @Param("comment") String comment
+    );
 }
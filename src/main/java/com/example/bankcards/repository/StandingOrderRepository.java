@@ -0,0 +1,51 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.standing.DueStandingOrder;
+import com.example.bankcards.entity.StandingOrderEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Планировщик читает поручения по частичному индексу (next_run_at, id) WHERE status = 'ACTIVE'.
+ */
+public interface StandingOrderRepository extends JpaRepository<StandingOrderEntity, UUID> {
+
+    List<StandingOrderEntity> findAllByUserIdOrderByCreatedAtDesc(UUID userId);
+
+    /**
+     * Keyset-страница поручений со сроком раньше {@code until}. Позиция передаётся
+     * в микросекундах, чтобы граница страницы не теряла точность timestamptz.
+     */
+    @Query(value = """
+            select id, cast(extract(epoch from next_run_at) * 1000000 as bigint) as "dueAtMicros"
+            from standing_orders
+            where status = 'ACTIVE'
+              and next_run_at < :until
+              and (next_run_at, id) > (timestamptz 'epoch' + :afterMicros * interval '1 microsecond', :afterId)
+            order by next_run_at, id
+            limit :limit
+            """, nativeQuery = true)
+    List<DueStandingOrder> findDuePage(
+            @Param("until") LocalDateTime until,
+            @Param("afterMicros") long afterMicros,
+            @Param("afterId") UUID afterId,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Поручение, занятое другим узлом, пропускается, а не ждётся: исполнит тот, кто
+     * взял блокировку, и к моменту коммита next_run_at уже уйдёт в будущее.
+     */
+    @Query(value = """
+            select * from standing_orders
+            where id = :id and status = 'ACTIVE' and next_run_at <= :now
+            for update skip locked
+            """, nativeQuery = true)
+    Optional<StandingOrderEntity> lockDueById(@Param("id") UUID id, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,69 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.transfer.HourlyAmount;
+import com.example.bankcards.entity.TransferEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Журнал переводов читается keyset-пагинацией по (created_at, id) от новых к старым,
+ * каждая ветка запроса идёт по своему индексу (card_id | user_id, created_at, id).
+ */
+public interface TransferRepository extends JpaRepository<TransferEntity, UUID> {
+
+    @Query(value = """
+            select * from (
+                (select * from transfers
+                 where from_card_id = :cardId and (created_at, id) < (:createdAt, :id)
+                 order by created_at desc, id desc
+                 limit :limit)
+                union all
+                (select * from transfers
+                 where to_card_id = :cardId and from_card_id <> :cardId and (created_at, id) < (:createdAt, :id)
+                 order by created_at desc, id desc
+                 limit :limit)
+            ) t
+            order by created_at desc, id desc
+            limit :limit
+            """, nativeQuery = true)
+    List<TransferEntity> findCardPageBefore(
+            @Param("cardId") UUID cardId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            @Param("limit") int limit
+    );
+
+    @Query(value = """
+            select * from transfers
+            where user_id = :userId and (created_at, id) < (:createdAt, :id)
+            order by created_at desc, id desc
+            limit :limit
+            """, nativeQuery = true)
+    List<TransferEntity> findUserPageBefore(
+            @Param("userId") UUID userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            @Param("limit") int limit
+    );
+
+    @Query(value = """
+            select cast(floor(extract(epoch from created_at) / 3600) as bigint) as hour, sum(amount) as amount
+            from transfers
+            where from_card_id = :cardId and created_at >= now() - make_interval(days => :days)
+            group by 1
+            """, nativeQuery = true)
+    List<HourlyAmount> sumCardDebitsByHour(@Param("cardId") UUID cardId, @Param("days") int days);
+
+    @Query(value = """
+            select cast(floor(extract(epoch from created_at) / 3600) as bigint) as hour, sum(amount) as amount
+            from transfers
+            where user_id = :userId and created_at >= now() - make_interval(days => :days)
+            group by 1
+            """, nativeQuery = true)
+    List<HourlyAmount> sumUserDebitsByHour(@Param("userId") UUID userId, @Param("days") int days);
+}
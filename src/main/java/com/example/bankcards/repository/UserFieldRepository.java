@@ -0,0 +1,19 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.user.UserField;
+import com.example.bankcards.dto.user.UserResponse;
+import com.example.bankcards.entity.UserEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Set;
+
+public interface UserFieldRepository {
+
+    /**
+     * Выбирает только колонки из {@code fields}; cardsCount и totalBalance считаются
+     * подзапросами в том же запросе.
+     */
+    Page<UserResponse> findAllFields(Specification<UserEntity> spec, Set<UserField> fields, Pageable pageable);
+}
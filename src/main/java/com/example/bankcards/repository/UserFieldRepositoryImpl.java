@@ -0,0 +1,77 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.user.UserField;
+import com.example.bankcards.dto.user.UserResponse;
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.entity.UserEntity;
+import com.example.bankcards.entity.UserRole;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.criteria.Subquery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class UserFieldRepositoryImpl implements UserFieldRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<UserResponse> findAllFields(Specification<UserEntity> spec, Set<UserField> fields, Pageable pageable) {
+        return FieldsetQuery.findPage(entityManager, UserEntity.class, spec, pageable, (root, query) -> {
+            List<Selection<?>> selections = new ArrayList<>();
+            for (UserField field : fields) {
+                CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+                Selection<?> selection;
+                if (field == UserField.CARDS_COUNT) {
+                    Subquery<Long> cardsCount = query.subquery(Long.class);
+                    Root<CardEntity> card = cardsCount.from(CardEntity.class);
+                    selection = cardsCount.select(cb.count(card)).where(cb.equal(card.get("user"), root));
+                } else if (field == UserField.TOTAL_BALANCE) {
+                    Subquery<BigDecimal> totalBalance = query.subquery(BigDecimal.class);
+                    Root<CardEntity> card = totalBalance.from(CardEntity.class);
+                    selection = totalBalance
+                            .select(cb.coalesce(cb.sum(card.<BigDecimal>get("balance")), BigDecimal.ZERO))
+                            .where(cb.equal(card.get("user"), root));
+                } else {
+                    selection = root.get(field.getFieldName());
+                }
+                selections.add(selection.alias(field.getFieldName()));
+            }
+            return selections;
+        }, tuple -> toResponse(tuple, fields));
+    }
+
+    private static UserResponse toResponse(Tuple tuple, Set<UserField> fields) {
+        UserResponse.UserResponseBuilder response = UserResponse.builder();
+        for (UserField field : fields) {
+            String alias = field.getFieldName();
+            switch (field) {
+                case ID -> response.id(tuple.get(alias, UUID.class));
+                case USERNAME -> response.username(tuple.get(alias, String.class));
+                case EMAIL -> response.email(tuple.get(alias, String.class));
+                case FIRST_NAME -> response.firstName(tuple.get(alias, String.class));
+                case LAST_NAME -> response.lastName(tuple.get(alias, String.class));
+                case ROLE -> response.role(tuple.get(alias, UserRole.class));
+                case IS_ACTIVE -> response.isActive(tuple.get(alias, Boolean.class));
+                case CREATED_AT -> response.createdAt(tuple.get(alias, LocalDateTime.class));
+                case UPDATED_AT -> response.updatedAt(tuple.get(alias, LocalDateTime.class));
+                case CARDS_COUNT -> response.cardsCount(tuple.get(alias, Long.class).intValue());
+                case TOTAL_BALANCE -> response.totalBalance(tuple.get(alias, BigDecimal.class));
+            }
+        }
+        return response.build();
+    }
+}
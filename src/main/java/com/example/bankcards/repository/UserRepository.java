@@ -1,5 +1,7 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.user.UserCardsSummary;
+import com.example.bankcards.dto.user.UserVersion;
 import com.example.bankcards.entity.UserEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -8,14 +10,38 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserRepository
         extends JpaRepository<UserEntity, UUID>,
-        JpaSpecificationExecutor<UserEntity> {
+        JpaSpecificationExecutor<UserEntity>,
+        UserFieldRepository {
 
     boolean existsByUsername(String username);
     Optional<UserEntity> findByUsername(String username);
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    @Query(value = """
+            select cast(extract(epoch from u.updated_at) * 1000000 as bigint) as "updatedAtMicros",
+                   c.cards_count as "cardsCount",
+                   c.max_change_xid as "maxCardChangeXid"
+            from users u
+            cross join lateral (
+                select count(*) as cards_count,
+                       coalesce(max(cast(cast(change_xid as text) as bigint)), 0) as max_change_xid
+                from cards where user_id = u.id
+            ) c
+            where u.id = :id
+            """, nativeQuery = true)
+    Optional<UserVersion> findVersionById(@Param("id") UUID id);
+
+    @Query(value = """
+            select user_id as "userId", count(*) as "cardsCount", sum(balance) as "totalBalance"
+            from cards where user_id in (:ids)
+            group by user_id
+            """, nativeQuery = true)
+    List<UserCardsSummary> summarizeCardsByUserIds(@Param("ids") Collection<UUID> ids);
+}
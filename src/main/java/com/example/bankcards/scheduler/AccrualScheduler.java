@@ -0,0 +1,43 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.interfaces.AccrualService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Раз в день начисляет проценты за текущий день по UTC. Сначала дорабатываются
+ * прерванные запуски прошлых дней с их контрольной точки.
+ */
+@Component
+@ConditionalOnProperty(prefix = "accrual", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class AccrualScheduler {
+
+    private final AccrualService accrualService;
+
+    @Scheduled(cron = "${accrual.cron:0 30 0 * * *}", zone = "UTC")
+    public void accrue() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (LocalDate date : accrualService.findIncompleteRuns()) {
+            if (!date.equals(today)) {
+                run(date);
+            }
+        }
+        run(today);
+    }
+
+    private void run(LocalDate date) {
+        try {
+            accrualService.accrue(date);
+        } catch (RuntimeException e) {
+            log.error("Accrual for {} failed, it will resume from its checkpoint: {}", date, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.interfaces.AsyncTransferService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AsyncTransferPurger {
+
+    private final AsyncTransferService asyncTransferService;
+
+    @Scheduled(fixedDelayString = "${transfer.async.purge-delay-ms:60000}")
+    public void purge() {
+        int purged = asyncTransferService.purgeFinished();
+        if (purged > 0) {
+            log.debug("Purged {} finished async transfer statuses", purged);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.async.recover-delay-ms:30000}")
+    public void recover() {
+        int recovered = asyncTransferService.recoverPending();
+        if (recovered > 0) {
+            log.info("Recovered {} pending async transfers", recovered);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.interfaces.BalanceSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Сразу после полуночи по UTC снимает балансы на конец прошедшего дня.
+ */
+@Component
+@ConditionalOnProperty(prefix = "balance-snapshots", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceSnapshotScheduler {
+
+    private final BalanceSnapshotService balanceSnapshotService;
+
+    @Scheduled(cron = "${balance-snapshots.cron:0 0 0 * * *}", zone = "UTC")
+    public void takeEndOfDaySnapshot() {
+        LocalDate date = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        try {
+            balanceSnapshotService.takeSnapshot(date);
+        } catch (RuntimeException e) {
+            log.error("Balance snapshot for {} failed, rerun it via POST /api/v1/balance-snapshots/run: {}",
+                    date, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.interfaces.CardNotificationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CardNotificationHeartbeat {
+
+    private final CardNotificationService cardNotificationService;
+
+    @Scheduled(fixedDelayString = "${notifications.heartbeat-ms:20000}")
+    public void heartbeat() {
+        int subscribers = cardNotificationService.heartbeat();
+        if (subscribers > 0) {
+            log.debug("Sent heartbeat to {} card subscribers", subscribers);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.interfaces.CardService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CardTombstonePurger {
+
+    private final CardService cardService;
+
+    @Scheduled(cron = "${card.sync.purge-cron:0 15 3 * * *}", zone = "UTC")
+    public void purge() {
+        try {
+            int purged = cardService.purgeTombstones();
+            if (purged > 0) {
+                log.info("Purged {} card tombstones", purged);
+            }
+        } catch (RuntimeException e) {
+            log.error("Card tombstone purge failed", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.interfaces.FraudDetectionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(prefix = "transfer.fraud", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class FraudStatsEvictor {
+
+    private final FraudDetectionService fraudDetectionService;
+
+    @Scheduled(fixedDelayString = "${transfer.fraud.eviction-delay-ms:300000}")
+    public void evict() {
+        int evicted = fraudDetectionService.evictIdle();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle card velocity entries", evicted);
+        }
+    }
+}
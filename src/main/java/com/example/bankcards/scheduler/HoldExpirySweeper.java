@@ -0,0 +1,27 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.interfaces.HoldService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HoldExpirySweeper {
+
+    private final HoldService holdService;
+
+    @Scheduled(fixedDelayString = "${holds.expiry-delay-ms:30000}")
+    public void sweep() {
+        try {
+            int cards = holdService.expireDue();
+            if (cards > 0) {
+                log.debug("Released expired holds on {} cards", cards);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Hold expiry sweep failed, will retry on next run: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.interfaces.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyKeyPurger {
+
+    private final IdempotencyService idempotencyService;
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-delay-ms:600000}")
+    public void purge() {
+        int purged = idempotencyService.purgeExpired();
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+}
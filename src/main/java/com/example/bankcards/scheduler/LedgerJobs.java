@@ -0,0 +1,28 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.interfaces.LedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(prefix = "transfer.ledger", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerJobs {
+
+    private final LedgerService ledgerService;
+
+    @Scheduled(fixedDelayString = "${transfer.ledger.compaction-delay-ms:10000}")
+    public void compact() {
+        ledgerService.compact();
+    }
+
+    @Scheduled(cron = "${transfer.ledger.reconciliation-cron:0 30 2 * * *}")
+    public void reconcile() {
+        int problems = ledgerService.reconcile();
+        log.info("Ledger reconciliation finished, {} problems found", problems);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.config.StandingOrderProperties;
+import com.example.bankcards.dto.standing.DueStandingOrder;
+import com.example.bankcards.service.interfaces.StandingOrderService;
+import com.example.bankcards.service.interfaces.StandingOrderService.Outcome;
+import com.example.bankcards.util.HierarchicalTimerWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Раз в prefetch-interval подгружает из базы поручения со сроком в пределах
+ * горизонта и раскладывает их по колесу таймеров; тикер раз в tick-ms проворачивает
+ * колесо и отдаёт сработавшие поручения на виртуальные потоки, не больше
+ * parallelism одновременно. Колесо — только расписание в памяти: после рестарта
+ * оно заново наполняется из standing_orders, а от двойного исполнения на разных
+ * узлах защищает блокировка строки в {@link StandingOrderService#execute}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "standing-orders", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class StandingOrderScheduler {
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 3;
+    private static final UUID MIN_UUID = new UUID(0, 0);
+
+    private final StandingOrderService standingOrderService;
+    private final StandingOrderProperties properties;
+
+    private final Set<UUID> scheduled = ConcurrentHashMap.newKeySet();
+
+    private HierarchicalTimerWheel<UUID> wheel;
+    private ExecutorService executor;
+    private Semaphore permits;
+
+    @PostConstruct
+    public void start() {
+        wheel = new HierarchicalTimerWheel<>(properties.getTickMs(), WHEEL_SIZE, WHEEL_LEVELS, System.currentTimeMillis());
+        if (properties.getHorizonMs() > wheel.horizonMillis()) {
+            throw new IllegalStateException("standing-orders.horizon-ms exceeds timer wheel range of "
+                    + wheel.horizonMillis() + " ms");
+        }
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("standing-order-", 0).factory());
+        permits = new Semaphore(properties.getParallelism(), true);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.close();
+    }
+
+    @Scheduled(fixedDelayString = "${standing-orders.tick-ms:1000}")
+    public void tick() {
+        for (UUID id : wheel.advance(System.currentTimeMillis())) {
+            dispatch(id);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${standing-orders.prefetch-interval-ms:30000}")
+    public void prefetch() {
+        LocalDateTime until = LocalDateTime.now().plusNanos(properties.getHorizonMs() * 1_000_000);
+        int batchSize = properties.getPrefetchBatchSize();
+        long afterMicros = 0;
+        UUID afterId = MIN_UUID;
+        int added = 0;
+        List<DueStandingOrder> page;
+        do {
+            page = standingOrderService.findDue(until, afterMicros, afterId, batchSize);
+            for (DueStandingOrder order : page) {
+                if (scheduled.add(order.getId())) {
+                    if (wheel.schedule(order.getDueAtMicros() / 1000, order.getId())) {
+                        added++;
+                    } else {
+                        scheduled.remove(order.getId());
+                    }
+                }
+            }
+            if (!page.isEmpty()) {
+                DueStandingOrder last = page.get(page.size() - 1);
+                afterMicros = last.getDueAtMicros();
+                afterId = last.getId();
+            }
+        } while (page.size() == batchSize);
+        if (added > 0) {
+            log.debug("Scheduled {} standing orders, {} on the wheel", added, wheel.size());
+        }
+    }
+
+    private void dispatch(UUID id) {
+        executor.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                scheduled.remove(id);
+                return;
+            }
+            try {
+                Outcome outcome = standingOrderService.execute(id);
+                log.debug("Standing order {}: {}", id, outcome);
+            } catch (RuntimeException e) {
+                log.warn("Standing order {} execution failed", id, e);
+            } finally {
+                permits.release();
+                scheduled.remove(id);
+            }
+        });
+    }
+}
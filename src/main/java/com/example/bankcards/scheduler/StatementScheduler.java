@@ -0,0 +1,35 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.interfaces.StatementService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * В начале месяца строит выписки за прошедший. Месяц считается по UTC, как и
+ * партиции журнала переводов.
+ */
+@Component
+@ConditionalOnProperty(prefix = "statements", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class StatementScheduler {
+
+    private final StatementService statementService;
+
+    @Scheduled(cron = "${statements.cron:0 0 4 1 * *}", zone = "UTC")
+    public void generatePreviousMonth() {
+        YearMonth period = YearMonth.now(ZoneOffset.UTC).minusMonths(1);
+        try {
+            statementService.generate(period);
+        } catch (RuntimeException e) {
+            log.error("Statement generation for {} failed, rerun it via POST /api/v1/statements/generate: {}",
+                    period, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.interfaces.TransferLimitService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(prefix = "transfer.limits", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class TransferLimitEvictor {
+
+    private final TransferLimitService transferLimitService;
+
+    @Scheduled(fixedDelayString = "${transfer.limits.eviction-delay-ms:300000}")
+    public void evict() {
+        int evicted = transferLimitService.evictIdle();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle transfer limit counters", evicted);
+        }
+    }
+}
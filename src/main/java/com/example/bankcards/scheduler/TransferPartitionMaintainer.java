@@ -0,0 +1,56 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.config.TransferProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Заранее создаёт месячные партиции журнала переводов. Партиция по умолчанию
+ * остаётся страховкой: если в неё попадут строки, партицию за этот месяц
+ * придётся создавать вручную.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransferPartitionMaintainer {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransferProperties transferProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensurePartitions();
+    }
+
+    @Scheduled(cron = "${transfer.journal.partition-cron:0 0 3 * * *}")
+    public void ensurePartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= transferProperties.getJournal().getPartitionsAhead(); i++) {
+            createPartition(current.plusMonths(i));
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = "transfers_" + month.format(PARTITION_SUFFIX);
+        String sql = "CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF transfers "
+                + "FOR VALUES FROM ('" + month.atDay(1) + " 00:00:00+00') "
+                + "TO ('" + month.plusMonths(1).atDay(1) + " 00:00:00+00')";
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (DataAccessException e) {
+            log.error("Failed to create transfers partition {}: {}", name, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.dto.core.IdempotencyRecord;
+import com.example.bankcards.exception.ApiError;
+import com.example.bankcards.service.interfaces.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Обрабатывает заголовок Idempotency-Key на POST-эндпоинтах, повтор которых
+ * небезопасен. Ключ действует в пределах пользователя; первый запрос выполняется
+ * и его успешный ответ сохраняется, повторы с тем же телом получают сохранённый
+ * ответ без вызова контроллера. Неуспешный ответ ключ освобождает: откатившийся
+ * запрос можно повторить с тем же ключом. Успешно выполненный запрос ключ не
+ * освобождает никогда, даже если его ответ не удалось сохранить.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final Set<String> IDEMPOTENT_PATHS = Set.of(
+            "/transactions",
+            "/transactions/batch",
+            "/transactions/async",
+            "/api/v2/transactions",
+            "/api/v1/card",
+            "/request/card_block",
+            "/api/v1/standing-orders",
+            "/api/v1/holds"
+    );
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !IDEMPOTENT_PATHS.contains(pathOf(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        UserPrincipal user = currentUser();
+        if (!StringUtils.hasText(key) || user == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST, "Idempotency-Key is too long");
+            return;
+        }
+
+        byte[] body = request.getInputStream().readAllBytes();
+        String fingerprint = fingerprint(request, body);
+
+        Optional<IdempotencyRecord> existing = idempotencyService.find(user.getId(), key);
+        if (existing.isEmpty() && idempotencyService.claim(user.getId(), key, fingerprint)) {
+            execute(new CachedBodyRequest(request, body), response, filterChain, user, key, fingerprint);
+            return;
+        }
+
+        IdempotencyRecord record = existing.or(() -> idempotencyService.find(user.getId(), key)).orElse(null);
+        if (record != null && !record.fingerprint().equals(fingerprint)) {
+            writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used with a different request");
+        } else if (record == null || !record.completed()) {
+            writeError(request, response, HttpStatus.CONFLICT,
+                    "Request with this Idempotency-Key is still in progress");
+        } else {
+            replay(record, response);
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         UserPrincipal user, String key, String fingerprint) throws ServletException, IOException {
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        boolean succeeded = false;
+        try {
+            filterChain.doFilter(request, cachingResponse);
+            succeeded = HttpStatus.valueOf(cachingResponse.getStatus()).is2xxSuccessful();
+        } finally {
+            if (!succeeded) {
+                idempotencyService.release(user.getId(), key);
+            }
+        }
+        if (succeeded) {
+            complete(cachingResponse, user, key, fingerprint);
+        }
+        cachingResponse.copyBodyToResponse();
+    }
+
+    /**
+     * К этому моменту операция уже закоммичена. Если ответ сохранить не удалось,
+     * ключ остаётся занятым до истечения TTL: повтор получит 409, но не выполнит
+     * операцию второй раз.
+     */
+    private void complete(ContentCachingResponseWrapper response, UserPrincipal user, String key, String fingerprint) {
+        try {
+            idempotencyService.complete(
+                    user.getId(), key, fingerprint,
+                    response.getStatus(),
+                    response.getContentType(),
+                    response.getContentAsByteArray()
+            );
+        } catch (RuntimeException e) {
+            log.error("Failed to store response for Idempotency-Key {}, key stays claimed until it expires", key, e);
+        }
+    }
+
+    private void replay(IdempotencyRecord record, HttpServletResponse response) throws IOException {
+        response.setStatus(record.status());
+        if (record.contentType() != null) {
+            response.setContentType(record.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (record.body() != null) {
+            response.setContentLength(record.body().length);
+            response.getOutputStream().write(record.body());
+        }
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response,
+                            HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ApiError(request.getRequestURI(), message, status.value(), LocalDateTime.now()));
+    }
+
+    static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ' ');
+            digest.update(pathOf(request).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static UserPrincipal currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal;
+        }
+        return null;
+    }
+
+    /**
+     * Тело уже прочитано ради отпечатка, дальше по цепочке отдаётся его копия.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
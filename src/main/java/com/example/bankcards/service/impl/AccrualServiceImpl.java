@@ -0,0 +1,246 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.AccrualProperties;
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.dto.accrual.AccrualPostingResponse;
+import com.example.bankcards.dto.accrual.AccrualRunResponse;
+import com.example.bankcards.dto.card.CardOwnerView;
+import com.example.bankcards.entity.AccrualRunEntity;
+import com.example.bankcards.entity.AccrualRunStatus;
+import com.example.bankcards.exception.NotAllowedException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.AccrualPostingRepository;
+import com.example.bankcards.repository.AccrualRunRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.interfaces.AccrualService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Начисление идёт порциями по первичному ключу cards. Порция — один SQL-запрос:
+ * блокирует следующие {@code chunkSize} карт в порядке id (тот же порядок, что у
+ * переводов, поэтому без deadlock), подбирает правило, пишет начисления в
+ * accrual_postings, увеличивает балансы и сдвигает контрольную точку запуска.
+ * Всё это в одной транзакции, поэтому после падения запуск продолжается с
+ * последней закоммиченной порции. Уникальность (card_id, accrual_date) не даёт
+ * начислить дважды, даже если порцию повторит другой узел.
+ * <p>
+ * В режиме леджера баланс карт не ведётся, поэтому начисление там не поддерживается.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccrualServiceImpl implements AccrualService {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String CHUNK_SQL = """
+            with rules (status, min_balance, type, rate) as (
+                values %s
+            ), chunk as (
+                select c.id, c.status, c.balance from cards c
+                where c.id > ?
+                order by c.id
+                limit ?
+                for update
+            ), accrued as (
+                select c.id as card_id, r.type, r.rate, c.balance, round(c.balance * r.rate / ?, 2) as amount
+                from chunk c
+                join lateral (
+                    select rules.type, rules.rate from rules
+                    where rules.status = cast(c.status as text) and rules.min_balance <= c.balance
+                    order by rules.min_balance desc
+                    limit 1
+                ) r on true
+            ), posted as (
+                insert into accrual_postings (card_id, accrual_date, type, rate, balance, amount, created_at)
+                select card_id, ?, type, rate, balance, amount, now() from accrued
+                where amount > 0
+                on conflict (card_id, accrual_date) do nothing
+                returning card_id, amount
+            ), credited as (
+                update cards c set balance = c.balance + p.amount, updated_at = now()
+                from posted p
+                where c.id = p.card_id
+                returning p.amount
+            ), last_card as (
+                select id from chunk order by id desc limit 1
+            ), checkpoint as (
+                update accrual_runs set
+                    last_card_id = coalesce((select id from last_card), last_card_id),
+                    cards_count = cards_count + (select count(*) from credited),
+                    total_amount = total_amount + coalesce((select sum(amount) from credited), 0),
+                    updated_at = now()
+                where accrual_date = ?
+            )
+            select (select count(*) from chunk) as scanned, (select id from last_card) as last_card_id
+            """;
+
+    private static final String RULE_VALUES = "(?, cast(? as numeric), ?, cast(? as numeric))";
+
+    private final AccrualRunRepository runRepository;
+    private final AccrualPostingRepository postingRepository;
+    private final CardRepository cardRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AccrualProperties accrualProperties;
+    private final TransferProperties transferProperties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Override
+    public AccrualRunResponse accrue(LocalDate date) {
+        if (transferProperties.getLedger().isEnabled()) {
+            throw new NotAllowedException("Accrual is not supported in ledger mode");
+        }
+        List<AccrualProperties.Rule> rules = validRules();
+        if (!running.compareAndSet(false, true)) {
+            throw new NotAllowedException("Accrual is already running");
+        }
+        try {
+            createPartition(YearMonth.from(date));
+            transactionTemplate.executeWithoutResult(status -> runRepository.insertIfAbsent(date));
+            AccrualRunEntity run = runRepository.findById(date)
+                    .orElseThrow(() -> new IllegalStateException("Accrual run for " + date + " was not created"));
+            if (run.getStatus() == AccrualRunStatus.COMPLETED) {
+                throw new NotAllowedException("Accrual for " + date + " is already completed");
+            }
+            if (run.getLastCardId() != null) {
+                log.info("Resuming accrual for {} after card {}", date, run.getLastCardId());
+            }
+
+            String sql = CHUNK_SQL.formatted(String.join(", ", Collections.nCopies(rules.size(), RULE_VALUES)));
+            int chunkSize = accrualProperties.getChunkSize();
+            UUID after = run.getLastCardId() != null ? run.getLastCardId() : new UUID(0L, 0L);
+            long started = System.nanoTime();
+            long scanned = 0;
+            while (true) {
+                Object[] args = arguments(rules, after, chunkSize, date);
+                Chunk chunk = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(sql,
+                        (rs, rowNum) -> new Chunk(rs.getInt("scanned"), rs.getObject("last_card_id", UUID.class)),
+                        args));
+                if (chunk == null) {
+                    break;
+                }
+                scanned += chunk.scanned();
+                if (chunk.scanned() < chunkSize) {
+                    break;
+                }
+                after = chunk.lastCardId();
+            }
+
+            transactionTemplate.executeWithoutResult(status -> runRepository.complete(date));
+            AccrualRunEntity completed = runRepository.findById(date).orElseThrow();
+            log.info("Accrual for {} completed: {} cards scanned, {} credited with {} in {} ms",
+                    date, scanned, completed.getCardsCount(), completed.getTotalAmount(),
+                    (System.nanoTime() - started) / 1_000_000);
+            return AccrualRunResponse.convert(completed);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LocalDate> findIncompleteRuns() {
+        return runRepository.findAllByStatusOrderByAccrualDate(AccrualRunStatus.RUNNING).stream()
+                .map(AccrualRunEntity::getAccrualDate)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AccrualRunResponse> getRuns(LocalDate from, LocalDate to) {
+        checkPeriod(from, to);
+        return runRepository.findAllByAccrualDateBetweenOrderByAccrualDateDesc(from, to).stream()
+                .map(AccrualRunResponse::convert)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AccrualPostingResponse> getCardAccruals(UUID cardId, LocalDate from, LocalDate to,
+                                                        UserPrincipal user) {
+        checkPeriod(from, to);
+        CardOwnerView card = cardRepository.findOwnerViewsById(List.of(cardId)).stream()
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException("Card not found with id: " + cardId));
+        if (user.getAuthorities().stream()
+                .anyMatch(
+                        auth -> "ROLE_USER".equals(auth.getAuthority())
+                ) && !card.userId().equals(user.getId())) {
+            throw new AccessDeniedException("Access denied to card: " + cardId);
+        }
+        return postingRepository.findAllByCardIdAndAccrualDateBetweenOrderByAccrualDateDesc(cardId, from, to).stream()
+                .map(AccrualPostingResponse::convert)
+                .toList();
+    }
+
+    private List<AccrualProperties.Rule> validRules() {
+        List<AccrualProperties.Rule> rules = accrualProperties.getRules();
+        if (rules.isEmpty()) {
+            throw new NotAllowedException("No accrual rules configured");
+        }
+        for (AccrualProperties.Rule rule : rules) {
+            if (rule.getStatus() == null || rule.getType() == null
+                    || rule.getMinBalance() == null || rule.getMinBalance().signum() < 0
+                    || rule.getAnnualRate() == null || rule.getAnnualRate().signum() < 0) {
+                throw new IllegalStateException(
+                        "accrual.rules must have status, type, non-negative min-balance and annual-rate");
+            }
+        }
+        return rules;
+    }
+
+    private Object[] arguments(List<AccrualProperties.Rule> rules, UUID after, int chunkSize, LocalDate date) {
+        List<Object> args = new ArrayList<>(rules.size() * 4 + 5);
+        for (AccrualProperties.Rule rule : rules) {
+            args.add(rule.getStatus().name());
+            args.add(rule.getMinBalance());
+            args.add(rule.getType().name());
+            args.add(rule.getAnnualRate());
+        }
+        args.add(after);
+        args.add(chunkSize);
+        args.add(accrualProperties.getDaysInYear());
+        args.add(date);
+        args.add(date);
+        return args.toArray();
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = "accrual_postings_" + month.format(PARTITION_SUFFIX);
+        String sql = "CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF accrual_postings "
+                + "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (DataAccessException e) {
+            log.error("Failed to create accrual postings partition {}: {}", name, e.getMessage());
+        }
+    }
+
+    private static void checkPeriod(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Period start must not be after its end");
+        }
+    }
+
+    private record Chunk(int scanned, UUID lastCardId) {
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.dto.card.CardOwnerView;
+import com.example.bankcards.dto.transfer.AsyncTransferStatus;
+import com.example.bankcards.dto.transfer.AsyncTransferStatus.State;
+import com.example.bankcards.dto.transfer.CreateTransferRequest;
+import com.example.bankcards.dto.transfer.TransferResponse;
+import com.example.bankcards.entity.AsyncTransferEntity;
+import com.example.bankcards.exception.NotAllowedException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.example.bankcards.repository.AsyncTransferRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.interfaces.AsyncTransferService;
+import com.example.bankcards.service.interfaces.TransactionsService;
+import com.example.bankcards.util.CardEncryption;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Принимает перевод и сразу отвечает id, а выполняет его на виртуальном потоке.
+ * Перевод до ответа 202 записывается в async_transfers как PENDING, так что
+ * принятый перевод переживает рестарт, а статус читается с любого узла.
+ * <p>
+ * Перевод и отметка COMPLETED пишутся в одной транзакции под блокировкой строки
+ * (FOR UPDATE SKIP LOCKED), поэтому перевод выполняется ровно один раз, даже если
+ * его одновременно подхватили несколько узлов. PENDING-строки, которые никто не
+ * выполнил за {@code transfer.async.recover-after-ms} (узел упал или перезапустился),
+ * подбирает {@link #recoverPending()}.
+ * <p>
+ * Число одновременно выполняемых переводов ограничено семафором под размер пула
+ * соединений; ожидающие переводы держат только виртуальный поток.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AsyncTransferServiceImpl implements AsyncTransferService {
+
+    private final TransactionsService transactionsService;
+    private final AsyncTransferRepository asyncTransferRepository;
+    private final TransferRepository transferRepository;
+    private final CardRepository cardRepository;
+    private final CardEncryption cardEncryption;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferProperties transferProperties;
+
+    /**
+     * Переводы, поставленные в очередь этого узла, и ожидающие их long-poll запросы.
+     */
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, CompletableFuture<Void>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private ExecutorService executor;
+    private Semaphore inFlight;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("async-transfer-", 0).factory());
+        inFlight = new Semaphore(transferProperties.getAsync().getMaxInFlight(), true);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        executor.close();
+    }
+
+    @Override
+    public AsyncTransferStatus submit(CreateTransferRequest request, UUID userId) {
+        if (pending.incrementAndGet() > transferProperties.getAsync().getMaxPending()) {
+            pending.decrementAndGet();
+            throw new TooManyRequestsException("Too many pending transfers, try again later");
+        }
+
+        AsyncTransferEntity transfer;
+        try {
+            transfer = asyncTransferRepository.save(AsyncTransferEntity.builder()
+                    .userId(userId)
+                    .fromCardNumberEncrypted(cardEncryption.encryptCardNumber(request.getFromCardNumber()))
+                    .toCardNumberEncrypted(cardEncryption.encryptCardNumber(request.getToCardNumber()))
+                    .amount(request.getAmount())
+                    .status(State.PENDING)
+                    .submittedAt(LocalDateTime.now())
+                    .build());
+        } catch (RuntimeException e) {
+            pending.decrementAndGet();
+            throw e;
+        }
+        queued.add(transfer.getId());
+        dispatch(transfer.getId());
+        return toStatus(transfer);
+    }
+
+    @Override
+    public AsyncTransferStatus getStatus(UUID id, UUID userId) {
+        return asyncTransferRepository.findByIdAndUserId(id, userId)
+                .map(this::toStatus)
+                .orElseThrow(() -> new NotFoundException("Transfer not found with id: " + id));
+    }
+
+    /**
+     * Дождаться завершения можно только на узле, который выполняет перевод;
+     * остальные узлы сразу отвечают текущим статусом из базы.
+     */
+    @Override
+    public CompletableFuture<AsyncTransferStatus> awaitStatus(UUID id, UUID userId, long waitMs) {
+        AsyncTransferStatus current = getStatus(id, userId);
+        long timeout = Math.min(waitMs, transferProperties.getAsync().getMaxWaitMs());
+        if (timeout <= 0 || current.getState().isFinished()) {
+            return CompletableFuture.completedFuture(current);
+        }
+        CompletableFuture<Void> done = waiters.computeIfAbsent(id, ignored -> new CompletableFuture<>());
+        if (!queued.contains(id)) {
+            waiters.remove(id, done);
+            return CompletableFuture.completedFuture(getStatus(id, userId));
+        }
+        return done.copy()
+                .completeOnTimeout(null, timeout, TimeUnit.MILLISECONDS)
+                .thenApplyAsync(ignored -> getStatus(id, userId), executor);
+    }
+
+    @Override
+    public int purgeFinished() {
+        return asyncTransferRepository.deleteCompletedBefore(LocalDateTime.now().minusNanos(
+                TimeUnit.MILLISECONDS.toNanos(transferProperties.getAsync().getResultTtlMs())));
+    }
+
+    @Override
+    public int recoverPending() {
+        TransferProperties.Async async = transferProperties.getAsync();
+        LocalDateTime before = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(async.getRecoverAfterMs()));
+        int recovered = 0;
+        for (UUID id : asyncTransferRepository.findPendingSubmittedBefore(before, async.getRecoverBatchSize())) {
+            if (!queued.add(id)) {
+                continue;
+            }
+            if (pending.incrementAndGet() > async.getMaxPending()) {
+                pending.decrementAndGet();
+                queued.remove(id);
+                break;
+            }
+            dispatch(id);
+            recovered++;
+        }
+        return recovered;
+    }
+
+    private void dispatch(UUID id) {
+        try {
+            executor.execute(() -> run(id));
+        } catch (RejectedExecutionException e) {
+            finish(id);
+            log.warn("Async transfer {} was not dispatched, it stays pending for recovery", id);
+        }
+    }
+
+    private void run(UUID id) {
+        try {
+            inFlight.acquire();
+            try {
+                execute(id);
+            } finally {
+                inFlight.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            finish(id);
+        }
+    }
+
+    private void execute(UUID id) {
+        String error;
+        try {
+            transactionTemplate.execute(status -> {
+                asyncTransferRepository.lockPending(id).ifPresent(this::transfer);
+                return null;
+            });
+            return;
+        } catch (NotAllowedException | NotFoundException | IllegalArgumentException e) {
+            error = e.getMessage();
+        } catch (PessimisticLockingFailureException e) {
+            error = "Card is busy, try again later";
+        } catch (RuntimeException e) {
+            log.error("Async transfer {} failed", id, e);
+            error = "Transfer failed";
+        }
+        try {
+            asyncTransferRepository.markFailed(id, error);
+        } catch (RuntimeException e) {
+            log.error("Failed to record failure of async transfer {}, it stays pending", id, e);
+        }
+    }
+
+    private void transfer(AsyncTransferEntity transfer) {
+        Map<String, UUID> cardIds = cardRepository.findOwnerViewsByCardNumberEncrypted(
+                        List.of(transfer.getFromCardNumberEncrypted(), transfer.getToCardNumberEncrypted())).stream()
+                .collect(Collectors.toMap(CardOwnerView::cardNumberEncrypted, CardOwnerView::id, (a, b) -> a));
+        UUID fromCardId = cardIds.get(transfer.getFromCardNumberEncrypted());
+        UUID toCardId = cardIds.get(transfer.getToCardNumberEncrypted());
+        if (fromCardId == null || toCardId == null) {
+            throw new NotFoundException("Card number not found");
+        }
+
+        TransferResponse result = transactionsService.transferInCurrentTransaction(
+                fromCardId, toCardId, transfer.getAmount(), transfer.getUserId());
+        transfer.setStatus(State.COMPLETED);
+        transfer.setTransferId(result.getId());
+        transfer.setCompletedAt(LocalDateTime.now());
+    }
+
+    private void finish(UUID id) {
+        queued.remove(id);
+        pending.decrementAndGet();
+        CompletableFuture<Void> done = waiters.remove(id);
+        if (done != null) {
+            done.complete(null);
+        }
+    }
+
+    private AsyncTransferStatus toStatus(AsyncTransferEntity transfer) {
+        TransferResponse result = transfer.getTransferId() == null ? null
+                : transferRepository.findById(transfer.getTransferId()).map(TransferResponse::convert).orElse(null);
+        return AsyncTransferStatus.builder()
+                .id(transfer.getId())
+                .state(transfer.getStatus())
+                .transfer(result)
+                .error(transfer.getError())
+                .submittedAt(transfer.getSubmittedAt())
+                .completedAt(transfer.getCompletedAt())
+                .build();
+    }
+}
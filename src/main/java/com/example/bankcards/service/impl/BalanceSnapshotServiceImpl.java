@@ -0,0 +1,203 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.BalanceSnapshotProperties;
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.dto.snapshot.BalanceSnapshotRunResponse;
+import com.example.bankcards.dto.snapshot.CardBalanceSnapshotResponse;
+import com.example.bankcards.entity.BalanceSnapshotRunEntity;
+import com.example.bankcards.entity.CardBalanceSnapshotEntity;
+import com.example.bankcards.exception.NotAllowedException;
+import com.example.bankcards.repository.BalanceSnapshotRunRepository;
+import com.example.bankcards.repository.CardBalanceSnapshotRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.interfaces.BalanceSnapshotService;
+import com.example.bankcards.util.CardIdRanges;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Снимок балансов на конец дня. Координатор открывает транзакцию REPEATABLE READ и
+ * экспортирует её снимок (pg_export_snapshot), рабочие потоки импортируют его
+ * (SET TRANSACTION SNAPSHOT) и копируют каждый свой диапазон карт одним
+ * INSERT ... SELECT. Все диапазоны видят базу в один и тот же момент, сколько бы
+ * переводов ни шло параллельно; координатор держит транзакцию, пока копирование не
+ * закончится. В режиме леджера баланс считается по последнему снимку и проводкам.
+ * <p>
+ * История балансов читается только из таблицы снимков, живая cards не затрагивается.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceSnapshotServiceImpl implements BalanceSnapshotService {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String COPY_CARDS_SQL = """
+            insert into card_balance_snapshots (card_id, snapshot_date, user_id, status, balance, held_amount, taken_at)
+            select c.id, ?, c.user_id, cast(c.status as text), c.balance, c.held_amount, ?
+            from cards c
+            where c.id between ? and ?
+            """;
+
+    private static final String COPY_LEDGER_SQL = """
+            insert into card_balance_snapshots (card_id, snapshot_date, user_id, status, balance, held_amount, taken_at)
+            select c.id, ?, c.user_id, cast(c.status as text),
+                   coalesce(s.balance, c.balance) + coalesce((
+                       select sum(p.amount) from ledger_postings p
+                       where p.card_id = c.id and p.id > coalesce(s.last_posting_id, 0)
+                   ), 0),
+                   c.held_amount, ?
+            from cards c
+            left join lateral (
+                select balance, last_posting_id from ledger_snapshots
+                where card_id = c.id
+                order by last_posting_id desc
+                limit 1
+            ) s on true
+            where c.id between ? and ?
+            """;
+
+    private final CardBalanceSnapshotRepository snapshotRepository;
+    private final BalanceSnapshotRunRepository runRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final BalanceSnapshotProperties properties;
+    private final TransferProperties transferProperties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private TransactionTemplate repeatableRead;
+
+    @PostConstruct
+    public void init() {
+        repeatableRead = new TransactionTemplate(transactionManager);
+        repeatableRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Override
+    public BalanceSnapshotRunResponse takeSnapshot(LocalDate date) {
+        if (!running.compareAndSet(false, true)) {
+            throw new NotAllowedException("Balance snapshot is already running");
+        }
+        try {
+            if (runRepository.existsById(date)) {
+                throw new NotAllowedException("Balance snapshot for " + date + " is already taken");
+            }
+            int ranges = CardIdRanges.validate(properties.getRanges(), "balance-snapshots.ranges");
+            createPartition(YearMonth.from(date));
+            transactionTemplate.executeWithoutResult(status -> snapshotRepository.deleteByDate(date));
+
+            long started = System.nanoTime();
+            BalanceSnapshotRunEntity run = repeatableRead.execute(status -> {
+                String snapshotId = jdbcTemplate.queryForObject("select pg_export_snapshot()", String.class);
+                OffsetDateTime takenAt = jdbcTemplate.queryForObject("select now()", OffsetDateTime.class);
+                int cards = copyRanges(snapshotId, date, takenAt, ranges);
+                return runRepository.save(BalanceSnapshotRunEntity.builder()
+                        .snapshotDate(date)
+                        .takenAt(takenAt.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime())
+                        .cardsCount(cards)
+                        .durationMs((System.nanoTime() - started) / 1_000_000)
+                        .build());
+            });
+            log.info("Balance snapshot for {} taken: {} cards in {} ms", date, run.getCardsCount(), run.getDurationMs());
+            return BalanceSnapshotRunResponse.convert(run);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BalanceSnapshotRunResponse> getRuns(LocalDate from, LocalDate to) {
+        checkPeriod(from, to);
+        return runRepository.findAllBySnapshotDateBetweenOrderBySnapshotDateDesc(from, to).stream()
+                .map(BalanceSnapshotRunResponse::convert)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CardBalanceSnapshotResponse> getCardHistory(UUID cardId, LocalDate from, LocalDate to,
+                                                            UserPrincipal user) {
+        checkPeriod(from, to);
+        List<CardBalanceSnapshotEntity> snapshots =
+                snapshotRepository.findAllByCardIdAndSnapshotDateBetweenOrderBySnapshotDate(cardId, from, to);
+        if (user.getAuthorities().stream()
+                .anyMatch(
+                        auth -> "ROLE_USER".equals(auth.getAuthority())
+                ) && snapshots.stream().anyMatch(snapshot -> !snapshot.getUserId().equals(user.getId()))) {
+            throw new AccessDeniedException("Access denied to card: " + cardId);
+        }
+        return snapshots.stream().map(CardBalanceSnapshotResponse::convert).toList();
+    }
+
+    private int copyRanges(String snapshotId, LocalDate date, OffsetDateTime takenAt, int ranges) {
+        String sql = transferProperties.getLedger().isEnabled() ? COPY_LEDGER_SQL : COPY_CARDS_SQL;
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.min(ranges, properties.getWorkerThreads()))) {
+            List<Future<Integer>> futures = new ArrayList<>(ranges);
+            for (int range = 0; range < ranges; range++) {
+                UUID lower = CardIdRanges.lowerBound(range, ranges);
+                UUID upper = CardIdRanges.upperBound(range, ranges);
+                futures.add(executor.submit(() -> repeatableRead.execute(status -> {
+                    jdbcTemplate.execute("set transaction snapshot '" + snapshotId + "'");
+                    return jdbcTemplate.update(sql, date, takenAt, lower, upper);
+                })));
+            }
+            int cards = 0;
+            for (Future<Integer> future : futures) {
+                cards += future.get();
+            }
+            return cards;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Balance snapshot interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Balance snapshot failed", e.getCause());
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = "card_balance_snapshots_" + month.format(PARTITION_SUFFIX);
+        String sql = "CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF card_balance_snapshots "
+                + "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (DataAccessException e) {
+            log.error("Failed to create balance snapshot partition {}: {}", name, e.getMessage());
+        }
+    }
+
+    private void checkPeriod(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Period start must not be after its end");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= properties.getMaxHistoryDays()) {
+            throw new IllegalArgumentException("Period must not exceed " + properties.getMaxHistoryDays() + " days");
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.NotificationProperties;
+import com.example.bankcards.dto.card.CardChangeEvent;
+import com.example.bankcards.dto.card.CardResponse;
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.exception.NotAllowedException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.interfaces.CardNotificationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Подписчик, которому нечего отправлять, — это только SseEmitter в карте: поток
+ * сервлета освобождается сразу, а виртуальный поток отправителя живёт, пока у
+ * подписчика есть очередь. Очередь — множество id карт: изменения одной карты
+ * схлопываются, и клиент получает её текущее состояние, поэтому медленный клиент
+ * занимает не больше памяти, чем у него карт.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CardNotificationServiceImpl implements CardNotificationService {
+
+    private final CardRepository cardRepository;
+    private final NotificationProperties notificationProperties;
+
+    private final Map<UUID, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private ExecutorService senders;
+
+    @PostConstruct
+    public void init() {
+        senders = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(list -> list.forEach(subscriber -> subscriber.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    @Override
+    public SseEmitter subscribe(UUID userId) {
+        if (subscriberCount.incrementAndGet() > notificationProperties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new NotAllowedException("Too many subscribers");
+        }
+
+        SseEmitter emitter = new SseEmitter(notificationProperties.getEmitterTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(subscriber));
+
+        List<Subscriber> evicted = new ArrayList<>();
+        subscribers.compute(userId, (id, list) -> {
+            List<Subscriber> updated = list != null ? list : new CopyOnWriteArrayList<>();
+            updated.add(subscriber);
+            while (updated.size() > notificationProperties.getMaxSubscribersPerUser()) {
+                evicted.add(updated.remove(0));
+            }
+            return updated;
+        });
+        evicted.forEach(this::close);
+
+        try {
+            emitter.send(SseEmitter.event().reconnectTime(notificationProperties.getReconnectMs()).comment("connected"));
+        } catch (IOException e) {
+            close(subscriber);
+        }
+        return emitter;
+    }
+
+    @Override
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCardChange(CardChangeEvent event) {
+        List<Subscriber> targets = subscribers.get(event.userId());
+        if (targets == null) {
+            return;
+        }
+        targets.forEach(subscriber -> subscriber.offer(event.cardIds()));
+    }
+
+    @Override
+    public int heartbeat() {
+        long stalledBefore = System.currentTimeMillis() - notificationProperties.getStallTimeout().toMillis();
+        subscribers.values().forEach(list -> list.forEach(subscriber -> {
+            if (subscriber.stalledSince(stalledBefore)) {
+                log.debug("Closing stalled subscriber of user {}", subscriber.userId);
+                close(subscriber);
+            } else {
+                subscriber.ping();
+            }
+        }));
+        return subscriberCount.get();
+    }
+
+    private void close(Subscriber subscriber) {
+        remove(subscriber);
+        subscriber.emitter.complete();
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscribers.computeIfPresent(subscriber.userId, (id, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    private final class Subscriber {
+
+        private final UUID userId;
+        private final SseEmitter emitter;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        // guarded by this
+        private final Set<UUID> pendingCards = new LinkedHashSet<>();
+        private boolean heartbeatDue;
+        private boolean draining;
+        private long drainStartedAt;
+
+        private Subscriber(UUID userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(Collection<UUID> cardIds) {
+            synchronized (this) {
+                pendingCards.addAll(cardIds);
+                if (!startDrain()) {
+                    return;
+                }
+            }
+            senders.execute(this::drain);
+        }
+
+        void ping() {
+            synchronized (this) {
+                heartbeatDue = true;
+                if (!startDrain()) {
+                    return;
+                }
+            }
+            senders.execute(this::drain);
+        }
+
+        synchronized boolean stalledSince(long threshold) {
+            return draining && drainStartedAt < threshold;
+        }
+
+        private boolean startDrain() {
+            if (draining || closed.get()) {
+                return false;
+            }
+            draining = true;
+            drainStartedAt = System.currentTimeMillis();
+            return true;
+        }
+
+        private void drain() {
+            while (true) {
+                List<UUID> cardIds;
+                boolean ping;
+                synchronized (this) {
+                    if ((pendingCards.isEmpty() && !heartbeatDue) || closed.get()) {
+                        draining = false;
+                        return;
+                    }
+                    cardIds = List.copyOf(pendingCards);
+                    pendingCards.clear();
+                    ping = heartbeatDue;
+                    heartbeatDue = false;
+                    drainStartedAt = System.currentTimeMillis();
+                }
+                try {
+                    if (!cardIds.isEmpty()) {
+                        for (CardEntity card : cardRepository.findAllById(cardIds)) {
+                            emitter.send(SseEmitter.event().name("card").data(CardResponse.convert(card)));
+                        }
+                    } else if (ping) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    close(this);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to push card changes to user {}: {}", userId, e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -1,9 +1,22 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.config.BatchGetProperties;
+import com.example.bankcards.config.CardSyncProperties;
+import com.example.bankcards.dto.card.CardChangeEvent;
+import com.example.bankcards.dto.card.CardChangeToken;
+import com.example.bankcards.dto.card.CardChangesResponse;
+import com.example.bankcards.dto.card.CardDailyCreated;
+import com.example.bankcards.dto.card.CardField;
 import com.example.bankcards.dto.card.CardResponse;
+import com.example.bankcards.dto.card.CardSetVersion;
+import com.example.bankcards.dto.card.CardStatsResponse;
+import com.example.bankcards.dto.card.CardStatusStats;
+import com.example.bankcards.dto.card.CardVersion;
 import com.example.bankcards.dto.card.CreateCardRequest;
 import com.example.bankcards.dto.card.CreateCardResponse;
+import com.example.bankcards.dto.core.BatchGetResponse;
 import com.example.bankcards.dto.core.PagedResponse;
+import com.example.bankcards.dto.core.ResourceVersion;
 import com.example.bankcards.entity.CardEntity;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.UserEntity;
@@ -16,6 +29,7 @@ import com.example.bankcards.util.CardEncryption;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -25,12 +39,20 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.security.SecureRandom;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -41,22 +63,88 @@ public class CardServiceImpl implements CardService {
     private final CardRepository cardRepository;
     private final UserRepository userRepository;
     private final CardEncryption cardEncryption;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CardSyncProperties cardSyncProperties;
+    private final BatchGetProperties batchGetProperties;
 
     private static final String CARD_BIN = "427701";
     private static final int CARD_NUMBER_LENGTH = 16;
     private static final int CARD_VALIDITY_YEARS = 4;
+    private static final String EXPAND_OWNER = "owner";
+    private static final int MAX_STATS_DAYS = 366;
 
     @Override
     public CardResponse getCardByIdIfHaveAccess(UUID cardId, UserPrincipal user){
         CardEntity card = findCard(cardId);
+        checkAccess(cardId, card.getUser().getId(), user);
+        return CardResponse.convert(card);
+    }
 
-        if (user.getAuthorities().stream()
-                .anyMatch(
-                        auth -> "ROLE_USER".equals(auth.getAuthority())
-                ) && !card.getUser().getId().equals(user.getId())) {
-            throw new AccessDeniedException("Access denied to card: " + cardId);
+    /**
+     * Версия читается из покрывающего индекса; те же проверки доступа, что и при
+     * чтении карты, чтобы 304 не выдавал существование чужих карт.
+     */
+    @Override
+    public ResourceVersion getCardVersion(UUID cardId, UserPrincipal user) {
+        CardVersion version = cardRepository.findVersionById(cardId)
+                .orElseThrow(() -> new NotFoundException("Card not found with id: " + cardId));
+        checkAccess(cardId, version.getUserId(), user);
+        return new ResourceVersion(Long.toString(version.getChangeXid()), version.getUpdatedAtMillis());
+    }
+
+    @Override
+    public BatchGetResponse<CardResponse> getCardsByIds(List<UUID> ids, UserPrincipal user) {
+        Set<UUID> distinct = BatchGetResponse.distinctIds(ids, batchGetProperties.getMaxIds());
+        List<CardEntity> cards = isUserRole(user)
+                ? cardRepository.findAllByIdAndUserId(distinct, user.getId())
+                : cardRepository.findAllById(distinct);
+        Map<UUID, CardResponse> found = cards.stream()
+                .collect(Collectors.toMap(CardEntity::getId, CardResponse::convert));
+        return BatchGetResponse.of(distinct, found);
+    }
+
+    @Override
+    public CardStatsResponse getCardStats(int days) {
+        if (days < 1 || days > MAX_STATS_DAYS) {
+            throw new IllegalArgumentException("Days must be between 1 and " + MAX_STATS_DAYS);
         }
-        return CardResponse.convert(card);
+        Map<CardStatus, CardStatsResponse.StatusStats> byStatus = new EnumMap<>(CardStatus.class);
+        for (CardStatus status : CardStatus.values()) {
+            byStatus.put(status, new CardStatsResponse.StatusStats(status, 0, BigDecimal.ZERO));
+        }
+        long totalCards = 0;
+        BigDecimal totalBalance = BigDecimal.ZERO;
+        for (CardStatusStats stats : cardRepository.findStatusStats()) {
+            CardStatus status = CardStatus.valueOf(stats.getStatus());
+            byStatus.put(status, new CardStatsResponse.StatusStats(status, stats.getCardsCount(), stats.getTotalBalance()));
+            totalCards += stats.getCardsCount();
+            totalBalance = totalBalance.add(stats.getTotalBalance());
+        }
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate from = today.minusDays(days - 1);
+        Map<Long, Long> created = cardRepository.findDailyCreatedSince(from).stream()
+                .collect(Collectors.toMap(CardDailyCreated::getEpochDay, CardDailyCreated::getCreatedCount));
+        List<CardStatsResponse.DailyCreated> createdPerDay = from.datesUntil(today.plusDays(1))
+                .map(day -> new CardStatsResponse.DailyCreated(day, created.getOrDefault(day.toEpochDay(), 0L)))
+                .toList();
+
+        return CardStatsResponse.builder()
+                .totalCards(totalCards)
+                .totalBalance(totalBalance)
+                .averageBalance(totalCards == 0
+                        ? BigDecimal.ZERO
+                        : totalBalance.divide(BigDecimal.valueOf(totalCards), 2, RoundingMode.HALF_UP))
+                .byStatus(List.copyOf(byStatus.values()))
+                .createdPerDay(createdPerDay)
+                .build();
+    }
+
+    @Override
+    public ResourceVersion getUserCardsVersion(UUID userId, List<String> expand) {
+        CardSetVersion version = cardRepository.findVersionByUserId(userId);
+        String eTag = version.getCount() + "." + version.getMaxChangeXid();
+        return ResourceVersion.of(expandsOwner(expand) ? eTag + "." + version.getOwnerUpdatedAtMicros() : eTag);
     }
 
     @Override
@@ -91,13 +179,14 @@ public class CardServiceImpl implements CardService {
             BigDecimal minBalance,
             BigDecimal maxBalance,
             LocalDateTime createdAfter,
-            LocalDateTime createdBefore
+            LocalDateTime createdBefore,
+            List<String> fields,
+            List<String> expand
     ) {
         Specification<CardEntity> spec = buildSpecification(
                 null, search, status, minBalance, maxBalance, createdAfter, createdBefore
         );
-        Page<CardEntity> page = cardRepository.findAll(spec, pageable);
-        return toPagedResponse(page);
+        return findCards(spec, pageable, fields, expand);
     }
 
     @Override
@@ -109,13 +198,14 @@ public class CardServiceImpl implements CardService {
             BigDecimal minBalance,
             BigDecimal maxBalance,
             LocalDateTime createdAfter,
-            LocalDateTime createdBefore
+            LocalDateTime createdBefore,
+            List<String> fields,
+            List<String> expand
     ) {
         Specification<CardEntity> spec = buildSpecification(
                 userId, search, status, minBalance, maxBalance, createdAfter, createdBefore
         );
-        Page<CardEntity> page = cardRepository.findAll(spec, pageable);
-        return toPagedResponse(page);
+        return findCards(spec, pageable, fields, expand);
     }
 
     @Override
@@ -124,6 +214,7 @@ public class CardServiceImpl implements CardService {
         CardEntity card = findCard(cardId);
         card.setStatus(CardStatus.BLOCKED);
         CardEntity saved = cardRepository.save(card);
+        eventPublisher.publishEvent(CardChangeEvent.of(card.getUser().getId(), cardId));
         log.info("Card {} blocked", cardId);
         return CardResponse.convert(saved);
     }
@@ -137,6 +228,7 @@ public class CardServiceImpl implements CardService {
         }
         card.setStatus(CardStatus.ACTIVE);
         CardEntity saved = cardRepository.save(card);
+        eventPublisher.publishEvent(CardChangeEvent.of(card.getUser().getId(), cardId));
         log.info("Card {} unblocked", cardId);
         return CardResponse.convert(saved);
     }
@@ -147,6 +239,7 @@ public class CardServiceImpl implements CardService {
         CardEntity card = findCard(cardId);
         card.setStatus(CardStatus.ACTIVE);
         CardEntity saved = cardRepository.save(card);
+        eventPublisher.publishEvent(CardChangeEvent.of(card.getUser().getId(), cardId));
         log.info("Card {} activated", cardId);
         return CardResponse.convert(saved);
     }
@@ -159,6 +252,51 @@ public class CardServiceImpl implements CardService {
         log.info("Card {} deleted", cardId);
     }
 
+    /**
+     * Граница берётся до чтения карт: изменение, закоммиченное между запросами,
+     * придёт и сейчас, и в следующий раз, но не потеряется.
+     */
+    @Override
+    public CardChangesResponse getMyCardChanges(UUID userId, String since) {
+        CardChangeToken token = CardChangeToken.decode(since);
+        long watermark = cardRepository.currentChangeWatermark();
+        long oldestValid = Instant.now().minus(cardSyncProperties.getTombstoneRetention()).getEpochSecond();
+        boolean full = token == null || token.issuedAt() < oldestValid;
+        long from = full ? 0 : token.watermark();
+
+        List<CardResponse> changed = cardRepository.findChangedSince(userId, from).stream()
+                .map(CardResponse::convert)
+                .toList();
+        List<UUID> deleted = full ? List.of() : cardRepository.findDeletedSince(userId, from);
+
+        return CardChangesResponse.builder()
+                .full(full)
+                .changed(changed)
+                .deleted(deleted)
+                .nextToken(CardChangeToken.issue(watermark).encode())
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public int purgeTombstones() {
+        return cardRepository.purgeTombstones(
+                OffsetDateTime.now(ZoneOffset.UTC).minus(cardSyncProperties.getTombstoneRetention()));
+    }
+
+    private static void checkAccess(UUID cardId, UUID ownerId, UserPrincipal user) {
+        if (isUserRole(user) && !ownerId.equals(user.getId())) {
+            throw new AccessDeniedException("Access denied to card: " + cardId);
+        }
+    }
+
+    private static boolean isUserRole(UserPrincipal user) {
+        return user.getAuthorities().stream()
+                .anyMatch(
+                        auth -> "ROLE_USER".equals(auth.getAuthority())
+                );
+    }
+
     private CardEntity findCard(UUID cardId) {
         return cardRepository.findById(cardId)
                 .orElseThrow(() -> new NotFoundException("Card not found with id: " + cardId));
@@ -204,12 +342,39 @@ public class CardServiceImpl implements CardService {
         };
     }
 
-    private PagedResponse<CardResponse> toPagedResponse(Page<CardEntity> page) {
-        List<CardResponse> list = page.getContent().stream()
-                .map(CardResponse::convert)
-                .toList();
+    /**
+     * Без fields и expand — как раньше, через сущности. Иначе читаются только
+     * запрошенные колонки, а владелец — join-ом в том же запросе.
+     */
+    private PagedResponse<CardResponse> findCards(
+            Specification<CardEntity> spec,
+            Pageable pageable,
+            List<String> fields,
+            List<String> expand
+    ) {
+        Set<CardField> cardFields = CardField.parse(fields);
+        boolean withOwner = expandsOwner(expand);
+        if ((fields == null || fields.isEmpty()) && !withOwner) {
+            return toPagedResponse(cardRepository.findAll(spec, pageable).map(CardResponse::convert));
+        }
+        return toPagedResponse(cardRepository.findAllFields(spec, cardFields, withOwner, pageable));
+    }
+
+    private static boolean expandsOwner(List<String> expand) {
+        if (expand == null) {
+            return false;
+        }
+        for (String value : expand) {
+            if (!EXPAND_OWNER.equals(value.trim())) {
+                throw new IllegalArgumentException("Unknown expand: " + value);
+            }
+        }
+        return !expand.isEmpty();
+    }
+
+    private PagedResponse<CardResponse> toPagedResponse(Page<CardResponse> page) {
         return PagedResponse.<CardResponse>builder()
-                .content(list)
+                .content(page.getContent())
                 .page(page.getNumber())
                 .size(page.getSize())
                 .totalElements(page.getTotalElements())
@@ -0,0 +1,208 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.config.TransferProperties.Fraud.AnomalyAction;
+import com.example.bankcards.exception.NotAllowedException;
+import com.example.bankcards.repository.RequestRepository;
+import com.example.bankcards.service.interfaces.FraudDetectionService;
+import com.example.bankcards.util.VelocityTable;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Проверка перевода по статистике карты в памяти, без запросов к истории: число и
+ * сумма переводов за скользящее окно и EWMA суммы. Превышение окна отклоняет
+ * перевод, необычно крупная сумма по настройке либо отклоняет его, либо после
+ * коммита заводит на карту заявку со статусом NEW.
+ * <p>
+ * Статистика у каждого узла своя; перевод учитывается в окне сразу и снимается
+ * при откате, в EWMA попадает только после коммита.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FraudDetectionServiceImpl implements FraudDetectionService {
+
+    private static final int MAX_REASON_LENGTH = 255;
+
+    private final TransferProperties transferProperties;
+    private final RequestRepository requestRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private ReentrantLock[] locks;
+    private VelocityTable[] tables;
+    private TransactionTemplate flagTransaction;
+
+    @PostConstruct
+    public void init() {
+        TransferProperties.Fraud fraud = transferProperties.getFraud();
+        int stripes = fraud.getStripes();
+        if (stripes < 1 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalStateException("transfer.fraud.stripes must be a power of two");
+        }
+        int perStripe = Math.max(1, (fraud.getMaxCards() + stripes - 1) / stripes);
+        locks = new ReentrantLock[stripes];
+        tables = new VelocityTable[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+            tables[i] = new VelocityTable(perStripe, fraud.getWindowMs());
+        }
+        flagTransaction = new TransactionTemplate(transactionManager);
+        flagTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void inspect(UUID cardId, BigDecimal amount) {
+        TransferProperties.Fraud fraud = transferProperties.getFraud();
+        if (!fraud.isEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long cents = toCents(amount);
+        int stripe = stripe(cardId);
+        VelocityTable table = tables[stripe];
+
+        Signal signal;
+        locks[stripe].lock();
+        try {
+            int slot = table.slot(cardId, now, true);
+            if (slot < 0) {
+                log.debug("Velocity table is full, card {} is not tracked", cardId);
+                return;
+            }
+            if (fraud.getMaxTransfersPerWindow() > 0
+                    && table.windowCount(slot, now) + 1 > fraud.getMaxTransfersPerWindow()) {
+                throw new NotAllowedException("Transfer velocity limit exceeded for card");
+            }
+            if (fraud.getMaxAmountPerWindow() != null
+                    && table.windowCents(slot, now) + cents > toCents(fraud.getMaxAmountPerWindow())) {
+                throw new NotAllowedException("Transfer amount velocity limit exceeded for card");
+            }
+
+            String anomaly = anomaly(table, slot, amount, fraud);
+            if (anomaly != null && fraud.getAnomalyAction() == AnomalyAction.REJECT) {
+                throw new NotAllowedException("Transfer amount is unusual for this card");
+            }
+            boolean flag = anomaly != null && now - table.lastFlagged(slot) >= fraud.getFlagCooldownMs();
+            if (flag) {
+                table.markFlagged(slot, now);
+            }
+            signal = new Signal(cardId, stripe, table.add(slot, now, cents), cents, amount, flag ? anomaly : null);
+        } finally {
+            locks[stripe].unlock();
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(signal);
+        } else {
+            signal.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+
+    @Override
+    public int evictIdle() {
+        long cutoff = System.currentTimeMillis() - transferProperties.getFraud().getIdleTtlMs();
+        int evicted = 0;
+        for (int i = 0; i < tables.length; i++) {
+            locks[i].lock();
+            try {
+                evicted += tables[i].evictIdle(cutoff);
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return evicted;
+    }
+
+    private static String anomaly(VelocityTable table, int slot, BigDecimal amount, TransferProperties.Fraud fraud) {
+        if (table.samples(slot) < fraud.getMinSamples()) {
+            return null;
+        }
+        double mean = table.mean(slot);
+        double threshold = mean + fraud.getAnomalySigma() * table.stdDev(slot);
+        if (amount.doubleValue() <= threshold) {
+            return null;
+        }
+        return String.format("Suspicious transfer: amount %s exceeds card average %.2f by more than %.1f sigma",
+                amount.toPlainString(), mean, fraud.getAnomalySigma());
+    }
+
+    private void flag(UUID cardId, String reason) {
+        try {
+            Integer inserted = flagTransaction.execute(status -> requestRepository.insertIfNoneOpen(
+                    cardId, reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason));
+            if (inserted != null && inserted > 0) {
+                log.info("Card {} flagged: {}", cardId, reason);
+            } else {
+                log.info("Card {} flagged, open request already exists: {}", cardId, reason);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to create fraud request for card {}: {}", cardId, e.getMessage());
+        }
+    }
+
+    private int stripe(UUID cardId) {
+        return cardId.hashCode() & (locks.length - 1);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Итог проверки одного перевода: при откате снимает его с окна, при коммите
+     * учитывает сумму в EWMA и, если перевод помечен, заводит заявку.
+     */
+    private final class Signal implements TransactionSynchronization {
+
+        private final UUID cardId;
+        private final int stripe;
+        private final long window;
+        private final long cents;
+        private final BigDecimal amount;
+        private final String flagReason;
+
+        private Signal(UUID cardId, int stripe, long window, long cents, BigDecimal amount, String flagReason) {
+            this.cardId = cardId;
+            this.stripe = stripe;
+            this.window = window;
+            this.cents = cents;
+            this.amount = amount;
+            this.flagReason = flagReason;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            boolean committed = status == STATUS_COMMITTED;
+            locks[stripe].lock();
+            try {
+                VelocityTable table = tables[stripe];
+                int slot = table.slot(cardId, System.currentTimeMillis(), false);
+                if (slot >= 0) {
+                    if (committed) {
+                        table.observe(slot, amount.doubleValue(), transferProperties.getFraud().getEwmaAlpha());
+                    } else {
+                        table.subtract(slot, window, cents);
+                    }
+                }
+            } finally {
+                locks[stripe].unlock();
+            }
+            if (committed && flagReason != null) {
+                flag(cardId, flagReason);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.HoldProperties;
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.dto.card.CardOwnerView;
+import com.example.bankcards.dto.hold.AuthorizeHoldRequest;
+import com.example.bankcards.dto.hold.HoldResponse;
+import com.example.bankcards.entity.CardHoldEntity;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.HoldStatus;
+import com.example.bankcards.exception.NotAllowedException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.CardHoldRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.interfaces.HoldService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Холды работают поверх cards.balance: авторизация увеличивает held_amount,
+ * списание уменьшает balance и held_amount, снятие и истечение — только held_amount.
+ * Переводы сверяют сумму с balance - held_amount. В режиме леджера баланс карт не
+ * ведётся, поэтому холды там не поддерживаются.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HoldServiceImpl implements HoldService {
+
+    private final CardHoldRepository cardHoldRepository;
+    private final CardRepository cardRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final HoldProperties holdProperties;
+    private final TransferProperties transferProperties;
+
+    @Override
+    @Transactional
+    public HoldResponse authorize(AuthorizeHoldRequest request, UUID userId) {
+        if (transferProperties.getLedger().isEnabled()) {
+            throw new NotAllowedException("Holds are not supported in ledger mode");
+        }
+        if (request.getCardId() == null) {
+            throw new IllegalArgumentException("Card id is required");
+        }
+        BigDecimal amount = request.getAmount();
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        Duration ttl = request.getTtl() != null ? request.getTtl() : holdProperties.getDefaultTtl();
+        if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(holdProperties.getMaxTtl()) > 0) {
+            throw new IllegalArgumentException("Hold ttl must be positive and not exceed " + holdProperties.getMaxTtl());
+        }
+
+        cardRepository.setLocalLockTimeout(transferProperties.getLockTimeoutMs() + "ms");
+        return cardHoldRepository.authorize(
+                        request.getCardId(), userId, amount, request.getReference(), LocalDateTime.now().plus(ttl))
+                .map(HoldResponse::convert)
+                .orElseThrow(() -> rejection(request.getCardId(), userId));
+    }
+
+    @Override
+    @Transactional
+    public HoldResponse capture(UUID id, BigDecimal amount, UserPrincipal user) {
+        CardHoldEntity hold = findHold(id, user);
+        BigDecimal captured = amount != null ? amount : hold.getAmount();
+        if (captured.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (captured.compareTo(hold.getAmount()) > 0) {
+            throw new IllegalArgumentException("Capture amount exceeds hold amount");
+        }
+        requireAuthorized(hold);
+
+        cardRepository.setLocalLockTimeout(transferProperties.getLockTimeoutMs() + "ms");
+        if (cardHoldRepository.capture(id, captured) == 0) {
+            throw new NotAllowedException("Hold is no longer active");
+        }
+        return HoldResponse.convert(findHold(id, user));
+    }
+
+    @Override
+    @Transactional
+    public HoldResponse release(UUID id, UserPrincipal user) {
+        requireAuthorized(findHold(id, user));
+
+        cardRepository.setLocalLockTimeout(transferProperties.getLockTimeoutMs() + "ms");
+        if (cardHoldRepository.release(id) == 0) {
+            throw new NotAllowedException("Hold is no longer active");
+        }
+        return HoldResponse.convert(findHold(id, user));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public HoldResponse getHold(UUID id, UserPrincipal user) {
+        return HoldResponse.convert(findHold(id, user));
+    }
+
+    /**
+     * Каждая пачка — отдельная короткая транзакция, чтобы не держать блокировки
+     * карт, пока снимаются тысячи холдов.
+     */
+    @Override
+    public int expireDue() {
+        int cards = 0;
+        for (int batch = 0; batch < holdProperties.getExpiryMaxBatches(); batch++) {
+            Integer touched = transactionTemplate.execute(
+                    status -> cardHoldRepository.expireDue(holdProperties.getExpiryBatchSize()));
+            if (touched == null || touched == 0) {
+                break;
+            }
+            cards += touched;
+        }
+        return cards;
+    }
+
+    private CardHoldEntity findHold(UUID id, UserPrincipal user) {
+        CardHoldEntity hold = cardHoldRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Hold not found with id: " + id));
+        if (user.getAuthorities().stream()
+                .anyMatch(
+                        auth -> "ROLE_USER".equals(auth.getAuthority())
+                ) && !hold.getUserId().equals(user.getId())) {
+            throw new AccessDeniedException("Access denied to hold: " + id);
+        }
+        return hold;
+    }
+
+    private static void requireAuthorized(CardHoldEntity hold) {
+        if (hold.getStatus() != HoldStatus.AUTHORIZED) {
+            throw new NotAllowedException("Hold is already " + hold.getStatus().name().toLowerCase());
+        }
+    }
+
+    /**
+     * Условный INSERT не говорит, какое условие не выполнилось, поэтому причина
+     * отказа дочитывается отдельно — только на неуспешном пути.
+     */
+    private RuntimeException rejection(UUID cardId, UUID userId) {
+        List<CardOwnerView> cards = cardRepository.findOwnerViewsById(List.of(cardId));
+        if (cards.isEmpty()) {
+            return new NotFoundException("Card not found with id: " + cardId);
+        }
+        CardOwnerView card = cards.get(0);
+        if (!card.userId().equals(userId)) {
+            return new NotAllowedException("You are not owner of this card");
+        }
+        if (card.status() != CardStatus.ACTIVE) {
+            return new NotAllowedException("Card isn't active");
+        }
+        return new NotAllowedException("Insufficient available balance on card");
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.IdempotencyProperties;
+import com.example.bankcards.dto.core.IdempotencyRecord;
+import com.example.bankcards.entity.IdempotencyKeyEntity;
+import com.example.bankcards.repository.IdempotencyKeyRepository;
+import com.example.bankcards.service.interfaces.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Завершённые ответы кэшируются в памяти узла, источник истины — таблица
+ * idempotency_keys: в ней ключ занимается атомарно и виден всем узлам.
+ * Незавершённые ключи в память не попадают, их состояние всегда читается из базы.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyProperties idempotencyProperties;
+
+    private final Map<IdempotencyKeyEntity.Key, IdempotencyRecord> cache = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<IdempotencyRecord> find(UUID userId, String key) {
+        IdempotencyKeyEntity.Key id = new IdempotencyKeyEntity.Key(userId, key);
+        Instant now = Instant.now();
+
+        IdempotencyRecord cached = cache.get(id);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return Optional.of(cached);
+            }
+            cache.remove(id, cached);
+        }
+
+        Optional<IdempotencyRecord> stored = idempotencyKeyRepository.findById(id)
+                .map(IdempotencyServiceImpl::toRecord)
+                .filter(record -> !record.isExpired(now));
+        stored.filter(IdempotencyRecord::completed).ifPresent(record -> remember(id, record));
+        return stored;
+    }
+
+    @Override
+    public boolean claim(UUID userId, String key, String fingerprint) {
+        Instant expiresAt = Instant.now().plus(idempotencyProperties.getTtl());
+        return idempotencyKeyRepository.claim(userId, key, fingerprint, expiresAt) == 1;
+    }
+
+    @Override
+    public void complete(UUID userId, String key, String fingerprint, int status, String contentType, byte[] body) {
+        idempotencyKeyRepository.complete(userId, key, status, contentType, body);
+        remember(
+                new IdempotencyKeyEntity.Key(userId, key),
+                new IdempotencyRecord(fingerprint, true, status, contentType, body,
+                        Instant.now().plus(idempotencyProperties.getTtl()))
+        );
+    }
+
+    @Override
+    public void release(UUID userId, String key) {
+        idempotencyKeyRepository.release(userId, key);
+    }
+
+    @Override
+    public int purgeExpired() {
+        Instant now = Instant.now();
+        cache.values().removeIf(record -> record.isExpired(now));
+        return idempotencyKeyRepository.deleteExpired(now);
+    }
+
+    private void remember(IdempotencyKeyEntity.Key id, IdempotencyRecord record) {
+        if (cache.size() >= idempotencyProperties.getMaxCachedEntries()) {
+            Instant now = Instant.now();
+            cache.values().removeIf(cached -> cached.isExpired(now));
+            if (cache.size() >= idempotencyProperties.getMaxCachedEntries()) {
+                log.debug("Idempotency cache is full, response for key {} stays in database only", id);
+                return;
+            }
+        }
+        cache.put(id, record);
+    }
+
+    private static IdempotencyRecord toRecord(IdempotencyKeyEntity entity) {
+        return new IdempotencyRecord(
+                entity.getFingerprint(),
+                entity.isCompleted(),
+                entity.getResponseStatus() == null ? 0 : entity.getResponseStatus(),
+                entity.getResponseContentType(),
+                entity.getResponseBody(),
+                entity.getExpiresAt()
+        );
+    }
+}
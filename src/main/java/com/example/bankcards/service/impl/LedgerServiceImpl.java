@@ -0,0 +1,191 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.dto.card.CardChangeEvent;
+import com.example.bankcards.dto.card.CardOwnerRef;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.LedgerPostingRepository;
+import com.example.bankcards.repository.LedgerSnapshotRepository;
+import com.example.bankcards.service.interfaces.LedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Двойная запись: каждый перевод — пара проводок (-amount по источнику, +amount по получателю).
+ * Баланс карты = последний снимок + проводки после него. Пространство id карт делится на
+ * диапазоны по старшему байту uuid; компактор и сверка обрабатывают диапазоны параллельно.
+ * <p>
+ * Переводы в режиме леджера cards.balance не трогают: он остаётся проекцией, которую
+ * обновляет компактор раз в {@code transfer.ledger.compaction-delay-ms}. Все чтения
+ * карт (GET карты, /card/my, суммы пользователя, сводка, ETag и дельта-синхронизация)
+ * отдают эту проекцию и отстают от проводок не больше чем на интервал компакции.
+ * Поэтому {@link CardChangeEvent} публикует компактор, когда баланс в cards уже
+ * новый, а не перевод.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerServiceImpl implements LedgerService {
+
+    private static final int MAX_REPORTED_MISMATCHES = 100;
+
+    private final LedgerPostingRepository postingRepository;
+    private final LedgerSnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferProperties transferProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Разделяемые блокировки диапазонов не дают компактору выбрать границу, пока идёт
+     * запись проводок; эксклюзивная блокировка источника защищает от ухода в минус.
+     * Получатель не блокируется вовсе: зачисление — это только INSERT.
+     */
+    @Override
+    public void lockForPosting(UUID fromCardId, UUID toCardId) {
+        lockForPosting(List.of(fromCardId), List.of(fromCardId, toCardId));
+    }
+
+    /**
+     * Пакетный вариант: все диапазоны и все источники берутся за один проход в
+     * фиксированном порядке, чтобы пересекающиеся пакеты не ловили deadlock.
+     */
+    @Override
+    public void lockForPosting(Collection<UUID> debitedCardIds, Collection<UUID> cardIds) {
+        cardIds.stream()
+                .mapToInt(this::rangeOf)
+                .distinct()
+                .sorted()
+                .forEach(postingRepository::lockRangeShared);
+        debitedCardIds.stream()
+                .distinct()
+                .sorted()
+                .forEach(postingRepository::lockCard);
+    }
+
+    @Override
+    public BigDecimal getBalance(UUID cardId) {
+        BigDecimal balance = postingRepository.findDerivedBalance(cardId);
+        if (balance == null) {
+            throw new NotFoundException("Card not found with id: " + cardId);
+        }
+        return balance;
+    }
+
+    @Override
+    public void postTransfer(UUID transferId, UUID fromCardId, UUID toCardId, BigDecimal amount) {
+        postingRepository.insertTransferPostings(transferId, fromCardId, toCardId, amount);
+    }
+
+    @Override
+    public int compact() {
+        int compacted = forEachRange(this::compactRange).stream().mapToInt(Integer::intValue).sum();
+        if (compacted > 0) {
+            log.info("Ledger compaction wrote snapshots for {} cards", compacted);
+        }
+        return compacted;
+    }
+
+    @Override
+    public int reconcile() {
+        List<UUID> mismatched = forEachRange(range -> transactionTemplate.execute(status ->
+                snapshotRepository.findMismatchedCards(lowerBound(range), upperBound(range))))
+                .stream()
+                .flatMap(List::stream)
+                .toList();
+        List<UUID> unbalanced = postingRepository.findUnbalancedTransfers(MAX_REPORTED_MISMATCHES);
+
+        if (!mismatched.isEmpty()) {
+            log.error("Ledger reconciliation: {} cards diverge from postings, e.g. {}",
+                    mismatched.size(), mismatched.subList(0, Math.min(mismatched.size(), MAX_REPORTED_MISMATCHES)));
+        }
+        if (!unbalanced.isEmpty()) {
+            log.error("Ledger reconciliation: unbalanced transfers {}", unbalanced);
+        }
+        return mismatched.size() + unbalanced.size();
+    }
+
+    private int compactRange(int range) {
+        return transactionTemplate.execute(status -> {
+            long boundary;
+            postingRepository.lockRangeExclusive(range);
+            try {
+                boundary = postingRepository.findMaxId();
+            } finally {
+                postingRepository.unlockRangeExclusive(range);
+            }
+            UUID lower = lowerBound(range);
+            UUID upper = upperBound(range);
+            snapshotRepository.insertOpeningSnapshots(lower, upper);
+            List<CardOwnerRef> compacted = snapshotRepository.compactRange(lower, upper, boundary);
+            compacted.stream()
+                    .collect(Collectors.groupingBy(CardOwnerRef::getUserId,
+                            Collectors.mapping(CardOwnerRef::getCardId, Collectors.toList())))
+                    .forEach((userId, cardIds) -> eventPublisher.publishEvent(new CardChangeEvent(userId, cardIds)));
+            return compacted.size();
+        });
+    }
+
+    private <T> List<T> forEachRange(IntFunction<T> task) {
+        int ranges = ranges();
+        try (ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(ranges, transferProperties.getLedger().getWorkerThreads()))) {
+            List<Future<T>> futures = new ArrayList<>(ranges);
+            for (int range = 0; range < ranges; range++) {
+                int current = range;
+                futures.add(executor.submit(() -> task.apply(current)));
+            }
+            List<T> results = new ArrayList<>(ranges);
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ledger job interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ledger job failed", e.getCause());
+        }
+    }
+
+    private int rangeOf(UUID cardId) {
+        return (int) ((cardId.getMostSignificantBits() >>> 56) * ranges() / 256);
+    }
+
+    private UUID lowerBound(int range) {
+        return new UUID(firstByteOf(range) << 56, 0L);
+    }
+
+    private UUID upperBound(int range) {
+        if (range == ranges() - 1) {
+            return new UUID(-1L, -1L);
+        }
+        return new UUID((firstByteOf(range + 1) << 56) - 1, -1L);
+    }
+
+    private long firstByteOf(int range) {
+        return (long) range * 256 / ranges();
+    }
+
+    private int ranges() {
+        int ranges = transferProperties.getLedger().getRanges();
+        if (ranges < 1 || ranges > 256 || Integer.bitCount(ranges) != 1) {
+            throw new IllegalStateException("transfer.ledger.ranges must be a power of two between 1 and 256");
+        }
+        return ranges;
+    }
+}
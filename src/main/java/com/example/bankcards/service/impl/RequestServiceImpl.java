@@ -1,19 +1,31 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.config.RequestQueueProperties;
+import com.example.bankcards.dto.card.CardChangeEvent;
+import com.example.bankcards.dto.core.PagedResponse;
+import com.example.bankcards.dto.requests.BlockRequestInsert;
 import com.example.bankcards.dto.requests.CardBlockRequest;
-import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.dto.requests.RequestResponse;
+import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.RequestEntity;
+import com.example.bankcards.entity.RequestResolution;
 import com.example.bankcards.entity.RequestStatus;
+import com.example.bankcards.exception.NotAllowedException;
 import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.RequestRepository;
 import com.example.bankcards.service.interfaces.RequestService;
 import com.example.bankcards.util.CardEncryption;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -23,24 +35,88 @@ public class RequestServiceImpl implements RequestService {
     private final RequestRepository requestRepository;
     private final CardRepository cardRepository;
     private final CardEncryption cardEncryption;
+    private final RequestQueueProperties requestQueueProperties;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Override
     @Transactional
     public void createCardBlockRequest(CardBlockRequest request, UUID id){
 
-        CardEntity card = cardRepository.findByCardNumberEncrypted
-                (cardEncryption.encryptCardNumber(request.getCardNumber()))
+        BlockRequestInsert inserted = requestRepository.insertBlockRequest(
+                        cardEncryption.encryptCardNumber(request.getCardNumber()), id, request.getReason())
                 .orElseThrow(()-> new NotFoundException("Card Not Found"));
 
-        if (!card.getUser().getId().equals(id)){
+        if (!inserted.getOwnerId().equals(id)){
             throw new AccessDeniedException("Access Denied, not your card");
         }
+        // requestId == null: по карте уже есть открытая заявка, повтор ничего не меняет
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<RequestResponse> getRequests(RequestStatus status, Pageable pageable) {
+        Page<RequestEntity> page = status != null
+                ? requestRepository.findAllByStatus(status, pageable)
+                : requestRepository.findAll(pageable);
 
-        RequestEntity newRequest =  RequestEntity.builder()
-                .card(card)
-                .reason(request.getReason())
-                .status(RequestStatus.NEW)
+        return PagedResponse.<RequestResponse>builder()
+                .content(page.getContent().stream().map(RequestResponse::convert).toList())
+                .page(page.getNumber())
+                .size(page.getSize())
+                .totalElements(page.getTotalElements())
+                .totalPages(page.getTotalPages())
+                .first(page.isFirst())
+                .last(page.isLast())
                 .build();
+    }
+
+    @Override
+    @Transactional
+    public List<RequestResponse> claimRequests(int limit, UUID adminId) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+
+        List<RequestEntity> claimed = requestRepository.claim(
+                adminId,
+                requestQueueProperties.getClaimLease().toSeconds(),
+                Math.min(limit, requestQueueProperties.getMaxClaimBatch())
+        );
+
+        return claimed.stream()
+                .sorted(Comparator.comparing(RequestEntity::getCreatedAt).thenComparing(RequestEntity::getId))
+                .map(RequestResponse::convert)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public RequestResponse approveRequest(UUID requestId, String comment, UUID adminId) {
+        RequestEntity request = resolve(requestId, RequestResolution.APPROVED, comment, adminId);
+        UUID cardId = request.getCard().getId();
+        // Под FOR UPDATE: сущность пишется целиком, и баланс не должен устареть до flush.
+        cardRepository.lockAllById(List.of(cardId)).forEach(card -> {
+            card.setStatus(CardStatus.BLOCKED);
+            eventPublisher.publishEvent(CardChangeEvent.of(card.getUser().getId(), cardId));
+        });
+        return RequestResponse.convert(request);
+    }
+
+    @Override
+    @Transactional
+    public RequestResponse rejectRequest(UUID requestId, String comment, UUID adminId) {
+        return RequestResponse.convert(resolve(requestId, RequestResolution.REJECTED, comment, adminId));
+    }
 
-        requestRepository.save(newRequest);
+    private RequestEntity resolve(UUID requestId, RequestResolution resolution, String comment, UUID adminId) {
+        return requestRepository.resolve(requestId, adminId, resolution.name(), comment)
+                .orElseThrow(() -> {
+                    RequestEntity request = requestRepository.findById(requestId)
+                            .orElseThrow(() -> new NotFoundException("Request not found"));
+                    if (request.getStatus() != RequestStatus.NEW) {
+                        return new NotAllowedException("Request is already resolved");
+                    }
+                    return new NotAllowedException("Request is not claimed by you");
+                });
     }
 }
@@ -0,0 +1,189 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.card.CardOwnerView;
+import com.example.bankcards.dto.standing.CreateStandingOrderRequest;
+import com.example.bankcards.dto.standing.DueStandingOrder;
+import com.example.bankcards.dto.standing.StandingOrderResponse;
+import com.example.bankcards.entity.StandingOrderEntity;
+import com.example.bankcards.entity.StandingOrderStatus;
+import com.example.bankcards.exception.NotAllowedException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.StandingOrderRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.interfaces.StandingOrderService;
+import com.example.bankcards.service.interfaces.TransactionsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Исполнение поручения — одна транзакция: строка поручения берётся FOR UPDATE
+ * SKIP LOCKED с условием next_run_at <= now, перевод идёт в той же транзакции,
+ * next_run_at сдвигается до коммита. Второй узел либо пропускает занятую строку,
+ * либо после коммита видит срок в будущем, поэтому перевод не выполнится дважды.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StandingOrderServiceImpl implements StandingOrderService {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final StandingOrderRepository standingOrderRepository;
+    private final CardRepository cardRepository;
+    private final TransactionsService transactionsService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    @Transactional
+    public StandingOrderResponse create(CreateStandingOrderRequest request, UUID userId) {
+        if (request.getFromCardId() == null || request.getToCardId() == null) {
+            throw new IllegalArgumentException("Card ids are required");
+        }
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (request.getPeriod() == null) {
+            throw new IllegalArgumentException("Period is required");
+        }
+
+        Map<UUID, CardOwnerView> cards = cardRepository
+                .findOwnerViewsById(Stream.of(request.getFromCardId(), request.getToCardId()).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(CardOwnerView::id, Function.identity()));
+        CardOwnerView fromCard = getCard(cards, request.getFromCardId());
+        CardOwnerView toCard   = getCard(cards, request.getToCardId());
+        if (!fromCard.userId().equals(userId)) {
+            throw new NotAllowedException("You are not owner of this card");
+        }
+        if (!toCard.userId().equals(userId)) {
+            throw new NotAllowedException("Transactions only between your own cards allowed");
+        }
+
+        LocalDateTime firstRunAt = request.getFirstRunAt() != null ? request.getFirstRunAt() : LocalDateTime.now();
+        StandingOrderEntity order = standingOrderRepository.save(StandingOrderEntity.builder()
+                .userId(userId)
+                .fromCardId(fromCard.id())
+                .toCardId(toCard.id())
+                .amount(request.getAmount())
+                .period(request.getPeriod())
+                .firstRunAt(firstRunAt)
+                .nextRunAt(firstRunAt)
+                .build());
+        return StandingOrderResponse.convert(order);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StandingOrderResponse> getUserOrders(UUID userId) {
+        return standingOrderRepository.findAllByUserIdOrderByCreatedAtDesc(userId).stream()
+                .map(StandingOrderResponse::convert)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void cancel(UUID id, UserPrincipal user) {
+        StandingOrderEntity order = standingOrderRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Standing order not found with id: " + id));
+        if (user.getAuthorities().stream()
+                .anyMatch(
+                        auth -> "ROLE_USER".equals(auth.getAuthority())
+                ) && !order.getUserId().equals(user.getId())) {
+            throw new AccessDeniedException("Access denied to standing order: " + id);
+        }
+        order.setStatus(StandingOrderStatus.CANCELLED);
+        standingOrderRepository.save(order);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DueStandingOrder> findDue(LocalDateTime until, long afterMicros, UUID afterId, int limit) {
+        return standingOrderRepository.findDuePage(until, afterMicros, afterId, limit);
+    }
+
+    /**
+     * Отказ перевода (нет денег, карта заблокирована) пропускает это исполнение и
+     * записывается в last_error. Конфликт блокировок оставляет поручение должным:
+     * его подберёт следующая подгрузка планировщика.
+     */
+    @Override
+    public Outcome execute(UUID id) {
+        try {
+            return transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                StandingOrderEntity order = standingOrderRepository.lockDueById(id, now).orElse(null);
+                if (order == null) {
+                    return Outcome.SKIPPED;
+                }
+                transactionsService.transferInCurrentTransaction(
+                        order.getFromCardId(), order.getToCardId(), order.getAmount(), order.getUserId());
+                advance(order, now, null);
+                return Outcome.EXECUTED;
+            });
+        } catch (NotAllowedException | NotFoundException | IllegalArgumentException e) {
+            return recordFailure(id, e.getMessage());
+        } catch (PessimisticLockingFailureException e) {
+            log.debug("Standing order {} postponed on lock conflict: {}", id, e.getMessage());
+            return Outcome.SKIPPED;
+        }
+    }
+
+    private Outcome recordFailure(UUID id, String error) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            return standingOrderRepository.lockDueById(id, now)
+                    .map(order -> {
+                        log.info("Standing order {} failed: {}", id, error);
+                        advance(order, now, truncate(error));
+                        return Outcome.FAILED;
+                    })
+                    .orElse(Outcome.SKIPPED);
+        });
+    }
+
+    /**
+     * Исполнения, пропущенные пока сервис лежал, не догоняются: после простоя
+     * поручение сработает один раз и встанет на ближайший будущий срок.
+     */
+    private void advance(StandingOrderEntity order, LocalDateTime now, String error) {
+        int occurrence = order.getOccurrence() + 1;
+        LocalDateTime next = order.getPeriod().occurrence(order.getFirstRunAt(), occurrence);
+        while (!next.isAfter(now)) {
+            next = order.getPeriod().occurrence(order.getFirstRunAt(), ++occurrence);
+        }
+        order.setOccurrence(occurrence);
+        order.setNextRunAt(next);
+        order.setLastRunAt(now);
+        order.setLastError(error);
+        standingOrderRepository.save(order);
+    }
+
+    private static CardOwnerView getCard(Map<UUID, CardOwnerView> cards, UUID id) {
+        CardOwnerView card = cards.get(id);
+        if (card == null) {
+            throw new NotFoundException("Card not found with id: " + id);
+        }
+        return card;
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.StatementProperties;
+import com.example.bankcards.dto.card.CardOwnerView;
+import com.example.bankcards.dto.statement.CardStatementResponse;
+import com.example.bankcards.dto.statement.StatementCard;
+import com.example.bankcards.dto.statement.StatementDocument;
+import com.example.bankcards.entity.CardStatementEntity;
+import com.example.bankcards.entity.StatementFormat;
+import com.example.bankcards.exception.NotAllowedException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardStatementRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.interfaces.StatementService;
+import com.example.bankcards.util.CardIdRanges;
+import com.example.bankcards.util.StatementWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Выписки строятся по журналу переводов. Карты делятся на диапазоны по старшему
+ * байту id, диапазоны обходит fork/join-пул размером {@code statements.parallelism},
+ * так что к базе одновременно обращается не больше стольких потоков. Внутри
+ * диапазона карты берутся страницами по id, переводы каждой карты читаются
+ * курсором и сразу пишутся в документ.
+ * <p>
+ * Запуск идемпотентен: карты, у которых выписка за месяц уже есть, пропускаются,
+ * поэтому упавшую генерацию достаточно запустить ещё раз.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatementServiceImpl implements StatementService {
+
+    private static final String CARD_TRANSFERS_SQL = """
+            select id, created_at, from_card_id, to_card_id, amount from (
+                select * from transfers
+                where from_card_id = ? and created_at >= ? and created_at < ?
+                union all
+                select * from transfers
+                where to_card_id = ? and from_card_id <> ? and created_at >= ? and created_at < ?
+            ) t
+            order by created_at, id
+            """;
+
+    private final CardStatementRepository statementRepository;
+    private final CardRepository cardRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StatementProperties statementProperties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Override
+    public int generate(YearMonth period) {
+        if (!running.compareAndSet(false, true)) {
+            throw new NotAllowedException("Statement generation is already running");
+        }
+        try (ForkJoinPool pool = new ForkJoinPool(statementProperties.getParallelism())) {
+            long started = System.nanoTime();
+            int generated = pool.invoke(new RangeTask(period, 0, ranges()));
+            log.info("Generated {} statements for {} in {} ms",
+                    generated, period, (System.nanoTime() - started) / 1_000_000);
+            return generated;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CardStatementResponse> getCardStatements(UUID cardId, UserPrincipal user) {
+        CardOwnerView card = cardRepository.findOwnerViewsById(List.of(cardId)).stream()
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException("Card not found with id: " + cardId));
+        checkAccess(card.userId(), user, "card: " + cardId);
+        return statementRepository.findAllByCardId(cardId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StatementDocument download(UUID id, UserPrincipal user) {
+        CardStatementEntity statement = statementRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Statement not found with id: " + id));
+        checkAccess(statement.getUserId(), user, "statement: " + id);
+        StatementFormat format = statement.getFormat();
+        return new StatementDocument(
+                "statement-" + YearMonth.from(statement.getPeriod()) + "-" + statement.getCardId() + "." + format.getExtension(),
+                format.getContentType(),
+                statement.getContent()
+        );
+    }
+
+    /**
+     * Диапазон — одна или несколько страниц карт, каждая страница в своей транзакции.
+     */
+    private int generateRange(YearMonth period, int range) {
+        int ranges = ranges();
+        UUID after = range == 0 ? new UUID(0L, 0L) : CardIdRanges.upperBound(range - 1, ranges);
+        UUID upper = CardIdRanges.upperBound(range, ranges);
+        LocalDate periodStart = period.atDay(1);
+        OffsetDateTime from = periodStart.atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime to = period.plusMonths(1).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        int pageSize = statementProperties.getPageSize();
+
+        int generated = 0;
+        while (true) {
+            UUID pageAfter = after;
+            PageResult page = transactionTemplate.execute(status -> {
+                List<StatementCard> cards = statementRepository.findCardsWithoutStatement(
+                        pageAfter, upper, periodStart, to, pageSize);
+                int inserted = 0;
+                for (StatementCard card : cards) {
+                    inserted += writeStatement(card, period, from, to);
+                }
+                return new PageResult(cards.isEmpty() ? null : cards.get(cards.size() - 1).getId(), cards.size(), inserted);
+            });
+            if (page == null) {
+                return generated;
+            }
+            generated += page.generated();
+            if (page.cards() < pageSize) {
+                return generated;
+            }
+            after = page.lastCardId();
+        }
+    }
+
+    private int writeStatement(StatementCard card, YearMonth period, OffsetDateTime from, OffsetDateTime to) {
+        StatementFormat format = statementProperties.getFormat();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        StatementWriter writer = StatementWriter.open(format, buffer, card.getId(), period);
+        UUID cardId = card.getId();
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(CARD_TRANSFERS_SQL);
+            statement.setFetchSize(statementProperties.getFetchSize());
+            statement.setObject(1, cardId);
+            statement.setObject(2, from);
+            statement.setObject(3, to);
+            statement.setObject(4, cardId);
+            statement.setObject(5, cardId);
+            statement.setObject(6, from);
+            statement.setObject(7, to);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            boolean debit = cardId.equals(rs.getObject("from_card_id", UUID.class));
+            writer.write(
+                    rs.getObject("id", UUID.class),
+                    rs.getObject("created_at", OffsetDateTime.class),
+                    debit,
+                    rs.getObject(debit ? "to_card_id" : "from_card_id", UUID.class),
+                    rs.getBigDecimal("amount")
+            );
+        });
+        writer.finish();
+
+        return statementRepository.insertStatement(cardId, card.getUserId(), period.atDay(1), format.name(),
+                writer.getTransfersCount(), writer.getTotalDebit(), writer.getTotalCredit(), buffer.toByteArray());
+    }
+
+    private static void checkAccess(UUID ownerId, UserPrincipal user, String target) {
+        if (user.getAuthorities().stream()
+                .anyMatch(
+                        auth -> "ROLE_USER".equals(auth.getAuthority())
+                ) && !ownerId.equals(user.getId())) {
+            throw new AccessDeniedException("Access denied to " + target);
+        }
+    }
+
+    private int ranges() {
+        return CardIdRanges.validate(statementProperties.getRanges(), "statements.ranges");
+    }
+
+    private record PageResult(UUID lastCardId, int cards, int generated) {
+    }
+
+    /**
+     * Делит отрезок диапазонов пополам, пока не останется один диапазон.
+     */
+    private final class RangeTask extends RecursiveTask<Integer> {
+
+        private final YearMonth period;
+        private final int from;
+        private final int to;
+
+        private RangeTask(YearMonth period, int from, int to) {
+            this.period = period;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from == 1) {
+                return generateRange(period, from);
+            }
+            int middle = (from + to) >>> 1;
+            RangeTask left = new RangeTask(period, from, middle);
+            left.fork();
+            int right = new RangeTask(period, middle, to).compute();
+            return left.join() + right;
+        }
+    }
+}
@@ -1,56 +1,572 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.config.TransferProperties.TransferMode;
+import com.example.bankcards.dto.card.CardChangeEvent;
+import com.example.bankcards.dto.card.CardOwnerView;
+import com.example.bankcards.dto.core.CursorPage;
+import com.example.bankcards.dto.transfer.BatchTransferItemResult;
+import com.example.bankcards.dto.transfer.BatchTransferRequest;
+import com.example.bankcards.dto.transfer.BatchTransferResponse;
+import com.example.bankcards.dto.transfer.CreateTransferByIdRequest;
 import com.example.bankcards.dto.transfer.CreateTransferRequest;
+import com.example.bankcards.dto.transfer.TransferCursor;
+import com.example.bankcards.dto.transfer.TransferResponse;
 import com.example.bankcards.entity.CardEntity;
 import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.TransferEntity;
 import com.example.bankcards.exception.NotAllowedException;
 import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.interfaces.FraudDetectionService;
+import com.example.bankcards.service.interfaces.LedgerService;
 import com.example.bankcards.service.interfaces.TransactionsService;
+import com.example.bankcards.service.interfaces.TransferLimitService;
 import com.example.bankcards.util.CardEncryption;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class TransactionsServiceImpl implements TransactionsService {
 
     private final CardRepository cardRepository;
     private final CardEncryption cardEncryption;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferRepository transferRepository;
+    private final LedgerService ledgerService;
+    private final TransferProperties transferProperties;
+    private final TransferLimitService transferLimitService;
+    private final FraudDetectionService fraudDetectionService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Postgres сравнивает uuid побайтово без знака, {@link UUID#compareTo} — со знаком.
+     */
+    private static final Comparator<UUID> POSTGRES_UUID_ORDER = Comparator
+            .<UUID>comparingLong(id -> id.getMostSignificantBits() ^ Long.MIN_VALUE)
+            .thenComparingLong(id -> id.getLeastSignificantBits() ^ Long.MIN_VALUE);
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    @Override
+    public TransferResponse createTransaction(CreateTransferRequest request, UUID userId) {
+        return execute(
+                CardRef.byNumber(cardEncryption.encryptCardNumber(request.getFromCardNumber())),
+                CardRef.byNumber(cardEncryption.encryptCardNumber(request.getToCardNumber())),
+                request.getAmount(),
+                userId
+        );
+    }
+
+    /**
+     * Карты ищутся по первичному ключу: без шифрования номеров и без поиска по
+     * cards.card_number_encrypted. Проверки владельца и статуса те же.
+     */
+    @Override
+    public TransferResponse createTransactionByCardId(CreateTransferByIdRequest request, UUID userId) {
+        if (request.getFromCardId() == null || request.getToCardId() == null) {
+            throw new IllegalArgumentException("Card ids are required");
+        }
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        return execute(
+                CardRef.byId(request.getFromCardId()),
+                CardRef.byId(request.getToCardId()),
+                request.getAmount(),
+                userId
+        );
+    }
+
+    /**
+     * Перевод внутри транзакции вызывающего, без повторов: при конфликте блокировок
+     * откатывается вся его транзакция, и повторять должен он сам.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public TransferResponse transferInCurrentTransaction(
+            UUID fromCardId, UUID toCardId, BigDecimal amount, UUID userId) {
+        return TransferResponse.convert(
+                transferOnce(CardRef.byId(fromCardId), CardRef.byId(toCardId), amount, userId));
+    }
+
+    private TransferResponse execute(CardRef from, CardRef to, BigDecimal amount, UUID userId) {
+        return TransferResponse.convert(executeWithLockRetry(() -> transferOnce(from, to, amount, userId)));
+    }
+
+    private TransferEntity transferOnce(CardRef from, CardRef to, BigDecimal amount, UUID userId) {
+        TransferEntity transfer;
+        if (transferProperties.getLedger().isEnabled()) {
+            // cards.balance ещё старый: событие опубликует компактор леджера.
+            return transferViaLedger(from, to, amount, userId);
+        } else if (transferProperties.getMode() == TransferMode.CONDITIONAL) {
+            transfer = transferConditionally(from, to, amount, userId);
+        } else {
+            transfer = transfer(from, to, amount, userId);
+        }
+        eventPublisher.publishEvent(CardChangeEvent.of(userId, transfer.getFromCardId(), transfer.getToCardId()));
+        return transfer;
+    }
+
+    @Override
+    public BatchTransferResponse createBatch(BatchTransferRequest request, UUID userId) {
+        List<CreateTransferRequest> items = request.getTransfers();
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one transfer");
+        }
+        if (items.size() > transferProperties.getBatchMaxSize()) {
+            throw new IllegalArgumentException("Batch size exceeds limit of " + transferProperties.getBatchMaxSize());
+        }
+
+        Map<String, String> encrypted = new HashMap<>();
+        for (CreateTransferRequest item : items) {
+            if (item.getFromCardNumber() != null) {
+                encrypted.computeIfAbsent(item.getFromCardNumber(), cardEncryption::encryptCardNumber);
+            }
+            if (item.getToCardNumber() != null) {
+                encrypted.computeIfAbsent(item.getToCardNumber(), cardEncryption::encryptCardNumber);
+            }
+        }
+
+        List<BatchTransferItemResult> results = transferProperties.getLedger().isEnabled()
+                ? executeWithLockRetry(() -> transferBatchViaLedger(items, encrypted, userId))
+                : executeWithLockRetry(() -> transferBatch(items, encrypted, userId));
+        return BatchTransferResponse.of(results);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TransferResponse> getCardTransfers(UUID cardId, UserPrincipal user, String cursor, int size) {
+        CardEntity card = cardRepository.findById(cardId)
+                .orElseThrow(() -> new NotFoundException("Card not found with id: " + cardId));
+        if (user.getAuthorities().stream()
+                .anyMatch(
+                        auth -> "ROLE_USER".equals(auth.getAuthority())
+                ) && !card.getUser().getId().equals(user.getId())) {
+            throw new AccessDeniedException("Access denied to card: " + cardId);
+        }
+
+        TransferCursor position = TransferCursor.decode(cursor);
+        int limit = pageSize(size);
+        return toCursorPage(
+                transferRepository.findCardPageBefore(cardId, position.createdAt(), position.id(), limit + 1),
+                limit
+        );
+    }
 
     @Override
-    @Transactional
-    public void createTransaction(CreateTransferRequest request, UUID userId) {
-        CardEntity fromCard = getCardByCardNumber(request.getFromCardNumber());
-        CardEntity toCard   = getCardByCardNumber(request.getToCardNumber());
+    @Transactional(readOnly = true)
+    public CursorPage<TransferResponse> getUserTransfers(UUID userId, String cursor, int size) {
+        TransferCursor position = TransferCursor.decode(cursor);
+        int limit = pageSize(size);
+        return toCursorPage(
+                transferRepository.findUserPageBefore(userId, position.createdAt(), position.id(), limit + 1),
+                limit
+        );
+    }
+
+    private TransferEntity transfer(CardRef from, CardRef to, BigDecimal amount, UUID userId) {
+        List<CardEntity> locked = lockCards(from, to);
+        CardEntity fromCard = from.pick(locked, CardEntity::getId, CardEntity::getCardNumberEncrypted);
+        CardEntity toCard   = to.pick(locked, CardEntity::getId, CardEntity::getCardNumberEncrypted);
+
+        validateTransfer(
+                userId,
+                fromCard.getUser().getId(), toCard.getUser().getId(),
+                fromCard.getStatus(), toCard.getStatus(),
+                available(fromCard), amount
+        );
+        fraudDetectionService.inspect(fromCard.getId(), amount);
+        transferLimitService.reserve(fromCard.getId(), userId, amount);
+
+        fromCard.setBalance(fromCard.getBalance().subtract(amount));
+        toCard  .setBalance(toCard.getBalance().add(amount));
+
+        cardRepository.save(fromCard);
+        cardRepository.save(toCard);
+
+        return journal(userId, fromCard.getId(), toCard.getId(), amount);
+    }
+
+    /**
+     * Все карты пакета блокируются одним SELECT ... FOR UPDATE в порядке id, дальше
+     * переводы применяются по очереди в памяти. Отклонённый перевод не откатывает
+     * остальные; UPDATE карт и INSERT журнала уходят JDBC-батчами при flush.
+     */
+    private List<BatchTransferItemResult> transferBatch(
+            List<CreateTransferRequest> items, Map<String, String> encrypted, UUID userId) {
+        Map<String, CardEntity> locked = lockCards(encrypted.values().toArray(String[]::new));
+        Map<UUID, BigDecimal> balances = new HashMap<>();
+        locked.values().forEach(card -> balances.put(card.getId(), available(card)));
+
+        List<BatchTransferItemResult> results = applyBatch(items, userId, balances, item -> {
+            CardEntity fromCard = getCard(locked, encrypted.get(item.getFromCardNumber()));
+            CardEntity toCard   = getCard(locked, encrypted.get(item.getToCardNumber()));
+            return new CardPair(ownerView(fromCard), ownerView(toCard));
+        });
+
+        List<CardEntity> touched = locked.values().stream()
+                .filter(card -> available(card).compareTo(balances.get(card.getId())) != 0)
+                .toList();
+        touched.forEach(card -> card.setBalance(balances.get(card.getId()).add(card.getHeldAmount())));
+        cardRepository.saveAll(touched);
+        if (!touched.isEmpty()) {
+            eventPublisher.publishEvent(new CardChangeEvent(userId, touched.stream().map(CardEntity::getId).toList()));
+        }
+        return results;
+    }
+
+    /**
+     * Режим леджера для пакета: диапазоны и все источники блокируются за один
+     * проход, остаток каждого источника выводится из проводок один раз.
+     * Как и для одиночного перевода, CardChangeEvent шлёт компактор.
+     */
+    private List<BatchTransferItemResult> transferBatchViaLedger(
+            List<CreateTransferRequest> items, Map<String, String> encrypted, UUID userId) {
+        cardRepository.setLocalLockTimeout(transferProperties.getLockTimeoutMs() + "ms");
+        Map<String, CardOwnerView> cards = findOwnerViews(encrypted.values().toArray(String[]::new));
+
+        List<UUID> debited = items.stream()
+                .map(item -> cards.get(encrypted.get(item.getFromCardNumber())))
+                .filter(Objects::nonNull)
+                .map(CardOwnerView::id)
+                .distinct()
+                .toList();
+        ledgerService.lockForPosting(debited, cards.values().stream().map(CardOwnerView::id).toList());
+
+        Map<UUID, BigDecimal> balances = new HashMap<>();
+        debited.forEach(cardId -> balances.put(cardId, ledgerService.getBalance(cardId)));
+
+        List<BatchTransferItemResult> results = applyBatch(items, userId, balances, item -> new CardPair(
+                getCard(cards, encrypted.get(item.getFromCardNumber())),
+                getCard(cards, encrypted.get(item.getToCardNumber()))
+        ));
+        for (int i = 0; i < items.size(); i++) {
+            BatchTransferItemResult result = results.get(i);
+            if (result.getStatus() == BatchTransferItemResult.Status.COMPLETED) {
+                CardOwnerView fromCard = cards.get(encrypted.get(items.get(i).getFromCardNumber()));
+                CardOwnerView toCard   = cards.get(encrypted.get(items.get(i).getToCardNumber()));
+                ledgerService.postTransfer(result.getTransferId(), fromCard.id(), toCard.id(), items.get(i).getAmount());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Применяет переводы по порядку к остаткам в {@code balances} и пишет журнал
+     * одним saveAll. Ожидаемые ошибки отдельного перевода становятся REJECTED.
+     */
+    private List<BatchTransferItemResult> applyBatch(
+            List<CreateTransferRequest> items,
+            UUID userId,
+            Map<UUID, BigDecimal> balances,
+            Function<CreateTransferRequest, CardPair> resolver
+    ) {
+        BatchTransferItemResult[] results = new BatchTransferItemResult[items.size()];
+        List<Integer> journaledIndexes = new ArrayList<>();
+        List<TransferEntity> journal = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            CreateTransferRequest item = items.get(i);
+            try {
+                validateBatchItem(item);
+                CardPair pair = resolver.apply(item);
+                CardOwnerView fromCard = pair.from();
+                CardOwnerView toCard   = pair.to();
+                BigDecimal amount = item.getAmount();
+
+                validateTransfer(
+                        userId,
+                        fromCard.userId(), toCard.userId(),
+                        fromCard.status(), toCard.status(),
+                        balances.get(fromCard.id()), amount
+                );
+                fraudDetectionService.inspect(fromCard.id(), amount);
+                transferLimitService.reserve(fromCard.id(), userId, amount);
+
+                balances.computeIfPresent(fromCard.id(), (id, balance) -> balance.subtract(amount));
+                balances.computeIfPresent(toCard.id(), (id, balance) -> balance.add(amount));
+                journaledIndexes.add(i);
+                journal.add(TransferEntity.builder()
+                        .userId(userId)
+                        .fromCardId(fromCard.id())
+                        .toCardId(toCard.id())
+                        .amount(amount)
+                        .build());
+            } catch (NotFoundException | NotAllowedException | IllegalArgumentException e) {
+                results[i] = BatchTransferItemResult.rejected(i, e.getMessage());
+            }
+        }
+
+        List<TransferEntity> saved = transferRepository.saveAll(journal);
+        for (int j = 0; j < saved.size(); j++) {
+            int index = journaledIndexes.get(j);
+            results[index] = BatchTransferItemResult.completed(index, saved.get(j).getId());
+        }
+        return Arrays.asList(results);
+    }
+
+    private static void validateBatchItem(CreateTransferRequest item) {
+        if (item.getFromCardNumber() == null || item.getToCardNumber() == null) {
+            throw new IllegalArgumentException("Card numbers are required");
+        }
+        if (item.getAmount() == null || item.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+    }
+
+    private record CardPair(CardOwnerView from, CardOwnerView to) {
+    }
+
+    /**
+     * Карта перевода: по id (API v2) или по зашифрованному номеру (v1).
+     */
+    private record CardRef(UUID id, String cardNumberEncrypted) {
+
+        static CardRef byId(UUID id) {
+            return new CardRef(id, null);
+        }
+
+        static CardRef byNumber(String cardNumberEncrypted) {
+            return new CardRef(null, cardNumberEncrypted);
+        }
+
+        <T> T pick(List<T> cards, Function<T, UUID> idOf, Function<T, String> numberOf) {
+            return cards.stream()
+                    .filter(card -> id != null
+                            ? id.equals(idOf.apply(card))
+                            : cardNumberEncrypted.equals(numberOf.apply(card)))
+                    .findFirst()
+                    .orElseThrow(() -> new NotFoundException(id != null
+                            ? "Card not found with id: " + id
+                            : "Card number not found"));
+        }
+    }
+
+    private static CardOwnerView ownerView(CardEntity card) {
+        return new CardOwnerView(
+                card.getId(), card.getCardNumberEncrypted(), card.getUser().getId(),
+                card.getStatus(), available(card));
+    }
+
+    private static BigDecimal available(CardEntity card) {
+        return card.getBalance().subtract(card.getHeldAmount());
+    }
+
+    private List<CardEntity> lockCards(CardRef from, CardRef to) {
+        if (from.id() == null) {
+            return List.copyOf(lockCards(from.cardNumberEncrypted(), to.cardNumberEncrypted()).values());
+        }
+        cardRepository.setLocalLockTimeout(transferProperties.getLockTimeoutMs() + "ms");
+        return cardRepository.lockAllById(Stream.of(from.id(), to.id()).distinct().toList());
+    }
+
+    private Map<String, CardEntity> lockCards(String... cardNumbersEncrypted) {
+        cardRepository.setLocalLockTimeout(transferProperties.getLockTimeoutMs() + "ms");
+        return cardRepository.lockAllByCardNumberEncrypted(distinct(cardNumbersEncrypted))
+                .stream()
+                .collect(Collectors.toMap(CardEntity::getCardNumberEncrypted, Function.identity()));
+    }
+
+    /**
+     * Карты читаются без блокировок одним IN-запросом, а деньги двигаются условными
+     * UPDATE: владелец, статус и остаток проверяет сама база в момент записи.
+     * Строки блокируются только на время двух UPDATE, в том же порядке id, что и
+     * в {@link CardRepository#lockAllByCardNumberEncrypted}.
+     */
+    private TransferEntity transferConditionally(CardRef from, CardRef to, BigDecimal amount, UUID userId) {
+        cardRepository.setLocalLockTimeout(transferProperties.getLockTimeoutMs() + "ms");
+        List<CardOwnerView> cards = findOwnerViews(from, to);
+        CardOwnerView fromCard = from.pick(cards, CardOwnerView::id, CardOwnerView::cardNumberEncrypted);
+        CardOwnerView toCard   = to.pick(cards, CardOwnerView::id, CardOwnerView::cardNumberEncrypted);
+
+        validateTransfer(
+                userId,
+                fromCard.userId(), toCard.userId(),
+                fromCard.status(), toCard.status(),
+                fromCard.balance(), amount
+        );
+        fraudDetectionService.inspect(fromCard.id(), amount);
+        transferLimitService.reserve(fromCard.id(), userId, amount);
+
+        if (POSTGRES_UUID_ORDER.compare(fromCard.id(), toCard.id()) <= 0) {
+            debit(fromCard.id(), userId, amount);
+            credit(toCard.id(), userId, amount);
+        } else {
+            credit(toCard.id(), userId, amount);
+            debit(fromCard.id(), userId, amount);
+        }
+
+        return journal(userId, fromCard.id(), toCard.id(), amount);
+    }
+
+    private TransferEntity journal(UUID userId, UUID fromCardId, UUID toCardId, BigDecimal amount) {
+        return transferRepository.save(TransferEntity.builder()
+                .userId(userId)
+                .fromCardId(fromCardId)
+                .toCardId(toCardId)
+                .amount(amount)
+                .build());
+    }
 
-        if (!fromCard.getUser().getId().equals(userId)) {
+    private CursorPage<TransferResponse> toCursorPage(List<TransferEntity> rows, int limit) {
+        boolean hasNext = rows.size() > limit;
+        List<TransferEntity> page = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            TransferEntity last = page.get(page.size() - 1);
+            nextCursor = new TransferCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return CursorPage.<TransferResponse>builder()
+                .content(page.stream().map(TransferResponse::convert).toList())
+                .size(limit)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+    }
+
+    /**
+     * Режим леджера: cards.balance не трогается, доступный остаток источника считается
+     * из снимка и проводок под advisory-блокировкой источника. CardChangeEvent здесь
+     * не публикуется: подписчики прочитали бы старый баланс, событие шлёт компактор.
+     */
+    private TransferEntity transferViaLedger(CardRef from, CardRef to, BigDecimal amount, UUID userId) {
+        cardRepository.setLocalLockTimeout(transferProperties.getLockTimeoutMs() + "ms");
+        List<CardOwnerView> cards = findOwnerViews(from, to);
+        CardOwnerView fromCard = from.pick(cards, CardOwnerView::id, CardOwnerView::cardNumberEncrypted);
+        CardOwnerView toCard   = to.pick(cards, CardOwnerView::id, CardOwnerView::cardNumberEncrypted);
+
+        ledgerService.lockForPosting(fromCard.id(), toCard.id());
+        validateTransfer(
+                userId,
+                fromCard.userId(), toCard.userId(),
+                fromCard.status(), toCard.status(),
+                ledgerService.getBalance(fromCard.id()), amount
+        );
+        fraudDetectionService.inspect(fromCard.id(), amount);
+        transferLimitService.reserve(fromCard.id(), userId, amount);
+
+        TransferEntity transfer = journal(userId, fromCard.id(), toCard.id(), amount);
+        ledgerService.postTransfer(transfer.getId(), fromCard.id(), toCard.id(), amount);
+        return transfer;
+    }
+
+    private List<CardOwnerView> findOwnerViews(CardRef from, CardRef to) {
+        if (from.id() == null) {
+            return cardRepository.findOwnerViewsByCardNumberEncrypted(
+                    distinct(from.cardNumberEncrypted(), to.cardNumberEncrypted()));
+        }
+        return cardRepository.findOwnerViewsById(Stream.of(from.id(), to.id()).distinct().toList());
+    }
+
+    private Map<String, CardOwnerView> findOwnerViews(String... cardNumbersEncrypted) {
+        return cardRepository.findOwnerViewsByCardNumberEncrypted(distinct(cardNumbersEncrypted))
+                .stream()
+                .collect(Collectors.toMap(CardOwnerView::cardNumberEncrypted, Function.identity()));
+    }
+
+    private void debit(UUID cardId, UUID userId, BigDecimal amount) {
+        if (cardRepository.debitIfAllowed(cardId, userId, amount) == 0) {
+            throw new NotAllowedException("Source card changed: insufficient balance or card isn't active");
+        }
+    }
+
+    private void credit(UUID cardId, UUID userId, BigDecimal amount) {
+        if (cardRepository.creditIfAllowed(cardId, userId, amount) == 0) {
+            throw new NotAllowedException("One of cards isn't active");
+        }
+    }
+
+    private void validateTransfer(
+            UUID userId,
+            UUID fromOwnerId,
+            UUID toOwnerId,
+            CardStatus fromStatus,
+            CardStatus toStatus,
+            BigDecimal fromBalance,
+            BigDecimal amount
+    ) {
+        if (!fromOwnerId.equals(userId)) {
             throw new NotAllowedException("You are not owner of this card");
         }
-        if (!Objects.equals(fromCard.getUser().getId(), toCard.getUser().getId())) {
+        if (!Objects.equals(fromOwnerId, toOwnerId)) {
             throw new NotAllowedException("Transactions only between your own cards allowed");
         }
-        if (fromCard.getStatus() != CardStatus.ACTIVE || toCard.getStatus() != CardStatus.ACTIVE) {
+        if (fromStatus != CardStatus.ACTIVE || toStatus != CardStatus.ACTIVE) {
             throw new NotAllowedException("One of cards isn't active");
         }
-        if (fromCard.getBalance().compareTo(request.getAmount()) < 0) {
+        if (fromBalance.compareTo(amount) < 0) {
             throw new NotAllowedException("Insufficient balance on source card");
         }
+    }
 
-        fromCard.setBalance(fromCard.getBalance().subtract(request.getAmount()));
-        toCard  .setBalance(toCard.getBalance().add(request.getAmount()));
+    private static <T> T getCard(Map<String, T> cards, String cardNumberEncrypted) {
+        T card = cards.get(cardNumberEncrypted);
+        if (card == null) {
+            throw new NotFoundException("Card number not found");
+        }
+        return card;
+    }
 
-        cardRepository.save(fromCard);
-        cardRepository.save(toCard);
+    private static List<String> distinct(String... values) {
+        return Arrays.stream(values).distinct().toList();
     }
 
-    private CardEntity getCardByCardNumber(String cardNumber) {
-        String encrypted = cardEncryption.encryptCardNumber(cardNumber);
-        return cardRepository.findByCardNumberEncrypted(encrypted)
-                .orElseThrow(() -> new NotFoundException("Card number not found"));
+    /**
+     * Каждая попытка идёт в отдельной транзакции: после таймаута блокировки или
+     * deadlock Postgres откатывает транзакцию целиком, продолжать её нельзя.
+     */
+    private <T> T executeWithLockRetry(Supplier<T> action) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= transferProperties.getMaxAttempts()) {
+                    log.warn("Transfer failed after {} lock attempts: {}", attempt, e.getMessage());
+                    throw e;
+                }
+                log.debug("Lock conflict on attempt {}, retrying: {}", attempt, e.getMessage());
+                backoff(attempt++);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(transferProperties.getRetryBackoffMs() * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Transfer interrupted while waiting for retry", e);
+        }
     }
 }
@@ -0,0 +1,268 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.dto.transfer.HourlyAmount;
+import com.example.bankcards.exception.NotAllowedException;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.interfaces.TransferLimitService;
+import com.example.bankcards.util.SlidingWindowCounter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+/**
+ * Лимиты списаний по карте и по пользователю. Проверка идёт по счётчикам в памяти,
+ * без SUM по журналу; журнал transfers читается, только когда счётчика ещё нет в
+ * памяти или пора его пересинхронизировать с переводами других узлов.
+ * <p>
+ * Сумма резервируется в счётчике внутри транзакции перевода и снимается, если
+ * транзакция откатилась. Счётчики защищены полосами блокировок по id.
+ * <p>
+ * Пересинхронизация не заменяет счётчик снимком журнала вслепую: резервы, которые
+ * ещё не закоммичены или закоммичены после начала чтения журнала, добавляются к
+ * снимку поверх. Такой резерв может попасть в снимок и быть учтён дважды — лимит
+ * до следующей пересинхронизации строже, но никогда не мягче.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransferLimitServiceImpl implements TransferLimitService {
+
+    private final TransferRepository transferRepository;
+    private final TransferProperties transferProperties;
+
+    private final Map<UUID, Window> cardWindows = new ConcurrentHashMap<>();
+    private final Map<UUID, Window> userWindows = new ConcurrentHashMap<>();
+
+    private ReentrantLock[] stripes;
+
+    @PostConstruct
+    public void init() {
+        int count = transferProperties.getLimits().getStripes();
+        if (count < 1 || Integer.bitCount(count) != 1) {
+            throw new IllegalStateException("transfer.limits.stripes must be a power of two");
+        }
+        stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public void reserve(UUID cardId, UUID userId, BigDecimal amount) {
+        TransferProperties.Limits limits = transferProperties.getLimits();
+        if (!limits.isEnabled()) {
+            return;
+        }
+        long cents = toCents(amount);
+        long hour = currentHour();
+
+        while (true) {
+            Window card = window(cardWindows, cardId, transferRepository::sumCardDebitsByHour);
+            Window user = window(userWindows, userId, transferRepository::sumUserDebitsByHour);
+
+            lock(cardId, userId);
+            try {
+                // evictIdle мог убрать счётчик, пока полоса была свободна: резерв в нём бы потерялся.
+                if (cardWindows.get(cardId) != card || userWindows.get(userId) != user) {
+                    continue;
+                }
+                check(card, hour, cents, limits.getCardDaily(), limits.getCardMonthly(), "card");
+                check(user, hour, cents, limits.getUserDaily(), limits.getUserMonthly(), "user");
+                card.add(hour, cents);
+                user.add(hour, cents);
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    Reservation reservation = new Reservation(card, user, cardId, userId, hour, cents);
+                    card.inFlight.add(reservation);
+                    user.inFlight.add(reservation);
+                    TransactionSynchronizationManager.registerSynchronization(reservation);
+                }
+                return;
+            } finally {
+                unlock(cardId, userId);
+            }
+        }
+    }
+
+    @Override
+    public int evictIdle() {
+        long threshold = System.currentTimeMillis() - transferProperties.getLimits().getIdleTtlMs();
+        return evictIdle(cardWindows, threshold) + evictIdle(userWindows, threshold);
+    }
+
+    private int evictIdle(Map<UUID, Window> windows, long threshold) {
+        int evicted = 0;
+        for (Map.Entry<UUID, Window> entry : windows.entrySet()) {
+            if (entry.getValue().lastUsedAt >= threshold) {
+                continue;
+            }
+            ReentrantLock stripe = stripe(entry.getKey());
+            stripe.lock();
+            try {
+                Window window = entry.getValue();
+                if (window.lastUsedAt < threshold && window.inFlight.isEmpty()
+                        && windows.remove(entry.getKey(), window)) {
+                    evicted++;
+                }
+            } finally {
+                stripe.unlock();
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Журнал читается вне полосы, чтобы запрос к базе не держал чужие счётчики.
+     * Время начала чтения уходит в {@link Window#reload}: резервы, закоммиченные
+     * позже, в снимке могут отсутствовать.
+     */
+    private Window window(Map<UUID, Window> windows, UUID id, BiFunction<UUID, Integer, List<HourlyAmount>> loader) {
+        long now = System.currentTimeMillis();
+        Window window = windows.get(id);
+        if (window != null && now - window.syncedAt < transferProperties.getLimits().getResyncIntervalMs()) {
+            return window;
+        }
+
+        List<HourlyAmount> history = loader.apply(id, SlidingWindowCounter.DAYS);
+        ReentrantLock stripe = stripe(id);
+        stripe.lock();
+        try {
+            window = windows.computeIfAbsent(id, ignored -> new Window());
+            if (window.syncedAt < now) {
+                window.reload(history, now);
+            }
+            return window;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private static void check(Window window, long hour, long cents, BigDecimal daily, BigDecimal monthly, String owner) {
+        if (daily != null && window.counter.lastDay(hour) + cents > toCents(daily)) {
+            throw new NotAllowedException("Daily transfer limit exceeded for " + owner);
+        }
+        if (monthly != null && window.counter.lastMonth(hour) + cents > toCents(monthly)) {
+            throw new NotAllowedException("Monthly transfer limit exceeded for " + owner);
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static long currentHour() {
+        return TimeUnit.MILLISECONDS.toHours(System.currentTimeMillis());
+    }
+
+    private ReentrantLock stripe(UUID id) {
+        return stripes[id.hashCode() & (stripes.length - 1)];
+    }
+
+    private void lock(UUID first, UUID second) {
+        int a = first.hashCode() & (stripes.length - 1);
+        int b = second.hashCode() & (stripes.length - 1);
+        stripes[Math.min(a, b)].lock();
+        if (a != b) {
+            stripes[Math.max(a, b)].lock();
+        }
+    }
+
+    private void unlock(UUID first, UUID second) {
+        int a = first.hashCode() & (stripes.length - 1);
+        int b = second.hashCode() & (stripes.length - 1);
+        if (a != b) {
+            stripes[Math.max(a, b)].unlock();
+        }
+        stripes[Math.min(a, b)].unlock();
+    }
+
+    /**
+     * Счётчик одной карты или пользователя. Поля меняются только под полосой.
+     */
+    private static final class Window {
+
+        private SlidingWindowCounter counter = new SlidingWindowCounter();
+        private final List<Reservation> inFlight = new ArrayList<>();
+        private final List<Reservation> committed = new ArrayList<>();
+        private volatile long syncedAt;
+        private volatile long lastUsedAt = System.currentTimeMillis();
+
+        /**
+         * @param loadStartedAt момент перед чтением журнала: всё закоммиченное раньше
+         *                      в снимке уже есть, более поздние коммиты добавляются поверх
+         */
+        private void reload(List<HourlyAmount> history, long loadStartedAt) {
+            SlidingWindowCounter reloaded = new SlidingWindowCounter();
+            history.forEach(row -> reloaded.add(row.getHour(), toCents(row.getAmount())));
+            inFlight.forEach(reservation -> reloaded.add(reservation.hour, reservation.cents));
+            committed.removeIf(reservation -> reservation.committedAt < loadStartedAt);
+            committed.forEach(reservation -> reloaded.add(reservation.hour, reservation.cents));
+            this.counter = reloaded;
+            this.syncedAt = loadStartedAt;
+            this.lastUsedAt = System.currentTimeMillis();
+        }
+
+        private void add(long hour, long cents) {
+            counter.add(hour, cents);
+            lastUsedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Резерв ещё не закоммиченного перевода: учитывается при пересинхронизации
+     * и снимается со счётчиков при откате. После коммита остаётся в окне до
+     * пересинхронизации, которая начала читать журнал уже после коммита.
+     */
+    private final class Reservation implements TransactionSynchronization {
+
+        private final Window card;
+        private final Window user;
+        private final UUID cardId;
+        private final UUID userId;
+        private final long hour;
+        private final long cents;
+        private long committedAt;
+
+        private Reservation(Window card, Window user, UUID cardId, UUID userId, long hour, long cents) {
+            this.card = card;
+            this.user = user;
+            this.cardId = cardId;
+            this.userId = userId;
+            this.hour = hour;
+            this.cents = cents;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            lock(cardId, userId);
+            try {
+                card.inFlight.remove(this);
+                user.inFlight.remove(this);
+                if (status == STATUS_COMMITTED) {
+                    committedAt = System.currentTimeMillis();
+                    card.committed.add(this);
+                    user.committed.add(this);
+                } else {
+                    card.counter.add(hour, -cents);
+                    user.counter.add(hour, -cents);
+                }
+            } finally {
+                unlock(cardId, userId);
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.UserOverviewProperties;
+import com.example.bankcards.dto.card.CardResponse;
+import com.example.bankcards.dto.requests.RequestResponse;
+import com.example.bankcards.dto.user.UserOverviewResponse;
+import com.example.bankcards.dto.user.UserResponse;
+import com.example.bankcards.exception.ServiceUnavailableException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.RequestRepository;
+import com.example.bankcards.service.interfaces.UserOverviewService;
+import com.example.bankcards.service.interfaces.UserService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Сводка по пользователю. Профиль, карты и заявки не зависят друг от друга, поэтому
+ * каждая часть читается в своём виртуальном потоке и своей read-only транзакции,
+ * и ответ ждёт самую медленную из них, а не их сумму. Потоки живут только внутри
+ * вызова: область закрывается, лишь когда все ветки завершены или отменены.
+ * <p>
+ * Все ветки стартуют одновременно и ждутся до общего дедлайна, так что каждой
+ * достаётся {@code user-overview.timeout-ms}; тот же срок выставлен транзакциям,
+ * чтобы зависший запрос обрывала и база. Без профиля сводка не имеет смысла:
+ * его ошибка или таймаут отменяют остальные ветки. Карты и заявки при сбое
+ * возвращаются как null и попадают в {@code unavailable}.
+ * <p>
+ * Каждый запрос занимает до трёх соединений пула одновременно.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserOverviewServiceImpl implements UserOverviewService {
+
+    private final UserService userService;
+    private final CardRepository cardRepository;
+    private final RequestRepository requestRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final UserOverviewProperties properties;
+
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    public void init() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(properties.getTimeoutMs() + 999)));
+    }
+
+    @Override
+    public UserOverviewResponse getOverview(UUID userId) {
+        try (ExecutorService scope = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("user-overview-", 0).factory())) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getTimeoutMs());
+            Future<UserResponse> user = fork(scope, () -> userService.getUserById(userId));
+            Future<List<CardResponse>> cards = fork(scope, () ->
+                    cardRepository.findRecentByUserId(userId, Limit.of(properties.getMaxCards())).stream()
+                            .map(CardResponse::convert)
+                            .toList());
+            Future<List<RequestResponse>> requests = fork(scope, () ->
+                    requestRepository.findRecentByUserId(userId, Limit.of(properties.getMaxRequests())).stream()
+                            .map(RequestResponse::convert)
+                            .toList());
+
+            UserResponse profile = joinRequired(user, deadline, cards, requests);
+            List<String> unavailable = new ArrayList<>();
+            return UserOverviewResponse.builder()
+                    .user(profile)
+                    .cards(joinOptional(cards, deadline, "cards", unavailable))
+                    .requests(joinOptional(requests, deadline, "requests", unavailable))
+                    .unavailable(unavailable)
+                    .build();
+        }
+    }
+
+    private <T> Future<T> fork(ExecutorService scope, Supplier<T> branch) {
+        return scope.submit(() -> readOnly.execute(status -> branch.get()));
+    }
+
+    private <T> T joinRequired(Future<T> branch, long deadline, Future<?>... siblings) {
+        try {
+            return branch.get(remaining(deadline), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            cancel(siblings);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("User overview failed", e.getCause());
+        } catch (TimeoutException e) {
+            branch.cancel(true);
+            cancel(siblings);
+            throw new ServiceUnavailableException("User overview timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            branch.cancel(true);
+            cancel(siblings);
+            throw new ServiceUnavailableException("User overview interrupted");
+        }
+    }
+
+    private <T> T joinOptional(Future<T> branch, long deadline, String name, List<String> unavailable) {
+        try {
+            return branch.get(remaining(deadline), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            log.warn("User overview part {} failed: {}", name, e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            branch.cancel(true);
+            log.warn("User overview part {} timed out", name);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            branch.cancel(true);
+        }
+        unavailable.add(name);
+        return null;
+    }
+
+    private static void cancel(Future<?>... branches) {
+        for (Future<?> branch : branches) {
+            branch.cancel(true);
+        }
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+}
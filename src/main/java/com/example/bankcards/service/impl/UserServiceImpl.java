@@ -1,9 +1,15 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.config.BatchGetProperties;
+import com.example.bankcards.dto.core.BatchGetResponse;
 import com.example.bankcards.dto.core.PagedResponse;
+import com.example.bankcards.dto.core.ResourceVersion;
 import com.example.bankcards.dto.user.CreateUserRequest;
 import com.example.bankcards.dto.user.UpdateUserRequest;
+import com.example.bankcards.dto.user.UserCardsSummary;
+import com.example.bankcards.dto.user.UserField;
 import com.example.bankcards.dto.user.UserResponse;
+import com.example.bankcards.dto.user.UserVersion;
 import com.example.bankcards.entity.UserEntity;
 import com.example.bankcards.entity.UserRole;
 import com.example.bankcards.exception.AlreadyTakenException;
@@ -18,10 +24,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -30,12 +41,43 @@ public class UserServiceImpl implements com.example.bankcards.service.interfaces
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final BatchGetProperties batchGetProperties;
 
     @Override
     public UserResponse getUserById(UUID id) {
         UserEntity user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User not found ID: " + id));
-        return UserResponse.convert(user);
+        return toResponse(user);
+    }
+
+    /**
+     * Только ETag: totalBalance меняется переводами без изменения updated_at
+     * пользователя, поэтому Last-Modified по нему отдавать нельзя.
+     */
+    @Override
+    public ResourceVersion getUserVersion(UUID id) {
+        UserVersion version = userRepository.findVersionById(id)
+                .orElseThrow(() -> new NotFoundException("User not found ID: " + id));
+        return ResourceVersion.of(
+                version.getUpdatedAtMicros() + "." + version.getCardsCount() + "." + version.getMaxCardChangeXid());
+    }
+
+    /**
+     * Два запроса на весь список: пользователи по IN и сводка по картам с группировкой,
+     * без подгрузки коллекции карт каждого пользователя.
+     */
+    @Override
+    public BatchGetResponse<UserResponse> getUsersByIds(List<UUID> ids) {
+        Set<UUID> distinct = BatchGetResponse.distinctIds(ids, batchGetProperties.getMaxIds());
+        List<UserEntity> users = userRepository.findAllById(distinct);
+        if (users.isEmpty()) {
+            return BatchGetResponse.of(distinct, Map.of());
+        }
+        Map<UUID, UserCardsSummary> summaries = userRepository.summarizeCardsByUserIds(distinct).stream()
+                .collect(Collectors.toMap(UserCardsSummary::getUserId, Function.identity()));
+        Map<UUID, UserResponse> found = users.stream()
+                .collect(Collectors.toMap(UserEntity::getId, user -> toResponse(user, summaries.get(user.getId()))));
+        return BatchGetResponse.of(distinct, found);
     }
 
     @Override
@@ -56,7 +98,7 @@ public class UserServiceImpl implements com.example.bankcards.service.interfaces
         user.setUpdatedAt(now);
 
         UserEntity saved = userRepository.save(user);
-        return UserResponse.convert(saved);
+        return UserResponse.convert(saved, 0, BigDecimal.ZERO);
     }
 
     @Override
@@ -74,7 +116,7 @@ public class UserServiceImpl implements com.example.bankcards.service.interfaces
         if (request.getRole()     != null) user.setRole(request.getRole());
         user.setUpdatedAt(LocalDateTime.now());
 
-        return UserResponse.convert(user);
+        return toResponse(user);
     }
 
     @Override
@@ -102,7 +144,7 @@ public class UserServiceImpl implements com.example.bankcards.service.interfaces
                 .orElseThrow(() -> new NotFoundException("User not found ID: " + id));
         user.setIsActive(active);
         user.setUpdatedAt(LocalDateTime.now());
-        return UserResponse.convert(user);
+        return toResponse(user);
     }
 
     @Override
@@ -113,14 +155,16 @@ public class UserServiceImpl implements com.example.bankcards.service.interfaces
             UserRole role,
             Boolean active,
             LocalDateTime createdAfter,
-            LocalDateTime createdBefore
+            LocalDateTime createdBefore,
+            List<String> fields
     ) {
+        Set<UserField> userFields = UserField.parse(fields);
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
         Specification<UserEntity> spec = buildSpecification(search, role, active, createdAfter, createdBefore);
-        Page<UserEntity> usersPage = userRepository.findAll(spec, pageable);
+        Page<UserResponse> usersPage = userRepository.findAllFields(spec, userFields, pageable);
 
         return PagedResponse.<UserResponse>builder()
-                .content(usersPage.map(UserResponse::convert).getContent())
+                .content(usersPage.getContent())
                 .page(usersPage.getNumber())
                 .size(usersPage.getSize())
                 .totalElements(usersPage.getTotalElements())
@@ -163,6 +207,17 @@ public class UserServiceImpl implements com.example.bankcards.service.interfaces
         };
     }
 
+    private UserResponse toResponse(UserEntity user) {
+        List<UserCardsSummary> summary = userRepository.summarizeCardsByUserIds(List.of(user.getId()));
+        return toResponse(user, summary.isEmpty() ? null : summary.get(0));
+    }
+
+    private static UserResponse toResponse(UserEntity user, UserCardsSummary summary) {
+        return summary == null
+                ? UserResponse.convert(user, 0, BigDecimal.ZERO)
+                : UserResponse.convert(user, (int) summary.getCardsCount(), summary.getTotalBalance());
+    }
+
     private void ensureUnique(String username, String email) {
         if (userRepository.existsByUsername(username)) {
             throw new AlreadyTakenException("Username is already taken");
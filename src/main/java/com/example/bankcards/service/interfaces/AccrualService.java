@@ -0,0 +1,16 @@
+package com.example.bankcards.service.interfaces;
+
+import com.example.bankcards.dto.accrual.AccrualPostingResponse;
+import com.example.bankcards.dto.accrual.AccrualRunResponse;
+import com.example.bankcards.security.UserPrincipal;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface AccrualService {
+    AccrualRunResponse accrue(LocalDate date);
+    List<LocalDate> findIncompleteRuns();
+    List<AccrualRunResponse> getRuns(LocalDate from, LocalDate to);
+    List<AccrualPostingResponse> getCardAccruals(UUID cardId, LocalDate from, LocalDate to, UserPrincipal user);
+}
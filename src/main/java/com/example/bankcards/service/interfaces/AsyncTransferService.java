@@ -0,0 +1,19 @@
+package com.example.bankcards.service.interfaces;
+
+import com.example.bankcards.dto.transfer.AsyncTransferStatus;
+import com.example.bankcards.dto.transfer.CreateTransferRequest;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncTransferService {
+    AsyncTransferStatus submit(CreateTransferRequest request, UUID userId);
+    AsyncTransferStatus getStatus(UUID id, UUID userId);
+    CompletableFuture<AsyncTransferStatus> awaitStatus(UUID id, UUID userId, long waitMs);
+    int purgeFinished();
+
+    /**
+     * Ставит в очередь этого узла переводы, зависшие в PENDING.
+     */
+    int recoverPending();
+}
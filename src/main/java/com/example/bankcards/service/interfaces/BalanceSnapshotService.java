@@ -0,0 +1,15 @@
+package com.example.bankcards.service.interfaces;
+
+import com.example.bankcards.dto.snapshot.BalanceSnapshotRunResponse;
+import com.example.bankcards.dto.snapshot.CardBalanceSnapshotResponse;
+import com.example.bankcards.security.UserPrincipal;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface BalanceSnapshotService {
+    BalanceSnapshotRunResponse takeSnapshot(LocalDate date);
+    List<BalanceSnapshotRunResponse> getRuns(LocalDate from, LocalDate to);
+    List<CardBalanceSnapshotResponse> getCardHistory(UUID cardId, LocalDate from, LocalDate to, UserPrincipal user);
+}
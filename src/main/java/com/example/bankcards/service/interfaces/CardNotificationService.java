@@ -0,0 +1,21 @@
+package com.example.bankcards.service.interfaces;
+
+import com.example.bankcards.dto.card.CardChangeEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+public interface CardNotificationService {
+
+    /**
+     * Открывает SSE-поток изменений карт пользователя.
+     */
+    SseEmitter subscribe(UUID userId);
+
+    void onCardChange(CardChangeEvent event);
+
+    /**
+     * Шлёт heartbeat всем подписчикам и отключает зависших. Возвращает число подписчиков.
+     */
+    int heartbeat();
+}
@@ -1,15 +1,20 @@
 package com.example.bankcards.service.interfaces;
 
+import com.example.bankcards.dto.card.CardChangesResponse;
 import com.example.bankcards.dto.card.CardResponse;
+import com.example.bankcards.dto.card.CardStatsResponse;
 import com.example.bankcards.dto.card.CreateCardRequest;
 import com.example.bankcards.dto.card.CreateCardResponse;
+import com.example.bankcards.dto.core.BatchGetResponse;
 import com.example.bankcards.dto.core.PagedResponse;
+import com.example.bankcards.dto.core.ResourceVersion;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.security.UserPrincipal;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public interface CardService {
@@ -20,6 +25,10 @@ public interface CardService {
     CardResponse activateCard(UUID cardId);
     void deleteCard(UUID cardId);
 
+    /**
+     * {@code fields} — подмножество полей CardResponse (пусто — все),
+     * {@code expand=owner} — добавить владельца карты.
+     */
     PagedResponse<CardResponse> getAllCards(
             Pageable pageable,
             String search,
@@ -27,7 +36,9 @@ public interface CardService {
             BigDecimal minBalance,
             BigDecimal maxBalance,
             LocalDateTime createdAfter,
-            LocalDateTime createdBefore
+            LocalDateTime createdBefore,
+            List<String> fields,
+            List<String> expand
     );
 
     PagedResponse<CardResponse> getUserCards(
@@ -38,8 +49,36 @@ public interface CardService {
             BigDecimal minBalance,
             BigDecimal maxBalance,
             LocalDateTime createdAfter,
-            LocalDateTime createdBefore
+            LocalDateTime createdBefore,
+            List<String> fields,
+            List<String> expand
     );
 
     CardResponse getCardByIdIfHaveAccess(UUID cardId, UserPrincipal user);
+
+    /**
+     * Сводка по всем картам из счётчиков, без сканирования cards; createdPerDay — за последние {@code days} дней (UTC).
+     */
+    CardStatsResponse getCardStats(int days);
+
+    ResourceVersion getCardVersion(UUID cardId, UserPrincipal user);
+
+    /**
+     * Карты по списку id одним запросом; для USER — только свои, остальные попадают в missing.
+     */
+    BatchGetResponse<CardResponse> getCardsByIds(List<UUID> ids, UserPrincipal user);
+
+    /**
+     * Версия всех карт пользователя: меняется при любом изменении, создании или удалении карты,
+     * а с expand=owner — ещё и при изменении владельца.
+     */
+    ResourceVersion getUserCardsVersion(UUID userId, List<String> expand);
+
+    /**
+     * Карты пользователя, изменённые или удалённые после токена {@code since};
+     * без токена или с устаревшим — все карты.
+     */
+    CardChangesResponse getMyCardChanges(UUID userId, String since);
+
+    int purgeTombstones();
 }
@@ -0,0 +1,9 @@
+package com.example.bankcards.service.interfaces;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public interface FraudDetectionService {
+    void inspect(UUID cardId, BigDecimal amount);
+    int evictIdle();
+}
@@ -0,0 +1,16 @@
+package com.example.bankcards.service.interfaces;
+
+import com.example.bankcards.dto.hold.AuthorizeHoldRequest;
+import com.example.bankcards.dto.hold.HoldResponse;
+import com.example.bankcards.security.UserPrincipal;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public interface HoldService {
+    HoldResponse authorize(AuthorizeHoldRequest request, UUID userId);
+    HoldResponse capture(UUID id, BigDecimal amount, UserPrincipal user);
+    HoldResponse release(UUID id, UserPrincipal user);
+    HoldResponse getHold(UUID id, UserPrincipal user);
+    int expireDue();
+}
@@ -0,0 +1,14 @@
+package com.example.bankcards.service.interfaces;
+
+import com.example.bankcards.dto.core.IdempotencyRecord;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface IdempotencyService {
+    Optional<IdempotencyRecord> find(UUID userId, String key);
+    boolean claim(UUID userId, String key, String fingerprint);
+    void complete(UUID userId, String key, String fingerprint, int status, String contentType, byte[] body);
+    void release(UUID userId, String key);
+    int purgeExpired();
+}
@@ -0,0 +1,14 @@
+package com.example.bankcards.service.interfaces;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.UUID;
+
+public interface LedgerService {
+    void lockForPosting(UUID fromCardId, UUID toCardId);
+    void lockForPosting(Collection<UUID> debitedCardIds, Collection<UUID> cardIds);
+    BigDecimal getBalance(UUID cardId);
+    void postTransfer(UUID transferId, UUID fromCardId, UUID toCardId, BigDecimal amount);
+    int compact();
+    int reconcile();
+}
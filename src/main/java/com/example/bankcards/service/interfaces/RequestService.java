@@ -1,9 +1,28 @@
 package com.example.bankcards.service.interfaces;
 
+import com.example.bankcards.dto.core.PagedResponse;
 import com.example.bankcards.dto.requests.CardBlockRequest;
+import com.example.bankcards.dto.requests.RequestResponse;
+import com.example.bankcards.entity.RequestStatus;
+import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface RequestService {
     void createCardBlockRequest(CardBlockRequest request, UUID id);
+
+    PagedResponse<RequestResponse> getRequests(RequestStatus status, Pageable pageable);
+
+    /**
+     * Забирает самые старые свободные NEW-заявки за администратором на время аренды.
+     */
+    List<RequestResponse> claimRequests(int limit, UUID adminId);
+
+    /**
+     * Одобряет заявку и блокирует карту в одной транзакции.
+     */
+    RequestResponse approveRequest(UUID requestId, String comment, UUID adminId);
+
+    RequestResponse rejectRequest(UUID requestId, String comment, UUID adminId);
 }
@@ -0,0 +1,22 @@
+package com.example.bankcards.service.interfaces;
+
+import com.example.bankcards.dto.standing.CreateStandingOrderRequest;
+import com.example.bankcards.dto.standing.DueStandingOrder;
+import com.example.bankcards.dto.standing.StandingOrderResponse;
+import com.example.bankcards.security.UserPrincipal;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface StandingOrderService {
+    StandingOrderResponse create(CreateStandingOrderRequest request, UUID userId);
+    List<StandingOrderResponse> getUserOrders(UUID userId);
+    void cancel(UUID id, UserPrincipal user);
+    List<DueStandingOrder> findDue(LocalDateTime until, long afterMicros, UUID afterId, int limit);
+    Outcome execute(UUID id);
+
+    enum Outcome {
+        EXECUTED, FAILED, SKIPPED
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.service.interfaces;
+
+import com.example.bankcards.dto.statement.CardStatementResponse;
+import com.example.bankcards.dto.statement.StatementDocument;
+import com.example.bankcards.security.UserPrincipal;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+public interface StatementService {
+    int generate(YearMonth period);
+    List<CardStatementResponse> getCardStatements(UUID cardId, UserPrincipal user);
+    StatementDocument download(UUID id, UserPrincipal user);
+}
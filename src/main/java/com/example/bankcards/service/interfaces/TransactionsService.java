@@ -1,9 +1,26 @@
 package com.example.bankcards.service.interfaces;
 
+import com.example.bankcards.dto.core.CursorPage;
+import com.example.bankcards.dto.transfer.BatchTransferRequest;
+import com.example.bankcards.dto.transfer.BatchTransferResponse;
+import com.example.bankcards.dto.transfer.CreateTransferByIdRequest;
 import com.example.bankcards.dto.transfer.CreateTransferRequest;
+import com.example.bankcards.dto.transfer.TransferResponse;
+import com.example.bankcards.security.UserPrincipal;
 
+import java.math.BigDecimal;
 import java.util.UUID;
 
 public interface TransactionsService {
-    void createTransaction(CreateTransferRequest request, UUID userId);
+    TransferResponse createTransaction(CreateTransferRequest request, UUID userId);
+
+    TransferResponse createTransactionByCardId(CreateTransferByIdRequest request, UUID userId);
+
+    TransferResponse transferInCurrentTransaction(UUID fromCardId, UUID toCardId, BigDecimal amount, UUID userId);
+
+    BatchTransferResponse createBatch(BatchTransferRequest request, UUID userId);
+
+    CursorPage<TransferResponse> getCardTransfers(UUID cardId, UserPrincipal user, String cursor, int size);
+
+    CursorPage<TransferResponse> getUserTransfers(UUID userId, String cursor, int size);
 }
@@ -0,0 +1,9 @@
+package com.example.bankcards.service.interfaces;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public interface TransferLimitService {
+    void reserve(UUID cardId, UUID userId, BigDecimal amount);
+    int evictIdle();
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.service.interfaces;
+
+import com.example.bankcards.dto.user.UserOverviewResponse;
+
+import java.util.UUID;
+
+public interface UserOverviewService {
+
+    /**
+     * Профиль, карты и заявки пользователя, загруженные параллельно.
+     */
+    UserOverviewResponse getOverview(UUID userId);
+}
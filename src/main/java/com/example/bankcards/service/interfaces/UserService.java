@@ -1,16 +1,21 @@
 package com.example.bankcards.service.interfaces;
 
+import com.example.bankcards.dto.core.BatchGetResponse;
 import com.example.bankcards.dto.core.PagedResponse;
+import com.example.bankcards.dto.core.ResourceVersion;
 import com.example.bankcards.dto.user.CreateUserRequest;
 import com.example.bankcards.dto.user.UpdateUserRequest;
 import com.example.bankcards.dto.user.UserResponse;
 import com.example.bankcards.entity.UserRole;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public interface UserService {
     UserResponse getUserById(UUID id);
+    ResourceVersion getUserVersion(UUID id);
+    BatchGetResponse<UserResponse> getUsersByIds(List<UUID> ids);
     UserResponse createUser(CreateUserRequest request);
     UserResponse updateUser(UUID id, UpdateUserRequest request);
     void deleteUser(UUID id);
@@ -23,6 +28,7 @@ public interface UserService {
             UserRole role,
             Boolean active,
             LocalDateTime createdAfter,
-            LocalDateTime createdBefore
+            LocalDateTime createdBefore,
+            List<String> fields
     );
 }
@@ -0,0 +1,35 @@
+package com.example.bankcards.util;
+
+import java.util.UUID;
+
+/**
+ * Деление пространства id карт на {@code ranges} диапазонов по старшему байту uuid
+ * для заданий, которые обходят все карты параллельно. Границы включительные.
+ */
+public final class CardIdRanges {
+
+    private CardIdRanges() {
+    }
+
+    public static int validate(int ranges, String property) {
+        if (ranges < 1 || ranges > 256 || Integer.bitCount(ranges) != 1) {
+            throw new IllegalStateException(property + " must be a power of two between 1 and 256");
+        }
+        return ranges;
+    }
+
+    public static UUID lowerBound(int range, int ranges) {
+        return new UUID(firstByteOf(range, ranges) << 56, 0L);
+    }
+
+    public static UUID upperBound(int range, int ranges) {
+        if (range == ranges - 1) {
+            return new UUID(-1L, -1L);
+        }
+        return new UUID((firstByteOf(range + 1, ranges) << 56) - 1, -1L);
+    }
+
+    private static long firstByteOf(int range, int ranges) {
+        return (long) range * 256 / ranges;
+    }
+}
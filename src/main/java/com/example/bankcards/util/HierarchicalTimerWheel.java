@@ -0,0 +1,114 @@
+package com.example.bankcards.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Иерархическое колесо таймеров. Уровень {@code L} состоит из {@code wheelSize}
+ * слотов по {@code wheelSize^L} тиков; задача кладётся на самый мелкий уровень,
+ * в который помещается её срок, и спускается ниже, когда колесо доходит до её
+ * слота. Постановка и срабатывание стоят O(1) независимо от числа задач.
+ * <p>
+ * Колесо не следит за временем само: {@link #advance} вызывает внешний тикер.
+ */
+public class HierarchicalTimerWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long[] spans;
+    private final ArrayDeque<Timer<T>>[][] slots;
+
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimerWheel(long tickMs, int wheelSize, int levels, long startMillis) {
+        if (tickMs <= 0 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("Invalid timer wheel geometry");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.spans = new long[levels + 1];
+        this.slots = new ArrayDeque[levels][wheelSize];
+        spans[0] = 1;
+        for (int level = 0; level < levels; level++) {
+            spans[level + 1] = Math.multiplyExact(spans[level], wheelSize);
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots[level][slot] = new ArrayDeque<>();
+            }
+        }
+        this.currentTick = startMillis / tickMs;
+    }
+
+    /**
+     * Ставит задачу на момент {@code deadlineMillis}. Просроченная задача сработает
+     * на ближайшем тике. Возвращает false, если срок дальше, чем охватывает колесо.
+     */
+    public synchronized boolean schedule(long deadlineMillis, T item) {
+        long tick = Math.max(Math.floorDiv(deadlineMillis, tickMs), currentTick + 1);
+        return place(new Timer<>(tick, item));
+    }
+
+    /**
+     * Прокручивает колесо до {@code nowMillis} и возвращает сработавшие задачи
+     * в порядке сроков с точностью до тика.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long target = Math.floorDiv(nowMillis, tickMs);
+        List<T> expired = new ArrayList<>();
+        while (currentTick < target) {
+            currentTick++;
+            for (int level = slots.length - 1; level > 0; level--) {
+                if (currentTick % spans[level] == 0) {
+                    drain(slots[level][slotIndex(currentTick, level)], expired);
+                }
+            }
+            drain(slots[0][slotIndex(currentTick, 0)], expired);
+        }
+        return expired;
+    }
+
+    /**
+     * Самый дальний срок от текущего тика, который колесо ещё примет.
+     */
+    public long horizonMillis() {
+        return (spans[slots.length] - 1) * tickMs;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void drain(ArrayDeque<Timer<T>> slot, List<T> expired) {
+        int count = slot.size();
+        for (int i = 0; i < count; i++) {
+            Timer<T> timer = slot.poll();
+            size--;
+            if (timer.tick <= currentTick) {
+                expired.add(timer.item);
+            } else {
+                place(timer);
+            }
+        }
+    }
+
+    private boolean place(Timer<T> timer) {
+        long delta = timer.tick - currentTick;
+        for (int level = 0; level < slots.length; level++) {
+            if (delta < spans[level + 1]) {
+                slots[level][slotIndex(timer.tick, level)].add(timer);
+                size++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int slotIndex(long tick, int level) {
+        return (int) Math.floorMod(tick / spans[level], (long) wheelSize);
+    }
+
+    private record Timer<T>(long tick, T item) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.bankcards.util;
+
+/**
+ * Скользящие окна сумм в копейках: 24 часовые корзины для суточного окна и
+ * 30 суточных для месячного. Корзина переиспользуется по кругу, устаревшая
+ * обнуляется при первой записи в новый период. Не потокобезопасен.
+ */
+public final class SlidingWindowCounter {
+
+    public static final int HOURS = 24;
+    public static final int DAYS = 30;
+
+    private final long[] hourCents = new long[HOURS];
+    private final long[] hourSlots = new long[HOURS];
+    private final long[] dayCents = new long[DAYS];
+    private final long[] daySlots = new long[DAYS];
+
+    /**
+     * @param hour  номер часа от эпохи (UTC)
+     * @param cents сумма; отрицательная отменяет ранее добавленную
+     */
+    public void add(long hour, long cents) {
+        addTo(hourCents, hourSlots, hour, cents);
+        addTo(dayCents, daySlots, Math.floorDiv(hour, HOURS), cents);
+    }
+
+    /**
+     * Сумма за последние 24 часа, включая текущий.
+     */
+    public long lastDay(long hour) {
+        return sum(hourCents, hourSlots, hour);
+    }
+
+    /**
+     * Сумма за последние 30 суток, включая текущие.
+     */
+    public long lastMonth(long hour) {
+        return sum(dayCents, daySlots, Math.floorDiv(hour, HOURS));
+    }
+
+    private static void addTo(long[] cents, long[] slots, long slot, long delta) {
+        int index = (int) Math.floorMod(slot, (long) cents.length);
+        if (slots[index] != slot) {
+            if (slots[index] > slot || delta < 0) {
+                return;
+            }
+            slots[index] = slot;
+            cents[index] = 0;
+        }
+        cents[index] += delta;
+    }
+
+    private static long sum(long[] cents, long[] slots, long current) {
+        long total = 0;
+        for (int i = 0; i < cents.length; i++) {
+            if (slots[i] > current - cents.length && slots[i] <= current) {
+                total += cents[i];
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.entity.StatementFormat;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.Getter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Потоковая запись выписки по карте: строки пишутся в поток по мере чтения из
+ * курсора и не копятся в памяти, итоги считаются на лету. Перевод с карты —
+ * DEBIT, на карту — CREDIT; сумма всегда положительная.
+ */
+public abstract class StatementWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Getter
+    private int transfersCount;
+    @Getter
+    private BigDecimal totalDebit = BigDecimal.ZERO;
+    @Getter
+    private BigDecimal totalCredit = BigDecimal.ZERO;
+
+    public static StatementWriter open(StatementFormat format, OutputStream out, UUID cardId, YearMonth period) {
+        try {
+            return switch (format) {
+                case CSV -> new Csv(out);
+                case JSON -> new Json(out, cardId, period);
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void write(UUID transferId, OffsetDateTime createdAt, boolean debit, UUID counterpartyCardId,
+                      BigDecimal amount) {
+        transfersCount++;
+        if (debit) {
+            totalDebit = totalDebit.add(amount);
+        } else {
+            totalCredit = totalCredit.add(amount);
+        }
+        try {
+            row(transferId.toString(), createdAt.withOffsetSameInstant(ZoneOffset.UTC).toString(),
+                    debit ? "DEBIT" : "CREDIT", counterpartyCardId.toString(), amount);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Дописывает итоги (если формат их содержит) и сбрасывает буфер; поток не закрывается.
+     */
+    public void finish() {
+        try {
+            complete();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected abstract void row(String transferId, String createdAt, String direction, String counterpartyCardId,
+                                BigDecimal amount) throws IOException;
+
+    protected abstract void complete() throws IOException;
+
+    private static final class Csv extends StatementWriter {
+
+        private final Writer writer;
+
+        private Csv(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write("transfer_id,created_at,direction,counterparty_card_id,amount\n");
+        }
+
+        @Override
+        protected void row(String transferId, String createdAt, String direction, String counterpartyCardId,
+                           BigDecimal amount) throws IOException {
+            writer.write(transferId);
+            writer.write(',');
+            writer.write(createdAt);
+            writer.write(',');
+            writer.write(direction);
+            writer.write(',');
+            writer.write(counterpartyCardId);
+            writer.write(',');
+            writer.write(amount.toPlainString());
+            writer.write('\n');
+        }
+
+        @Override
+        protected void complete() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class Json extends StatementWriter {
+
+        private final JsonGenerator generator;
+
+        private Json(OutputStream out, UUID cardId, YearMonth period) throws IOException {
+            generator = JSON_FACTORY.createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeStringField("cardId", cardId.toString());
+            generator.writeStringField("period", period.toString());
+            generator.writeArrayFieldStart("transfers");
+        }
+
+        @Override
+        protected void row(String transferId, String createdAt, String direction, String counterpartyCardId,
+                           BigDecimal amount) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("id", transferId);
+            generator.writeStringField("createdAt", createdAt);
+            generator.writeStringField("direction", direction);
+            generator.writeStringField("counterpartyCardId", counterpartyCardId);
+            generator.writeNumberField("amount", amount);
+            generator.writeEndObject();
+        }
+
+        @Override
+        protected void complete() throws IOException {
+            generator.writeEndArray();
+            generator.writeNumberField("transfersCount", getTransfersCount());
+            generator.writeNumberField("totalDebit", getTotalDebit());
+            generator.writeNumberField("totalCredit", getTotalCredit());
+            generator.writeEndObject();
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.bankcards.util;
+
+import java.util.UUID;
+
+/**
+ * Таблица статистики переводов по картам на примитивных массивах: открытая
+ * адресация с линейным пробированием по двум long ключа UUID, без объектов на
+ * запись и без боксинга. Ёмкость фиксирована, при заполнении новые карты не
+ * принимаются. Не потокобезопасна.
+ * <p>
+ * На карту хранятся число и сумма переводов в текущем и предыдущем окне (оценка
+ * скользящего окна взвешивает предыдущее по ещё не истёкшей доле), EWMA суммы
+ * и её дисперсии.
+ */
+public final class VelocityTable {
+
+    private final long windowMs;
+    private final int mask;
+    private final int maxSize;
+
+    private final boolean[] used;
+    private final long[] keyHi;
+    private final long[] keyLo;
+    private final long[] window;
+    private final int[] count;
+    private final int[] prevCount;
+    private final long[] cents;
+    private final long[] prevCents;
+    private final double[] mean;
+    private final double[] variance;
+    private final int[] samples;
+    private final long[] lastSeen;
+    private final long[] lastFlagged;
+
+    private int size;
+
+    public VelocityTable(int maxEntries, long windowMs) {
+        if (maxEntries < 1 || windowMs < 1) {
+            throw new IllegalArgumentException("Invalid velocity table size or window");
+        }
+        int capacity = Integer.highestOneBit(maxEntries + maxEntries / 3) << 1;
+        this.windowMs = windowMs;
+        this.mask = capacity - 1;
+        this.maxSize = maxEntries;
+        this.used = new boolean[capacity];
+        this.keyHi = new long[capacity];
+        this.keyLo = new long[capacity];
+        this.window = new long[capacity];
+        this.count = new int[capacity];
+        this.prevCount = new int[capacity];
+        this.cents = new long[capacity];
+        this.prevCents = new long[capacity];
+        this.mean = new double[capacity];
+        this.variance = new double[capacity];
+        this.samples = new int[capacity];
+        this.lastSeen = new long[capacity];
+        this.lastFlagged = new long[capacity];
+    }
+
+    /**
+     * Слот карты, при {@code create} — с заведением новой записи. -1, если карты
+     * нет или таблица заполнена. Слот действителен до следующего {@link #evictIdle}.
+     */
+    public int slot(UUID id, long nowMs, boolean create) {
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        int i = index(hi, lo);
+        while (used[i]) {
+            if (keyHi[i] == hi && keyLo[i] == lo) {
+                roll(i, nowMs);
+                lastSeen[i] = nowMs;
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        if (!create || size >= maxSize) {
+            return -1;
+        }
+        used[i] = true;
+        keyHi[i] = hi;
+        keyLo[i] = lo;
+        window[i] = nowMs / windowMs;
+        count[i] = prevCount[i] = 0;
+        cents[i] = prevCents[i] = 0;
+        mean[i] = variance[i] = 0;
+        samples[i] = 0;
+        lastSeen[i] = nowMs;
+        lastFlagged[i] = 0;
+        size++;
+        return i;
+    }
+
+    public double windowCount(int slot, long nowMs) {
+        return count[slot] + prevCount[slot] * previousWeight(nowMs);
+    }
+
+    public double windowCents(int slot, long nowMs) {
+        return cents[slot] + prevCents[slot] * previousWeight(nowMs);
+    }
+
+    /**
+     * Добавляет перевод в текущее окно и возвращает номер окна, по которому его
+     * потом можно отменить через {@link #subtract}.
+     */
+    public long add(int slot, long nowMs, long amountCents) {
+        roll(slot, nowMs);
+        count[slot]++;
+        cents[slot] += amountCents;
+        return window[slot];
+    }
+
+    /**
+     * Отменяет перевод, добавленный в окно {@code windowIndex}; в давно ушедшем окне делать нечего.
+     */
+    public void subtract(int slot, long windowIndex, long amountCents) {
+        if (window[slot] == windowIndex) {
+            count[slot]--;
+            cents[slot] -= amountCents;
+        } else if (window[slot] == windowIndex + 1) {
+            prevCount[slot]--;
+            prevCents[slot] -= amountCents;
+        }
+    }
+
+    /**
+     * Учитывает сумму в экспоненциально взвешенных среднем и дисперсии.
+     */
+    public void observe(int slot, double amount, double alpha) {
+        if (samples[slot] == 0) {
+            mean[slot] = amount;
+            variance[slot] = 0;
+        } else {
+            double diff = amount - mean[slot];
+            double increment = alpha * diff;
+            mean[slot] += increment;
+            variance[slot] = (1 - alpha) * (variance[slot] + diff * increment);
+        }
+        if (samples[slot] < Integer.MAX_VALUE) {
+            samples[slot]++;
+        }
+    }
+
+    public double mean(int slot) {
+        return mean[slot];
+    }
+
+    public double stdDev(int slot) {
+        return Math.sqrt(variance[slot]);
+    }
+
+    public int samples(int slot) {
+        return samples[slot];
+    }
+
+    public long lastFlagged(int slot) {
+        return lastFlagged[slot];
+    }
+
+    public void markFlagged(int slot, long nowMs) {
+        lastFlagged[slot] = nowMs;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Удаляет карты без переводов с {@code cutoffMs}. Удаление со сдвигом назад
+     * сохраняет цепочки пробирования без надгробий.
+     */
+    public int evictIdle(long cutoffMs) {
+        int evicted = 0;
+        for (int i = 0; i <= mask; i++) {
+            while (used[i] && lastSeen[i] < cutoffMs) {
+                delete(i);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private void delete(int slot) {
+        used[slot] = false;
+        size--;
+        int hole = slot;
+        int j = slot;
+        while (true) {
+            j = (j + 1) & mask;
+            if (!used[j]) {
+                return;
+            }
+            int home = index(keyHi[j], keyLo[j]);
+            boolean movable = hole <= j
+                    ? home <= hole || home > j
+                    : home <= hole && home > j;
+            if (movable) {
+                move(j, hole);
+                hole = j;
+            }
+        }
+    }
+
+    private void move(int from, int to) {
+        used[to] = true;
+        keyHi[to] = keyHi[from];
+        keyLo[to] = keyLo[from];
+        window[to] = window[from];
+        count[to] = count[from];
+        prevCount[to] = prevCount[from];
+        cents[to] = cents[from];
+        prevCents[to] = prevCents[from];
+        mean[to] = mean[from];
+        variance[to] = variance[from];
+        samples[to] = samples[from];
+        lastSeen[to] = lastSeen[from];
+        lastFlagged[to] = lastFlagged[from];
+        used[from] = false;
+    }
+
+    private void roll(int slot, long nowMs) {
+        long current = nowMs / windowMs;
+        if (window[slot] == current) {
+            return;
+        }
+        if (window[slot] == current - 1) {
+            prevCount[slot] = count[slot];
+            prevCents[slot] = cents[slot];
+        } else {
+            prevCount[slot] = 0;
+            prevCents[slot] = 0;
+        }
+        count[slot] = 0;
+        cents[slot] = 0;
+        window[slot] = current;
+    }
+
+    private double previousWeight(long nowMs) {
+        return 1.0 - (double) (nowMs % windowMs) / windowMs;
+    }
+
+    private int index(long hi, long lo) {
+        long h = (hi ^ lo) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.card.CardOwnerResponse;
 import com.example.bankcards.dto.card.CardResponse;
+import com.example.bankcards.dto.card.CardStatsResponse;
 import com.example.bankcards.dto.card.CreateCardRequest;
 import com.example.bankcards.dto.card.CreateCardResponse;
+import com.example.bankcards.dto.core.BatchGetResponse;
 import com.example.bankcards.dto.core.PagedResponse;
+import com.example.bankcards.dto.core.ResourceVersion;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.exception.DefaultExceptionHandler;
 import com.example.bankcards.exception.NotFoundException;
@@ -104,20 +108,52 @@ class CardControllerTest {
     @Test
     @DisplayName("Should get card by ID successfully")
     void getCardById_WhenValidId_ShouldReturnCard() throws Exception {
+        when(cardService.getCardVersion(eq(cardId), any()))
+                .thenReturn(new ResourceVersion("42", 1_700_000_000_000L));
         when(cardService.getCardByIdIfHaveAccess(eq(cardId), any(UserPrincipal.class)))
                 .thenReturn(cardResponse);
 
         mockMvc.perform(get("/api/v1/card/{cardId}", cardId)
                         .with(user("testuser").roles("USER")))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"42\""))
+                .andExpect(header().exists("Last-Modified"))
                 .andExpect(jsonPath("$.id").value(cardId.toString()));
     }
 
+    @Test
+    @DisplayName("Should answer 304 without loading the card when ETag matches")
+    void getCardById_WhenETagMatches_ShouldReturnNotModified() throws Exception {
+        when(cardService.getCardVersion(eq(cardId), any()))
+                .thenReturn(new ResourceVersion("42", 1_700_000_000_000L));
+
+        mockMvc.perform(get("/api/v1/card/{cardId}", cardId)
+                        .header("If-None-Match", "\"42\"")
+                        .with(user("testuser").roles("USER")))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(cardService, never()).getCardByIdIfHaveAccess(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should answer 304 for my cards when card set is unchanged")
+    void getMyCards_WhenETagMatches_ShouldReturnNotModified() throws Exception {
+        when(cardService.getUserCardsVersion(any(), any())).thenReturn(ResourceVersion.of("3.42"));
+
+        mockMvc.perform(get("/api/v1/card/my")
+                        .header("If-None-Match", "\"3.42\"")
+                        .principal(() -> "testuser"))
+                .andExpect(status().isNotModified());
+
+        verify(cardService, never()).getUserCards(any(), any(), any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
 
     @Test
     @DisplayName("Should return 404 when card not found")
     void getCardById_WhenCardNotFound_ShouldReturnNotFound() throws Exception {
-        when(cardService.getCardByIdIfHaveAccess(eq(cardId), any()))
+        when(cardService.getCardVersion(eq(cardId), any()))
                 .thenThrow(new NotFoundException("Card not found with id: " + cardId));
 
         mockMvc.perform(get("/api/v1/card/{cardId}", cardId)
@@ -127,11 +163,26 @@ class CardControllerTest {
                 .andExpect(jsonPath("$.statusCode").value(404));
     }
 
+    @Test
+    @DisplayName("Should get cards by id list")
+    void getCardsByIds_WhenCalled_ShouldReturnBatch() throws Exception {
+        UUID missingId = UUID.randomUUID();
+        when(cardService.getCardsByIds(eq(List.of(cardId, missingId)), any()))
+                .thenReturn(new BatchGetResponse<>(List.of(cardResponse), List.of(missingId)));
+
+        mockMvc.perform(get("/api/v1/card/batch")
+                        .param("ids", cardId + "," + missingId)
+                        .principal(() -> "testuser"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(cardId.toString()))
+                .andExpect(jsonPath("$.missing[0]").value(missingId.toString()));
+    }
+
     @Test
     @DisplayName("Should get all cards with pagination")
     void getAllCards_WhenCalled_ShouldReturnPagedResponse() throws Exception {
         when(cardService.getAllCards(any(Pageable.class), isNull(), isNull(),
-                isNull(), isNull(), isNull(), isNull())).thenReturn(pagedResponse);
+                isNull(), isNull(), isNull(), isNull(), isNull(), isNull())).thenReturn(pagedResponse);
 
         mockMvc.perform(get("/api/v1/card")
                         .param("page", "0")
@@ -145,14 +196,14 @@ class CardControllerTest {
                 .andExpect(jsonPath("$.totalElements").value(1));
 
         verify(cardService).getAllCards(any(Pageable.class), isNull(), isNull(),
-                isNull(), isNull(), isNull(), isNull());
+                isNull(), isNull(), isNull(), isNull(), isNull(), isNull());
     }
 
     @Test
     @DisplayName("Should get all cards with filters")
     void getAllCards_WhenFiltersProvided_ShouldApplyFilters() throws Exception {
         when(cardService.getAllCards(any(Pageable.class), eq("test"), eq(CardStatus.ACTIVE),
-                eq(new BigDecimal("100")), eq(new BigDecimal("1000")), any(), any()))
+                eq(new BigDecimal("100")), eq(new BigDecimal("1000")), any(), any(), isNull(), isNull()))
                 .thenReturn(pagedResponse);
 
         mockMvc.perform(get("/api/v1/card")
@@ -166,7 +217,50 @@ class CardControllerTest {
                 .andExpect(jsonPath("$.content").isArray());
 
         verify(cardService).getAllCards(any(Pageable.class), eq("test"), eq(CardStatus.ACTIVE),
-                eq(new BigDecimal("100")), eq(new BigDecimal("1000")), isNull(), isNull());
+                eq(new BigDecimal("100")), eq(new BigDecimal("1000")), isNull(), isNull(), isNull(), isNull());
+    }
+
+    @Test
+    @DisplayName("Should pass fieldset and omit unselected fields")
+    void getAllCards_WhenFieldsRequested_ShouldReturnSparseCards() throws Exception {
+        CardResponse sparse = CardResponse.builder()
+                .id(cardId)
+                .cardNumberMask("**** **** **** 1234")
+                .owner(CardOwnerResponse.builder().username("testuser").build())
+                .build();
+        PagedResponse<CardResponse> sparsePage = PagedResponse.<CardResponse>builder()
+                .content(List.of(sparse))
+                .build();
+        when(cardService.getAllCards(any(Pageable.class), isNull(), isNull(), isNull(), isNull(), isNull(), isNull(),
+                eq(List.of("cardNumberMask")), eq(List.of("owner")))).thenReturn(sparsePage);
+
+        mockMvc.perform(get("/api/v1/card")
+                        .param("fields", "cardNumberMask")
+                        .param("expand", "owner"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].cardNumberMask").value("**** **** **** 1234"))
+                .andExpect(jsonPath("$.content[0].owner.username").value("testuser"))
+                .andExpect(jsonPath("$.content[0].balance").doesNotExist())
+                .andExpect(jsonPath("$.content[0].holderName").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should return card stats")
+    void getCardStats_WhenCalled_ShouldReturnStats() throws Exception {
+        CardStatsResponse stats = CardStatsResponse.builder()
+                .totalCards(2)
+                .totalBalance(new BigDecimal("300.00"))
+                .averageBalance(new BigDecimal("150.00"))
+                .byStatus(List.of(new CardStatsResponse.StatusStats(CardStatus.ACTIVE, 2, new BigDecimal("300.00"))))
+                .createdPerDay(List.of())
+                .build();
+        when(cardService.getCardStats(7)).thenReturn(stats);
+
+        mockMvc.perform(get("/api/v1/card/stats").param("days", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCards").value(2))
+                .andExpect(jsonPath("$.averageBalance").value(150.00))
+                .andExpect(jsonPath("$.byStatus[0].status").value("ACTIVE"));
     }
 
     @Test
@@ -283,7 +377,7 @@ class CardControllerTest {
         String createdBefore = "2023-12-31T23:59:59";
 
         when(cardService.getAllCards(any(Pageable.class), isNull(), isNull(),
-                isNull(), isNull(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                isNull(), isNull(), any(LocalDateTime.class), any(LocalDateTime.class), isNull(), isNull()))
                 .thenReturn(pagedResponse);
 
         mockMvc.perform(get("/api/v1/card")
@@ -293,6 +387,6 @@ class CardControllerTest {
                 .andExpect(jsonPath("$.content").isArray());
 
         verify(cardService).getAllCards(any(Pageable.class), isNull(), isNull(),
-                isNull(), isNull(), any(LocalDateTime.class), any(LocalDateTime.class));
+                isNull(), isNull(), any(LocalDateTime.class), any(LocalDateTime.class), isNull(), isNull());
     }
 }
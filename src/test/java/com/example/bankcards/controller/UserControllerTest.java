@@ -1,13 +1,18 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.core.BatchGetResponse;
 import com.example.bankcards.dto.core.PagedResponse;
+import com.example.bankcards.dto.core.ResourceVersion;
 import com.example.bankcards.dto.user.CreateUserRequest;
 import com.example.bankcards.dto.user.UpdateUserRequest;
+import com.example.bankcards.dto.user.UserOverviewResponse;
 import com.example.bankcards.dto.user.UserResponse;
 import com.example.bankcards.entity.UserRole;
 import com.example.bankcards.exception.AlreadyTakenException;
 import com.example.bankcards.exception.DefaultExceptionHandler;
 import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.exception.ServiceUnavailableException;
+import com.example.bankcards.service.interfaces.UserOverviewService;
 import com.example.bankcards.service.interfaces.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,6 +42,9 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private UserOverviewService userOverviewService;
+
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
 
@@ -48,7 +56,7 @@ class UserControllerTest {
 
     @BeforeEach
     void setUp() {
-        UserController userController = new UserController(userService);
+        UserController userController = new UserController(userService, userOverviewService);
 
         LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
         validator.afterPropertiesSet();
@@ -105,7 +113,7 @@ class UserControllerTest {
     @Test
     @DisplayName("Should get all users with pagination")
     void getAllUsers_WhenCalled_ShouldReturnPagedResponse() throws Exception {
-        when(userService.getAllUsers(0, 10, null, null, null, null, null))
+        when(userService.getAllUsers(0, 10, null, null, null, null, null, null))
                 .thenReturn(pagedResponse);
 
         mockMvc.perform(get("/api/v1/users")
@@ -120,13 +128,13 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.size").value(10))
                 .andExpect(jsonPath("$.totalElements").value(1));
 
-        verify(userService).getAllUsers(0, 10, null, null, null, null, null);
+        verify(userService).getAllUsers(0, 10, null, null, null, null, null, null);
     }
 
     @Test
     @DisplayName("Should get all users with filters")
     void getAllUsers_WhenFiltersProvided_ShouldApplyFilters() throws Exception {
-        when(userService.getAllUsers(0, 10, "test", UserRole.USER, true, null, null))
+        when(userService.getAllUsers(0, 10, "test", UserRole.USER, true, null, null, null))
                 .thenReturn(pagedResponse);
 
         mockMvc.perform(get("/api/v1/users")
@@ -138,7 +146,7 @@ class UserControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isArray());
 
-        verify(userService).getAllUsers(0, 10, "test", UserRole.USER, true, null, null);
+        verify(userService).getAllUsers(0, 10, "test", UserRole.USER, true, null, null, null);
     }
 
     @Test
@@ -148,7 +156,7 @@ class UserControllerTest {
         String createdBefore = "2023-12-31T23:59:59";
 
         when(userService.getAllUsers(eq(0), eq(10), isNull(), isNull(), isNull(),
-                any(LocalDateTime.class), any(LocalDateTime.class)))
+                any(LocalDateTime.class), any(LocalDateTime.class), isNull()))
                 .thenReturn(pagedResponse);
 
         mockMvc.perform(get("/api/v1/users")
@@ -158,12 +166,13 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.content").isArray());
 
         verify(userService).getAllUsers(eq(0), eq(10), isNull(), isNull(), isNull(),
-                any(LocalDateTime.class), any(LocalDateTime.class));
+                any(LocalDateTime.class), any(LocalDateTime.class), isNull());
     }
 
     @Test
     @DisplayName("Should get user by ID successfully")
     void getUserById_WhenValidId_ShouldReturnUser() throws Exception {
+        when(userService.getUserVersion(userId)).thenReturn(new ResourceVersion("1700000000000000.2", 1_700_000_000_000L));
         when(userService.getUserById(userId)).thenReturn(userResponse);
 
         mockMvc.perform(get("/api/v1/users/{id}", userId))
@@ -182,7 +191,7 @@ class UserControllerTest {
     @Test
     @DisplayName("Should return 404 when user not found")
     void getUserById_WhenUserNotFound_ShouldReturnNotFound() throws Exception {
-        when(userService.getUserById(userId))
+        when(userService.getUserVersion(userId))
                 .thenThrow(new NotFoundException("User not found with id: " + userId));
 
         mockMvc.perform(get("/api/v1/users/{id}", userId))
@@ -190,7 +199,19 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.message").value("User not found with id: " + userId))
                 .andExpect(jsonPath("$.statusCode").value(404));
 
-        verify(userService).getUserById(userId);
+        verify(userService, never()).getUserById(userId);
+    }
+
+    @Test
+    @DisplayName("Should answer 304 without loading the user when ETag matches")
+    void getUserById_WhenETagMatches_ShouldReturnNotModified() throws Exception {
+        when(userService.getUserVersion(userId)).thenReturn(new ResourceVersion("1700000000000000.2", 1_700_000_000_000L));
+
+        mockMvc.perform(get("/api/v1/users/{id}", userId)
+                        .header("If-None-Match", "\"1700000000000000.2\""))
+                .andExpect(status().isNotModified());
+
+        verify(userService, never()).getUserById(any());
     }
 
     @Test
@@ -400,6 +421,57 @@ class UserControllerTest {
         verify(userService).deactivateUser(userId);
     }
 
+    @Test
+    @DisplayName("Should get users by id list")
+    void getUsersByIds_WhenCalled_ShouldReturnBatch() throws Exception {
+        UUID missingId = UUID.randomUUID();
+        when(userService.getUsersByIds(List.of(userId, missingId)))
+                .thenReturn(new BatchGetResponse<>(List.of(userResponse), List.of(missingId)));
+
+        mockMvc.perform(get("/api/v1/users/batch").param("ids", userId + "," + missingId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(userId.toString()))
+                .andExpect(jsonPath("$.missing[0]").value(missingId.toString()));
+    }
+
+    @Test
+    @DisplayName("Should return 400 when batch exceeds the id limit")
+    void getUsersByIds_WhenTooManyIds_ShouldReturnBadRequest() throws Exception {
+        when(userService.getUsersByIds(any()))
+                .thenThrow(new IllegalArgumentException("Batch size exceeds limit of 100"));
+
+        mockMvc.perform(get("/api/v1/users/batch").param("ids", userId.toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should return user overview")
+    void getUserOverview_ShouldReturnMergedParts() throws Exception {
+        UserOverviewResponse overview = UserOverviewResponse.builder()
+                .user(userResponse)
+                .cards(List.of())
+                .unavailable(List.of("requests"))
+                .build();
+        when(userOverviewService.getOverview(userId)).thenReturn(overview);
+
+        mockMvc.perform(get("/api/v1/users/{id}/overview", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user.id").value(userId.toString()))
+                .andExpect(jsonPath("$.cards").isEmpty())
+                .andExpect(jsonPath("$.unavailable[0]").value("requests"));
+    }
+
+    @Test
+    @DisplayName("Should return 503 when user overview times out")
+    void getUserOverview_WhenTimedOut_ShouldReturnServiceUnavailable() throws Exception {
+        when(userOverviewService.getOverview(userId))
+                .thenThrow(new ServiceUnavailableException("User overview timed out"));
+
+        mockMvc.perform(get("/api/v1/users/{id}/overview", userId))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.statusCode").value(503));
+    }
+
     @Test
     @DisplayName("Should handle invalid UUID format")
     void getUserById_WhenInvalidUUID_ShouldReturnBadRequest() throws Exception {
@@ -422,6 +494,7 @@ class UserControllerTest {
     @Test
     @DisplayName("Should handle service exceptions")
     void getUserById_WhenServiceThrowsException_ShouldReturnError() throws Exception {
+        when(userService.getUserVersion(userId)).thenReturn(ResourceVersion.of("1"));
         when(userService.getUserById(userId))
                 .thenThrow(new IllegalStateException("Database connection failed"));
 
@@ -0,0 +1,279 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.dto.core.IdempotencyRecord;
+import com.example.bankcards.service.interfaces.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotencyFilter Unit Tests")
+class IdempotencyFilterTest {
+
+    private static final String KEY = "3f9c2a1e-retry-key";
+    private static final String BODY = "{\"fromCardNumber\":\"4277011234567890\",\"amount\":100}";
+    private static final String RESPONSE = "{\"id\":\"transfer\"}";
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private IdempotencyFilter filter;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter(idempotencyService, new ObjectMapper().findAndRegisterModules());
+        userId = UUID.randomUUID();
+        UserPrincipal principal = new UserPrincipal(userId, "testuser", "test@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), true);
+        SecurityContextHolder.setContext(new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should pass request through when header is absent")
+    void doFilter_WhenNoHeader_ShouldPassThrough() throws Exception {
+        MockHttpServletRequest request = post("/transactions", BODY);
+        request.removeHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER);
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        verify(filterChain).doFilter(any(), any());
+        verifyNoInteractions(idempotencyService);
+    }
+
+    @Test
+    @DisplayName("Should not filter non-idempotent endpoints")
+    void doFilter_WhenPathNotCovered_ShouldPassThrough() throws Exception {
+        MockHttpServletRequest request = post("/transactions/my", BODY);
+        request.setMethod("GET");
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        verify(filterChain).doFilter(any(), any());
+        verifyNoInteractions(idempotencyService);
+    }
+
+    @Test
+    @DisplayName("Should execute first request and store its successful response")
+    void doFilter_WhenFirstRequest_ShouldExecuteAndStoreResponse() throws Exception {
+        when(idempotencyService.find(userId, KEY)).thenReturn(Optional.empty());
+        when(idempotencyService.claim(eq(userId), eq(KEY), anyString())).thenReturn(true);
+        doAnswer(invocation -> {
+            assertThat(invocation.<ServletRequest>getArgument(0).getInputStream().readAllBytes())
+                    .isEqualTo(BODY.getBytes(StandardCharsets.UTF_8));
+            respond(invocation.getArgument(1), HttpServletResponse.SC_CREATED, RESPONSE);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(post("/transactions", BODY), response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getContentAsString()).isEqualTo(RESPONSE);
+        verify(idempotencyService).complete(eq(userId), eq(KEY), anyString(), eq(201),
+                eq(MediaType.APPLICATION_JSON_VALUE), eq(RESPONSE.getBytes(StandardCharsets.UTF_8)));
+        verify(idempotencyService, never()).release(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should replay stored response without calling the controller")
+    void doFilter_WhenCompletedKey_ShouldReplayStoredResponse() throws Exception {
+        String fingerprint = fingerprintOf(BODY);
+        when(idempotencyService.find(userId, KEY)).thenReturn(Optional.of(new IdempotencyRecord(
+                fingerprint, true, 201, MediaType.APPLICATION_JSON_VALUE,
+                RESPONSE.getBytes(StandardCharsets.UTF_8), Instant.now().plusSeconds(60))));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(post("/transactions", BODY), response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getContentAsString()).isEqualTo(RESPONSE);
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        verify(filterChain, never()).doFilter(any(), any());
+        verify(idempotencyService, never()).claim(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject key reuse with a different body")
+    void doFilter_WhenFingerprintDiffers_ShouldReturnUnprocessableEntity() throws Exception {
+        when(idempotencyService.find(userId, KEY)).thenReturn(Optional.of(new IdempotencyRecord(
+                "other-fingerprint", true, 201, MediaType.APPLICATION_JSON_VALUE,
+                RESPONSE.getBytes(StandardCharsets.UTF_8), Instant.now().plusSeconds(60))));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(post("/transactions", BODY), response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(422);
+        assertThat(response.getContentAsString()).contains("different request");
+        verify(filterChain, never()).doFilter(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return conflict while the first request is still running")
+    void doFilter_WhenKeyInProgress_ShouldReturnConflict() throws Exception {
+        when(idempotencyService.find(userId, KEY))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new IdempotencyRecord(
+                        fingerprintOf(BODY), false, 0, null, null, Instant.now().plusSeconds(60))));
+        when(idempotencyService.claim(eq(userId), eq(KEY), anyString())).thenReturn(false);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(post("/transactions", BODY), response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(409);
+        verify(filterChain, never()).doFilter(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should release the key when the request fails")
+    void doFilter_WhenResponseIsError_ShouldReleaseKey() throws Exception {
+        when(idempotencyService.find(userId, KEY)).thenReturn(Optional.empty());
+        when(idempotencyService.claim(eq(userId), eq(KEY), anyString())).thenReturn(true);
+        doAnswer(invocation -> {
+            respond(invocation.getArgument(1), HttpServletResponse.SC_BAD_REQUEST, "{\"message\":\"error\"}");
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(post("/request/card_block", BODY), response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        verify(idempotencyService).release(userId, KEY);
+        verify(idempotencyService, never()).complete(any(), any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should keep the key claimed when storing a successful response fails")
+    void doFilter_WhenCompleteFails_ShouldNotReleaseKey() throws Exception {
+        when(idempotencyService.find(userId, KEY))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new IdempotencyRecord(
+                        fingerprintOf(BODY), false, 0, null, null, Instant.now().plusSeconds(60))));
+        when(idempotencyService.claim(eq(userId), eq(KEY), anyString())).thenReturn(true).thenReturn(false);
+        doAnswer(invocation -> {
+            respond(invocation.getArgument(1), HttpServletResponse.SC_CREATED, RESPONSE);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+        doThrow(new IllegalStateException("connection reset"))
+                .when(idempotencyService).complete(any(), any(), any(), anyInt(), any(), any());
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(post("/transactions", BODY), first, filterChain);
+        MockHttpServletResponse retry = new MockHttpServletResponse();
+        filter.doFilter(post("/transactions", BODY), retry, filterChain);
+
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(first.getContentAsString()).isEqualTo(RESPONSE);
+        assertThat(retry.getStatus()).isEqualTo(409);
+        verify(filterChain, times(1)).doFilter(any(), any());
+        verify(idempotencyService, never()).release(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should release the key when the chain throws")
+    void doFilter_WhenChainThrows_ShouldReleaseKey() throws Exception {
+        when(idempotencyService.find(userId, KEY)).thenReturn(Optional.empty());
+        when(idempotencyService.claim(eq(userId), eq(KEY), anyString())).thenReturn(true);
+        doThrow(new IllegalStateException("boom")).when(filterChain).doFilter(any(), any());
+
+        assertThatThrownBy(() -> filter.doFilter(post("/transactions", BODY), new MockHttpServletResponse(), filterChain))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(idempotencyService).release(userId, KEY);
+        verify(idempotencyService, never()).complete(any(), any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should hand the buffered body to a non-blocking reader")
+    void doFilter_WhenReadListenerSet_ShouldDeliverWholeBody() throws Exception {
+        when(idempotencyService.find(userId, KEY)).thenReturn(Optional.empty());
+        when(idempotencyService.claim(eq(userId), eq(KEY), anyString())).thenReturn(true);
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+        doAnswer(invocation -> {
+            ServletInputStream input = invocation.<ServletRequest>getArgument(0).getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    events.add("data");
+                    received.write(input.readAllBytes());
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    events.add("done");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    events.add("error");
+                }
+            });
+            respond(invocation.getArgument(1), HttpServletResponse.SC_CREATED, RESPONSE);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        filter.doFilter(post("/transactions", BODY), new MockHttpServletResponse(), filterChain);
+
+        assertThat(events).containsExactly("data", "done");
+        assertThat(received.toString(StandardCharsets.UTF_8)).isEqualTo(BODY);
+    }
+
+    private static String fingerprintOf(String body) {
+        return IdempotencyFilter.fingerprint(post("/transactions", body), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MockHttpServletRequest post(String path, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, KEY);
+        return request;
+    }
+
+    private static void respond(HttpServletResponse response, int status, String body) throws Exception {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
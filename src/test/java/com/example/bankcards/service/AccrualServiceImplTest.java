@@ -0,0 +1,187 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.AccrualProperties;
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.dto.accrual.AccrualRunResponse;
+import com.example.bankcards.dto.card.CardOwnerView;
+import com.example.bankcards.entity.AccrualRunEntity;
+import com.example.bankcards.entity.AccrualRunStatus;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.exception.NotAllowedException;
+import com.example.bankcards.repository.AccrualPostingRepository;
+import com.example.bankcards.repository.AccrualRunRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.impl.AccrualServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AccrualService Unit Tests")
+class AccrualServiceImplTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 10, 19);
+
+    @Mock
+    private AccrualRunRepository runRepository;
+
+    @Mock
+    private AccrualPostingRepository postingRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private AccrualProperties accrualProperties = new AccrualProperties();
+
+    @Spy
+    private TransferProperties transferProperties = new TransferProperties();
+
+    @InjectMocks
+    private AccrualServiceImpl accrualService;
+
+    private UUID userId;
+    private UUID cardId;
+    private UserPrincipal userPrincipal;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        cardId = UUID.randomUUID();
+        userPrincipal = new UserPrincipal(userId, "testuser", "test@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), true);
+        AccrualProperties.Rule rule = new AccrualProperties.Rule();
+        rule.setAnnualRate(new BigDecimal("0.05"));
+        accrualProperties.getRules().add(rule);
+    }
+
+    @Test
+    @DisplayName("Should resume from checkpoint and walk chunks until a short one")
+    void accrue_ShouldResumeFromCheckpointAndWalkChunks() throws Exception {
+        accrualProperties.setChunkSize(2);
+        UUID checkpoint = UUID.randomUUID();
+        UUID firstChunkLast = UUID.randomUUID();
+        stubTransactions();
+        when(runRepository.findById(DATE))
+                .thenReturn(Optional.of(run(AccrualRunStatus.RUNNING, checkpoint)))
+                .thenReturn(Optional.of(run(AccrualRunStatus.COMPLETED, firstChunkLast)));
+        List<Object> afterArguments = new ArrayList<>();
+        ResultSet fullChunk = chunk(2, firstChunkLast);
+        ResultSet lastChunk = chunk(1, UUID.randomUUID());
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(inv -> {
+                    afterArguments.add(inv.getArgument(6));
+                    RowMapper<?> mapper = inv.getArgument(1);
+                    return mapper.mapRow(afterArguments.size() == 1 ? fullChunk : lastChunk, 0);
+                });
+
+        AccrualRunResponse response = accrualService.accrue(DATE);
+
+        assertThat(response.getStatus()).isEqualTo(AccrualRunStatus.COMPLETED);
+        assertThat(afterArguments).containsExactly(checkpoint, firstChunkLast);
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS accrual_postings_2026_10"));
+        verify(runRepository).insertIfAbsent(DATE);
+        verify(runRepository).complete(DATE);
+    }
+
+    @Test
+    @DisplayName("Should refuse to repeat completed run")
+    void accrue_WhenCompleted_ShouldThrow() {
+        stubTransactions();
+        when(runRepository.findById(DATE)).thenReturn(Optional.of(run(AccrualRunStatus.COMPLETED, null)));
+
+        assertThatThrownBy(() -> accrualService.accrue(DATE))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Accrual for 2026-10-19 is already completed");
+        verify(jdbcTemplate, never()).queryForObject(anyString(), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should reject accrual in ledger mode")
+    void accrue_WhenLedgerEnabled_ShouldThrow() {
+        transferProperties.getLedger().setEnabled(true);
+
+        assertThatThrownBy(() -> accrualService.accrue(DATE))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Accrual is not supported in ledger mode");
+        verifyNoInteractions(runRepository, jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should reject rule without rate")
+    void accrue_WhenRuleInvalid_ShouldThrow() {
+        accrualProperties.getRules().get(0).setAnnualRate(null);
+
+        assertThatThrownBy(() -> accrualService.accrue(DATE))
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(runRepository, jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should deny accruals of someone else's card")
+    void getCardAccruals_WhenNotOwner_ShouldThrow() {
+        when(cardRepository.findOwnerViewsById(List.of(cardId))).thenReturn(
+                List.of(new CardOwnerView(cardId, "enc", UUID.randomUUID(), CardStatus.ACTIVE, BigDecimal.TEN)));
+
+        assertThatThrownBy(() -> accrualService.getCardAccruals(cardId, DATE.minusDays(7), DATE, userPrincipal))
+                .isInstanceOf(AccessDeniedException.class);
+        verifyNoInteractions(postingRepository);
+    }
+
+    private void stubTransactions() {
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private static ResultSet chunk(int scanned, UUID lastCardId) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getInt("scanned")).thenReturn(scanned);
+        when(rs.getObject("last_card_id", UUID.class)).thenReturn(lastCardId);
+        return rs;
+    }
+
+    private static AccrualRunEntity run(AccrualRunStatus status, UUID lastCardId) {
+        return AccrualRunEntity.builder()
+                .accrualDate(DATE)
+                .status(status)
+                .lastCardId(lastCardId)
+                .totalAmount(BigDecimal.ZERO)
+                .build();
+    }
+}
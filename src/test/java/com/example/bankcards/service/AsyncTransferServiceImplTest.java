@@ -0,0 +1,384 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.dto.card.CardOwnerView;
+import com.example.bankcards.dto.transfer.AsyncTransferStatus;
+import com.example.bankcards.dto.transfer.AsyncTransferStatus.State;
+import com.example.bankcards.dto.transfer.CreateTransferRequest;
+import com.example.bankcards.dto.transfer.TransferResponse;
+import com.example.bankcards.entity.AsyncTransferEntity;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.TransferEntity;
+import com.example.bankcards.exception.NotAllowedException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.example.bankcards.repository.AsyncTransferRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.impl.AsyncTransferServiceImpl;
+import com.example.bankcards.service.interfaces.TransactionsService;
+import com.example.bankcards.util.CardEncryption;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AsyncTransferService Unit Tests")
+class AsyncTransferServiceImplTest {
+
+    @Mock
+    private TransactionsService transactionsService;
+
+    @Mock
+    private AsyncTransferRepository asyncTransferRepository;
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardEncryption cardEncryption;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private TransferProperties transferProperties = new TransferProperties();
+
+    @InjectMocks
+    private AsyncTransferServiceImpl asyncTransferService;
+
+    /**
+     * Таблица async_transfers в памяти; lockPending берёт строку, как FOR UPDATE
+     * SKIP LOCKED, до конца транзакции из transactionTemplate.
+     */
+    private final Map<UUID, AsyncTransferEntity> rows = new ConcurrentHashMap<>();
+    private final Set<UUID> locked = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<List<UUID>> lockedInTransaction = ThreadLocal.withInitial(ArrayList::new);
+
+    private UUID userId;
+    private UUID fromCardId;
+    private UUID toCardId;
+    private CreateTransferRequest request;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        fromCardId = UUID.randomUUID();
+        toCardId = UUID.randomUUID();
+        request = new CreateTransferRequest();
+        request.setFromCardNumber("4277011234567890");
+        request.setToCardNumber("4277019876543210");
+        request.setAmount(new BigDecimal("100.00"));
+
+        lenient().when(cardEncryption.encryptCardNumber(anyString())).thenAnswer(inv -> "enc-" + inv.getArgument(0));
+        lenient().when(cardRepository.findOwnerViewsByCardNumberEncrypted(anyCollection())).thenReturn(List.of(
+                new CardOwnerView(fromCardId, "enc-4277011234567890", userId, CardStatus.ACTIVE, new BigDecimal("1000.00")),
+                new CardOwnerView(toCardId, "enc-4277019876543210", userId, CardStatus.ACTIVE, BigDecimal.ZERO)));
+        lenient().when(asyncTransferRepository.save(any())).thenAnswer(inv -> {
+            AsyncTransferEntity row = inv.getArgument(0);
+            row.setId(UUID.randomUUID());
+            rows.put(row.getId(), row);
+            return row;
+        });
+        lenient().when(asyncTransferRepository.findByIdAndUserId(any(), any())).thenAnswer(inv ->
+                Optional.ofNullable(rows.get(inv.<UUID>getArgument(0)))
+                        .filter(row -> row.getUserId().equals(inv.getArgument(1))));
+        lenient().when(asyncTransferRepository.lockPending(any())).thenAnswer(inv -> {
+            AsyncTransferEntity row = rows.get(inv.<UUID>getArgument(0));
+            if (row == null || row.getStatus() != State.PENDING || !locked.add(row.getId())) {
+                return Optional.empty();
+            }
+            lockedInTransaction.get().add(row.getId());
+            return Optional.of(row);
+        });
+        lenient().when(asyncTransferRepository.markFailed(any(), any())).thenAnswer(inv -> {
+            AsyncTransferEntity row = rows.get(inv.<UUID>getArgument(0));
+            if (row == null || row.getStatus() != State.PENDING) {
+                return 0;
+            }
+            row.setStatus(State.FAILED);
+            row.setError(inv.getArgument(1));
+            row.setCompletedAt(LocalDateTime.now());
+            return 1;
+        });
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(inv -> {
+            try {
+                return inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            } finally {
+                lockedInTransaction.get().forEach(locked::remove);
+                lockedInTransaction.get().clear();
+            }
+        });
+        lenient().when(transferRepository.findById(any())).thenAnswer(inv -> Optional.of(TransferEntity.builder()
+                .id(inv.getArgument(0))
+                .userId(userId)
+                .fromCardId(fromCardId)
+                .toCardId(toCardId)
+                .amount(new BigDecimal("100.00"))
+                .build()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncTransferService.stop();
+    }
+
+    @Test
+    @DisplayName("Should persist transfer as PENDING and complete it in background")
+    void submit_WhenValidRequest_ShouldCompleteAsynchronously() throws Exception {
+        asyncTransferService.start();
+        UUID transferId = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionsService.transferInCurrentTransaction(fromCardId, toCardId, new BigDecimal("100.00"), userId))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return TransferResponse.builder().id(transferId).build();
+                });
+
+        AsyncTransferStatus accepted = asyncTransferService.submit(request, userId);
+        AsyncTransferEntity row = rows.get(accepted.getId());
+        assertThat(accepted.getState()).isEqualTo(State.PENDING);
+        assertThat(row.getFromCardNumberEncrypted()).isEqualTo("enc-4277011234567890");
+        release.countDown();
+
+        AsyncTransferStatus finished = asyncTransferService
+                .awaitStatus(accepted.getId(), userId, 5_000)
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(accepted.getSubmittedAt()).isNotNull();
+        assertThat(finished.getState()).isEqualTo(State.COMPLETED);
+        assertThat(finished.getTransfer().getId()).isEqualTo(transferId);
+        assertThat(finished.getCompletedAt()).isNotNull();
+        assertThat(row.getTransferId()).isEqualTo(transferId);
+    }
+
+    @Test
+    @DisplayName("Should report business rejection as FAILED status")
+    void submit_WhenTransferRejected_ShouldFailWithMessage() throws Exception {
+        asyncTransferService.start();
+        when(transactionsService.transferInCurrentTransaction(any(), any(), any(), any()))
+                .thenThrow(new NotAllowedException("Insufficient balance on source card"));
+
+        AsyncTransferStatus accepted = asyncTransferService.submit(request, userId);
+        AsyncTransferStatus finished = asyncTransferService
+                .awaitStatus(accepted.getId(), userId, 5_000)
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(finished.getState()).isEqualTo(State.FAILED);
+        assertThat(finished.getError()).isEqualTo("Insufficient balance on source card");
+    }
+
+    @Test
+    @DisplayName("Should fail transfer when a card number is unknown")
+    void submit_WhenCardUnknown_ShouldFail() throws Exception {
+        asyncTransferService.start();
+        when(cardRepository.findOwnerViewsByCardNumberEncrypted(anyCollection())).thenReturn(List.of());
+
+        AsyncTransferStatus accepted = asyncTransferService.submit(request, userId);
+        AsyncTransferStatus finished = asyncTransferService
+                .awaitStatus(accepted.getId(), userId, 5_000)
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(finished.getState()).isEqualTo(State.FAILED);
+        assertThat(finished.getError()).isEqualTo("Card number not found");
+        verifyNoInteractions(transactionsService);
+    }
+
+    @Test
+    @DisplayName("Should not run more transfers at once than the in-flight limit")
+    void submit_WhenBurst_ShouldCapConcurrency() throws Exception {
+        transferProperties.getAsync().setMaxInFlight(2);
+        asyncTransferService.start();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionsService.transferInCurrentTransaction(any(), any(), any(), any())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            release.await(5, TimeUnit.SECONDS);
+            running.decrementAndGet();
+            return TransferResponse.builder().id(UUID.randomUUID()).build();
+        });
+
+        List<AsyncTransferStatus> accepted = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            accepted.add(asyncTransferService.submit(request, userId));
+        }
+        assertThat(accepted).allMatch(status -> status.getState() == State.PENDING);
+
+        Thread.sleep(100);
+        release.countDown();
+        for (AsyncTransferStatus status : accepted) {
+            assertThat(asyncTransferService.awaitStatus(status.getId(), userId, 5_000).get(5, TimeUnit.SECONDS)
+                    .getState()).isEqualTo(State.COMPLETED);
+        }
+        assertThat(maxRunning.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reject submission when too many transfers are pending")
+    void submit_WhenPendingLimitReached_ShouldThrowTooManyRequests() throws Exception {
+        transferProperties.getAsync().setMaxInFlight(1);
+        transferProperties.getAsync().setMaxPending(1);
+        asyncTransferService.start();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionsService.transferInCurrentTransaction(any(), any(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return TransferResponse.builder().id(UUID.randomUUID()).build();
+        });
+
+        asyncTransferService.submit(request, userId);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> asyncTransferService.submit(request, userId))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(rows).hasSize(1);
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should hide transfers submitted by other users")
+    void getStatus_WhenOtherUser_ShouldThrowNotFound() throws Exception {
+        asyncTransferService.start();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionsService.transferInCurrentTransaction(any(), any(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return TransferResponse.builder().id(UUID.randomUUID()).build();
+        });
+        AsyncTransferStatus accepted = asyncTransferService.submit(request, userId);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> asyncTransferService.getStatus(accepted.getId(), UUID.randomUUID()))
+                .isInstanceOf(NotFoundException.class);
+        assertThat(asyncTransferService.getStatus(accepted.getId(), userId).getState()).isEqualTo(State.PENDING);
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Long poll should return current state when the wait times out")
+    void awaitStatus_WhenStillRunning_ShouldReturnAfterTimeout() throws Exception {
+        asyncTransferService.start();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionsService.transferInCurrentTransaction(any(), any(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return TransferResponse.builder().id(UUID.randomUUID()).build();
+        });
+        AsyncTransferStatus accepted = asyncTransferService.submit(request, userId);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AsyncTransferStatus status = asyncTransferService.awaitStatus(accepted.getId(), userId, 50)
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(status.getState().isFinished()).isFalse();
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should answer status of a transfer accepted by another node without waiting")
+    void awaitStatus_WhenAcceptedElsewhere_ShouldReturnStoredStatus() throws Exception {
+        asyncTransferService.start();
+        AsyncTransferEntity row = pendingRow();
+
+        AsyncTransferStatus status = asyncTransferService.awaitStatus(row.getId(), userId, 5_000)
+                .get(1, TimeUnit.SECONDS);
+
+        assertThat(status.getState()).isEqualTo(State.PENDING);
+        assertThat(status.getSubmittedAt()).isEqualTo(row.getSubmittedAt());
+    }
+
+    @Test
+    @DisplayName("Should pick up transfers left pending by a restarted node")
+    void recoverPending_WhenRowsAbandoned_ShouldCompleteThem() throws Exception {
+        asyncTransferService.start();
+        AsyncTransferEntity row = pendingRow();
+        when(asyncTransferRepository.findPendingSubmittedBefore(any(), eq(100))).thenReturn(List.of(row.getId()));
+        when(transactionsService.transferInCurrentTransaction(fromCardId, toCardId, new BigDecimal("100.00"), userId))
+                .thenReturn(TransferResponse.builder().id(UUID.randomUUID()).build());
+
+        assertThat(asyncTransferService.recoverPending()).isEqualTo(1);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (row.getStatus() == State.PENDING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(row.getStatus()).isEqualTo(State.COMPLETED);
+        assertThat(row.getTransferId()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should run a transfer once even when it is dispatched twice")
+    void recoverPending_WhenAlreadyQueued_ShouldNotRunTwice() throws Exception {
+        asyncTransferService.start();
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionsService.transferInCurrentTransaction(any(), any(), any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return TransferResponse.builder().id(UUID.randomUUID()).build();
+        });
+        AsyncTransferStatus accepted = asyncTransferService.submit(request, userId);
+        when(asyncTransferRepository.findPendingSubmittedBefore(any(), anyInt())).thenReturn(List.of(accepted.getId()));
+
+        assertThat(asyncTransferService.recoverPending()).isZero();
+        release.countDown();
+        asyncTransferService.awaitStatus(accepted.getId(), userId, 5_000).get(5, TimeUnit.SECONDS);
+
+        verify(transactionsService, times(1)).transferInCurrentTransaction(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should purge finished statuses after their TTL")
+    void purgeFinished_WhenTtlElapsed_ShouldDeleteFinished() {
+        transferProperties.getAsync().setResultTtlMs(0);
+        asyncTransferService.start();
+        when(asyncTransferRepository.deleteCompletedBefore(any())).thenReturn(1);
+
+        assertThat(asyncTransferService.purgeFinished()).isEqualTo(1);
+        verify(asyncTransferRepository).deleteCompletedBefore(argThat(before -> !before.isAfter(LocalDateTime.now())));
+    }
+
+    private AsyncTransferEntity pendingRow() {
+        AsyncTransferEntity row = AsyncTransferEntity.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .fromCardNumberEncrypted("enc-4277011234567890")
+                .toCardNumberEncrypted("enc-4277019876543210")
+                .amount(new BigDecimal("100.00"))
+                .status(State.PENDING)
+                .submittedAt(LocalDateTime.now().minusMinutes(5))
+                .build();
+        rows.put(row.getId(), row);
+        return row;
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.BalanceSnapshotProperties;
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.dto.snapshot.BalanceSnapshotRunResponse;
+import com.example.bankcards.dto.snapshot.CardBalanceSnapshotResponse;
+import com.example.bankcards.entity.BalanceSnapshotRunEntity;
+import com.example.bankcards.entity.CardBalanceSnapshotEntity;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.exception.NotAllowedException;
+import com.example.bankcards.repository.BalanceSnapshotRunRepository;
+import com.example.bankcards.repository.CardBalanceSnapshotRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.impl.BalanceSnapshotServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BalanceSnapshotService Unit Tests")
+class BalanceSnapshotServiceImplTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 10, 18);
+
+    @Mock
+    private CardBalanceSnapshotRepository snapshotRepository;
+
+    @Mock
+    private BalanceSnapshotRunRepository runRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private BalanceSnapshotProperties properties = new BalanceSnapshotProperties();
+
+    @Spy
+    private TransferProperties transferProperties = new TransferProperties();
+
+    @InjectMocks
+    private BalanceSnapshotServiceImpl balanceSnapshotService;
+
+    private UUID userId;
+    private UUID cardId;
+    private UserPrincipal userPrincipal;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        cardId = UUID.randomUUID();
+        userPrincipal = new UserPrincipal(userId, "testuser", "test@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), true);
+        balanceSnapshotService.init();
+    }
+
+    @Test
+    @DisplayName("Should copy every card range under one exported snapshot")
+    void takeSnapshot_ShouldCopyAllRangesUnderOneSnapshot() {
+        properties.setRanges(4);
+        properties.setWorkerThreads(2);
+        stubSnapshot();
+
+        BalanceSnapshotRunResponse run = balanceSnapshotService.takeSnapshot(DATE);
+
+        assertThat(run.getDate()).isEqualTo(DATE);
+        assertThat(run.getCardsCount()).isEqualTo(12);
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS card_balance_snapshots_2026_10"));
+        verify(snapshotRepository).deleteByDate(DATE);
+        verify(jdbcTemplate, times(4)).execute("set transaction snapshot '00000003-0000001B-1'");
+        verify(jdbcTemplate).update(contains("from cards c"), eq(DATE), any(),
+                eq(new UUID(0L, 0L)), eq(new UUID(0x3FFFFFFFFFFFFFFFL, -1L)));
+        verify(jdbcTemplate).update(contains("from cards c"), eq(DATE), any(),
+                eq(new UUID(0xC000000000000000L, 0L)), eq(new UUID(-1L, -1L)));
+        verify(runRepository).save(any(BalanceSnapshotRunEntity.class));
+    }
+
+    @Test
+    @DisplayName("Should derive balances from ledger in ledger mode")
+    void takeSnapshot_WhenLedgerEnabled_ShouldUseLedgerBalance() {
+        properties.setRanges(1);
+        transferProperties.getLedger().setEnabled(true);
+        stubSnapshot();
+
+        balanceSnapshotService.takeSnapshot(DATE);
+
+        verify(jdbcTemplate).update(contains("ledger_postings"), eq(DATE), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should refuse to retake completed snapshot")
+    void takeSnapshot_WhenAlreadyTaken_ShouldThrow() {
+        when(runRepository.existsById(DATE)).thenReturn(true);
+
+        assertThatThrownBy(() -> balanceSnapshotService.takeSnapshot(DATE))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Balance snapshot for 2026-10-18 is already taken");
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should return own card history with available balance")
+    void getCardHistory_WhenOwner_ShouldReturnSnapshots() {
+        when(snapshotRepository.findAllByCardIdAndSnapshotDateBetweenOrderBySnapshotDate(
+                cardId, DATE.minusDays(1), DATE))
+                .thenReturn(List.of(snapshot(userId, DATE.minusDays(1)), snapshot(userId, DATE)));
+
+        List<CardBalanceSnapshotResponse> history =
+                balanceSnapshotService.getCardHistory(cardId, DATE.minusDays(1), DATE, userPrincipal);
+
+        assertThat(history).extracting(CardBalanceSnapshotResponse::getDate)
+                .containsExactly(DATE.minusDays(1), DATE);
+        assertThat(history.get(0).getAvailableBalance()).isEqualByComparingTo("80.00");
+    }
+
+    @Test
+    @DisplayName("Should deny history of someone else's card")
+    void getCardHistory_WhenNotOwner_ShouldThrow() {
+        when(snapshotRepository.findAllByCardIdAndSnapshotDateBetweenOrderBySnapshotDate(cardId, DATE, DATE))
+                .thenReturn(List.of(snapshot(UUID.randomUUID(), DATE)));
+
+        assertThatThrownBy(() -> balanceSnapshotService.getCardHistory(cardId, DATE, DATE, userPrincipal))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject too long or inverted period")
+    void getCardHistory_WhenPeriodInvalid_ShouldThrow() {
+        assertThatThrownBy(() -> balanceSnapshotService.getCardHistory(cardId, DATE, DATE.minusDays(1), userPrincipal))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> balanceSnapshotService.getCardHistory(cardId, DATE.minusYears(2), DATE, userPrincipal))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(snapshotRepository);
+    }
+
+    private void stubSnapshot() {
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(jdbcTemplate.queryForObject("select pg_export_snapshot()", String.class))
+                .thenReturn("00000003-0000001B-1");
+        when(jdbcTemplate.queryForObject("select now()", OffsetDateTime.class))
+                .thenReturn(OffsetDateTime.of(2026, 10, 19, 0, 0, 1, 0, ZoneOffset.UTC));
+        when(jdbcTemplate.update(anyString(), any(), any(), any(), any())).thenReturn(3);
+        when(runRepository.save(any(BalanceSnapshotRunEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    private CardBalanceSnapshotEntity snapshot(UUID ownerId, LocalDate date) {
+        return CardBalanceSnapshotEntity.builder()
+                .cardId(cardId)
+                .snapshotDate(date)
+                .userId(ownerId)
+                .status(CardStatus.ACTIVE)
+                .balance(new BigDecimal("100.00"))
+                .heldAmount(new BigDecimal("20.00"))
+                .takenAt(LocalDateTime.of(2026, 10, 19, 0, 0, 1))
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.NotificationProperties;
+import com.example.bankcards.dto.card.CardChangeEvent;
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.exception.NotAllowedException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.impl.CardNotificationServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CardNotificationService Unit Tests")
+class CardNotificationServiceImplTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Spy
+    private NotificationProperties notificationProperties = new NotificationProperties();
+
+    @InjectMocks
+    private CardNotificationServiceImpl cardNotificationService;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        cardNotificationService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cardNotificationService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should not touch the database for users without subscribers")
+    void onCardChange_WithoutSubscribers_ShouldDoNothing() {
+        cardNotificationService.onCardChange(CardChangeEvent.of(userId, UUID.randomUUID()));
+
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    @DisplayName("Should load changed cards for a subscribed user")
+    void onCardChange_WithSubscriber_ShouldPushCurrentCardState() {
+        UUID cardId = UUID.randomUUID();
+        when(cardRepository.findAllById(List.of(cardId))).thenReturn(List.of(CardEntity.builder()
+                .id(cardId)
+                .status(CardStatus.ACTIVE)
+                .balance(new BigDecimal("10.00"))
+                .heldAmount(BigDecimal.ZERO)
+                .build()));
+        cardNotificationService.subscribe(userId);
+
+        cardNotificationService.onCardChange(CardChangeEvent.of(userId, cardId));
+
+        verify(cardRepository, timeout(1000)).findAllById(List.of(cardId));
+    }
+
+    @Test
+    @DisplayName("Should close the oldest connections above the per-user limit")
+    void subscribe_AbovePerUserLimit_ShouldEvictOldest() {
+        notificationProperties.setMaxSubscribersPerUser(2);
+
+        for (int i = 0; i < 4; i++) {
+            cardNotificationService.subscribe(userId);
+        }
+        cardNotificationService.subscribe(UUID.randomUUID());
+
+        assertThat(cardNotificationService.heartbeat()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should refuse subscribers above the node limit")
+    void subscribe_AboveNodeLimit_ShouldThrow() {
+        notificationProperties.setMaxSubscribers(1);
+        cardNotificationService.subscribe(userId);
+
+        assertThatThrownBy(() -> cardNotificationService.subscribe(UUID.randomUUID()))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Too many subscribers");
+        assertThat(cardNotificationService.heartbeat()).isEqualTo(1);
+        verify(cardRepository, never()).findAllById(any());
+    }
+}
@@ -1,8 +1,19 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.config.BatchGetProperties;
+import com.example.bankcards.config.CardSyncProperties;
+import com.example.bankcards.dto.card.CardChangeEvent;
+import com.example.bankcards.dto.card.CardChangeToken;
+import com.example.bankcards.dto.card.CardChangesResponse;
+import com.example.bankcards.dto.card.CardDailyCreated;
+import com.example.bankcards.dto.card.CardField;
 import com.example.bankcards.dto.card.CardResponse;
+import com.example.bankcards.dto.card.CardSetVersion;
+import com.example.bankcards.dto.card.CardStatsResponse;
+import com.example.bankcards.dto.card.CardStatusStats;
 import com.example.bankcards.dto.card.CreateCardRequest;
 import com.example.bankcards.dto.card.CreateCardResponse;
+import com.example.bankcards.dto.core.BatchGetResponse;
 import com.example.bankcards.dto.core.PagedResponse;
 import com.example.bankcards.entity.CardEntity;
 import com.example.bankcards.entity.CardStatus;
@@ -19,7 +30,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -29,11 +42,15 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
@@ -53,6 +70,15 @@ class CardServiceImplTest {
     @Mock
     private CardEncryption cardEncryption;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private CardSyncProperties cardSyncProperties = new CardSyncProperties();
+
+    @Spy
+    private BatchGetProperties batchGetProperties = new BatchGetProperties();
+
     @InjectMocks
     private CardServiceImpl cardService;
 
@@ -108,6 +134,49 @@ class CardServiceImplTest {
         );
     }
 
+    @Test
+    @DisplayName("Should filter batch by owner in query and report foreign cards as missing")
+    void getCardsByIds_WhenUser_ShouldReturnOnlyOwnCards() {
+        UUID foreignId = UUID.randomUUID();
+        when(cardRepository.findAllByIdAndUserId(Set.of(foreignId, cardId), userId)).thenReturn(List.of(cardEntity));
+
+        BatchGetResponse<CardResponse> result = cardService.getCardsByIds(List.of(foreignId, cardId, cardId), userPrincipal);
+
+        assertThat(result.getItems()).extracting(CardResponse::getId).containsExactly(cardId);
+        assertThat(result.getMissing()).containsExactly(foreignId);
+        verify(cardRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Should keep requested order in batch for admin")
+    void getCardsByIds_WhenAdmin_ShouldKeepRequestOrder() {
+        UUID secondId = UUID.randomUUID();
+        CardEntity second = CardEntity.builder()
+                .id(secondId)
+                .balance(BigDecimal.ONE)
+                .user(userEntity)
+                .build();
+        when(cardRepository.findAllById(Set.of(secondId, cardId))).thenReturn(List.of(cardEntity, second));
+
+        BatchGetResponse<CardResponse> result = cardService.getCardsByIds(List.of(secondId, cardId), adminPrincipal);
+
+        assertThat(result.getItems()).extracting(CardResponse::getId).containsExactly(secondId, cardId);
+        assertThat(result.getMissing()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject batch above the id limit")
+    void getCardsByIds_WhenTooManyIds_ShouldThrow() {
+        batchGetProperties.setMaxIds(2);
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+        assertThatThrownBy(() -> cardService.getCardsByIds(ids, adminPrincipal))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Batch size exceeds limit of 2");
+
+        verifyNoInteractions(cardRepository);
+    }
+
     @Test
     @DisplayName("Should get card by ID when user has access")
     void getCardByIdIfHaveAccess_WhenUserHasAccess_ShouldReturnCard() {
@@ -214,7 +283,7 @@ class CardServiceImplTest {
         when(cardRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(page);
 
         PagedResponse<CardResponse> result = cardService.getAllCards(
-                pageable, null, null, null, null, null, null
+                pageable, null, null, null, null, null, null, null, null
         );
 
         assertThat(result).isNotNull();
@@ -235,7 +304,7 @@ class CardServiceImplTest {
         when(cardRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(page);
 
         PagedResponse<CardResponse> result = cardService.getUserCards(
-                userId, pageable, null, null, null, null, null, null
+                userId, pageable, null, null, null, null, null, null, null, null
         );
 
         assertThat(result).isNotNull();
@@ -243,6 +312,76 @@ class CardServiceImplTest {
         assertThat(result.getTotalElements()).isEqualTo(1);
     }
 
+    @Test
+    @DisplayName("Should select only requested columns and join owner on expand")
+    void getUserCards_WithFieldsAndExpand_ShouldUseFieldsetQuery() {
+        Pageable pageable = PageRequest.of(0, 10);
+        CardResponse sparse = CardResponse.builder().id(cardId).cardNumberMask("**** **** **** 1234").build();
+        when(cardRepository.findAllFields(any(), eq(Set.of(CardField.ID, CardField.CARD_NUMBER_MASK, CardField.BALANCE)),
+                eq(true), eq(pageable))).thenReturn(new PageImpl<>(List.of(sparse), pageable, 1));
+
+        PagedResponse<CardResponse> result = cardService.getUserCards(
+                userId, pageable, null, null, null, null, null, null,
+                List.of("cardNumberMask", "balance"), List.of("owner")
+        );
+
+        assertThat(result.getContent()).containsExactly(sparse);
+        verify(cardRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown field and expand values")
+    void getAllCards_WithUnknownFieldOrExpand_ShouldThrow() {
+        Pageable pageable = PageRequest.of(0, 10);
+
+        assertThatThrownBy(() -> cardService.getAllCards(
+                pageable, null, null, null, null, null, null, List.of("cardNumber"), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown field: cardNumber");
+        assertThatThrownBy(() -> cardService.getAllCards(
+                pageable, null, null, null, null, null, null, null, List.of("transfers")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown expand: transfers");
+
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    @DisplayName("Should build stats from counters and fill days without new cards")
+    void getCardStats_ShouldSumCountersAndFillGaps() {
+        CardStatusStats active = mock(CardStatusStats.class);
+        when(active.getStatus()).thenReturn("ACTIVE");
+        when(active.getCardsCount()).thenReturn(3L);
+        when(active.getTotalBalance()).thenReturn(new BigDecimal("100.00"));
+        CardDailyCreated createdToday = mock(CardDailyCreated.class);
+        when(createdToday.getEpochDay()).thenReturn(LocalDate.now(ZoneOffset.UTC).toEpochDay());
+        when(createdToday.getCreatedCount()).thenReturn(2L);
+        when(cardRepository.findStatusStats()).thenReturn(List.of(active));
+        when(cardRepository.findDailyCreatedSince(LocalDate.now(ZoneOffset.UTC).minusDays(2)))
+                .thenReturn(List.of(createdToday));
+
+        CardStatsResponse result = cardService.getCardStats(3);
+
+        assertThat(result.getTotalCards()).isEqualTo(3);
+        assertThat(result.getTotalBalance()).isEqualByComparingTo("100.00");
+        assertThat(result.getAverageBalance()).isEqualByComparingTo("33.33");
+        assertThat(result.getByStatus()).extracting(CardStatsResponse.StatusStats::getCards)
+                .containsExactly(3L, 0L, 0L);
+        assertThat(result.getCreatedPerDay()).extracting(CardStatsResponse.DailyCreated::getCards)
+                .containsExactly(0L, 0L, 2L);
+        verify(cardRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Should reject stats period out of range")
+    void getCardStats_WhenDaysOutOfRange_ShouldThrow() {
+        assertThatThrownBy(() -> cardService.getCardStats(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Days must be between 1 and 366");
+
+        verifyNoInteractions(cardRepository);
+    }
+
     @Test
     @DisplayName("Should block card successfully")
     void blockCard_WhenValidCard_ShouldBlockCard() {
@@ -254,6 +393,7 @@ class CardServiceImplTest {
         assertThat(result).isNotNull();
         verify(cardRepository).save(cardEntity);
         assertThat(cardEntity.getStatus()).isEqualTo(CardStatus.BLOCKED);
+        verify(eventPublisher).publishEvent(CardChangeEvent.of(userId, cardId));
     }
 
     @Test
@@ -314,4 +454,91 @@ class CardServiceImplTest {
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Card not found with id: " + cardId);
     }
+
+    @Test
+    @DisplayName("Should return all cards and a token when syncing from scratch")
+    void getMyCardChanges_WithoutToken_ShouldReturnFullList() {
+        when(cardRepository.currentChangeWatermark()).thenReturn(1000L);
+        when(cardRepository.findChangedSince(userId, 0)).thenReturn(List.of(cardEntity));
+
+        CardChangesResponse result = cardService.getMyCardChanges(userId, null);
+
+        assertThat(result.isFull()).isTrue();
+        assertThat(result.getChanged()).extracting(CardResponse::getId).containsExactly(cardId);
+        assertThat(result.getDeleted()).isEmpty();
+        assertThat(CardChangeToken.decode(result.getNextToken()).watermark()).isEqualTo(1000L);
+        verify(cardRepository, never()).findDeletedSince(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should return only changes and deletions since the token")
+    void getMyCardChanges_WithToken_ShouldReturnDelta() {
+        UUID deletedId = UUID.randomUUID();
+        String since = CardChangeToken.issue(900L).encode();
+        when(cardRepository.currentChangeWatermark()).thenReturn(1000L);
+        when(cardRepository.findChangedSince(userId, 900L)).thenReturn(List.of(cardEntity));
+        when(cardRepository.findDeletedSince(userId, 900L)).thenReturn(List.of(deletedId));
+
+        CardChangesResponse result = cardService.getMyCardChanges(userId, since);
+
+        assertThat(result.isFull()).isFalse();
+        assertThat(result.getChanged()).hasSize(1);
+        assertThat(result.getDeleted()).containsExactly(deletedId);
+    }
+
+    @Test
+    @DisplayName("Should fall back to full sync when token outlived tombstones")
+    void getMyCardChanges_WithExpiredToken_ShouldReturnFullList() {
+        cardSyncProperties.setTombstoneRetention(Duration.ofDays(1));
+        String since = new CardChangeToken(900L, Instant.now().minus(Duration.ofDays(2)).getEpochSecond()).encode();
+        when(cardRepository.currentChangeWatermark()).thenReturn(1000L);
+        when(cardRepository.findChangedSince(userId, 0)).thenReturn(List.of());
+
+        CardChangesResponse result = cardService.getMyCardChanges(userId, since);
+
+        assertThat(result.isFull()).isTrue();
+        verify(cardRepository, never()).findDeletedSince(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed change token")
+    void getMyCardChanges_WithInvalidToken_ShouldThrow() {
+        assertThatThrownBy(() -> cardService.getMyCardChanges(userId, "not-a-token"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid change token");
+
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    @DisplayName("Should include owner version in cards ETag only when owner is expanded")
+    void getUserCardsVersion_WithOwnerExpand_ShouldDependOnOwner() {
+        when(cardRepository.findVersionByUserId(userId)).thenReturn(cardSetVersion(1_700_000_000_000_000L));
+        String plain = cardService.getUserCardsVersion(userId, null).eTag();
+        String expanded = cardService.getUserCardsVersion(userId, List.of("owner")).eTag();
+
+        when(cardRepository.findVersionByUserId(userId)).thenReturn(cardSetVersion(1_700_000_000_000_001L));
+
+        assertThat(cardService.getUserCardsVersion(userId, List.of()).eTag()).isEqualTo(plain);
+        assertThat(cardService.getUserCardsVersion(userId, List.of("owner")).eTag()).isNotEqualTo(expanded);
+    }
+
+    private static CardSetVersion cardSetVersion(long ownerUpdatedAtMicros) {
+        return new CardSetVersion() {
+            @Override
+            public long getCount() {
+                return 3;
+            }
+
+            @Override
+            public long getMaxChangeXid() {
+                return 42;
+            }
+
+            @Override
+            public Long getOwnerUpdatedAtMicros() {
+                return ownerUpdatedAtMicros;
+            }
+        };
+    }
 }
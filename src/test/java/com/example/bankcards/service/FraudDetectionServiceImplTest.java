@@ -0,0 +1,157 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.config.TransferProperties.Fraud.AnomalyAction;
+import com.example.bankcards.exception.NotAllowedException;
+import com.example.bankcards.repository.RequestRepository;
+import com.example.bankcards.service.impl.FraudDetectionServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FraudDetectionService Unit Tests")
+class FraudDetectionServiceImplTest {
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private TransferProperties transferProperties = new TransferProperties();
+
+    @InjectMocks
+    private FraudDetectionServiceImpl fraudDetectionService;
+
+    private UUID cardId;
+
+    @BeforeEach
+    void setUp() {
+        cardId = UUID.randomUUID();
+        TransferProperties.Fraud fraud = transferProperties.getFraud();
+        fraud.setEnabled(true);
+        fraud.setMaxTransfersPerWindow(0);
+        fraud.setWindowMs(3_600_000);
+        fraud.setMinSamples(5);
+        fraud.setStripes(4);
+        fraud.setMaxCards(64);
+        fraudDetectionService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void inspect_WhenDisabled_ShouldPass() {
+        transferProperties.getFraud().setEnabled(false);
+        transferProperties.getFraud().setMaxTransfersPerWindow(1);
+
+        for (int i = 0; i < 10; i++) {
+            fraudDetectionService.inspect(cardId, new BigDecimal("1000000.00"));
+        }
+        verifyNoInteractions(requestRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject transfer above per-window count")
+    void inspect_WhenTooManyTransfers_ShouldReject() {
+        transferProperties.getFraud().setMaxTransfersPerWindow(3);
+
+        for (int i = 0; i < 3; i++) {
+            fraudDetectionService.inspect(cardId, BigDecimal.TEN);
+        }
+
+        assertThatThrownBy(() -> fraudDetectionService.inspect(cardId, BigDecimal.TEN))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Transfer velocity limit exceeded for card");
+        fraudDetectionService.inspect(UUID.randomUUID(), BigDecimal.TEN);
+    }
+
+    @Test
+    @DisplayName("Should reject transfer above per-window amount")
+    void inspect_WhenAmountPerWindowExceeded_ShouldReject() {
+        transferProperties.getFraud().setMaxAmountPerWindow(new BigDecimal("100.00"));
+        fraudDetectionService.inspect(cardId, new BigDecimal("60.00"));
+
+        assertThatThrownBy(() -> fraudDetectionService.inspect(cardId, new BigDecimal("40.01")))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Transfer amount velocity limit exceeded for card");
+    }
+
+    @Test
+    @DisplayName("Should release window slot when transaction rolls back")
+    void inspect_WhenRolledBack_ShouldNotCountTransfer() {
+        transferProperties.getFraud().setMaxTransfersPerWindow(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        fraudDetectionService.inspect(cardId, BigDecimal.TEN);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThatCode(() -> fraudDetectionService.inspect(cardId, BigDecimal.TEN)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should flag outlier amount once and open a NEW request for the card")
+    void inspect_WhenAmountIsOutlier_ShouldCreateRequestOnce() {
+        for (int i = 0; i < 20; i++) {
+            fraudDetectionService.inspect(cardId, new BigDecimal(i % 2 == 0 ? "95.00" : "105.00"));
+        }
+        verifyNoInteractions(requestRepository);
+
+        fraudDetectionService.inspect(cardId, new BigDecimal("5000.00"));
+        fraudDetectionService.inspect(cardId, new BigDecimal("7000.00"));
+
+        verify(requestRepository, times(1)).insertIfNoneOpen(eq(cardId), startsWith("Suspicious transfer: amount 5000.00"));
+    }
+
+    @Test
+    @DisplayName("Should reject outlier amount when configured to")
+    void inspect_WhenOutlierAndRejectAction_ShouldThrow() {
+        transferProperties.getFraud().setAnomalyAction(AnomalyAction.REJECT);
+        for (int i = 0; i < 10; i++) {
+            fraudDetectionService.inspect(cardId, new BigDecimal("100.00"));
+        }
+
+        assertThatThrownBy(() -> fraudDetectionService.inspect(cardId, new BigDecimal("100.01")))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Transfer amount is unusual for this card");
+        verify(requestRepository, never()).insertIfNoneOpen(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should evict idle cards and forget their statistics")
+    void evictIdle_ShouldDropIdleCards() throws InterruptedException {
+        transferProperties.getFraud().setMaxTransfersPerWindow(1);
+        transferProperties.getFraud().setIdleTtlMs(1);
+        fraudDetectionService.inspect(cardId, BigDecimal.TEN);
+        Thread.sleep(5);
+
+        assertThat(fraudDetectionService.evictIdle()).isEqualTo(1);
+        assertThatCode(() -> fraudDetectionService.inspect(cardId, BigDecimal.TEN)).doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.HoldProperties;
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.dto.card.CardOwnerView;
+import com.example.bankcards.dto.hold.AuthorizeHoldRequest;
+import com.example.bankcards.dto.hold.HoldResponse;
+import com.example.bankcards.entity.CardHoldEntity;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.HoldStatus;
+import com.example.bankcards.exception.NotAllowedException;
+import com.example.bankcards.repository.CardHoldRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.impl.HoldServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HoldService Unit Tests")
+class HoldServiceImplTest {
+
+    @Mock
+    private CardHoldRepository cardHoldRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private HoldProperties holdProperties = new HoldProperties();
+
+    @Spy
+    private TransferProperties transferProperties = new TransferProperties();
+
+    @InjectMocks
+    private HoldServiceImpl holdService;
+
+    private UUID userId;
+    private UUID cardId;
+    private UserPrincipal userPrincipal;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        cardId = UUID.randomUUID();
+        userPrincipal = new UserPrincipal(userId, "testuser", "test@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), true);
+    }
+
+    @Test
+    @DisplayName("Should authorize hold in one conditional statement")
+    void authorize_WhenAvailable_ShouldCreateHold() {
+        CardHoldEntity hold = hold(HoldStatus.AUTHORIZED, new BigDecimal("50.00"));
+        when(cardHoldRepository.authorize(eq(cardId), eq(userId), eq(new BigDecimal("50.00")), eq("order-1"), any()))
+                .thenReturn(Optional.of(hold));
+
+        HoldResponse response = holdService.authorize(request(new BigDecimal("50.00")), userId);
+
+        assertThat(response.getId()).isEqualTo(hold.getId());
+        assertThat(response.getStatus()).isEqualTo(HoldStatus.AUTHORIZED);
+        verify(cardRepository, never()).findOwnerViewsById(any());
+    }
+
+    @Test
+    @DisplayName("Should explain rejection when available balance is too low")
+    void authorize_WhenInsufficient_ShouldThrowNotAllowed() {
+        when(cardHoldRepository.authorize(any(), any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(cardRepository.findOwnerViewsById(List.of(cardId)))
+                .thenReturn(List.of(new CardOwnerView(cardId, "enc", userId, CardStatus.ACTIVE, new BigDecimal("10.00"))));
+
+        assertThatThrownBy(() -> holdService.authorize(request(new BigDecimal("50.00")), userId))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Insufficient available balance on card");
+    }
+
+    @Test
+    @DisplayName("Should reject hold ttl above the configured maximum")
+    void authorize_WhenTtlTooLong_ShouldThrow() {
+        AuthorizeHoldRequest request = request(new BigDecimal("50.00"));
+        request.setTtl(holdProperties.getMaxTtl().plus(Duration.ofDays(1)));
+
+        assertThatThrownBy(() -> holdService.authorize(request, userId))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(cardHoldRepository);
+    }
+
+    @Test
+    @DisplayName("Should refuse holds in ledger mode")
+    void authorize_WhenLedgerEnabled_ShouldThrow() {
+        transferProperties.getLedger().setEnabled(true);
+
+        assertThatThrownBy(() -> holdService.authorize(request(new BigDecimal("50.00")), userId))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Holds are not supported in ledger mode");
+    }
+
+    @Test
+    @DisplayName("Should capture full hold amount by default")
+    void capture_WhenNoAmount_ShouldCaptureWholeHold() {
+        CardHoldEntity hold = hold(HoldStatus.AUTHORIZED, new BigDecimal("50.00"));
+        when(cardHoldRepository.findById(hold.getId())).thenReturn(Optional.of(hold));
+        when(cardHoldRepository.capture(hold.getId(), new BigDecimal("50.00"))).thenReturn(1);
+
+        holdService.capture(hold.getId(), null, userPrincipal);
+
+        verify(cardHoldRepository).capture(hold.getId(), new BigDecimal("50.00"));
+    }
+
+    @Test
+    @DisplayName("Should refuse capture larger than the hold")
+    void capture_WhenAmountExceedsHold_ShouldThrow() {
+        CardHoldEntity hold = hold(HoldStatus.AUTHORIZED, new BigDecimal("50.00"));
+        when(cardHoldRepository.findById(hold.getId())).thenReturn(Optional.of(hold));
+
+        assertThatThrownBy(() -> holdService.capture(hold.getId(), new BigDecimal("50.01"), userPrincipal))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Capture amount exceeds hold amount");
+        verify(cardHoldRepository, never()).capture(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should refuse capture of expired hold that the sweeper has not reached yet")
+    void capture_WhenConditionalUpdateMisses_ShouldThrow() {
+        CardHoldEntity hold = hold(HoldStatus.AUTHORIZED, new BigDecimal("50.00"));
+        when(cardHoldRepository.findById(hold.getId())).thenReturn(Optional.of(hold));
+        when(cardHoldRepository.capture(any(), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> holdService.capture(hold.getId(), null, userPrincipal))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Hold is no longer active");
+    }
+
+    @Test
+    @DisplayName("Should refuse releasing a captured hold")
+    void release_WhenCaptured_ShouldThrow() {
+        CardHoldEntity hold = hold(HoldStatus.CAPTURED, new BigDecimal("50.00"));
+        when(cardHoldRepository.findById(hold.getId())).thenReturn(Optional.of(hold));
+
+        assertThatThrownBy(() -> holdService.release(hold.getId(), userPrincipal))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Hold is already captured");
+    }
+
+    @Test
+    @DisplayName("Should deny access to another user's hold")
+    void getHold_WhenForeign_ShouldThrowAccessDenied() {
+        CardHoldEntity hold = CardHoldEntity.builder()
+                .id(UUID.randomUUID()).userId(UUID.randomUUID()).cardId(cardId)
+                .amount(BigDecimal.TEN).status(HoldStatus.AUTHORIZED).build();
+        when(cardHoldRepository.findById(hold.getId())).thenReturn(Optional.of(hold));
+
+        assertThatThrownBy(() -> holdService.getHold(hold.getId(), userPrincipal))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    @DisplayName("Should expire holds batch by batch until nothing is due")
+    void expireDue_ShouldLoopOverBatches() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(cardHoldRepository.expireDue(holdProperties.getExpiryBatchSize())).thenReturn(120, 7, 0);
+
+        assertThat(holdService.expireDue()).isEqualTo(127);
+        verify(cardHoldRepository, times(3)).expireDue(anyInt());
+    }
+
+    private AuthorizeHoldRequest request(BigDecimal amount) {
+        AuthorizeHoldRequest request = new AuthorizeHoldRequest();
+        request.setCardId(cardId);
+        request.setAmount(amount);
+        request.setReference("order-1");
+        return request;
+    }
+
+    private CardHoldEntity hold(HoldStatus status, BigDecimal amount) {
+        return CardHoldEntity.builder()
+                .id(UUID.randomUUID())
+                .cardId(cardId)
+                .userId(userId)
+                .amount(amount)
+                .status(status)
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.IdempotencyProperties;
+import com.example.bankcards.dto.core.IdempotencyRecord;
+import com.example.bankcards.entity.IdempotencyKeyEntity;
+import com.example.bankcards.repository.IdempotencyKeyRepository;
+import com.example.bankcards.service.impl.IdempotencyServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotencyService Unit Tests")
+class IdempotencyServiceImplTest {
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Spy
+    private IdempotencyProperties idempotencyProperties = new IdempotencyProperties();
+
+    @InjectMocks
+    private IdempotencyServiceImpl idempotencyService;
+
+    private UUID userId;
+    private byte[] body;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        body = "{\"id\":1}".getBytes();
+    }
+
+    @Test
+    @DisplayName("Should claim key through the database")
+    void claim_WhenInsertSucceeds_ShouldReturnTrue() {
+        when(idempotencyKeyRepository.claim(eq(userId), eq("key"), eq("fp"), any(Instant.class))).thenReturn(1);
+
+        assertThat(idempotencyService.claim(userId, "key", "fp")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should report conflict when key is already taken")
+    void claim_WhenKeyExists_ShouldReturnFalse() {
+        when(idempotencyKeyRepository.claim(eq(userId), eq("key"), eq("fp"), any(Instant.class))).thenReturn(0);
+
+        assertThat(idempotencyService.claim(userId, "key", "fp")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should serve completed response from memory without database lookup")
+    void find_WhenCompletedLocally_ShouldUseMemory() {
+        idempotencyService.complete(userId, "key", "fp", 201, "application/json", body);
+
+        Optional<IdempotencyRecord> record = idempotencyService.find(userId, "key");
+
+        assertThat(record).isPresent();
+        assertThat(record.get().completed()).isTrue();
+        assertThat(record.get().body()).isEqualTo(body);
+        verify(idempotencyKeyRepository).complete(userId, "key", 201, "application/json", body);
+        verify(idempotencyKeyRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should read completed response stored by another node and cache it")
+    void find_WhenCompletedInDatabase_ShouldCacheRecord() {
+        when(idempotencyKeyRepository.findById(new IdempotencyKeyEntity.Key(userId, "key")))
+                .thenReturn(Optional.of(entity(true, Instant.now().plusSeconds(60))));
+
+        assertThat(idempotencyService.find(userId, "key")).isPresent();
+        assertThat(idempotencyService.find(userId, "key")).isPresent();
+
+        verify(idempotencyKeyRepository, times(1)).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should always re-read in-progress keys from the database")
+    void find_WhenInProgress_ShouldNotCache() {
+        when(idempotencyKeyRepository.findById(any()))
+                .thenReturn(Optional.of(entity(false, Instant.now().plusSeconds(60))));
+
+        idempotencyService.find(userId, "key");
+        idempotencyService.find(userId, "key");
+
+        verify(idempotencyKeyRepository, times(2)).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should ignore expired records")
+    void find_WhenExpired_ShouldReturnEmpty() {
+        when(idempotencyKeyRepository.findById(any()))
+                .thenReturn(Optional.of(entity(true, Instant.now().minusSeconds(1))));
+
+        assertThat(idempotencyService.find(userId, "key")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep response in database only when memory cache is full")
+    void complete_WhenCacheFull_ShouldSkipMemory() {
+        idempotencyProperties.setMaxCachedEntries(1);
+        idempotencyService.complete(userId, "first", "fp", 201, "application/json", body);
+        idempotencyService.complete(userId, "second", "fp", 201, "application/json", body);
+
+        idempotencyService.find(userId, "second");
+
+        verify(idempotencyKeyRepository).findById(new IdempotencyKeyEntity.Key(userId, "second"));
+    }
+
+    @Test
+    @DisplayName("Should purge expired keys from the database")
+    void purgeExpired_ShouldDeleteExpiredRows() {
+        when(idempotencyKeyRepository.deleteExpired(any(Instant.class))).thenReturn(3);
+
+        assertThat(idempotencyService.purgeExpired()).isEqualTo(3);
+    }
+
+    private IdempotencyKeyEntity entity(boolean completed, Instant expiresAt) {
+        return IdempotencyKeyEntity.builder()
+                .userId(userId)
+                .idempotencyKey("key")
+                .fingerprint("fp")
+                .completed(completed)
+                .responseStatus(completed ? 201 : null)
+                .responseContentType(completed ? "application/json" : null)
+                .responseBody(completed ? body : null)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.dto.card.CardChangeEvent;
+import com.example.bankcards.dto.card.CardOwnerRef;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.LedgerPostingRepository;
+import com.example.bankcards.repository.LedgerSnapshotRepository;
+import com.example.bankcards.service.impl.LedgerServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LedgerService Unit Tests")
+class LedgerServiceImplTest {
+
+    @Mock
+    private LedgerPostingRepository postingRepository;
+
+    @Mock
+    private LedgerSnapshotRepository snapshotRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private TransferProperties transferProperties = new TransferProperties();
+
+    @InjectMocks
+    private LedgerServiceImpl ledgerService;
+
+    @BeforeEach
+    void setUp() {
+        transferProperties.getLedger().setRanges(4);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Should lock ranges in ascending order and only the source card")
+    void lockForPosting_WhenCardsInDifferentRanges_ShouldLockSortedRangesAndSourceCard() {
+        UUID from = UUID.fromString("f0000000-0000-0000-0000-000000000001");
+        UUID to = UUID.fromString("10000000-0000-0000-0000-000000000002");
+
+        ledgerService.lockForPosting(from, to);
+
+        InOrder inOrder = inOrder(postingRepository);
+        inOrder.verify(postingRepository).lockRangeShared(0);
+        inOrder.verify(postingRepository).lockRangeShared(3);
+        inOrder.verify(postingRepository).lockCard(from);
+        verify(postingRepository, never()).lockCard(to);
+    }
+
+    @Test
+    @DisplayName("Should lock shared range once when both cards are in the same range")
+    void lockForPosting_WhenCardsInSameRange_ShouldLockRangeOnce() {
+        UUID from = UUID.fromString("80000000-0000-0000-0000-000000000001");
+        UUID to = UUID.fromString("bfffffff-0000-0000-0000-000000000002");
+
+        ledgerService.lockForPosting(from, to);
+
+        verify(postingRepository, times(1)).lockRangeShared(2);
+        verify(postingRepository, times(1)).lockRangeShared(anyInt());
+    }
+
+    @Test
+    @DisplayName("Should lock each range and each source card once for a batch")
+    void lockForPosting_WhenBatch_ShouldLockEachRangeAndSourceOnce() {
+        UUID first = UUID.fromString("f0000000-0000-0000-0000-000000000001");
+        UUID second = UUID.fromString("10000000-0000-0000-0000-000000000002");
+        UUID third = UUID.fromString("20000000-0000-0000-0000-000000000003");
+
+        ledgerService.lockForPosting(List.of(second, first, second), List.of(first, second, third, first));
+
+        InOrder inOrder = inOrder(postingRepository);
+        inOrder.verify(postingRepository).lockRangeShared(0);
+        inOrder.verify(postingRepository).lockRangeShared(3);
+        inOrder.verify(postingRepository).lockCard(first);
+        inOrder.verify(postingRepository).lockCard(second);
+        verify(postingRepository, times(2)).lockRangeShared(anyInt());
+        verify(postingRepository, never()).lockCard(third);
+    }
+
+    @Test
+    @DisplayName("Should throw NotFoundException when card has no balance")
+    void getBalance_WhenCardMissing_ShouldThrowNotFoundException() {
+        UUID cardId = UUID.randomUUID();
+        when(postingRepository.findDerivedBalance(cardId)).thenReturn(null);
+
+        assertThatThrownBy(() -> ledgerService.getBalance(cardId))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should compact every range under a boundary taken with exclusive range lock")
+    void compact_WhenCalled_ShouldCoverWholeIdSpace() {
+        when(postingRepository.findMaxId()).thenReturn(42L);
+        when(snapshotRepository.compactRange(any(), any(), eq(42L)))
+                .thenAnswer(invocation -> List.of(compacted(UUID.randomUUID(), UUID.randomUUID())));
+
+        int compacted = ledgerService.compact();
+
+        assertThat(compacted).isEqualTo(4);
+
+        ArgumentCaptor<UUID> lower = ArgumentCaptor.forClass(UUID.class);
+        ArgumentCaptor<UUID> upper = ArgumentCaptor.forClass(UUID.class);
+        verify(snapshotRepository, times(4)).compactRange(lower.capture(), upper.capture(), eq(42L));
+        verify(snapshotRepository, times(4)).insertOpeningSnapshots(any(), any());
+        verify(postingRepository, times(4)).lockRangeExclusive(anyInt());
+        verify(postingRepository, times(4)).unlockRangeExclusive(anyInt());
+
+        assertThat(lower.getAllValues()).containsExactlyInAnyOrder(
+                UUID.fromString("00000000-0000-0000-0000-000000000000"),
+                UUID.fromString("40000000-0000-0000-0000-000000000000"),
+                UUID.fromString("80000000-0000-0000-0000-000000000000"),
+                UUID.fromString("c0000000-0000-0000-0000-000000000000"));
+        assertThat(upper.getAllValues()).containsExactlyInAnyOrder(
+                UUID.fromString("3fffffff-ffff-ffff-ffff-ffffffffffff"),
+                UUID.fromString("7fffffff-ffff-ffff-ffff-ffffffffffff"),
+                UUID.fromString("bfffffff-ffff-ffff-ffff-ffffffffffff"),
+                UUID.fromString("ffffffff-ffff-ffff-ffff-ffffffffffff"));
+    }
+
+    @Test
+    @DisplayName("Should publish card changes per owner only after cards.balance is refreshed")
+    void compact_WhenCardsCompacted_ShouldPublishChangePerOwner() {
+        transferProperties.getLedger().setRanges(1);
+        UUID owner = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(postingRepository.findMaxId()).thenReturn(42L);
+        when(snapshotRepository.compactRange(any(), any(), eq(42L))).thenReturn(List.of(
+                compacted(first, owner), compacted(second, owner), compacted(third, other)));
+
+        assertThat(ledgerService.compact()).isEqualTo(3);
+
+        InOrder inOrder = inOrder(snapshotRepository, eventPublisher);
+        inOrder.verify(snapshotRepository).compactRange(any(), any(), eq(42L));
+        inOrder.verify(eventPublisher).publishEvent(new CardChangeEvent(owner, List.of(first, second)));
+        verify(eventPublisher).publishEvent(new CardChangeEvent(other, List.of(third)));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should release range lock even when boundary query fails")
+    void compact_WhenBoundaryQueryFails_ShouldUnlockRange() {
+        transferProperties.getLedger().setRanges(1);
+        when(postingRepository.findMaxId()).thenThrow(new IllegalStateException("db down"));
+
+        assertThatThrownBy(() -> ledgerService.compact())
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(postingRepository).unlockRangeExclusive(0);
+        verify(snapshotRepository, never()).compactRange(any(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should report mismatched cards and unbalanced transfers")
+    void reconcile_WhenProblemsFound_ShouldReturnTheirCount() {
+        transferProperties.getLedger().setRanges(2);
+        when(snapshotRepository.findMismatchedCards(any(), any()))
+                .thenReturn(List.of(UUID.randomUUID()))
+                .thenReturn(List.of());
+        when(postingRepository.findUnbalancedTransfers(anyInt())).thenReturn(List.of(UUID.randomUUID()));
+
+        assertThat(ledgerService.reconcile()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should post balanced pair for transfer")
+    void postTransfer_WhenCalled_ShouldInsertPostingPair() {
+        UUID transferId = UUID.randomUUID();
+        UUID from = UUID.randomUUID();
+        UUID to = UUID.randomUUID();
+
+        ledgerService.postTransfer(transferId, from, to, new BigDecimal("10.00"));
+
+        verify(postingRepository).insertTransferPostings(transferId, from, to, new BigDecimal("10.00"));
+    }
+
+    private static CardOwnerRef compacted(UUID cardId, UUID userId) {
+        return new CardOwnerRef() {
+            @Override
+            public UUID getCardId() {
+                return cardId;
+            }
+
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+        };
+    }
+}
@@ -1,10 +1,17 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.config.RequestQueueProperties;
+import com.example.bankcards.dto.card.CardChangeEvent;
+import com.example.bankcards.dto.requests.BlockRequestInsert;
 import com.example.bankcards.dto.requests.CardBlockRequest;
+import com.example.bankcards.dto.requests.RequestResponse;
 import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.RequestEntity;
+import com.example.bankcards.entity.RequestResolution;
 import com.example.bankcards.entity.RequestStatus;
 import com.example.bankcards.entity.UserEntity;
+import com.example.bankcards.exception.NotAllowedException;
 import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.RequestRepository;
@@ -16,10 +23,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -40,6 +51,12 @@ class RequestServiceImplTest {
     @Mock
     private CardEncryption cardEncryption;
 
+    @Spy
+    private RequestQueueProperties requestQueueProperties = new RequestQueueProperties();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private RequestServiceImpl requestService;
 
@@ -84,27 +101,14 @@ class RequestServiceImplTest {
     @DisplayName("Should create card block request successfully")
     void createCardBlockRequest_WhenValidRequest_ShouldCreateRequest() {
         when(cardEncryption.encryptCardNumber(cardNumber)).thenReturn(encryptedCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedCardNumber))
-                .thenReturn(Optional.of(cardEntity));
-        when(requestRepository.save(any(RequestEntity.class)))
-                .thenAnswer(invocation -> {
-                    RequestEntity req = invocation.getArgument(0);
-                    req.setId(UUID.randomUUID());
-                    req.setCreatedAt(LocalDateTime.now());
-                    req.setUpdatedAt(LocalDateTime.now());
-                    return req;
-                });
+        when(requestRepository.insertBlockRequest(encryptedCardNumber, userId, "Lost card"))
+                .thenReturn(Optional.of(inserted(userId, UUID.randomUUID())));
 
         requestService.createCardBlockRequest(request, userId);
 
         verify(cardEncryption).encryptCardNumber(cardNumber);
-        verify(cardRepository).findByCardNumberEncrypted(encryptedCardNumber);
-        verify(requestRepository).save(argThat(savedRequest -> {
-            assertThat(savedRequest.getCard()).isEqualTo(cardEntity);
-            assertThat(savedRequest.getReason()).isEqualTo("Lost card");
-            assertThat(savedRequest.getStatus()).isEqualTo(RequestStatus.NEW);
-            return true;
-        }));
+        verify(requestRepository).insertBlockRequest(encryptedCardNumber, userId, "Lost card");
+        verifyNoInteractions(cardRepository);
     }
 
     @Test
@@ -114,17 +118,12 @@ class RequestServiceImplTest {
         requestWithoutReason.setCardNumber(cardNumber);
 
         when(cardEncryption.encryptCardNumber(cardNumber)).thenReturn(encryptedCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedCardNumber))
-                .thenReturn(Optional.of(cardEntity));
+        when(requestRepository.insertBlockRequest(encryptedCardNumber, userId, ""))
+                .thenReturn(Optional.of(inserted(userId, UUID.randomUUID())));
 
         requestService.createCardBlockRequest(requestWithoutReason, userId);
 
-        verify(requestRepository).save(argThat(savedRequest -> {
-            assertThat(savedRequest.getReason()).isEqualTo("");
-            assertThat(savedRequest.getCard()).isEqualTo(cardEntity);
-            assertThat(savedRequest.getStatus()).isEqualTo(RequestStatus.NEW);
-            return true;
-        }));
+        verify(requestRepository).insertBlockRequest(encryptedCardNumber, userId, "");
     }
 
     @Test
@@ -133,56 +132,35 @@ class RequestServiceImplTest {
         request.setReason(null);
 
         when(cardEncryption.encryptCardNumber(cardNumber)).thenReturn(encryptedCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedCardNumber))
-                .thenReturn(Optional.of(cardEntity));
+        when(requestRepository.insertBlockRequest(encryptedCardNumber, userId, null))
+                .thenReturn(Optional.of(inserted(userId, UUID.randomUUID())));
 
-        requestService.createCardBlockRequest(request, userId);
-
-        verify(requestRepository).save(argThat(savedRequest -> {
-            assertThat(savedRequest.getReason()).isNull();
-            assertThat(savedRequest.getCard()).isEqualTo(cardEntity);
-            assertThat(savedRequest.getStatus()).isEqualTo(RequestStatus.NEW);
-            return true;
-        }));
+        assertThatCode(() -> requestService.createCardBlockRequest(request, userId))
+                .doesNotThrowAnyException();
     }
 
     @Test
     @DisplayName("Should throw NotFoundException when card not found")
     void createCardBlockRequest_WhenCardNotFound_ShouldThrowNotFoundException() {
         when(cardEncryption.encryptCardNumber(cardNumber)).thenReturn(encryptedCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedCardNumber))
+        when(requestRepository.insertBlockRequest(encryptedCardNumber, userId, "Lost card"))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> requestService.createCardBlockRequest(request, userId))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Card Not Found");
-
-        verify(cardEncryption).encryptCardNumber(cardNumber);
-        verify(cardRepository).findByCardNumberEncrypted(encryptedCardNumber);
-        verify(requestRepository, never()).save(any());
     }
 
     @Test
     @DisplayName("Should throw AccessDeniedException when user tries to block other user's card")
     void createCardBlockRequest_WhenNotUserCard_ShouldThrowAccessDeniedException() {
-        UUID otherUserId = UUID.randomUUID();
-        UserEntity otherUser = UserEntity.builder()
-                .id(otherUserId)
-                .username("otheruser")
-                .build();
-        cardEntity.setUser(otherUser);
-
         when(cardEncryption.encryptCardNumber(cardNumber)).thenReturn(encryptedCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedCardNumber))
-                .thenReturn(Optional.of(cardEntity));
+        when(requestRepository.insertBlockRequest(encryptedCardNumber, userId, "Lost card"))
+                .thenReturn(Optional.of(inserted(UUID.randomUUID(), null)));
 
         assertThatThrownBy(() -> requestService.createCardBlockRequest(request, userId))
                 .isInstanceOf(AccessDeniedException.class)
                 .hasMessageContaining("Access Denied, not your card");
-
-        verify(cardEncryption).encryptCardNumber(cardNumber);
-        verify(cardRepository).findByCardNumberEncrypted(encryptedCardNumber);
-        verify(requestRepository, never()).save(any());
     }
 
     @Test
@@ -193,29 +171,26 @@ class RequestServiceImplTest {
         request.setCardNumber(specificCardNumber);
 
         when(cardEncryption.encryptCardNumber(specificCardNumber)).thenReturn(specificEncryptedNumber);
-        when(cardRepository.findByCardNumberEncrypted(specificEncryptedNumber))
-                .thenReturn(Optional.of(cardEntity));
+        when(requestRepository.insertBlockRequest(specificEncryptedNumber, userId, "Lost card"))
+                .thenReturn(Optional.of(inserted(userId, UUID.randomUUID())));
 
         requestService.createCardBlockRequest(request, userId);
 
         verify(cardEncryption).encryptCardNumber(specificCardNumber);
-        verify(cardRepository).findByCardNumberEncrypted(specificEncryptedNumber);
-        verify(requestRepository).save(any(RequestEntity.class));
+        verify(requestRepository).insertBlockRequest(specificEncryptedNumber, userId, "Lost card");
     }
 
     @Test
-    @DisplayName("Should set correct status for new request")
-    void createCardBlockRequest_WhenCalled_ShouldSetNewStatus() {
+    @DisplayName("Should treat repeated submission for a card with an open request as success")
+    void createCardBlockRequest_WhenOpenRequestExists_ShouldNotFail() {
         when(cardEncryption.encryptCardNumber(cardNumber)).thenReturn(encryptedCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedCardNumber))
-                .thenReturn(Optional.of(cardEntity));
+        when(requestRepository.insertBlockRequest(encryptedCardNumber, userId, "Lost card"))
+                .thenReturn(Optional.of(inserted(userId, null)));
 
-        requestService.createCardBlockRequest(request, userId);
+        assertThatCode(() -> requestService.createCardBlockRequest(request, userId))
+                .doesNotThrowAnyException();
 
-        verify(requestRepository).save(argThat(savedRequest -> {
-            assertThat(savedRequest.getStatus()).isEqualTo(RequestStatus.NEW);
-            return true;
-        }));
+        verify(requestRepository, never()).save(any());
     }
 
     @Test
@@ -225,29 +200,12 @@ class RequestServiceImplTest {
         request.setReason(longReason);
 
         when(cardEncryption.encryptCardNumber(cardNumber)).thenReturn(encryptedCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedCardNumber))
-                .thenReturn(Optional.of(cardEntity));
+        when(requestRepository.insertBlockRequest(encryptedCardNumber, userId, longReason))
+                .thenReturn(Optional.of(inserted(userId, UUID.randomUUID())));
 
         requestService.createCardBlockRequest(request, userId);
 
-        verify(requestRepository).save(argThat(savedRequest -> {
-            assertThat(savedRequest.getReason()).isEqualTo(longReason);
-            assertThat(savedRequest.getReason().length()).isEqualTo(255);
-            return true;
-        }));
-    }
-
-    @Test
-    @DisplayName("Should verify user ownership correctly")
-    void createCardBlockRequest_WhenSameUser_ShouldAllowRequest() {
-        when(cardEncryption.encryptCardNumber(cardNumber)).thenReturn(encryptedCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedCardNumber))
-                .thenReturn(Optional.of(cardEntity));
-
-        assertThatCode(() -> requestService.createCardBlockRequest(request, userId))
-                .doesNotThrowAnyException();
-
-        verify(requestRepository).save(any(RequestEntity.class));
+        verify(requestRepository).insertBlockRequest(encryptedCardNumber, userId, longReason);
     }
 
     @Test
@@ -257,44 +215,131 @@ class RequestServiceImplTest {
         request.setReason(reasonWithSpecialChars);
 
         when(cardEncryption.encryptCardNumber(cardNumber)).thenReturn(encryptedCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedCardNumber))
-                .thenReturn(Optional.of(cardEntity));
+        when(requestRepository.insertBlockRequest(encryptedCardNumber, userId, reasonWithSpecialChars))
+                .thenReturn(Optional.of(inserted(userId, UUID.randomUUID())));
 
         requestService.createCardBlockRequest(request, userId);
 
-        verify(requestRepository).save(argThat(savedRequest -> {
-            assertThat(savedRequest.getReason()).isEqualTo(reasonWithSpecialChars);
-            return true;
-        }));
+        verify(requestRepository).insertBlockRequest(encryptedCardNumber, userId, reasonWithSpecialChars);
     }
 
     @Test
-    @DisplayName("Should not save when card lookup fails")
-    void createCardBlockRequest_WhenCardLookupFails_ShouldNotSave() {
-        when(cardEncryption.encryptCardNumber(cardNumber)).thenReturn(encryptedCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedCardNumber))
-                .thenReturn(Optional.empty());
+    @DisplayName("Should claim at most the configured batch and return oldest first")
+    void claimRequests_ShouldCapLimitAndSortByCreatedAt() {
+        UUID adminId = UUID.randomUUID();
+        requestQueueProperties.setClaimLease(Duration.ofMinutes(2));
+        requestQueueProperties.setMaxClaimBatch(2);
+        RequestEntity newer = queued(LocalDateTime.now());
+        RequestEntity older = queued(LocalDateTime.now().minusHours(1));
+        when(requestRepository.claim(adminId, 120, 2)).thenReturn(List.of(newer, older));
+
+        List<RequestResponse> claimed = requestService.claimRequests(50, adminId);
+
+        assertThat(claimed).extracting(RequestResponse::getId).containsExactly(older.getId(), newer.getId());
+        assertThat(claimed).allSatisfy(r -> assertThat(r.getCardId()).isEqualTo(cardId));
+    }
 
-        assertThatThrownBy(() -> requestService.createCardBlockRequest(request, userId))
-                .isInstanceOf(NotFoundException.class);
+    @Test
+    @DisplayName("Should reject non-positive claim limit")
+    void claimRequests_WhenLimitNotPositive_ShouldThrow() {
+        assertThatThrownBy(() -> requestService.claimRequests(0, UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class);
 
-        verify(requestRepository, never()).save(any());
+        verifyNoInteractions(requestRepository);
     }
 
     @Test
-    @DisplayName("Should not save when access is denied")
-    void createCardBlockRequest_WhenAccessDenied_ShouldNotSave() {
-        UUID differentUserId = UUID.randomUUID();
-        UserEntity differentUser = UserEntity.builder().id(differentUserId).build();
-        cardEntity.setUser(differentUser);
+    @DisplayName("Should block card when approving claimed request")
+    void approveRequest_WhenClaimedByAdmin_ShouldBlockCard() {
+        UUID adminId = UUID.randomUUID();
+        RequestEntity resolved = queued(LocalDateTime.now());
+        resolved.setStatus(RequestStatus.CLOSED);
+        resolved.setResolution(RequestResolution.APPROVED);
+        when(requestRepository.resolve(resolved.getId(), adminId, "APPROVED", "confirmed"))
+                .thenReturn(Optional.of(resolved));
+        cardEntity.setStatus(CardStatus.ACTIVE);
+        when(cardRepository.lockAllById(List.of(cardId))).thenReturn(List.of(cardEntity));
+
+        RequestResponse response = requestService.approveRequest(resolved.getId(), "confirmed", adminId);
+
+        assertThat(response.getResolution()).isEqualTo(RequestResolution.APPROVED);
+        assertThat(cardEntity.getStatus()).isEqualTo(CardStatus.BLOCKED);
+        verify(eventPublisher).publishEvent(CardChangeEvent.of(userId, cardId));
+    }
 
-        when(cardEncryption.encryptCardNumber(cardNumber)).thenReturn(encryptedCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedCardNumber))
-                .thenReturn(Optional.of(cardEntity));
+    @Test
+    @DisplayName("Should not block card when rejecting request")
+    void rejectRequest_WhenClaimedByAdmin_ShouldNotBlockCard() {
+        UUID adminId = UUID.randomUUID();
+        RequestEntity resolved = queued(LocalDateTime.now());
+        resolved.setStatus(RequestStatus.CLOSED);
+        resolved.setResolution(RequestResolution.REJECTED);
+        when(requestRepository.resolve(resolved.getId(), adminId, "REJECTED", null))
+                .thenReturn(Optional.of(resolved));
+
+        requestService.rejectRequest(resolved.getId(), null, adminId);
+
+        verify(cardRepository, never()).lockAllById(any());
+    }
 
-        assertThatThrownBy(() -> requestService.createCardBlockRequest(request, userId))
-                .isInstanceOf(AccessDeniedException.class);
+    @Test
+    @DisplayName("Should refuse to resolve request claimed by another admin")
+    void approveRequest_WhenClaimedByOther_ShouldThrow() {
+        RequestEntity claimed = queued(LocalDateTime.now());
+        claimed.setClaimedBy(UUID.randomUUID());
+        when(requestRepository.resolve(eq(claimed.getId()), any(), any(), any())).thenReturn(Optional.empty());
+        when(requestRepository.findById(claimed.getId())).thenReturn(Optional.of(claimed));
+
+        assertThatThrownBy(() -> requestService.approveRequest(claimed.getId(), null, UUID.randomUUID()))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Request is not claimed by you");
+
+        verify(cardRepository, never()).lockAllById(any());
+    }
 
-        verify(requestRepository, never()).save(any());
+    @Test
+    @DisplayName("Should refuse to resolve closed request and report missing one")
+    void rejectRequest_WhenClosedOrMissing_ShouldThrow() {
+        RequestEntity closed = queued(LocalDateTime.now());
+        closed.setStatus(RequestStatus.CLOSED);
+        UUID missingId = UUID.randomUUID();
+        when(requestRepository.resolve(any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(requestRepository.findById(closed.getId())).thenReturn(Optional.of(closed));
+        when(requestRepository.findById(missingId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> requestService.rejectRequest(closed.getId(), null, UUID.randomUUID()))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Request is already resolved");
+        assertThatThrownBy(() -> requestService.rejectRequest(missingId, null, UUID.randomUUID()))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    private RequestEntity queued(LocalDateTime createdAt) {
+        return RequestEntity.builder()
+                .id(UUID.randomUUID())
+                .card(cardEntity)
+                .status(RequestStatus.NEW)
+                .reason("Lost card")
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private BlockRequestInsert inserted(UUID ownerId, UUID requestId) {
+        return new BlockRequestInsert() {
+            @Override
+            public UUID getCardId() {
+                return cardId;
+            }
+
+            @Override
+            public UUID getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public UUID getRequestId() {
+                return requestId;
+            }
+        };
     }
 }
@@ -0,0 +1,232 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.card.CardOwnerView;
+import com.example.bankcards.dto.standing.CreateStandingOrderRequest;
+import com.example.bankcards.dto.standing.StandingOrderResponse;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.StandingOrderEntity;
+import com.example.bankcards.entity.StandingOrderPeriod;
+import com.example.bankcards.entity.StandingOrderStatus;
+import com.example.bankcards.exception.NotAllowedException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.StandingOrderRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.impl.StandingOrderServiceImpl;
+import com.example.bankcards.service.interfaces.StandingOrderService.Outcome;
+import com.example.bankcards.service.interfaces.TransactionsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StandingOrderService Unit Tests")
+class StandingOrderServiceImplTest {
+
+    @Mock
+    private StandingOrderRepository standingOrderRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private TransactionsService transactionsService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private StandingOrderServiceImpl standingOrderService;
+
+    private UUID userId;
+    private UUID fromCardId;
+    private UUID toCardId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        fromCardId = UUID.randomUUID();
+        toCardId = UUID.randomUUID();
+
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(standingOrderRepository.save(any(StandingOrderEntity.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("Should create order scheduled at the first run")
+    void create_WhenCardsOwned_ShouldScheduleFirstRun() {
+        LocalDateTime firstRunAt = LocalDateTime.now().plusDays(1);
+        when(cardRepository.findOwnerViewsById(List.of(fromCardId, toCardId)))
+                .thenReturn(List.of(view(fromCardId, userId), view(toCardId, userId)));
+
+        StandingOrderResponse response = standingOrderService.create(request(firstRunAt), userId);
+
+        assertThat(response.getNextRunAt()).isEqualTo(firstRunAt);
+        assertThat(response.getStatus()).isEqualTo(StandingOrderStatus.ACTIVE);
+        assertThat(response.getPeriod()).isEqualTo(StandingOrderPeriod.MONTHLY);
+    }
+
+    @Test
+    @DisplayName("Should reject order to a card of another user")
+    void create_WhenTargetCardForeign_ShouldThrow() {
+        when(cardRepository.findOwnerViewsById(List.of(fromCardId, toCardId)))
+                .thenReturn(List.of(view(fromCardId, userId), view(toCardId, UUID.randomUUID())));
+
+        assertThatThrownBy(() -> standingOrderService.create(request(null), userId))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Transactions only between your own cards allowed");
+        verify(standingOrderRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should reject order from a missing card")
+    void create_WhenCardMissing_ShouldThrowNotFound() {
+        when(cardRepository.findOwnerViewsById(List.of(fromCardId, toCardId)))
+                .thenReturn(List.of(view(toCardId, userId)));
+
+        assertThatThrownBy(() -> standingOrderService.create(request(null), userId))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("Card not found with id: " + fromCardId);
+    }
+
+    @Test
+    @DisplayName("Should transfer and move next run to the following period")
+    void execute_WhenDue_ShouldTransferAndAdvance() {
+        LocalDateTime firstRunAt = LocalDateTime.now().minusMinutes(1);
+        StandingOrderEntity order = order(firstRunAt, StandingOrderPeriod.DAILY);
+        when(standingOrderRepository.lockDueById(eq(order.getId()), any())).thenReturn(Optional.of(order));
+
+        Outcome outcome = standingOrderService.execute(order.getId());
+
+        assertThat(outcome).isEqualTo(Outcome.EXECUTED);
+        verify(transactionsService).transferInCurrentTransaction(fromCardId, toCardId, order.getAmount(), userId);
+        assertThat(order.getOccurrence()).isEqualTo(1);
+        assertThat(order.getNextRunAt()).isEqualTo(firstRunAt.plusDays(1));
+        assertThat(order.getLastError()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should run missed periods once and jump to the next future run")
+    void execute_WhenPeriodsMissed_ShouldSkipToFuture() {
+        LocalDateTime firstRunAt = LocalDateTime.now().minusDays(3).minusHours(1);
+        StandingOrderEntity order = order(firstRunAt, StandingOrderPeriod.DAILY);
+        when(standingOrderRepository.lockDueById(eq(order.getId()), any())).thenReturn(Optional.of(order));
+
+        standingOrderService.execute(order.getId());
+
+        verify(transactionsService, times(1)).transferInCurrentTransaction(any(), any(), any(), any());
+        assertThat(order.getOccurrence()).isEqualTo(4);
+        assertThat(order.getNextRunAt()).isEqualTo(firstRunAt.plusDays(4));
+    }
+
+    @Test
+    @DisplayName("Should skip order that is locked by another node or not due")
+    void execute_WhenNotLocked_ShouldSkip() {
+        UUID id = UUID.randomUUID();
+        when(standingOrderRepository.lockDueById(eq(id), any())).thenReturn(Optional.empty());
+
+        assertThat(standingOrderService.execute(id)).isEqualTo(Outcome.SKIPPED);
+        verifyNoInteractions(transactionsService);
+    }
+
+    @Test
+    @DisplayName("Should record rejected transfer and advance to the next run")
+    void execute_WhenTransferRejected_ShouldRecordErrorAndAdvance() {
+        LocalDateTime firstRunAt = LocalDateTime.now().minusMinutes(1);
+        StandingOrderEntity order = order(firstRunAt, StandingOrderPeriod.WEEKLY);
+        when(standingOrderRepository.lockDueById(eq(order.getId()), any())).thenReturn(Optional.of(order));
+        doThrow(new NotAllowedException("Insufficient balance on source card"))
+                .when(transactionsService).transferInCurrentTransaction(any(), any(), any(), any());
+
+        Outcome outcome = standingOrderService.execute(order.getId());
+
+        assertThat(outcome).isEqualTo(Outcome.FAILED);
+        ArgumentCaptor<StandingOrderEntity> saved = ArgumentCaptor.forClass(StandingOrderEntity.class);
+        verify(standingOrderRepository).save(saved.capture());
+        assertThat(saved.getValue().getLastError()).isEqualTo("Insufficient balance on source card");
+        assertThat(saved.getValue().getNextRunAt()).isEqualTo(firstRunAt.plusWeeks(1));
+    }
+
+    @Test
+    @DisplayName("Should leave order due on lock conflict")
+    void execute_WhenLockConflict_ShouldLeaveDue() {
+        StandingOrderEntity order = order(LocalDateTime.now().minusMinutes(1), StandingOrderPeriod.DAILY);
+        when(standingOrderRepository.lockDueById(eq(order.getId()), any())).thenReturn(Optional.of(order));
+        doThrow(new CannotAcquireLockException("lock timeout"))
+                .when(transactionsService).transferInCurrentTransaction(any(), any(), any(), any());
+
+        assertThat(standingOrderService.execute(order.getId())).isEqualTo(Outcome.SKIPPED);
+        verify(standingOrderRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should keep day of month when monthly order starts on the 31st")
+    void monthlyOccurrence_ShouldBeCountedFromFirstRun() {
+        LocalDateTime first = LocalDateTime.of(2025, 1, 31, 10, 0);
+
+        assertThat(StandingOrderPeriod.MONTHLY.occurrence(first, 1)).isEqualTo(LocalDateTime.of(2025, 2, 28, 10, 0));
+        assertThat(StandingOrderPeriod.MONTHLY.occurrence(first, 2)).isEqualTo(LocalDateTime.of(2025, 3, 31, 10, 0));
+    }
+
+    @Test
+    @DisplayName("Should deny USER cancelling someone else's order")
+    void cancel_WhenForeignOrder_ShouldThrowAccessDenied() {
+        StandingOrderEntity order = order(LocalDateTime.now(), StandingOrderPeriod.DAILY);
+        when(standingOrderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        UserPrincipal stranger = new UserPrincipal(UUID.randomUUID(), "stranger", "s@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), true);
+
+        assertThatThrownBy(() -> standingOrderService.cancel(order.getId(), stranger))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThat(order.getStatus()).isEqualTo(StandingOrderStatus.ACTIVE);
+    }
+
+    private CreateStandingOrderRequest request(LocalDateTime firstRunAt) {
+        CreateStandingOrderRequest request = new CreateStandingOrderRequest();
+        request.setFromCardId(fromCardId);
+        request.setToCardId(toCardId);
+        request.setAmount(new BigDecimal("100.00"));
+        request.setPeriod(StandingOrderPeriod.MONTHLY);
+        request.setFirstRunAt(firstRunAt);
+        return request;
+    }
+
+    private StandingOrderEntity order(LocalDateTime firstRunAt, StandingOrderPeriod period) {
+        return StandingOrderEntity.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .fromCardId(fromCardId)
+                .toCardId(toCardId)
+                .amount(new BigDecimal("100.00"))
+                .period(period)
+                .firstRunAt(firstRunAt)
+                .nextRunAt(firstRunAt)
+                .build();
+    }
+
+    private static CardOwnerView view(UUID cardId, UUID ownerId) {
+        return new CardOwnerView(cardId, "enc-" + cardId, ownerId, CardStatus.ACTIVE, new BigDecimal("1000.00"));
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.StatementProperties;
+import com.example.bankcards.dto.card.CardOwnerView;
+import com.example.bankcards.dto.statement.StatementCard;
+import com.example.bankcards.dto.statement.StatementDocument;
+import com.example.bankcards.entity.CardStatementEntity;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.StatementFormat;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardStatementRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.impl.StatementServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StatementService Unit Tests")
+class StatementServiceImplTest {
+
+    @Mock
+    private CardStatementRepository statementRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private StatementProperties statementProperties = new StatementProperties();
+
+    @InjectMocks
+    private StatementServiceImpl statementService;
+
+    private UUID userId;
+    private UUID cardId;
+    private UserPrincipal userPrincipal;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        cardId = UUID.randomUUID();
+        userPrincipal = new UserPrincipal(userId, "testuser", "test@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), true);
+    }
+
+    @Test
+    @DisplayName("Should walk every range and store streamed statement")
+    void generate_ShouldStreamTransfersIntoStatement() throws Exception {
+        statementProperties.setRanges(4);
+        statementProperties.setParallelism(2);
+        UUID otherCardId = UUID.randomUUID();
+        UUID transferId = UUID.randomUUID();
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        StatementCard card = mock(StatementCard.class);
+        when(card.getId()).thenReturn(cardId);
+        when(card.getUserId()).thenReturn(userId);
+        UUID firstRangeUpper = new UUID(0x3FFFFFFFFFFFFFFFL, -1L);
+        when(statementRepository.findCardsWithoutStatement(any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of());
+        when(statementRepository.findCardsWithoutStatement(
+                eq(new UUID(0L, 0L)), eq(firstRangeUpper), eq(LocalDate.of(2026, 9, 1)), any(), eq(100)))
+                .thenReturn(List.of(card));
+
+        ResultSet row = mock(ResultSet.class);
+        when(row.getObject("from_card_id", UUID.class)).thenReturn(cardId);
+        when(row.getObject("id", UUID.class)).thenReturn(transferId);
+        when(row.getObject("created_at", OffsetDateTime.class))
+                .thenReturn(OffsetDateTime.of(2026, 9, 2, 10, 0, 0, 0, ZoneOffset.UTC));
+        when(row.getObject("to_card_id", UUID.class)).thenReturn(otherCardId);
+        when(row.getBigDecimal("amount")).thenReturn(new BigDecimal("25.00"));
+        doAnswer(inv -> {
+            inv.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        when(statementRepository.insertStatement(any(), any(), any(), any(), anyInt(), any(), any(), any()))
+                .thenReturn(1);
+
+        int generated = statementService.generate(YearMonth.of(2026, 9));
+
+        assertThat(generated).isEqualTo(1);
+        verify(statementRepository, times(4)).findCardsWithoutStatement(any(), any(), any(), any(), anyInt());
+        verify(statementRepository).findCardsWithoutStatement(
+                eq(new UUID(0xBFFFFFFFFFFFFFFFL, -1L)), eq(new UUID(-1L, -1L)), any(), any(), anyInt());
+        ArgumentCaptor<byte[]> content = ArgumentCaptor.forClass(byte[].class);
+        verify(statementRepository).insertStatement(eq(cardId), eq(userId), eq(LocalDate.of(2026, 9, 1)), eq("CSV"),
+                eq(1), eq(new BigDecimal("25.00")), eq(BigDecimal.ZERO), content.capture());
+        assertThat(new String(content.getValue(), StandardCharsets.UTF_8))
+                .contains(transferId + ",2026-09-02T10:00Z,DEBIT," + otherCardId + ",25.00");
+    }
+
+    @Test
+    @DisplayName("Should continue range from last card of a full page")
+    void generate_WhenPageIsFull_ShouldFetchNextPage() {
+        statementProperties.setRanges(1);
+        statementProperties.setPageSize(1);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        StatementCard card = mock(StatementCard.class);
+        when(card.getId()).thenReturn(cardId);
+        when(card.getUserId()).thenReturn(userId);
+        when(statementRepository.findCardsWithoutStatement(eq(new UUID(0L, 0L)), any(), any(), any(), eq(1)))
+                .thenReturn(List.of(card));
+        when(statementRepository.findCardsWithoutStatement(eq(cardId), any(), any(), any(), eq(1)))
+                .thenReturn(List.of());
+        when(statementRepository.insertStatement(any(), any(), any(), any(), anyInt(), any(), any(), any()))
+                .thenReturn(1);
+
+        assertThat(statementService.generate(YearMonth.of(2026, 9))).isEqualTo(1);
+        verify(statementRepository).findCardsWithoutStatement(eq(cardId), any(), any(), any(), eq(1));
+    }
+
+    @Test
+    @DisplayName("Should reject misconfigured range count")
+    void generate_WhenRangesNotPowerOfTwo_ShouldThrow() {
+        statementProperties.setRanges(3);
+
+        assertThatThrownBy(() -> statementService.generate(YearMonth.of(2026, 9)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should list statements of own card")
+    void getCardStatements_WhenOwner_ShouldReturnList() {
+        when(cardRepository.findOwnerViewsById(List.of(cardId)))
+                .thenReturn(List.of(new CardOwnerView(cardId, "enc", userId, CardStatus.ACTIVE, BigDecimal.TEN)));
+        when(statementRepository.findAllByCardId(cardId)).thenReturn(List.of());
+
+        assertThat(statementService.getCardStatements(cardId, userPrincipal)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should deny statements of someone else's card")
+    void getCardStatements_WhenNotOwner_ShouldThrow() {
+        when(cardRepository.findOwnerViewsById(List.of(cardId))).thenReturn(
+                List.of(new CardOwnerView(cardId, "enc", UUID.randomUUID(), CardStatus.ACTIVE, BigDecimal.TEN)));
+
+        assertThatThrownBy(() -> statementService.getCardStatements(cardId, userPrincipal))
+                .isInstanceOf(AccessDeniedException.class);
+        verify(statementRepository, never()).findAllByCardId(any());
+    }
+
+    @Test
+    @DisplayName("Should return statement document with file name and content type")
+    void download_WhenOwner_ShouldReturnDocument() {
+        UUID id = UUID.randomUUID();
+        byte[] content = "transfer_id\n".getBytes(StandardCharsets.UTF_8);
+        when(statementRepository.findById(id)).thenReturn(Optional.of(CardStatementEntity.builder()
+                .id(id)
+                .cardId(cardId)
+                .userId(userId)
+                .period(LocalDate.of(2026, 9, 1))
+                .format(StatementFormat.CSV)
+                .content(content)
+                .build()));
+
+        StatementDocument document = statementService.download(id, userPrincipal);
+
+        assertThat(document.fileName()).isEqualTo("statement-2026-09-" + cardId + ".csv");
+        assertThat(document.contentType()).isEqualTo("text/csv");
+        assertThat(document.content()).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("Should throw when statement does not exist")
+    void download_WhenMissing_ShouldThrow() {
+        UUID id = UUID.randomUUID();
+        when(statementRepository.findById(id)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> statementService.download(id, userPrincipal))
+                .isInstanceOf(NotFoundException.class);
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.config.TransferProperties.TransferMode;
+import com.example.bankcards.dto.card.CardOwnerView;
+import com.example.bankcards.dto.transfer.CreateTransferRequest;
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.TransferEntity;
+import com.example.bankcards.entity.UserEntity;
+import com.example.bankcards.exception.NotAllowedException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.impl.TransactionsServiceImpl;
+import com.example.bankcards.service.interfaces.FraudDetectionService;
+import com.example.bankcards.service.interfaces.LedgerService;
+import com.example.bankcards.service.interfaces.TransferLimitService;
+import com.example.bankcards.util.CardEncryption;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Нагрузочный тест переводов. Репозиторий эмулирует SELECT ... FOR UPDATE:
+ * блокировки строк берутся в порядке выдачи, живут до конца транзакции и
+ * отваливаются по таймауту, как lock_timeout в Postgres; условные UPDATE
+ * откатываются вместе с транзакцией.
+ * <p>
+ * Порядок блокировок не подгоняется моком: lockAllByCardNumberEncrypted отдаёт
+ * строки так, как велит ORDER BY его настоящего запроса, условные UPDATE
+ * блокируют строку в момент вызова, и каждая блокировка сверяется с уже
+ * взятыми в транзакции — строка с меньшим id после большей считается ошибкой.
+ * <p>
+ * Прогон долгий, поэтому в обычный mvn test не входит: mvn test -Pstress.
+ */
+@Tag("stress")
+@Slf4j
+@DisplayName("TransactionsService Concurrency Tests")
+class TransactionsServiceConcurrencyTest {
+
+    private static final int CARDS = 4;
+    private static final int TRANSFERS = 20_000;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+
+    private static final Comparator<UUID> POSTGRES_UUID_ORDER = Comparator
+            .<UUID>comparingLong(id -> id.getMostSignificantBits() ^ Long.MIN_VALUE)
+            .thenComparingLong(id -> id.getLeastSignificantBits() ^ Long.MIN_VALUE);
+
+    private static final boolean LOCK_QUERY_ORDERS_BY_ID = lockQuery().endsWith("order by c.id");
+
+    private final Map<String, CardEntity> cards = new ConcurrentHashMap<>();
+    private final Map<String, ReentrantLock> rowLocks = new ConcurrentHashMap<>();
+    private final ThreadLocal<Deque<ReentrantLock>> heldLocks = ThreadLocal.withInitial(ArrayDeque::new);
+    private final ThreadLocal<Deque<UUID>> heldRows = ThreadLocal.withInitial(ArrayDeque::new);
+    private final AtomicInteger outOfOrderLocks = new AtomicInteger();
+    private final ThreadLocal<Deque<Runnable>> undoLog = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private TransferProperties transferProperties;
+    private TransactionsServiceImpl transactionsService;
+    private UserEntity user;
+    private List<String> cardNumbers;
+
+    @BeforeEach
+    void setUp() {
+        user = UserEntity.builder().id(UUID.randomUUID()).username("stress").build();
+        cardNumbers = new ArrayList<>();
+        for (int i = 0; i < CARDS; i++) {
+            String number = "42770100000000" + String.format("%02d", i);
+            CardEntity card = CardEntity.builder()
+                    .id(UUID.randomUUID())
+                    .cardNumberEncrypted(number)
+                    .cardNumberMask("**** **** **** 00" + String.format("%02d", i))
+                    .holderName("STRESS TEST")
+                    .expirationDate(LocalDate.now().plusYears(4))
+                    .status(CardStatus.ACTIVE)
+                    .balance(INITIAL_BALANCE)
+                    .user(user)
+                    .build();
+            cards.put(number, card);
+            rowLocks.put(number, new ReentrantLock());
+            cardNumbers.add(number);
+        }
+
+        transferProperties = new TransferProperties();
+        transferProperties.setLockTimeoutMs(1000);
+        transferProperties.setMaxAttempts(5);
+        transferProperties.setRetryBackoffMs(1);
+
+        CardEncryption cardEncryption = mock(CardEncryption.class, withSettings().stubOnly());
+        when(cardEncryption.encryptCardNumber(anyString())).thenAnswer(inv -> inv.getArgument(0));
+
+        CardRepository cardRepository = mock(CardRepository.class, withSettings().stubOnly());
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenAnswer(inv -> lockRows(inv.getArgument(0)));
+        when(cardRepository.findOwnerViewsByCardNumberEncrypted(anyCollection()))
+                .thenAnswer(inv -> readOwnerViews(inv.getArgument(0)));
+        when(cardRepository.debitIfAllowed(any(), any(), any()))
+                .thenAnswer(inv -> updateRow(inv.getArgument(0), inv.getArgument(1), inv.<BigDecimal>getArgument(2).negate()));
+        when(cardRepository.creditIfAllowed(any(), any(), any()))
+                .thenAnswer(inv -> updateRow(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2)));
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class, withSettings().stubOnly());
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> {
+            try {
+                return inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            } catch (RuntimeException e) {
+                Deque<Runnable> undo = undoLog.get();
+                while (!undo.isEmpty()) {
+                    undo.pop().run();
+                }
+                throw e;
+            } finally {
+                undoLog.get().clear();
+                heldRows.get().clear();
+                Deque<ReentrantLock> held = heldLocks.get();
+                while (!held.isEmpty()) {
+                    held.pop().unlock();
+                }
+            }
+        });
+
+        TransferRepository transferRepository = mock(TransferRepository.class, withSettings().stubOnly());
+        when(transferRepository.save(any(TransferEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        transactionsService = new TransactionsServiceImpl(
+                cardRepository, cardEncryption, transactionTemplate, transferRepository,
+                mock(LedgerService.class), transferProperties, mock(TransferLimitService.class),
+                mock(FraudDetectionService.class), mock(ApplicationEventPublisher.class, withSettings().stubOnly()));
+    }
+
+    @ParameterizedTest(name = "{0} mode, {1} concurrent clients")
+    @CsvSource({
+            "LOCKING, 1", "LOCKING, 8", "LOCKING, 64",
+            "CONDITIONAL, 1", "CONDITIONAL, 8", "CONDITIONAL, 64"
+    })
+    @DisplayName("Concurrent transfers should not lose updates or deadlock")
+    void createTransaction_WhenConcurrentClients_ShouldKeepBalancesConsistent(
+            TransferMode mode, int clients) throws Exception {
+        transferProperties.setMode(mode);
+        Map<String, BigDecimal> expectedDelta = new ConcurrentHashMap<>();
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger lockFailures = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(TRANSFERS);
+
+        for (int i = 0; i < TRANSFERS; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    String from = cardNumbers.get(random.nextInt(CARDS));
+                    String to;
+                    do {
+                        to = cardNumbers.get(random.nextInt(CARDS));
+                    } while (to.equals(from));
+                    BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 5000), 2);
+
+                    CreateTransferRequest request = new CreateTransferRequest();
+                    request.setFromCardNumber(from);
+                    request.setToCardNumber(to);
+                    request.setAmount(amount);
+
+                    transactionsService.createTransaction(request, user.getId());
+
+                    expectedDelta.merge(from, amount.negate(), BigDecimal::add);
+                    expectedDelta.merge(to, amount, BigDecimal::add);
+                    succeeded.incrementAndGet();
+                } catch (NotAllowedException e) {
+                    rejected.incrementAndGet();
+                } catch (CannotAcquireLockException e) {
+                    lockFailures.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        assertThat(done.await(60, TimeUnit.SECONDS)).isTrue();
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdownNow();
+
+        log.info("mode={} clients={} transfers={} ok={} rejected={} throughput={} tx/s",
+                mode, clients, TRANSFERS, succeeded.get(), rejected.get(),
+                Math.round(TRANSFERS / (elapsedNanos / 1_000_000_000.0)));
+
+        assertThat(outOfOrderLocks.get()).as("rows locked out of id order").isZero();
+        assertThat(lockFailures.get()).isZero();
+        assertThat(succeeded.get() + rejected.get()).isEqualTo(TRANSFERS);
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (String number : cardNumbers) {
+            BigDecimal balance = cards.get(number).getBalance();
+            assertThat(balance)
+                    .isEqualByComparingTo(INITIAL_BALANCE.add(expectedDelta.getOrDefault(number, BigDecimal.ZERO)));
+            assertThat(balance.signum()).isNotNegative();
+            total = total.add(balance);
+        }
+        assertThat(total).isEqualByComparingTo(INITIAL_BALANCE.multiply(BigDecimal.valueOf(CARDS)));
+    }
+
+    private static String lockQuery() {
+        try {
+            return CardRepository.class.getMethod("lockAllByCardNumberEncrypted", Collection.class)
+                    .getAnnotation(Query.class).value();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Строки выдаются в порядке, который задаёт запрос репозитория, а не в удобном моку:
+     * сортировка по id применяется, только если запрос её действительно содержит.
+     */
+    private List<CardEntity> lockRows(Collection<String> numbers) throws InterruptedException {
+        List<CardEntity> rows = numbers.stream()
+                .map(cards::get)
+                .sorted(LOCK_QUERY_ORDERS_BY_ID ? Comparator.comparing(CardEntity::getId, POSTGRES_UUID_ORDER) : (a, b) -> 0)
+                .toList();
+        for (CardEntity row : rows) {
+            lockRow(row);
+        }
+        return rows;
+    }
+
+    private List<CardOwnerView> readOwnerViews(Collection<String> numbers) {
+        return numbers.stream()
+                .map(cards::get)
+                .map(card -> new CardOwnerView(
+                        card.getId(), card.getCardNumberEncrypted(), card.getUser().getId(),
+                        card.getStatus(), card.getBalance()))
+                .toList();
+    }
+
+    private int updateRow(UUID cardId, UUID userId, BigDecimal delta) throws InterruptedException {
+        CardEntity row = cards.values().stream()
+                .filter(card -> card.getId().equals(cardId))
+                .findFirst()
+                .orElseThrow();
+        lockRow(row);
+        if (!row.getUser().getId().equals(userId)
+                || row.getStatus() != CardStatus.ACTIVE
+                || row.getBalance().add(delta).signum() < 0) {
+            return 0;
+        }
+        BigDecimal before = row.getBalance();
+        row.setBalance(before.add(delta));
+        undoLog.get().push(() -> row.setBalance(before));
+        return 1;
+    }
+
+    private void lockRow(CardEntity row) throws InterruptedException {
+        ReentrantLock lock = rowLocks.get(row.getCardNumberEncrypted());
+        if (!lock.tryLock(transferProperties.getLockTimeoutMs(), TimeUnit.MILLISECONDS)) {
+            throw new CannotAcquireLockException("lock timeout on card " + row.getId());
+        }
+        Deque<UUID> rows = heldRows.get();
+        if (!rows.isEmpty() && POSTGRES_UUID_ORDER.compare(row.getId(), rows.peek()) < 0) {
+            outOfOrderLocks.incrementAndGet();
+        }
+        rows.push(row.getId());
+        heldLocks.get().push(lock);
+    }
+}
@@ -1,27 +1,55 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.config.TransferProperties.TransferMode;
+import com.example.bankcards.dto.card.CardChangeEvent;
+import com.example.bankcards.dto.card.CardOwnerView;
+import com.example.bankcards.dto.core.CursorPage;
+import com.example.bankcards.dto.transfer.BatchTransferItemResult;
+import com.example.bankcards.dto.transfer.BatchTransferRequest;
+import com.example.bankcards.dto.transfer.BatchTransferResponse;
+import com.example.bankcards.dto.transfer.CreateTransferByIdRequest;
 import com.example.bankcards.dto.transfer.CreateTransferRequest;
+import com.example.bankcards.dto.transfer.TransferCursor;
+import com.example.bankcards.dto.transfer.TransferResponse;
 import com.example.bankcards.entity.CardEntity;
 import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.TransferEntity;
 import com.example.bankcards.entity.UserEntity;
 import com.example.bankcards.exception.NotAllowedException;
 import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.security.UserPrincipal;
 import com.example.bankcards.service.impl.TransactionsServiceImpl;
+import com.example.bankcards.service.interfaces.FraudDetectionService;
+import com.example.bankcards.service.interfaces.LedgerService;
+import com.example.bankcards.service.interfaces.TransferLimitService;
 import com.example.bankcards.util.CardEncryption;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -37,6 +65,27 @@ class TransactionsServiceImplTest {
     @Mock
     private CardEncryption cardEncryption;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private TransferLimitService transferLimitService;
+
+    @Mock
+    private FraudDetectionService fraudDetectionService;
+
+    @Spy
+    private TransferProperties transferProperties = new TransferProperties();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TransactionsServiceImpl transactionsService;
 
@@ -101,6 +150,11 @@ class TransactionsServiceImplTest {
                 .user(user)
                 .build();
 
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(transferRepository.save(any(TransferEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
         request = new CreateTransferRequest();
         request.setFromCardNumber(fromCardNumber);
         request.setToCardNumber(toCardNumber);
@@ -116,10 +170,8 @@ class TransactionsServiceImplTest {
 
         when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
         when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedFromCardNumber))
-                .thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByCardNumberEncrypted(encryptedToCardNumber))
-                .thenReturn(Optional.of(toCard));
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(fromCard, toCard));
 
         transactionsService.createTransaction(request, userId);
 
@@ -128,14 +180,16 @@ class TransactionsServiceImplTest {
 
         verify(cardRepository).save(fromCard);
         verify(cardRepository).save(toCard);
+        verify(eventPublisher).publishEvent(CardChangeEvent.of(userId, fromCard.getId(), toCard.getId()));
     }
 
     @Test
     @DisplayName("Should throw NotFoundException when from card not found")
     void createTransaction_WhenFromCardNotFound_ShouldThrowNotFoundException() {
         when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedFromCardNumber))
-                .thenReturn(Optional.empty());
+        when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(toCard));
 
         assertThatThrownBy(() -> transactionsService.createTransaction(request, userId))
                 .isInstanceOf(NotFoundException.class)
@@ -149,10 +203,8 @@ class TransactionsServiceImplTest {
     void createTransaction_WhenToCardNotFound_ShouldThrowNotFoundException() {
         when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
         when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedFromCardNumber))
-                .thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByCardNumberEncrypted(encryptedToCardNumber))
-                .thenReturn(Optional.empty());
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(fromCard));
 
         assertThatThrownBy(() -> transactionsService.createTransaction(request, userId))
                 .isInstanceOf(NotFoundException.class)
@@ -168,10 +220,8 @@ class TransactionsServiceImplTest {
 
         when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
         when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedFromCardNumber))
-                .thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByCardNumberEncrypted(encryptedToCardNumber))
-                .thenReturn(Optional.of(toCard));
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(fromCard, toCard));
 
         assertThatThrownBy(() -> transactionsService.createTransaction(request, userId))
                 .isInstanceOf(NotAllowedException.class)
@@ -187,10 +237,8 @@ class TransactionsServiceImplTest {
 
         when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
         when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedFromCardNumber))
-                .thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByCardNumberEncrypted(encryptedToCardNumber))
-                .thenReturn(Optional.of(toCard));
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(fromCard, toCard));
 
         assertThatThrownBy(() -> transactionsService.createTransaction(request, userId))
                 .isInstanceOf(NotAllowedException.class)
@@ -206,10 +254,8 @@ class TransactionsServiceImplTest {
 
         when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
         when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedFromCardNumber))
-                .thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByCardNumberEncrypted(encryptedToCardNumber))
-                .thenReturn(Optional.of(toCard));
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(fromCard, toCard));
 
         assertThatThrownBy(() -> transactionsService.createTransaction(request, userId))
                 .isInstanceOf(NotAllowedException.class)
@@ -225,10 +271,8 @@ class TransactionsServiceImplTest {
 
         when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
         when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedFromCardNumber))
-                .thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByCardNumberEncrypted(encryptedToCardNumber))
-                .thenReturn(Optional.of(toCard));
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(fromCard, toCard));
 
         assertThatThrownBy(() -> transactionsService.createTransaction(request, userId))
                 .isInstanceOf(NotAllowedException.class)
@@ -244,10 +288,8 @@ class TransactionsServiceImplTest {
 
         when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
         when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedFromCardNumber))
-                .thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByCardNumberEncrypted(encryptedToCardNumber))
-                .thenReturn(Optional.of(toCard));
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(fromCard, toCard));
 
         assertThatThrownBy(() -> transactionsService.createTransaction(request, userId))
                 .isInstanceOf(NotAllowedException.class)
@@ -256,6 +298,23 @@ class TransactionsServiceImplTest {
         verify(cardRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Should not let transfer spend money reserved by holds")
+    void createTransaction_WhenBalanceHeld_ShouldThrowNotAllowedException() {
+        fromCard.setHeldAmount(new BigDecimal("950.00"));
+
+        when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
+        when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(fromCard, toCard));
+
+        assertThatThrownBy(() -> transactionsService.createTransaction(request, userId))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessageContaining("Insufficient balance on source card");
+
+        assertThat(fromCard.getBalance()).isEqualByComparingTo("1000.00");
+    }
+
     @Test
     @DisplayName("Should handle exact balance transfer")
     void createTransaction_WhenExactBalance_ShouldTransferSuccessfully() {
@@ -265,10 +324,8 @@ class TransactionsServiceImplTest {
 
         when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
         when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedFromCardNumber))
-                .thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByCardNumberEncrypted(encryptedToCardNumber))
-                .thenReturn(Optional.of(toCard));
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(fromCard, toCard));
 
         transactionsService.createTransaction(request, userId);
 
@@ -291,10 +348,8 @@ class TransactionsServiceImplTest {
 
         when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
         when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedFromCardNumber))
-                .thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByCardNumberEncrypted(encryptedToCardNumber))
-                .thenReturn(Optional.of(toCard));
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(fromCard, toCard));
 
         transactionsService.createTransaction(request, userId);
 
@@ -309,10 +364,8 @@ class TransactionsServiceImplTest {
     void createTransaction_WhenCalled_ShouldEncryptBothCardNumbers() {
         when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
         when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedFromCardNumber))
-                .thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByCardNumberEncrypted(encryptedToCardNumber))
-                .thenReturn(Optional.of(toCard));
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(fromCard, toCard));
 
         transactionsService.createTransaction(request, userId);
 
@@ -327,8 +380,8 @@ class TransactionsServiceImplTest {
 
         when(cardEncryption.encryptCardNumber(fromCardNumber))
                 .thenReturn(encryptedFromCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedFromCardNumber))
-                .thenReturn(Optional.of(fromCard));
+        when(cardRepository.lockAllByCardNumberEncrypted(List.of(encryptedFromCardNumber)))
+                .thenReturn(List.of(fromCard));
 
         transactionsService.createTransaction(request, userId);
 
@@ -340,10 +393,8 @@ class TransactionsServiceImplTest {
     void createTransaction_WhenCalled_ShouldSaveBothCards() {
         when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
         when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
-        when(cardRepository.findByCardNumberEncrypted(encryptedFromCardNumber))
-                .thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByCardNumberEncrypted(encryptedToCardNumber))
-                .thenReturn(Optional.of(toCard));
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(fromCard, toCard));
 
         transactionsService.createTransaction(request, userId);
 
@@ -351,4 +402,574 @@ class TransactionsServiceImplTest {
         verify(cardRepository).save(toCard);
         verify(cardRepository, times(2)).save(any(CardEntity.class));
     }
+
+    @Test
+    @DisplayName("Should lock both cards with a single query")
+    void createTransaction_WhenCalled_ShouldLockBothCardsInOneQuery() {
+        when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
+        when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(fromCard, toCard));
+
+        transactionsService.createTransaction(request, userId);
+
+        verify(cardRepository).setLocalLockTimeout("2000ms");
+        verify(cardRepository).lockAllByCardNumberEncrypted(
+                List.of(encryptedFromCardNumber, encryptedToCardNumber));
+    }
+
+    @Test
+    @DisplayName("Should retry transfer after lock timeout")
+    void createTransaction_WhenLockTimeoutOnce_ShouldRetryAndTransfer() {
+        transferProperties.setRetryBackoffMs(0);
+
+        when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
+        when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenThrow(new CannotAcquireLockException("lock timeout"))
+                .thenReturn(List.of(fromCard, toCard));
+
+        transactionsService.createTransaction(request, userId);
+
+        assertThat(fromCard.getBalance()).isEqualByComparingTo("900.00");
+        assertThat(toCard.getBalance()).isEqualByComparingTo("600.00");
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    @DisplayName("Should give up after max lock attempts")
+    void createTransaction_WhenLockNeverAcquired_ShouldThrowAfterMaxAttempts() {
+        transferProperties.setRetryBackoffMs(0);
+
+        when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
+        when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenThrow(new CannotAcquireLockException("lock timeout"));
+
+        assertThatThrownBy(() -> transactionsService.createTransaction(request, userId))
+                .isInstanceOf(CannotAcquireLockException.class);
+
+        verify(transactionTemplate, times(transferProperties.getMaxAttempts())).execute(any());
+        verify(cardRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Conditional mode should debit and credit with atomic updates")
+    void createTransaction_WhenConditionalMode_ShouldApplyConditionalUpdates() {
+        transferProperties.setMode(TransferMode.CONDITIONAL);
+
+        when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
+        when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
+        when(cardRepository.findOwnerViewsByCardNumberEncrypted(
+                List.of(encryptedFromCardNumber, encryptedToCardNumber)))
+                .thenReturn(List.of(ownerView(fromCard), ownerView(toCard)));
+        when(cardRepository.debitIfAllowed(fromCard.getId(), userId, request.getAmount())).thenReturn(1);
+        when(cardRepository.creditIfAllowed(toCard.getId(), userId, request.getAmount())).thenReturn(1);
+
+        transactionsService.createTransaction(request, userId);
+
+        verify(cardRepository, never()).lockAllByCardNumberEncrypted(any());
+        verify(cardRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Conditional mode should reject transfer from foreign card without updates")
+    void createTransaction_WhenConditionalModeAndNotOwner_ShouldNotUpdate() {
+        transferProperties.setMode(TransferMode.CONDITIONAL);
+        fromCard.setUser(otherUser);
+
+        when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
+        when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
+        when(cardRepository.findOwnerViewsByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(ownerView(fromCard), ownerView(toCard)));
+
+        assertThatThrownBy(() -> transactionsService.createTransaction(request, userId))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessageContaining("You are not owner of this card");
+
+        verify(cardRepository, never()).debitIfAllowed(any(), any(), any());
+        verify(cardRepository, never()).creditIfAllowed(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Conditional mode should fail when balance drops before debit")
+    void createTransaction_WhenConditionalDebitNotApplied_ShouldThrowNotAllowedException() {
+        transferProperties.setMode(TransferMode.CONDITIONAL);
+
+        when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
+        when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
+        when(cardRepository.findOwnerViewsByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(ownerView(fromCard), ownerView(toCard)));
+        lenient().when(cardRepository.creditIfAllowed(any(), any(), any())).thenReturn(1);
+        when(cardRepository.debitIfAllowed(fromCard.getId(), userId, request.getAmount())).thenReturn(0);
+
+        assertThatThrownBy(() -> transactionsService.createTransaction(request, userId))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessageContaining("insufficient balance");
+    }
+
+    @Test
+    @DisplayName("Should journal transfer and return its id")
+    void createTransaction_WhenValidRequest_ShouldJournalTransfer() {
+        when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
+        when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(fromCard, toCard));
+        UUID transferId = UUID.randomUUID();
+        when(transferRepository.save(any(TransferEntity.class))).thenAnswer(invocation -> {
+            TransferEntity transfer = invocation.getArgument(0);
+            return TransferEntity.builder()
+                    .id(transferId)
+                    .userId(transfer.getUserId())
+                    .fromCardId(transfer.getFromCardId())
+                    .toCardId(transfer.getToCardId())
+                    .amount(transfer.getAmount())
+                    .createdAt(LocalDateTime.now())
+                    .build();
+        });
+
+        TransferResponse response = transactionsService.createTransaction(request, userId);
+
+        assertThat(response.getId()).isEqualTo(transferId);
+        assertThat(response.getFromCardId()).isEqualTo(fromCard.getId());
+        assertThat(response.getToCardId()).isEqualTo(toCard.getId());
+        assertThat(response.getAmount()).isEqualByComparingTo("100.00");
+        verify(transferRepository).save(any(TransferEntity.class));
+    }
+
+    @Test
+    @DisplayName("Should not journal rejected transfer")
+    void createTransaction_WhenRejected_ShouldNotJournal() {
+        fromCard.setBalance(new BigDecimal("50.00"));
+
+        when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
+        when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(fromCard, toCard));
+
+        assertThatThrownBy(() -> transactionsService.createTransaction(request, userId))
+                .isInstanceOf(NotAllowedException.class);
+
+        verify(transferRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should return user history page with next cursor")
+    void getUserTransfers_WhenMoreRowsThanPage_ShouldReturnNextCursor() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TransferEntity> rows = List.of(
+                historyRow(now.minusMinutes(1)),
+                historyRow(now.minusMinutes(2)),
+                historyRow(now.minusMinutes(3))
+        );
+        when(transferRepository.findUserPageBefore(
+                userId, TransferCursor.START.createdAt(), TransferCursor.START.id(), 3))
+                .thenReturn(rows);
+
+        CursorPage<TransferResponse> page = transactionsService.getUserTransfers(userId, null, 2);
+
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.isHasNext()).isTrue();
+        TransferCursor next = TransferCursor.decode(page.getNextCursor());
+        assertThat(next.id()).isEqualTo(rows.get(1).getId());
+        assertThat(next.createdAt()).isEqualTo(rows.get(1).getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("Should deny card history of foreign card to USER")
+    void getCardTransfers_WhenUserNotOwner_ShouldThrowAccessDenied() {
+        fromCard.setUser(otherUser);
+        when(cardRepository.findById(fromCard.getId())).thenReturn(Optional.of(fromCard));
+        UserPrincipal principal = new UserPrincipal(
+                userId, "testuser", "test@example.com", "hash",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), true);
+
+        assertThatThrownBy(() -> transactionsService.getCardTransfers(fromCard.getId(), principal, null, 20))
+                .isInstanceOf(AccessDeniedException.class);
+
+        verify(transferRepository, never()).findCardPageBefore(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Ledger mode should post balanced entries without touching card balances")
+    void createTransaction_WhenLedgerMode_ShouldPostEntries() {
+        transferProperties.getLedger().setEnabled(true);
+
+        when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
+        when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
+        when(cardRepository.findOwnerViewsByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(ownerView(fromCard), ownerView(toCard)));
+        when(ledgerService.getBalance(fromCard.getId())).thenReturn(new BigDecimal("150.00"));
+        when(transferRepository.save(any(TransferEntity.class))).thenAnswer(invocation -> {
+            TransferEntity transfer = invocation.getArgument(0);
+            return TransferEntity.builder()
+                    .id(UUID.randomUUID())
+                    .userId(transfer.getUserId())
+                    .fromCardId(transfer.getFromCardId())
+                    .toCardId(transfer.getToCardId())
+                    .amount(transfer.getAmount())
+                    .build();
+        });
+
+        TransferResponse response = transactionsService.createTransaction(request, userId);
+
+        InOrder inOrder = inOrder(ledgerService);
+        inOrder.verify(ledgerService).lockForPosting(fromCard.getId(), toCard.getId());
+        inOrder.verify(ledgerService).getBalance(fromCard.getId());
+        inOrder.verify(ledgerService).postTransfer(
+                response.getId(), fromCard.getId(), toCard.getId(), request.getAmount());
+        verify(cardRepository, never()).save(any());
+        verify(cardRepository, never()).debitIfAllowed(any(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any(CardChangeEvent.class));
+        assertThat(fromCard.getBalance()).isEqualByComparingTo("1000.00");
+    }
+
+    @Test
+    @DisplayName("Ledger mode should reject transfer above derived balance")
+    void createTransaction_WhenLedgerBalanceInsufficient_ShouldThrowNotAllowedException() {
+        transferProperties.getLedger().setEnabled(true);
+
+        when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
+        when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
+        when(cardRepository.findOwnerViewsByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(ownerView(fromCard), ownerView(toCard)));
+        when(ledgerService.getBalance(fromCard.getId())).thenReturn(new BigDecimal("99.99"));
+
+        assertThatThrownBy(() -> transactionsService.createTransaction(request, userId))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessageContaining("Insufficient balance on source card");
+
+        verify(ledgerService, never()).postTransfer(any(), any(), any(), any());
+        verify(transferRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Transfer by card id should lock cards by primary key without encryption")
+    void createTransactionByCardId_WhenValidRequest_ShouldTransferWithoutCrypto() {
+        when(cardRepository.lockAllById(anyCollection())).thenReturn(List.of(fromCard, toCard));
+
+        TransferResponse response = transactionsService.createTransactionByCardId(byId(fromCard, toCard), userId);
+
+        assertThat(fromCard.getBalance()).isEqualByComparingTo("900.00");
+        assertThat(toCard.getBalance()).isEqualByComparingTo("600.00");
+        assertThat(response.getFromCardId()).isEqualTo(fromCard.getId());
+        verify(cardRepository).lockAllById(List.of(fromCard.getId(), toCard.getId()));
+        verifyNoInteractions(cardEncryption);
+        verify(cardRepository, never()).lockAllByCardNumberEncrypted(any());
+    }
+
+    @Test
+    @DisplayName("Transfer by card id should enforce ownership rules")
+    void createTransactionByCardId_WhenNotOwner_ShouldThrowNotAllowedException() {
+        fromCard.setUser(otherUser);
+        when(cardRepository.lockAllById(anyCollection())).thenReturn(List.of(fromCard, toCard));
+
+        assertThatThrownBy(() -> transactionsService.createTransactionByCardId(byId(fromCard, toCard), userId))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessageContaining("You are not owner of this card");
+
+        verify(transferRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Transfer by card id should report unknown card id")
+    void createTransactionByCardId_WhenCardMissing_ShouldThrowNotFoundException() {
+        when(cardRepository.lockAllById(anyCollection())).thenReturn(List.of(fromCard));
+
+        assertThatThrownBy(() -> transactionsService.createTransactionByCardId(byId(fromCard, toCard), userId))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Card not found with id: " + toCard.getId());
+    }
+
+    @Test
+    @DisplayName("Transfer by card id should reject missing or non-positive amount before touching cards")
+    void createTransactionByCardId_WhenAmountNotPositive_ShouldThrowIllegalArgumentException() {
+        for (BigDecimal amount : Arrays.asList(null, BigDecimal.ZERO, new BigDecimal("-5.00"))) {
+            CreateTransferByIdRequest byId = byId(fromCard, toCard);
+            byId.setAmount(amount);
+
+            assertThatThrownBy(() -> transactionsService.createTransactionByCardId(byId, userId))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Amount must be positive");
+        }
+
+        verifyNoInteractions(cardRepository, fraudDetectionService, transferLimitService, transferRepository);
+    }
+
+    @Test
+    @DisplayName("Transfer by card id in conditional mode should read owner views by id")
+    void createTransactionByCardId_WhenConditionalMode_ShouldUseConditionalUpdates() {
+        transferProperties.setMode(TransferMode.CONDITIONAL);
+        when(cardRepository.findOwnerViewsById(anyCollection()))
+                .thenReturn(List.of(ownerView(fromCard), ownerView(toCard)));
+        when(cardRepository.debitIfAllowed(fromCard.getId(), userId, request.getAmount())).thenReturn(1);
+        when(cardRepository.creditIfAllowed(toCard.getId(), userId, request.getAmount())).thenReturn(1);
+
+        transactionsService.createTransactionByCardId(byId(fromCard, toCard), userId);
+
+        verify(cardRepository).debitIfAllowed(fromCard.getId(), userId, request.getAmount());
+        verify(cardRepository).creditIfAllowed(toCard.getId(), userId, request.getAmount());
+        verifyNoInteractions(cardEncryption);
+    }
+
+    @Test
+    @DisplayName("Transfer in caller's transaction should not open its own or retry")
+    void transferInCurrentTransaction_WhenLockConflict_ShouldPropagateWithoutRetry() {
+        when(cardRepository.lockAllById(anyCollection()))
+                .thenThrow(new CannotAcquireLockException("lock timeout"));
+
+        assertThatThrownBy(() -> transactionsService.transferInCurrentTransaction(
+                fromCard.getId(), toCard.getId(), request.getAmount(), userId))
+                .isInstanceOf(CannotAcquireLockException.class);
+
+        verify(cardRepository, times(1)).lockAllById(anyCollection());
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("Should reject transfer flagged by velocity check before moving money")
+    void createTransaction_WhenVelocityExceeded_ShouldThrowNotAllowedException() {
+        when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
+        when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection())).thenReturn(List.of(fromCard, toCard));
+        doThrow(new NotAllowedException("Transfer velocity limit exceeded for card"))
+                .when(fraudDetectionService).inspect(fromCard.getId(), request.getAmount());
+
+        assertThatThrownBy(() -> transactionsService.createTransaction(request, userId))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessageContaining("velocity limit exceeded");
+
+        assertThat(fromCard.getBalance()).isEqualByComparingTo("1000.00");
+        verify(transferRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should reject transfer over limit before moving money")
+    void createTransaction_WhenLimitExceeded_ShouldThrowNotAllowedException() {
+        when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
+        when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection())).thenReturn(List.of(fromCard, toCard));
+        doThrow(new NotAllowedException("Daily transfer limit exceeded for card"))
+                .when(transferLimitService).reserve(fromCard.getId(), userId, request.getAmount());
+
+        assertThatThrownBy(() -> transactionsService.createTransaction(request, userId))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessageContaining("Daily transfer limit exceeded");
+
+        assertThat(fromCard.getBalance()).isEqualByComparingTo("1000.00");
+        verify(transferRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Batch should reject only items over the limit")
+    void createBatch_WhenLimitExceededForItem_ShouldRejectIt() {
+        when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
+        when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection())).thenReturn(List.of(fromCard, toCard));
+        doNothing()
+                .doThrow(new NotAllowedException("Daily transfer limit exceeded for card"))
+                .when(transferLimitService).reserve(eq(fromCard.getId()), eq(userId), any());
+        stubJournalSaveAll();
+
+        BatchTransferResponse response = transactionsService.createBatch(batch(
+                item(fromCardNumber, toCardNumber, "10.00"),
+                item(fromCardNumber, toCardNumber, "10.00")
+        ), userId);
+
+        assertThat(response.getCompleted()).isEqualTo(1);
+        assertThat(response.getResults().get(1).getError()).isEqualTo("Daily transfer limit exceeded for card");
+        assertThat(fromCard.getBalance()).isEqualByComparingTo("990.00");
+    }
+
+    @Test
+    @DisplayName("Batch item rejected by fraud check should not consume the limit")
+    void createBatch_WhenFraudRejectsItem_ShouldKeepLimitAvailable() {
+        when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
+        when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection())).thenReturn(List.of(fromCard, toCard));
+        doThrow(new NotAllowedException("Transfer amount is unusual for this card"))
+                .doNothing()
+                .when(fraudDetectionService).inspect(eq(fromCard.getId()), any());
+        AtomicReference<BigDecimal> remainingLimit = new AtomicReference<>(new BigDecimal("100.00"));
+        doAnswer(invocation -> {
+            BigDecimal left = remainingLimit.get().subtract(invocation.getArgument(2));
+            if (left.signum() < 0) {
+                throw new NotAllowedException("Daily transfer limit exceeded for card");
+            }
+            remainingLimit.set(left);
+            return null;
+        }).when(transferLimitService).reserve(eq(fromCard.getId()), eq(userId), any());
+        stubJournalSaveAll();
+
+        BatchTransferResponse response = transactionsService.createBatch(batch(
+                item(fromCardNumber, toCardNumber, "100.00"),
+                item(fromCardNumber, toCardNumber, "100.00")
+        ), userId);
+
+        assertThat(response.getResults()).extracting(BatchTransferItemResult::getStatus).containsExactly(
+                BatchTransferItemResult.Status.REJECTED,
+                BatchTransferItemResult.Status.COMPLETED);
+        assertThat(response.getResults().get(0).getError()).isEqualTo("Transfer amount is unusual for this card");
+        assertThat(remainingLimit.get()).isEqualByComparingTo("0.00");
+        verify(transferLimitService, times(1)).reserve(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Batch should lock all cards once and apply transfers in order")
+    void createBatch_WhenValidItems_ShouldLockOnceAndApplyInOrder() {
+        when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
+        when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(fromCard, toCard));
+        stubJournalSaveAll();
+
+        BatchTransferResponse response = transactionsService.createBatch(batch(
+                item(fromCardNumber, toCardNumber, "600.00"),
+                item(fromCardNumber, toCardNumber, "600.00"),
+                item(toCardNumber, fromCardNumber, "1100.00")
+        ), userId);
+
+        assertThat(response.getCompleted()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(BatchTransferItemResult::getStatus).containsExactly(
+                BatchTransferItemResult.Status.COMPLETED,
+                BatchTransferItemResult.Status.REJECTED,
+                BatchTransferItemResult.Status.COMPLETED);
+        assertThat(response.getResults().get(1).getError()).contains("Insufficient balance on source card");
+        assertThat(response.getResults().get(0).getTransferId()).isNotNull();
+        assertThat(fromCard.getBalance()).isEqualByComparingTo("1500.00");
+        assertThat(toCard.getBalance()).isEqualByComparingTo("0.00");
+
+        verify(cardRepository, times(1)).lockAllByCardNumberEncrypted(anyCollection());
+        verify(cardEncryption, times(1)).encryptCardNumber(fromCardNumber);
+        verify(transferRepository, times(1)).saveAll(argThat(journal -> ((List<?>) journal).size() == 2));
+        verify(transferRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Batch should reject invalid items without aborting the rest")
+    void createBatch_WhenSomeItemsInvalid_ShouldRejectOnlyThem() {
+        when(cardEncryption.encryptCardNumber(anyString())).thenAnswer(invocation -> {
+            String number = invocation.getArgument(0);
+            return number.equals(fromCardNumber) ? encryptedFromCardNumber
+                    : number.equals(toCardNumber) ? encryptedToCardNumber : "encrypted-unknown";
+        });
+        when(cardRepository.lockAllByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(fromCard, toCard));
+        stubJournalSaveAll();
+
+        BatchTransferResponse response = transactionsService.createBatch(batch(
+                item("4000000000000000", toCardNumber, "10.00"),
+                item(fromCardNumber, toCardNumber, "0.00"),
+                item(fromCardNumber, null, "10.00"),
+                item(fromCardNumber, toCardNumber, "10.00")
+        ), userId);
+
+        assertThat(response.getResults()).extracting(BatchTransferItemResult::getError).containsExactly(
+                "Card number not found", "Amount must be positive", "Card numbers are required", null);
+        assertThat(response.getResults()).extracting(BatchTransferItemResult::getIndex).containsExactly(0, 1, 2, 3);
+        assertThat(response.getCompleted()).isEqualTo(1);
+        assertThat(fromCard.getBalance()).isEqualByComparingTo("990.00");
+    }
+
+    @Test
+    @DisplayName("Batch should fail fast when it exceeds configured size")
+    void createBatch_WhenTooLarge_ShouldThrowIllegalArgumentException() {
+        transferProperties.setBatchMaxSize(1);
+
+        assertThatThrownBy(() -> transactionsService.createBatch(batch(
+                item(fromCardNumber, toCardNumber, "1.00"),
+                item(fromCardNumber, toCardNumber, "1.00")
+        ), userId))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Batch size exceeds limit of 1");
+
+        verifyNoInteractions(cardRepository, transferRepository);
+    }
+
+    @Test
+    @DisplayName("Batch should fail fast when it is empty")
+    void createBatch_WhenEmpty_ShouldThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> transactionsService.createBatch(batch(), userId))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("at least one transfer");
+    }
+
+    @Test
+    @DisplayName("Batch in ledger mode should lock sources once and post every completed transfer")
+    void createBatch_WhenLedgerEnabled_ShouldDeriveBalanceOncePerSource() {
+        transferProperties.getLedger().setEnabled(true);
+
+        when(cardEncryption.encryptCardNumber(fromCardNumber)).thenReturn(encryptedFromCardNumber);
+        when(cardEncryption.encryptCardNumber(toCardNumber)).thenReturn(encryptedToCardNumber);
+        when(cardRepository.findOwnerViewsByCardNumberEncrypted(anyCollection()))
+                .thenReturn(List.of(ownerView(fromCard), ownerView(toCard)));
+        when(ledgerService.getBalance(fromCard.getId())).thenReturn(new BigDecimal("150.00"));
+        stubJournalSaveAll();
+
+        BatchTransferResponse response = transactionsService.createBatch(batch(
+                item(fromCardNumber, toCardNumber, "100.00"),
+                item(fromCardNumber, toCardNumber, "100.00")
+        ), userId);
+
+        assertThat(response.getCompleted()).isEqualTo(1);
+        verify(ledgerService).lockForPosting(eq(List.of(fromCard.getId())), anyCollection());
+        verify(ledgerService, times(1)).getBalance(fromCard.getId());
+        verify(ledgerService, times(1)).postTransfer(
+                response.getResults().get(0).getTransferId(), fromCard.getId(), toCard.getId(), new BigDecimal("100.00"));
+        verify(cardRepository, never()).saveAll(any());
+        verify(eventPublisher, never()).publishEvent(any(CardChangeEvent.class));
+    }
+
+    private CreateTransferByIdRequest byId(CardEntity from, CardEntity to) {
+        CreateTransferByIdRequest byId = new CreateTransferByIdRequest();
+        byId.setFromCardId(from.getId());
+        byId.setToCardId(to.getId());
+        byId.setAmount(request.getAmount());
+        return byId;
+    }
+
+    private void stubJournalSaveAll() {
+        when(transferRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.<List<TransferEntity>>getArgument(0)
+                .stream()
+                .map(transfer -> TransferEntity.builder()
+                        .id(UUID.randomUUID())
+                        .userId(transfer.getUserId())
+                        .fromCardId(transfer.getFromCardId())
+                        .toCardId(transfer.getToCardId())
+                        .amount(transfer.getAmount())
+                        .build())
+                .toList());
+    }
+
+    private static BatchTransferRequest batch(CreateTransferRequest... items) {
+        BatchTransferRequest batch = new BatchTransferRequest();
+        batch.setTransfers(List.of(items));
+        return batch;
+    }
+
+    private static CreateTransferRequest item(String from, String to, String amount) {
+        CreateTransferRequest item = new CreateTransferRequest();
+        item.setFromCardNumber(from);
+        item.setToCardNumber(to);
+        item.setAmount(new BigDecimal(amount));
+        return item;
+    }
+
+    private TransferEntity historyRow(LocalDateTime createdAt) {
+        return TransferEntity.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .fromCardId(fromCard.getId())
+                .toCardId(toCard.getId())
+                .amount(new BigDecimal("10.00"))
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private CardOwnerView ownerView(CardEntity card) {
+        return new CardOwnerView(
+                card.getId(), card.getCardNumberEncrypted(), card.getUser().getId(),
+                card.getStatus(), card.getBalance());
+    }
 }
@@ -0,0 +1,224 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.dto.transfer.HourlyAmount;
+import com.example.bankcards.exception.NotAllowedException;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.impl.TransferLimitServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransferLimitService Unit Tests")
+class TransferLimitServiceImplTest {
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Spy
+    private TransferProperties transferProperties = new TransferProperties();
+
+    @InjectMocks
+    private TransferLimitServiceImpl transferLimitService;
+
+    private UUID cardId;
+    private UUID userId;
+    private long currentHour;
+
+    @BeforeEach
+    void setUp() {
+        cardId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+        currentHour = TimeUnit.MILLISECONDS.toHours(System.currentTimeMillis());
+
+        TransferProperties.Limits limits = transferProperties.getLimits();
+        limits.setEnabled(true);
+        limits.setCardDaily(new BigDecimal("1000.00"));
+        limits.setCardMonthly(new BigDecimal("5000.00"));
+        transferLimitService.init();
+
+        lenient().when(transferRepository.sumCardDebitsByHour(any(), anyInt())).thenReturn(List.of());
+        lenient().when(transferRepository.sumUserDebitsByHour(any(), anyInt())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip everything when limits are disabled")
+    void reserve_WhenDisabled_ShouldNotTouchJournal() {
+        transferProperties.getLimits().setEnabled(false);
+
+        transferLimitService.reserve(cardId, userId, new BigDecimal("1000000.00"));
+
+        verifyNoInteractions(transferRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject transfer that would exceed the daily card limit")
+    void reserve_WhenDailyLimitExceeded_ShouldThrowNotAllowedException() {
+        transferLimitService.reserve(cardId, userId, new BigDecimal("600.00"));
+
+        assertThatThrownBy(() -> transferLimitService.reserve(cardId, userId, new BigDecimal("400.01")))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Daily transfer limit exceeded for card");
+
+        assertThatCode(() -> transferLimitService.reserve(cardId, userId, new BigDecimal("400.00")))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should warm counters from the journal once per resync interval")
+    void reserve_WhenColdCounter_ShouldLoadJournalOnce() {
+        when(transferRepository.sumCardDebitsByHour(cardId, 30))
+                .thenReturn(List.of(hourly(currentHour - 2, "900.00")));
+
+        assertThatThrownBy(() -> transferLimitService.reserve(cardId, userId, new BigDecimal("200.00")))
+                .isInstanceOf(NotAllowedException.class);
+        transferLimitService.reserve(cardId, userId, new BigDecimal("100.00"));
+
+        verify(transferRepository, times(1)).sumCardDebitsByHour(cardId, 30);
+    }
+
+    @Test
+    @DisplayName("Should count older days only towards the monthly limit")
+    void reserve_WhenOlderDebits_ShouldApplyMonthlyLimit() {
+        when(transferRepository.sumCardDebitsByHour(cardId, 30)).thenReturn(List.of(
+                hourly(currentHour - 25, "900.00"),
+                hourly(currentHour - 24 * 10, "4000.00"),
+                hourly(currentHour - 24 * 31, "4000.00")
+        ));
+
+        transferLimitService.reserve(cardId, userId, new BigDecimal("100.00"));
+
+        assertThatThrownBy(() -> transferLimitService.reserve(cardId, userId, new BigDecimal("0.01")))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Monthly transfer limit exceeded for card");
+    }
+
+    @Test
+    @DisplayName("Should enforce user limit across all user's cards")
+    void reserve_WhenUserLimitExceeded_ShouldThrowNotAllowedException() {
+        transferProperties.getLimits().setUserDaily(new BigDecimal("1500.00"));
+
+        transferLimitService.reserve(cardId, userId, new BigDecimal("1000.00"));
+
+        assertThatThrownBy(() -> transferLimitService.reserve(UUID.randomUUID(), userId, new BigDecimal("600.00")))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Daily transfer limit exceeded for user");
+    }
+
+    @Test
+    @DisplayName("Should release reservation when the transfer rolls back")
+    void reserve_WhenTransactionRolledBack_ShouldReleaseAmount() {
+        TransactionSynchronizationManager.initSynchronization();
+        transferLimitService.reserve(cardId, userId, new BigDecimal("1000.00"));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThatCode(() -> transferLimitService.reserve(cardId, userId, new BigDecimal("1000.00")))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should keep committed reservation in the counter")
+    void reserve_WhenTransactionCommitted_ShouldKeepAmount() {
+        TransactionSynchronizationManager.initSynchronization();
+        transferLimitService.reserve(cardId, userId, new BigDecimal("1000.00"));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertThatThrownBy(() -> transferLimitService.reserve(cardId, userId, new BigDecimal("0.01")))
+                .isInstanceOf(NotAllowedException.class);
+    }
+
+    @Test
+    @DisplayName("Should keep a reservation committed between journal load and reload")
+    void reserve_WhenCommitLandsBetweenLoadAndReload_ShouldKeepAmount() {
+        transferProperties.getLimits().setResyncIntervalMs(0);
+        TransactionSynchronizationManager.initSynchronization();
+        transferLimitService.reserve(cardId, userId, new BigDecimal("600.00"));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        when(transferRepository.sumCardDebitsByHour(cardId, 30))
+                .thenAnswer(invocation -> {
+                    synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+                    return List.of();
+                });
+
+        assertThatThrownBy(() -> transferLimitService.reserve(cardId, userId, new BigDecimal("400.01")))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Daily transfer limit exceeded for card");
+    }
+
+    @Test
+    @DisplayName("Should not reserve on a counter evicted before the stripe was taken")
+    void reserve_WhenCounterEvictedConcurrently_ShouldReserveOnLiveCounter() {
+        transferProperties.getLimits().setIdleTtlMs(-1);
+        when(transferRepository.sumUserDebitsByHour(userId, 30))
+                .thenAnswer(invocation -> {
+                    transferLimitService.evictIdle();
+                    return List.of();
+                })
+                .thenReturn(List.of());
+
+        transferLimitService.reserve(cardId, userId, new BigDecimal("600.00"));
+
+        assertThatThrownBy(() -> transferLimitService.reserve(cardId, userId, new BigDecimal("400.01")))
+                .isInstanceOf(NotAllowedException.class)
+                .hasMessage("Daily transfer limit exceeded for card");
+    }
+
+    @Test
+    @DisplayName("Should evict idle counters and reload them from the journal")
+    void evictIdle_WhenCountersIdle_ShouldDropAndReload() {
+        transferLimitService.reserve(cardId, userId, new BigDecimal("10.00"));
+        transferProperties.getLimits().setIdleTtlMs(-1);
+
+        assertThat(transferLimitService.evictIdle()).isEqualTo(2);
+
+        transferLimitService.reserve(cardId, userId, new BigDecimal("10.00"));
+        verify(transferRepository, times(2)).sumCardDebitsByHour(cardId, 30);
+    }
+
+    private static HourlyAmount hourly(long hour, String amount) {
+        return new HourlyAmount() {
+            @Override
+            public long getHour() {
+                return hour;
+            }
+
+            @Override
+            public BigDecimal getAmount() {
+                return new BigDecimal(amount);
+            }
+        };
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.UserOverviewProperties;
+import com.example.bankcards.dto.user.UserOverviewResponse;
+import com.example.bankcards.dto.user.UserResponse;
+import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.RequestEntity;
+import com.example.bankcards.entity.RequestStatus;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.exception.ServiceUnavailableException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.RequestRepository;
+import com.example.bankcards.service.impl.UserOverviewServiceImpl;
+import com.example.bankcards.service.interfaces.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserOverviewService Unit Tests")
+class UserOverviewServiceImplTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private UserOverviewProperties properties = new UserOverviewProperties();
+
+    @InjectMocks
+    private UserOverviewServiceImpl userOverviewService;
+
+    private UUID userId;
+    private CardEntity card;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        properties.setTimeoutMs(500);
+        userOverviewService.init();
+
+        card = CardEntity.builder()
+                .id(UUID.randomUUID())
+                .cardNumberMask("**** **** **** 1234")
+                .status(CardStatus.ACTIVE)
+                .balance(new BigDecimal("100.00"))
+                .heldAmount(BigDecimal.ZERO)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should merge profile, cards and requests")
+    void getOverview_ShouldMergeAllParts() {
+        RequestEntity request = RequestEntity.builder()
+                .id(UUID.randomUUID())
+                .card(card)
+                .status(RequestStatus.NEW)
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(userService.getUserById(userId)).thenReturn(UserResponse.builder().id(userId).build());
+        when(cardRepository.findRecentByUserId(userId, Limit.of(50))).thenReturn(List.of(card));
+        when(requestRepository.findRecentByUserId(userId, Limit.of(20))).thenReturn(List.of(request));
+
+        UserOverviewResponse result = userOverviewService.getOverview(userId);
+
+        assertThat(result.getUser().getId()).isEqualTo(userId);
+        assertThat(result.getCards()).singleElement()
+                .satisfies(c -> assertThat(c.getAvailableBalance()).isEqualByComparingTo("100.00"));
+        assertThat(result.getRequests()).singleElement()
+                .satisfies(r -> assertThat(r.getCardId()).isEqualTo(card.getId()));
+        assertThat(result.getUnavailable()).isEmpty();
+        verify(transactionManager, times(3)).getTransaction(argThat(def -> def.isReadOnly()));
+    }
+
+    @Test
+    @DisplayName("Should run parts concurrently")
+    void getOverview_ShouldRunPartsInParallel() {
+        CountDownLatch started = new CountDownLatch(3);
+        when(userService.getUserById(userId)).thenAnswer(inv -> awaitAll(started, UserResponse.builder().id(userId).build()));
+        when(cardRepository.findRecentByUserId(eq(userId), any())).thenAnswer(inv -> awaitAll(started, List.of()));
+        when(requestRepository.findRecentByUserId(eq(userId), any())).thenAnswer(inv -> awaitAll(started, List.of()));
+
+        UserOverviewResponse result = userOverviewService.getOverview(userId);
+
+        assertThat(result.getUnavailable()).isEmpty();
+        assertThat(result.getCards()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return remaining parts when one part times out")
+    void getOverview_WhenPartTimesOut_ShouldMarkItUnavailable() {
+        properties.setTimeoutMs(100);
+        when(userService.getUserById(userId)).thenReturn(UserResponse.builder().id(userId).build());
+        when(cardRepository.findRecentByUserId(eq(userId), any())).thenAnswer(inv -> {
+            Thread.sleep(5_000);
+            return List.of();
+        });
+        when(requestRepository.findRecentByUserId(eq(userId), any())).thenReturn(List.of());
+
+        long started = System.nanoTime();
+        UserOverviewResponse result = userOverviewService.getOverview(userId);
+
+        assertThat(System.nanoTime() - started).isLessThan(2_000_000_000L);
+        assertThat(result.getCards()).isNull();
+        assertThat(result.getRequests()).isEmpty();
+        assertThat(result.getUnavailable()).containsExactly("cards");
+    }
+
+    @Test
+    @DisplayName("Should return remaining parts when one part fails")
+    void getOverview_WhenPartFails_ShouldMarkItUnavailable() {
+        when(userService.getUserById(userId)).thenReturn(UserResponse.builder().id(userId).build());
+        when(cardRepository.findRecentByUserId(eq(userId), any())).thenReturn(List.of());
+        when(requestRepository.findRecentByUserId(eq(userId), any())).thenThrow(new IllegalStateException("boom"));
+
+        UserOverviewResponse result = userOverviewService.getOverview(userId);
+
+        assertThat(result.getRequests()).isNull();
+        assertThat(result.getUnavailable()).containsExactly("requests");
+    }
+
+    @Test
+    @DisplayName("Should propagate not found from profile")
+    void getOverview_WhenUserNotFound_ShouldThrow() {
+        when(userService.getUserById(userId)).thenThrow(new NotFoundException("User not found ID: " + userId));
+        lenient().when(cardRepository.findRecentByUserId(eq(userId), any())).thenReturn(List.of());
+        lenient().when(requestRepository.findRecentByUserId(eq(userId), any())).thenReturn(List.of());
+
+        assertThatThrownBy(() -> userOverviewService.getOverview(userId))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("User not found ID: " + userId);
+    }
+
+    @Test
+    @DisplayName("Should fail with 503 when profile times out")
+    void getOverview_WhenProfileTimesOut_ShouldThrow() {
+        properties.setTimeoutMs(100);
+        when(userService.getUserById(userId)).thenAnswer(inv -> {
+            Thread.sleep(5_000);
+            return null;
+        });
+        lenient().when(cardRepository.findRecentByUserId(eq(userId), any())).thenReturn(List.of());
+        lenient().when(requestRepository.findRecentByUserId(eq(userId), any())).thenReturn(List.of());
+
+        assertThatThrownBy(() -> userOverviewService.getOverview(userId))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessage("User overview timed out");
+    }
+
+    private static <T> T awaitAll(CountDownLatch started, T result) throws InterruptedException {
+        started.countDown();
+        if (!started.await(400, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("Parts did not run concurrently");
+        }
+        return result;
+    }
+}
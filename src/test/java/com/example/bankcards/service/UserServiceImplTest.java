@@ -1,10 +1,15 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.config.BatchGetProperties;
+import com.example.bankcards.dto.core.BatchGetResponse;
 import com.example.bankcards.dto.core.PagedResponse;
+import com.example.bankcards.dto.core.ResourceVersion;
 import com.example.bankcards.dto.user.CreateUserRequest;
 import com.example.bankcards.dto.user.UpdateUserRequest;
+import com.example.bankcards.dto.user.UserCardsSummary;
+import com.example.bankcards.dto.user.UserField;
 import com.example.bankcards.dto.user.UserResponse;
-import com.example.bankcards.entity.CardEntity;
+import com.example.bankcards.dto.user.UserVersion;
 import com.example.bankcards.entity.UserEntity;
 import com.example.bankcards.entity.UserRole;
 import com.example.bankcards.exception.AlreadyTakenException;
@@ -17,15 +22,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
@@ -42,6 +51,9 @@ class UserServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Spy
+    private BatchGetProperties batchGetProperties = new BatchGetProperties();
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -296,14 +308,14 @@ class UserServiceImplTest {
     @Test
     @DisplayName("Should get all users with pagination")
     void getAllUsers_WhenCalled_ShouldReturnPagedResponse() {
-        List<UserEntity> users = List.of(userEntity);
         Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<UserEntity> page = new PageImpl<>(users, pageable, 1);
+        UserResponse user = UserResponse.builder().id(userId).cardsCount(2).totalBalance(new BigDecimal("150.00")).build();
+        Page<UserResponse> page = new PageImpl<>(List.of(user), pageable, 1);
 
-        when(userRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(page);
+        when(userRepository.findAllFields(any(), eq(EnumSet.allOf(UserField.class)), eq(pageable))).thenReturn(page);
 
         PagedResponse<UserResponse> result = userService.getAllUsers(
-                0, 10, null, null, null, null, null
+                0, 10, null, null, null, null, null, null
         );
 
         assertThat(result).isNotNull();
@@ -314,36 +326,52 @@ class UserServiceImplTest {
         assertThat(result.getSize()).isEqualTo(10);
         assertThat(result.isFirst()).isTrue();
         assertThat(result.isLast()).isTrue();
+        assertThat(result.getContent().get(0).getTotalBalance()).isEqualByComparingTo("150.00");
+        verify(userRepository, never()).summarizeCardsByUserIds(any());
     }
 
     @Test
     @DisplayName("Should get all users with search filter")
     void getAllUsers_WhenSearchProvided_ShouldFilterUsers() {
-        List<UserEntity> users = List.of(userEntity);
         Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<UserEntity> page = new PageImpl<>(users, pageable, 1);
+        Page<UserResponse> page = new PageImpl<>(List.of(UserResponse.builder().id(userId).build()), pageable, 1);
 
-        when(userRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(page);
+        when(userRepository.findAllFields(any(), any(), eq(pageable))).thenReturn(page);
 
         PagedResponse<UserResponse> result = userService.getAllUsers(
-                0, 10, "test", UserRole.USER, true, null, null
+                0, 10, "test", UserRole.USER, true, null, null, null
         );
 
         assertThat(result.getContent()).hasSize(1);
-        verify(userRepository).findAll(any(Specification.class), eq(pageable));
+        verify(userRepository).findAllFields(any(Specification.class), any(), eq(pageable));
+    }
+
+    @Test
+    @DisplayName("Should select only requested user columns")
+    void getAllUsers_WithFields_ShouldUseFieldsetQuery() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
+        UserResponse sparse = UserResponse.builder().id(userId).username("testuser").cardsCount(2).build();
+        when(userRepository.findAllFields(any(), eq(Set.of(UserField.ID, UserField.USERNAME, UserField.CARDS_COUNT)),
+                eq(pageable))).thenReturn(new PageImpl<>(List.of(sparse), pageable, 1));
+
+        PagedResponse<UserResponse> result = userService.getAllUsers(
+                0, 10, null, null, null, null, null, List.of("username", "cardsCount")
+        );
+
+        assertThat(result.getContent()).containsExactly(sparse);
+        verify(userRepository, never()).findAll(any(Specification.class), any(Pageable.class));
     }
 
     @Test
     @DisplayName("Should handle empty user list")
     void getAllUsers_WhenNoUsers_ShouldReturnEmptyPage() {
-        List<UserEntity> users = List.of();
         Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<UserEntity> page = new PageImpl<>(users, pageable, 0);
+        Page<UserResponse> page = new PageImpl<>(List.of(), pageable, 0);
 
-        when(userRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(page);
+        when(userRepository.findAllFields(any(), any(), eq(pageable))).thenReturn(page);
 
         PagedResponse<UserResponse> result = userService.getAllUsers(
-                0, 10, null, null, null, null, null
+                0, 10, null, null, null, null, null, null
         );
 
         assertThat(result.getContent()).isEmpty();
@@ -368,14 +396,64 @@ class UserServiceImplTest {
     @Test
     @DisplayName("Should handle cards count correctly")
     void getUserById_WhenUserHasCards_ShouldReturnCorrectCardsCount() {
-        userEntity.setCards(List.of(
-                new CardEntity(), new CardEntity(), new CardEntity()
-        ));
+        UserCardsSummary summary = summary(userId, 3, "250.00");
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(userEntity));
+        when(userRepository.summarizeCardsByUserIds(List.of(userId))).thenReturn(List.of(summary));
 
         UserResponse result = userService.getUserById(userId);
 
         assertThat(result.getCardsCount()).isEqualTo(3);
+        assertThat(result.getTotalBalance()).isEqualByComparingTo("250.00");
+    }
+
+    @Test
+    @DisplayName("Should build user ETag from user and card versions")
+    void getUserVersion_ShouldIncludeCardChanges() {
+        UserVersion version = mock(UserVersion.class);
+        when(version.getUpdatedAtMicros()).thenReturn(1_700_000_000_000_000L);
+        when(version.getCardsCount()).thenReturn(2L);
+        when(version.getMaxCardChangeXid()).thenReturn(42L);
+        when(userRepository.findVersionById(userId)).thenReturn(Optional.of(version));
+
+        ResourceVersion result = userService.getUserVersion(userId);
+
+        assertThat(result.eTag()).isEqualTo("1700000000000000.2.42");
+        assertThat(result.lastModified()).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should batch users with card counts from one grouped query")
+    void getUsersByIds_ShouldKeepOrderAndCountCards() {
+        UUID missingId = UUID.randomUUID();
+        UserCardsSummary summary = summary(userId, 2, "10.00");
+        when(userRepository.findAllById(Set.of(missingId, userId))).thenReturn(List.of(userEntity));
+        when(userRepository.summarizeCardsByUserIds(Set.of(missingId, userId))).thenReturn(List.of(summary));
+
+        BatchGetResponse<UserResponse> result = userService.getUsersByIds(List.of(missingId, userId));
+
+        assertThat(result.getItems()).singleElement()
+                .satisfies(user -> assertThat(user.getCardsCount()).isEqualTo(2));
+        assertThat(result.getMissing()).containsExactly(missingId);
+    }
+
+    @Test
+    @DisplayName("Should skip card counts when no users found")
+    void getUsersByIds_WhenNoneFound_ShouldNotCountCards() {
+        when(userRepository.findAllById(Set.of(userId))).thenReturn(List.of());
+
+        BatchGetResponse<UserResponse> result = userService.getUsersByIds(List.of(userId));
+
+        assertThat(result.getItems()).isEmpty();
+        assertThat(result.getMissing()).containsExactly(userId);
+        verify(userRepository, never()).summarizeCardsByUserIds(any());
+    }
+
+    private static UserCardsSummary summary(UUID userId, long cardsCount, String totalBalance) {
+        UserCardsSummary summary = mock(UserCardsSummary.class);
+        lenient().when(summary.getUserId()).thenReturn(userId);
+        when(summary.getCardsCount()).thenReturn(cardsCount);
+        when(summary.getTotalBalance()).thenReturn(new BigDecimal(totalBalance));
+        return summary;
     }
 }
@@ -0,0 +1,71 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("HierarchicalTimerWheel Unit Tests")
+class HierarchicalTimerWheelTest {
+
+    private static final long START = 1_000_000;
+
+    @Test
+    @DisplayName("Should fire timer on its tick and not earlier")
+    void advance_ShouldFireOnDeadline() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(10, 8, 3, START);
+        wheel.schedule(START + 50, "a");
+
+        assertThat(wheel.advance(START + 49)).isEmpty();
+        assertThat(wheel.advance(START + 50)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fire overdue timer on the next tick")
+    void schedule_WhenOverdue_ShouldFireOnNextTick() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(10, 8, 3, START);
+        wheel.schedule(START - 5_000, "late");
+
+        assertThat(wheel.advance(START + 10)).containsExactly("late");
+    }
+
+    @Test
+    @DisplayName("Should cascade far timers down and fire them in deadline order")
+    void advance_WhenTimersOnUpperLevels_ShouldFireInOrder() {
+        HierarchicalTimerWheel<Long> wheel = new HierarchicalTimerWheel<>(1, 8, 3, START);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long deadline = START + 1 + random.nextInt((int) wheel.horizonMillis());
+            deadlines.add(deadline);
+            assertThat(wheel.schedule(deadline, deadline)).isTrue();
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = START; now <= START + wheel.horizonMillis(); now += 7) {
+            for (Long deadline : wheel.advance(now)) {
+                assertThat(deadline).isLessThanOrEqualTo(now).isGreaterThan(now - 7);
+                fired.add(deadline);
+            }
+        }
+        fired.addAll(wheel.advance(START + wheel.horizonMillis() + 1));
+
+        assertThat(fired).containsExactlyInAnyOrderElementsOf(deadlines);
+        assertThat(fired).isSorted();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should refuse timer beyond the wheel range")
+    void schedule_WhenBeyondHorizon_ShouldRefuse() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(10, 8, 2, START);
+
+        assertThat(wheel.schedule(START + wheel.horizonMillis() + 10, "far")).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+}
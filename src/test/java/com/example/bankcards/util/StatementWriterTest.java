@@ -0,0 +1,78 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.entity.StatementFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("StatementWriter Unit Tests")
+class StatementWriterTest {
+
+    private final UUID cardId = UUID.randomUUID();
+    private final UUID otherCardId = UUID.randomUUID();
+    private final UUID debitId = UUID.randomUUID();
+    private final UUID creditId = UUID.randomUUID();
+    private final OffsetDateTime createdAt = OffsetDateTime.of(2026, 9, 15, 12, 30, 0, 0, ZoneOffset.ofHours(3));
+
+    @Test
+    @DisplayName("Should write CSV rows in UTC and count totals")
+    void csv_ShouldWriteRowsAndTotals() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StatementWriter writer = StatementWriter.open(StatementFormat.CSV, out, cardId, YearMonth.of(2026, 9));
+
+        writer.write(debitId, createdAt, true, otherCardId, new BigDecimal("10.50"));
+        writer.write(creditId, createdAt, false, otherCardId, new BigDecimal("3.00"));
+        writer.finish();
+
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                "transfer_id,created_at,direction,counterparty_card_id,amount",
+                debitId + ",2026-09-15T09:30Z,DEBIT," + otherCardId + ",10.50",
+                creditId + ",2026-09-15T09:30Z,CREDIT," + otherCardId + ",3.00");
+        assertThat(writer.getTransfersCount()).isEqualTo(2);
+        assertThat(writer.getTotalDebit()).isEqualByComparingTo("10.50");
+        assertThat(writer.getTotalCredit()).isEqualByComparingTo("3.00");
+    }
+
+    @Test
+    @DisplayName("Should write JSON document with transfers and totals")
+    void json_ShouldWriteDocument() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StatementWriter writer = StatementWriter.open(StatementFormat.JSON, out, cardId, YearMonth.of(2026, 9));
+
+        writer.write(debitId, createdAt, true, otherCardId, new BigDecimal("10.50"));
+        writer.finish();
+
+        JsonNode document = new ObjectMapper().readTree(out.toByteArray());
+        assertThat(document.get("cardId").asText()).isEqualTo(cardId.toString());
+        assertThat(document.get("period").asText()).isEqualTo("2026-09");
+        assertThat(document.get("transfers")).hasSize(1);
+        assertThat(document.get("transfers").get(0).get("direction").asText()).isEqualTo("DEBIT");
+        assertThat(document.get("transfers").get(0).get("amount").decimalValue()).isEqualByComparingTo("10.50");
+        assertThat(document.get("transfersCount").asInt()).isEqualTo(1);
+        assertThat(document.get("totalCredit").decimalValue()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should write empty statement")
+    void json_WhenNoTransfers_ShouldWriteEmptyArray() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StatementWriter writer = StatementWriter.open(StatementFormat.JSON, out, cardId, YearMonth.of(2026, 9));
+
+        writer.finish();
+
+        JsonNode document = new ObjectMapper().readTree(out.toByteArray());
+        assertThat(document.get("transfers")).isEmpty();
+        assertThat(document.get("transfersCount").asInt()).isZero();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("VelocityTable Unit Tests")
+class VelocityTableTest {
+
+    private static final long WINDOW = 60_000;
+
+    @Test
+    @DisplayName("Should weight previous window by its remaining share")
+    void windowCount_ShouldSlideAcrossWindows() {
+        VelocityTable table = new VelocityTable(16, WINDOW);
+        UUID id = UUID.randomUUID();
+        long start = 10 * WINDOW;
+
+        int slot = table.slot(id, start, true);
+        for (int i = 0; i < 4; i++) {
+            table.add(slot, start, 100);
+        }
+
+        long quarterIntoNext = start + WINDOW + WINDOW / 4;
+        slot = table.slot(id, quarterIntoNext, false);
+        assertThat(table.windowCount(slot, quarterIntoNext)).isEqualTo(3.0);
+        assertThat(table.windowCents(slot, quarterIntoNext)).isEqualTo(300.0);
+
+        long twoWindowsLater = start + 3 * WINDOW;
+        slot = table.slot(id, twoWindowsLater, false);
+        assertThat(table.windowCount(slot, twoWindowsLater)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should undo a transfer in the window it was added to")
+    void subtract_ShouldUndoAdd() {
+        VelocityTable table = new VelocityTable(16, WINDOW);
+        UUID id = UUID.randomUUID();
+        int slot = table.slot(id, 0, true);
+        long window = table.add(slot, 0, 500);
+
+        table.subtract(slot, window, 500);
+
+        assertThat(table.windowCount(slot, 0)).isZero();
+        assertThat(table.windowCents(slot, 0)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should refuse new cards when full")
+    void slot_WhenFull_ShouldReturnMinusOne() {
+        VelocityTable table = new VelocityTable(4, WINDOW);
+        for (int i = 0; i < 4; i++) {
+            assertThat(table.slot(UUID.randomUUID(), 0, true)).isNotNegative();
+        }
+
+        assertThat(table.slot(UUID.randomUUID(), 0, true)).isEqualTo(-1);
+        assertThat(table.size()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should keep remaining cards reachable after evicting idle ones")
+    void evictIdle_ShouldPreserveProbeChains() {
+        VelocityTable table = new VelocityTable(1000, WINDOW);
+        List<UUID> idle = new ArrayList<>();
+        List<UUID> active = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            UUID id = UUID.randomUUID();
+            boolean isIdle = i % 3 == 0;
+            int slot = table.slot(id, isIdle ? 0 : 1000, true);
+            table.observe(slot, i, 0.5);
+            (isIdle ? idle : active).add(id);
+        }
+
+        assertThat(table.evictIdle(500)).isEqualTo(idle.size());
+        assertThat(table.size()).isEqualTo(active.size());
+        for (UUID id : active) {
+            assertThat(table.slot(id, 1000, false)).isNotNegative();
+        }
+        for (UUID id : idle) {
+            assertThat(table.slot(id, 1000, false)).isEqualTo(-1);
+        }
+    }
+}